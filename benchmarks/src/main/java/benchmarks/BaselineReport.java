@@ -0,0 +1,165 @@
+package benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file (run with {@code -rf json -rff results.json}) against the
+ * stored baselines and prints one line per benchmark. Exits with status 1 if any benchmark is
+ * slower than its baseline by more than the tolerance.
+ * <p>
+ * Usage: BaselineReport results.json [--baselines baselines.json] [--tolerance 0.25] [--update]
+ * <br>
+ * {@code --update} rewrites the baselines from the results instead of checking them.
+ */
+public final class BaselineReport {
+
+    static final double DEFAULT_TOLERANCE = 0.25;
+
+    private BaselineReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BaselineReport results.json [--baselines baselines.json] "
+                    + "[--tolerance 0.25] [--update]");
+            System.exit(2);
+        }
+        Path results = Paths.get(args[0]);
+        Path baselines = Paths.get("benchmarks", "baselines.json");
+        Double tolerance = null;
+        boolean update = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baselines" -> baselines = Paths.get(args[++i]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                case "--update" -> update = true;
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        TreeMap<String, JSONObject> current = readResults(results);
+        if (update) {
+            writeBaselines(baselines, current, tolerance == null ? DEFAULT_TOLERANCE : tolerance);
+            System.out.printf("Stored %d baselines in %s%n", current.size(), baselines);
+            return;
+        }
+
+        JSONObject stored = new JSONObject(Files.readString(baselines, StandardCharsets.UTF_8));
+        double allowed = tolerance != null ? tolerance : stored.optDouble("tolerance", DEFAULT_TOLERANCE);
+        List<String> regressions = compare(current, stored.getJSONObject("benchmarks"), allowed);
+        if (!regressions.isEmpty()) {
+            System.out.printf("%n%d benchmark(s) regressed by more than %.0f%%:%n", regressions.size(), allowed * 100);
+            regressions.forEach(key -> System.out.println("  " + key));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints the comparison table.
+     * @return the keys of the benchmarks that regressed beyond the tolerance
+     */
+    static List<String> compare(TreeMap<String, JSONObject> current, JSONObject baselines, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-75s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Status");
+        for (String key : current.keySet()) {
+            JSONObject result = current.get(key);
+            double score = result.getDouble("score");
+            String unit = result.getString("unit");
+
+            JSONObject baseline = baselines.optJSONObject(key);
+            if (baseline == null) {
+                System.out.printf("%-75s %14s %14s %9s  %s%n", key, "-", format(score, unit), "-", "NEW");
+                continue;
+            }
+            if (!unit.equals(baseline.getString("unit"))) {
+                System.out.printf("%-75s %14s %14s %9s  %s%n", key, format(baseline.getDouble("score"),
+                        baseline.getString("unit")), format(score, unit), "-", "UNIT CHANGED");
+                continue;
+            }
+
+            double change = (score - baseline.getDouble("score")) / baseline.getDouble("score");
+            // Throughput modes report operations per time unit, so lower is worse
+            boolean higherIsBetter = "thrpt".equals(result.getString("mode"));
+            double slowdown = higherIsBetter ? -change : change;
+            String status = slowdown > tolerance ? "REGRESSED" : slowdown < -tolerance ? "IMPROVED" : "ok";
+            if (slowdown > tolerance) {
+                regressions.add(key);
+            }
+            System.out.printf(Locale.ROOT, "%-75s %14s %14s %+8.1f%%  %s%n", key,
+                    format(baseline.getDouble("score"), unit), format(score, unit), change * 100, status);
+        }
+        for (String key : baselines.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-75s %14s %14s %9s  %s%n", key, "", "-", "-", "NOT RUN");
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @return mode, score and unit of every result, keyed by benchmark name and parameters
+     */
+    static TreeMap<String, JSONObject> readResults(Path file) throws IOException {
+        TreeMap<String, JSONObject> results = new TreeMap<>();
+        JSONArray array = new JSONArray(Files.readString(file, StandardCharsets.UTF_8));
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject run = array.getJSONObject(i);
+            JSONObject metric = run.getJSONObject("primaryMetric");
+            results.put(key(run), new JSONObject()
+                    .put("mode", run.getString("mode"))
+                    .put("score", metric.getDouble("score"))
+                    .put("unit", metric.getString("scoreUnit")));
+        }
+        return results;
+    }
+
+    /**
+     * Writes the baselines one benchmark per line, sorted, so changes diff cleanly.
+     */
+    private static void writeBaselines(Path file, TreeMap<String, JSONObject> results, double tolerance)
+            throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append("{\n  \"tolerance\": ").append(tolerance).append(",\n  \"benchmarks\": {\n");
+        String separator = "";
+        for (String key : results.keySet()) {
+            JSONObject result = results.get(key);
+            out.append(separator).append("    ").append(JSONObject.quote(key)).append(": ")
+                    .append(String.format(Locale.ROOT, "{\"mode\": %s, \"score\": %.3f, \"unit\": %s}",
+                            JSONObject.quote(result.getString("mode")), result.getDouble("score"),
+                            JSONObject.quote(result.getString("unit"))));
+            separator = ",\n";
+        }
+        out.append("\n  }\n}\n");
+        Files.writeString(file, out.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static String key(JSONObject run) {
+        String name = run.getString("benchmark").replaceFirst("^benchmarks\\.", "");
+        JSONObject params = run.optJSONObject("params");
+        if (params == null || params.isEmpty()) {
+            return name;
+        }
+        StringBuilder key = new StringBuilder(name).append('{');
+        String separator = "";
+        for (String param : new TreeMap<>(params.toMap()).keySet()) {
+            key.append(separator).append(param).append('=').append(params.getString(param));
+            separator = ",";
+        }
+        return key.append('}').toString();
+    }
+
+    private static String format(double score, String unit) {
+        return String.format(Locale.ROOT, "%.3f %s", score, unit);
+    }
+}
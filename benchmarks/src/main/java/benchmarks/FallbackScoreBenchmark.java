@@ -0,0 +1,66 @@
+package benchmarks;
+
+import Entities.HealthMetrics;
+import interface_adapter.daily_health_score.GeminiHealthScoreCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import services.GeminiAPIService;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GeminiHealthScoreCalculator when the Gemini call fails and the local fallback scorer runs.
+ * The calculator's stderr warnings are discarded so console I/O is not what gets measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FallbackScoreBenchmark {
+
+    private GeminiHealthScoreCalculator calculator;
+    private List<HealthMetrics> days;
+    private PrintStream originalErr;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        calculator = new GeminiHealthScoreCalculator(new GeminiAPIService() {
+            @Override
+            public int calculateHealthScore(double sleepHours, double exerciseMinutes,
+                                            int calories, double waterIntake, int steps) throws Exception {
+                throw new Exception("offline");
+            }
+        });
+        days = new SyntheticDataGenerator(1, 1024, 0.0, 42).metricsFor(0);
+
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreErr() {
+        System.setErr(originalErr);
+    }
+
+    @Benchmark
+    public int fallbackScore() throws Exception {
+        next = (next + 1) & 1023;
+        return calculator.calculateScore(days.get(next));
+    }
+}
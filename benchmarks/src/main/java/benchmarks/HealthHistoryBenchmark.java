@@ -0,0 +1,99 @@
+package benchmarks;
+
+import data_access.HealthMetricsColumnStore;
+import data_access.HealthMetricsColumnarConverter;
+import data_access.HealthMetricsJsonFile;
+import data_access.HealthRecordStore;
+import data_access.WriteBehindHealthDataAccessObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import use_case.healthHistory.healthHistoryInteractor;
+import use_case.healthHistory.healthHistoryOutputBoundary;
+import use_case.healthHistory.healthHistoryOutputData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * healthHistoryInteractor.fetchHistory for a year of one user's calories through the
+ * write-behind cache, in front of the JSON file or the memory-mapped columnar store, as raw
+ * days or weekly rollups. Raw days of a user the cache has not loaded are range reads
+ * against the store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HealthHistoryBenchmark {
+
+    @Param({"writeBehind", "columnar"})
+    public String storage;
+
+    @Param({"none", "week"})
+    public String aggregation;
+
+    private Path directory;
+    private WriteBehindHealthDataAccessObject writeBehind;
+    private healthHistoryInteractor interactor;
+    private healthHistoryOutputData output;
+    private String userId;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("history-bench");
+        Path json = directory.resolve("health_metrics.json");
+        // History ends today so the "year" range covers a full year of data
+        new SyntheticDataGenerator(50, 3 * 365, 0.1, 42, LocalDate.now()).writeHealthMetrics(json);
+        userId = SyntheticDataGenerator.userName(25);
+
+        HealthRecordStore store;
+        if ("columnar".equals(storage)) {
+            HealthMetricsColumnStore columnStore = new HealthMetricsColumnStore(directory.resolve("columns"));
+            HealthMetricsColumnarConverter.convert(json, columnStore);
+            store = columnStore;
+        } else {
+            store = new HealthMetricsJsonFile(json.toString());
+        }
+        writeBehind = new WriteBehindHealthDataAccessObject(null, store);
+
+        interactor = new healthHistoryInteractor(writeBehind, new healthHistoryOutputBoundary() {
+            @Override
+            public void prepareSuccessView(healthHistoryOutputData outputData) {
+                output = outputData;
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                throw new IllegalStateException(errorMessage);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        writeBehind.close();
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public healthHistoryOutputData fetchYear() {
+        interactor.fetchHistory("calories", "year", userId, aggregation);
+        return output;
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import use_case.healthHistory.healthHistoryJsonScanner;
+import use_case.healthHistory.healthMetricRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex scraping of health_metrics.json formerly used by healthHistoryInteractor
+ * with the streaming healthHistoryJsonScanner, reading the whole file and keeping one user's
+ * last year of calories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HealthHistoryParsingBenchmark {
+
+    private static final int USERS = 20;
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    private Path file;
+    private LocalDate boundary;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("health_metrics", ".json");
+        boundary = LAST_DAY.minusYears(1);
+        Random random = new Random(42);
+        int days = Math.max(1, records / USERS);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write('[');
+            for (int i = 0; i < records; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(String.format("{\"user\":\"user%d\",\"date\":\"%s\",\"sleepHours\":%.1f,\"steps\":%d,"
+                                + "\"waterIntake\":%.1f,\"exerciseMinutes\":%d,\"calories\":%d}",
+                        i % USERS, LAST_DAY.minusDays(i / USERS % days), 5 + random.nextDouble() * 4,
+                        random.nextInt(15000), 0.5 + random.nextDouble() * 3, random.nextInt(90),
+                        1500 + random.nextInt(1500)));
+            }
+            out.write(']');
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<healthMetricRecord> regexScrape() throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        return LegacyRegexHistoryScanner.scan(content, "user7", "calories", boundary);
+    }
+
+    @Benchmark
+    public List<healthMetricRecord> streamingScan() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            List<healthMetricRecord> result = healthHistoryJsonScanner.scan(in, "user7", "calories", boundary);
+            result.sort(Comparator.comparing(healthMetricRecord::getDate));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package benchmarks;
+
+import Entities.HealthMetrics;
+import Entities.User;
+import data_access.HealthDataAccessInterface;
+import data_access.UserDataAccessInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.GeminiAPIService;
+import use_case.health_insights.HealthInsightsInputData;
+import use_case.health_insights.HealthInsightsInteractor;
+import use_case.health_insights.HealthInsightsOutputBoundary;
+import use_case.health_insights.HealthInsightsOutputData;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HealthInsightsInteractor up to the Gemini call: loading the history, building the prompt
+ * and the trend analysis over it. The Gemini service echoes the prompt back instead of
+ * calling the API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HealthInsightsBenchmark {
+
+    @Param({"30", "365", "3650"})
+    public int days;
+
+    private HealthInsightsInteractor interactor;
+    private HealthInsightsInputData input;
+    private String insights;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(1, days, 0.0, 42);
+        User user = generator.users().get(0);
+        List<HealthMetrics> history = generator.metricsFor(0);
+
+        HealthDataAccessInterface healthDataAccess = new HealthDataAccessInterface() {
+            @Override
+            public void saveHealthMetrics(HealthMetrics healthMetrics) {
+            }
+
+            @Override
+            public List<HealthMetrics> getHealthMetricsByUser(String userId) {
+                return history;
+            }
+
+            @Override
+            public String getCurrentUsername() {
+                return user.getName();
+            }
+        };
+        UserDataAccessInterface userDataAccess = new UserDataAccessInterface() {
+            @Override
+            public User get(String username) {
+                return user;
+            }
+
+            @Override
+            public boolean existsByName(String identifier) {
+                return true;
+            }
+
+            @Override
+            public void save(User saved) {
+            }
+
+            @Override
+            public String getCurrentUsername() {
+                return user.getName();
+            }
+
+            @Override
+            public void setCurrentUsername(String name) {
+            }
+        };
+        GeminiAPIService echoService = new GeminiAPIService() {
+            @Override
+            public void getHealthInsightsAsync(String healthData, InsightsCallback callback, Executor callbackExecutor) {
+                callback.onSuccess(healthData);
+            }
+        };
+
+        interactor = new HealthInsightsInteractor(new HealthInsightsOutputBoundary() {
+            @Override
+            public void prepareSuccessView(HealthInsightsOutputData outputData) {
+                insights = outputData.getInsights();
+            }
+
+            @Override
+            public void prepareFailView(String error) {
+                throw new IllegalStateException(error);
+            }
+        }, healthDataAccess, userDataAccess, echoService);
+        input = new HealthInsightsInputData(user.getName());
+    }
+
+    @Benchmark
+    public String analyzeTrends() {
+        interactor.execute(input);
+        return insights;
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import data_access.HealthMetricsJsonFile;
+import data_access.HealthRecordStore;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the crash-safe health_metrics.json write path (write-ahead journal, fsync and
+ * atomic rename) against the plain rewrite, for one upserted record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournaledWriteBenchmark {
+
+    @Param({"true", "false"})
+    public boolean journaled;
+
+    @Param({"100", "1000"})
+    public int days;
+
+    private Path directory;
+    private HealthRecordStore metricsFile;
+    private List<JSONObject> batch;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        Path file = directory.resolve("health_metrics.json");
+        new SyntheticDataGenerator(10, days, 0.0, 42).writeHealthMetrics(file);
+        metricsFile = new HealthMetricsJsonFile(file.toString(), journaled);
+        batch = Collections.singletonList(metricsFile.readUser(SyntheticDataGenerator.userName(3)).get(0));
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void upsertOneRecord() {
+        metricsFile.writeAll(batch);
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import Entities.HealthMetrics;
+import Entities.UserFactory;
+import data_access.DailyHealthScoreDataAccessObject;
+import data_access.FileUserDataAccessObject;
+import data_access.HealthMetricsDataAccessObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import use_case.daily_health_score.DailyHealthScoreOutputData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes through the JSON-file DAOs of the Input Metrics and Daily Health Score use
+ * cases against a generated health_metrics.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDataAccessBenchmark {
+
+    @Param({"10", "100"})
+    public int users;
+
+    @Param({"365", "1095"})
+    public int days;
+
+    private Path directory;
+    private HealthMetricsDataAccessObject metricsDataAccess;
+    private DailyHealthScoreDataAccessObject scoreDataAccess;
+    private String userId;
+    private HealthMetrics latest;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("json-dao-bench");
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(users, days, 0.1, 42);
+        generator.writeHealthMetrics(directory.resolve("health_metrics.json"));
+        generator.writeUsersCsv(directory.resolve("users.csv"));
+
+        FileUserDataAccessObject userDataAccess =
+                new FileUserDataAccessObject(directory.resolve("users.csv").toString(), new UserFactory());
+        String metricsPath = directory.resolve("health_metrics.json").toString();
+        metricsDataAccess = new HealthMetricsDataAccessObject(userDataAccess, metricsPath);
+        scoreDataAccess = new DailyHealthScoreDataAccessObject(userDataAccess, metricsPath);
+
+        userId = SyntheticDataGenerator.userName(users / 2);
+        latest = metricsDataAccess.getLatestMetrics(userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<HealthMetrics> readUserHistory() {
+        return metricsDataAccess.getHealthMetricsByUser(userId);
+    }
+
+    @Benchmark
+    public HealthMetrics readLatestMetrics() {
+        return metricsDataAccess.getLatestMetrics(userId);
+    }
+
+    @Benchmark
+    public HealthMetrics readMetricsForDate() {
+        return scoreDataAccess.getMetricsForDate(userId, latest.getDate());
+    }
+
+    // Re-saving an existing day keeps the file the same size across invocations
+    @Benchmark
+    public void saveMetrics() {
+        metricsDataAccess.saveHealthMetrics(latest);
+    }
+
+    @Benchmark
+    public void saveDailyHealthScore() {
+        scoreDataAccess.saveDailyHealthScore(new DailyHealthScoreOutputData(
+                latest.getDate(), userId, 77, "Benchmark feedback", latest));
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * Collects one operation's latencies from every worker thread of a headless driver.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private int failures;
+
+    synchronized void record(long nanos, boolean ok) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!ok) {
+            failures++;
+        }
+    }
+
+    synchronized int getFailures() {
+        return failures;
+    }
+
+    synchronized long[] sorted() {
+        long[] copy = Arrays.copyOf(samples, count);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * @return the nearest-rank percentile in milliseconds (0 if there are no samples)
+     */
+    static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(quantile * sortedNanos.length);
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length, rank) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import Entities.User;
+import Entities.UserFactory;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.json.JSONException;
+import org.json.JSONObject;
+import use_case.login.LoginUserDataAccessInterface;
+import use_case.signup.SignupUserDataAccessInterface;
+
+import java.io.IOException;
+
+/**
+ * The user DAO as it was before the shared client: a new OkHttpClient per call and responses
+ * left unclosed. Kept only as the baseline for UserServiceBenchmark.
+ */
+final class LegacyDBUserDataAccessObject implements SignupUserDataAccessInterface, LoginUserDataAccessInterface {
+
+    private static final String CONTENT_TYPE_JSON = "application/json";
+
+    private final UserFactory userFactory;
+    private final String baseUrl;
+    private String currentUsername;
+
+    LegacyDBUserDataAccessObject(UserFactory userFactory, String baseUrl) {
+        this.userFactory = userFactory;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public User get(String username) {
+        final OkHttpClient client = new OkHttpClient().newBuilder().build();
+        final Request request = new Request.Builder()
+                .url(String.format("%s/user?username=%s", baseUrl, username))
+                .addHeader("Content-Type", CONTENT_TYPE_JSON)
+                .build();
+        try {
+            final Response response = client.newCall(request).execute();
+            final JSONObject responseBody = new JSONObject(response.body().string());
+            if (responseBody.getInt("status_code") == 200) {
+                final JSONObject userJSONObject = responseBody.getJSONObject("user");
+                return userFactory.create(userJSONObject.getString("username"),
+                        userJSONObject.getString("password"), 0, 0, 0);
+            }
+            throw new RuntimeException(responseBody.getString("message"));
+        }
+        catch (IOException | JSONException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public boolean existsByName(String username) {
+        final OkHttpClient client = new OkHttpClient().newBuilder().build();
+        final Request request = new Request.Builder()
+                .url(String.format("%s/checkIfUserExists?username=%s", baseUrl, username))
+                .addHeader("Content-Type", CONTENT_TYPE_JSON)
+                .build();
+        try {
+            final Response response = client.newCall(request).execute();
+            final JSONObject responseBody = new JSONObject(response.body().string());
+            return responseBody.getInt("status_code") == 200;
+        }
+        catch (IOException | JSONException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public void save(User user) {
+        final OkHttpClient client = new OkHttpClient().newBuilder().build();
+        final JSONObject requestBody = new JSONObject();
+        requestBody.put("username", user.getName());
+        requestBody.put("password", user.getPassword());
+        final Request request = new Request.Builder()
+                .url(baseUrl + "/user")
+                .method("POST", RequestBody.create(requestBody.toString(), MediaType.parse(CONTENT_TYPE_JSON)))
+                .addHeader("Content-Type", CONTENT_TYPE_JSON)
+                .build();
+        try {
+            final Response response = client.newCall(request).execute();
+            final JSONObject responseBody = new JSONObject(response.body().string());
+            if (responseBody.getInt("status_code") != 200) {
+                throw new RuntimeException(responseBody.getString("message"));
+            }
+        }
+        catch (IOException | JSONException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public void setCurrentUsername(String name) {
+        currentUsername = name;
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        return currentUsername;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import use_case.healthHistory.healthMetricRecord;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The regex scraping healthHistoryInteractor used before the streaming scanner, kept only
+ * as the baseline for HealthHistoryParsingBenchmark.
+ */
+final class LegacyRegexHistoryScanner {
+
+    private LegacyRegexHistoryScanner() {
+    }
+
+    static List<healthMetricRecord> scan(String content, String userId, String metricKey, LocalDate boundary) {
+        Pattern objPattern = Pattern.compile("\\{[^}]*\\}");
+        Matcher objMatcher = objPattern.matcher(content);
+
+        DateTimeFormatter isoFmt = DateTimeFormatter.ISO_LOCAL_DATE;
+
+        Pattern datePattern = Pattern.compile("\"date\"\\s*:\\s*\"([^\"]+)\"");
+        Pattern metricPattern = Pattern.compile("\"" + Pattern.quote(metricKey) + "\"\\s*:\\s*([0-9]+\\.?[0-9]*)");
+        Pattern userPattern = Pattern.compile("\"user\"\\s*:\\s*\"([^\"]+)\"");
+
+        List<healthMetricRecord> temp = new ArrayList<>();
+
+        while (objMatcher.find()) {
+            String obj = objMatcher.group();
+            Matcher userMatcher = userPattern.matcher(obj);
+            if (userMatcher.find()) {
+                String u = userMatcher.group(1);
+                if (!u.equals(userId)) continue;
+            }
+
+            Matcher dMatch = datePattern.matcher(obj);
+            Matcher mMatch = metricPattern.matcher(obj);
+
+            if (dMatch.find() && mMatch.find()) {
+                try {
+                    LocalDate date = LocalDate.parse(dMatch.group(1), isoFmt);
+                    double val = Double.parseDouble(mMatch.group(1));
+                    temp.add(new healthMetricRecord(date, val));
+                } catch (Exception ignored) {
+                }
+            }
+        }
+
+        return temp.stream()
+                .filter(r -> !r.getDate().isBefore(boundary))
+                .sorted(Comparator.comparing(healthMetricRecord::getDate))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import Entities.User;
+import Entities.UserFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The users.csv reading FileUserDataAccessObject's constructor did before UsersCsvLoader,
+ * kept only as the baseline for UsersCsvLoadBenchmark.
+ */
+final class LegacyUsersCsvReader {
+
+    private static final String HEADER = "username,password,age,height,weight";
+
+    private LegacyUsersCsvReader() {
+    }
+
+    static Map<String, User> read(File csvFile, UserFactory userFactory) throws IOException {
+        final Map<String, Integer> headers = new LinkedHashMap<>();
+        headers.put("username", 0);
+        headers.put("password", 1);
+        headers.put("age", 2);
+        headers.put("height", 3);
+        headers.put("weight", 4);
+        final Map<String, User> accounts = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
+            final String header = reader.readLine();
+
+            if (!header.equals(HEADER)) {
+                throw new RuntimeException(String.format("header should be%n: %s%n but was:%n%s", HEADER, header));
+            }
+
+            String row;
+            while ((row = reader.readLine()) != null) {
+                final String[] col = row.split(",");
+                final String username = String.valueOf(col[headers.get("username")]);
+                final String password = String.valueOf(col[headers.get("password")]);
+                final int age = Integer.parseInt(col[headers.get("age")]);
+                final int height = Integer.parseInt(col[headers.get("height")]);
+                final int weight = Integer.parseInt(col[headers.get("weight")]);
+                final User user = userFactory.create(username, password, age, height, weight);
+                accounts.put(user.getName(), user);
+            }
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import Entities.HealthMetrics;
+import use_case.daily_health_score.HealthScoreCalculator;
+
+/**
+ * Deterministic stand-in for GeminiHealthScoreCalculator, optionally sleeping to simulate
+ * the API round trip, so headless drivers never call the Gemini API.
+ */
+final class LocalScoreCalculator implements HealthScoreCalculator {
+
+    private final long latencyMillis;
+
+    LocalScoreCalculator(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public int calculateScore(HealthMetrics metrics) throws Exception {
+        simulateLatency();
+        double score = Math.min(metrics.getSleepHours() / 8.0, 1.0) * 30
+                + Math.min(metrics.getSteps() / 10000.0, 1.0) * 25
+                + Math.min(metrics.getWaterIntake() / 2.5, 1.0) * 20
+                + Math.min(metrics.getExerciseMinutes() / 30.0, 1.0) * 25;
+        return (int) Math.round(score);
+    }
+
+    @Override
+    public String generateFeedback(HealthMetrics metrics, int score) throws Exception {
+        simulateLatency();
+        return score >= 70 ? "Great balance across sleep, activity and hydration."
+                : "Try to add a little more sleep and movement to your day.";
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package benchmarks;
+
+import data_access.HealthMetricsColumnStore;
+import data_access.HealthMetricsColumnarConverter;
+import data_access.HealthMetricsJsonFile;
+import data_access.HealthMetricsLogMigrator;
+import data_access.HealthMetricsLogStore;
+import data_access.HealthRecordStore;
+import data_access.WriteBehindHealthDataAccessObject;
+import use_case.daily_health_score.DailyHealthScoreInputData;
+import use_case.daily_health_score.DailyHealthScoreInteractor;
+import use_case.daily_health_score.DailyHealthScoreOutputBoundary;
+import use_case.daily_health_score.DailyHealthScoreOutputData;
+import use_case.daily_health_score.HealthScoreCalculator;
+import use_case.healthHistory.healthHistoryInputData;
+import use_case.healthHistory.healthHistoryInteractor;
+import use_case.healthHistory.healthHistoryOutputBoundary;
+import use_case.healthHistory.healthHistoryOutputData;
+import use_case.input_metrics.InputMetricsInputData;
+import use_case.input_metrics.InputMetricsInteractor;
+import use_case.input_metrics.InputMetricsOutputBoundary;
+import use_case.input_metrics.InputMetricsOutputData;
+import use_case.session.SessionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the Input Metrics, Daily Health Score and Health History use cases headlessly
+ * against a data set written by {@link SyntheticDataGenerator}, and reports throughput and
+ * latency percentiles per use case.
+ * <p>
+ * The interactors are wired the way AppBuilder wires them: one shared
+ * WriteBehindHealthDataAccessObject in front of the selected storage backend. Each worker
+ * thread has its own session and signs in as a randomly chosen user per operation. Scores come from a local calculator
+ * with an optional simulated latency, so runs never call the Gemini API.
+ */
+public final class ScaleTestHarness {
+
+    private static final String[] METRICS = {"sleep", "water", "exercise", "calories"};
+    private static final String[] RANGES = {"week", "month", "year"};
+
+    private enum Operation { INPUT_METRICS, DAILY_SCORE, HISTORY }
+
+    private ScaleTestHarness() {
+    }
+
+    /**
+     * Usage: ScaleTestHarness [--data DIR] [--storage json|log|columnar] [--threads T]
+     * [--operations N] [--warmup N] [--mix INPUT:SCORE:HISTORY] [--score-latency-ms MS] [--seed S]
+     * <p>
+     * The data directory must hold the users.csv and health_metrics.json written by the
+     * generator; the log and columnar stores are converted from the JSON file if missing.
+     * Saved metrics and scores are written back to the data directory.
+     */
+    public static void main(String[] args) throws Exception {
+        Path data = Paths.get(".");
+        String storage = "json";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int operations = 20_000;
+        int warmup = -1;
+        int[] mix = {20, 20, 60};
+        long scoreLatencyMillis = 0;
+        long seed = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--data" -> data = Paths.get(args[i + 1]);
+                case "--storage" -> storage = args[i + 1];
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--operations" -> operations = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                case "--mix" -> mix = Arrays.stream(args[i + 1].split(":")).mapToInt(Integer::parseInt).toArray();
+                case "--score-latency-ms" -> scoreLatencyMillis = Long.parseLong(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (mix.length != 3) {
+            throw new IllegalArgumentException("--mix needs three weights, e.g. 20:20:60");
+        }
+        if (warmup < 0) {
+            warmup = operations / 10;
+        }
+
+        List<String> users = readUsernames(data.resolve("users.csv"));
+        if (users.isEmpty()) {
+            throw new IllegalArgumentException("No users in " + data.resolve("users.csv"));
+        }
+
+        HealthRecordStore store = openStore(data, storage);
+        WriteBehindHealthDataAccessObject dataAccess = new WriteBehindHealthDataAccessObject(null, store);
+        HealthScoreCalculator calculator = new LocalScoreCalculator(scoreLatencyMillis);
+
+        System.out.printf("Storage %s, %d users, %d threads, %d operations (+%d warmup), mix %d:%d:%d%n",
+                storage, users.size(), threads, operations, warmup, mix[0], mix[1], mix[2]);
+
+        // Warmup operations load every user into the cache and let the JIT settle; not recorded
+        run(users, dataAccess, calculator, threads, warmup, mix, seed, null);
+
+        LatencyRecorder[] recorders = new LatencyRecorder[Operation.values().length];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+        long elapsed = run(users, dataAccess, calculator, threads, operations, mix, seed + 1,
+                recorders);
+
+        long closeStart = System.nanoTime();
+        dataAccess.close();
+        if (store instanceof HealthMetricsLogStore) {
+            ((HealthMetricsLogStore) store).close();
+        }
+        long closeNanos = System.nanoTime() - closeStart;
+
+        report(recorders, elapsed);
+        System.out.printf(Locale.ROOT, "Final flush: %.1f ms%n", closeNanos / 1e6);
+    }
+
+    /**
+     * Runs {@code operations} use-case calls spread over {@code threads} workers.
+     * @param recorders latency recorders indexed by Operation ordinal, or null to discard timings
+     * @return the wall-clock time in nanoseconds
+     */
+    private static long run(List<String> users, WriteBehindHealthDataAccessObject dataAccess,
+                            HealthScoreCalculator calculator,
+                            int threads, int operations, int[] mix, long seed,
+                            LatencyRecorder[] recorders) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(operations);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(seed * 1_000_003L + t);
+            Thread worker = new Thread(() -> {
+                Worker w = new Worker(users, dataAccess, calculator, random);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (remaining.getAndDecrement() > 0) {
+                    Operation operation = pick(random, mix);
+                    long begin = System.nanoTime();
+                    boolean ok = w.execute(operation);
+                    long nanos = System.nanoTime() - begin;
+                    if (recorders != null) {
+                        recorders[operation.ordinal()].record(nanos, ok);
+                    }
+                }
+            }, "scale-worker-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static Operation pick(Random random, int[] mix) {
+        int roll = random.nextInt(mix[0] + mix[1] + mix[2]);
+        if (roll < mix[0]) {
+            return Operation.INPUT_METRICS;
+        }
+        return roll < mix[0] + mix[1] ? Operation.DAILY_SCORE : Operation.HISTORY;
+    }
+
+    private static void report(LatencyRecorder[] recorders, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%-14s %8s %8s %10s %9s %9s %9s %9s%n",
+                "use case", "ops", "failed", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = recorders[operation.ordinal()];
+            long[] sorted = recorder.sorted();
+            total += sorted.length;
+            System.out.printf(Locale.ROOT, "%-14s %8d %8d %10.0f %9.3f %9.3f %9.3f %9.3f%n",
+                    operation.name().toLowerCase(Locale.ROOT), sorted.length, recorder.getFailures(),
+                    sorted.length / seconds,
+                    LatencyRecorder.percentile(sorted, 0.50), LatencyRecorder.percentile(sorted, 0.90),
+                    LatencyRecorder.percentile(sorted, 0.99), LatencyRecorder.percentile(sorted, 1.0));
+        }
+        System.out.printf(Locale.ROOT, "Total: %d operations in %.2f s (%.0f ops/s)%n",
+                total, seconds, total / seconds);
+    }
+
+    static HealthRecordStore openStore(Path data, String storage) {
+        Path json = data.resolve("health_metrics.json");
+        switch (storage) {
+            case "log" -> {
+                Path directory = data.resolve(SyntheticDataGenerator.LOG_DIRECTORY);
+                boolean migrate = !Files.isDirectory(directory);
+                HealthMetricsLogStore logStore = new HealthMetricsLogStore(directory);
+                if (migrate) {
+                    HealthMetricsLogMigrator.migrate(json, logStore);
+                }
+                return logStore;
+            }
+            case "columnar" -> {
+                HealthMetricsColumnStore columnStore =
+                        new HealthMetricsColumnStore(data.resolve(SyntheticDataGenerator.COLUMN_DIRECTORY));
+                HealthMetricsColumnarConverter.convert(json, columnStore);
+                return columnStore;
+            }
+            case "json" -> {
+                return new HealthMetricsJsonFile(json.toString());
+            }
+            default -> throw new IllegalArgumentException("Unknown storage: " + storage);
+        }
+    }
+
+    static List<String> readUsernames(Path usersCsv) throws IOException {
+        return Files.readAllLines(usersCsv).stream()
+                .skip(1)
+                .filter(line -> !line.isBlank())
+                .map(line -> line.split(",")[0])
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One worker thread's interactors and presenters. The presenters only record whether the
+     * use case ended in its success or its fail view.
+     */
+    private static final class Worker implements InputMetricsOutputBoundary, DailyHealthScoreOutputBoundary,
+            healthHistoryOutputBoundary {
+
+        private final List<String> users;
+        private final SessionContext session = SessionContext.create();
+        private final Random random;
+        private final InputMetricsInteractor inputMetrics;
+        private final DailyHealthScoreInteractor dailyScore;
+        private final healthHistoryInteractor history;
+        private boolean succeeded;
+
+        Worker(List<String> users, WriteBehindHealthDataAccessObject dataAccess,
+               HealthScoreCalculator calculator, Random random) {
+            this.users = users;
+            this.random = random;
+            this.inputMetrics = new InputMetricsInteractor(dataAccess, this, session);
+            this.dailyScore = new DailyHealthScoreInteractor(dataAccess, this, calculator);
+            this.history = new healthHistoryInteractor(dataAccess, this);
+        }
+
+        boolean execute(Operation operation) {
+            String user = users.get(random.nextInt(users.size()));
+            succeeded = false;
+            switch (operation) {
+                case INPUT_METRICS -> {
+                    session.setUsername(user);
+                    inputMetrics.execute(new InputMetricsInputData(user,
+                            5.0f + random.nextFloat() * 4, 2000 + random.nextInt(12000),
+                            0.5f + random.nextFloat() * 3, 1400 + random.nextInt(1600), random.nextFloat() * 90));
+                }
+                case DAILY_SCORE -> dailyScore.execute(new DailyHealthScoreInputData(
+                        LocalDate.now().minusDays(random.nextInt(30)), user));
+                case HISTORY -> {
+                    String range = RANGES[random.nextInt(RANGES.length)];
+                    // Same aggregation HomeView uses for its year chart
+                    String aggregation = range.equals("year") ? "week" : "none";
+                    history.execute(new healthHistoryInputData(METRICS[random.nextInt(METRICS.length)],
+                            range, user, aggregation));
+                }
+            }
+            return succeeded;
+        }
+
+        @Override
+        public void prepareSuccessView(InputMetricsOutputData outputData) {
+            succeeded = true;
+        }
+
+        @Override
+        public void prepareSuccessView(DailyHealthScoreOutputData outputData) {
+            succeeded = true;
+        }
+
+        @Override
+        public void prepareSuccessView(healthHistoryOutputData outputData) {
+            succeeded = true;
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            succeeded = false;
+        }
+
+        @Override
+        public void switchToHomeView() {
+        }
+    }
+}
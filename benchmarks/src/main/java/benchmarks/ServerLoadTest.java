@@ -0,0 +1,311 @@
+package benchmarks;
+
+import Entities.UserFactory;
+import app.ExecutorFactory;
+import app.HttpApiServer;
+import data_access.FileUserDataAccessObject;
+import data_access.HealthMetricsLogStore;
+import data_access.HealthRecordStore;
+import data_access.WriteBehindHealthDataAccessObject;
+import org.json.JSONObject;
+import services.GeminiAPIService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of the headless server mode: starts HttpApiServer in-process over a data set
+ * written by {@link SyntheticDataGenerator} and drives it over HTTP from concurrent clients,
+ * then reports requests/s and latency percentiles per endpoint.
+ * <p>
+ * Each client logs in as a random user, saves today's metrics and then sends a random mix of
+ * requests on its own session. Scores come from a local calculator and insights from a stub
+ * that answers asynchronously after a delay, so runs never call the Gemini API; the delays
+ * show how many slow requests the request executor can keep in flight.
+ */
+public final class ServerLoadTest {
+
+    private enum Endpoint { LOGIN, METRICS, SCORE, HISTORY, GOALS, INSIGHTS }
+
+    private static final Endpoint[] MIX = {
+            Endpoint.METRICS, Endpoint.SCORE, Endpoint.SCORE, Endpoint.HISTORY, Endpoint.HISTORY,
+            Endpoint.HISTORY, Endpoint.GOALS, Endpoint.INSIGHTS};
+    private static final String[] METRICS = {"sleep", "water", "exercise", "calories"};
+    private static final String[] RANGES = {"week", "month", "year"};
+
+    private ServerLoadTest() {
+    }
+
+    /**
+     * Usage: ServerLoadTest [--data DIR] [--storage json|log|columnar] [--executor background|fixed]
+     * [--clients C] [--requests N] [--warmup N] [--score-latency-ms MS] [--insights-latency-ms MS]
+     * <p>
+     * "background" runs requests on ExecutorFactory's executor (a virtual thread per request
+     * on JDK 21+); "fixed" runs them on a pool of 2 x cores platform threads for comparison.
+     */
+    public static void main(String[] args) throws Exception {
+        Path data = Paths.get(".");
+        String storage = "json";
+        String executorKind = "background";
+        int clients = 64;
+        int requests = 50_000;
+        int warmup = -1;
+        long scoreLatencyMillis = 0;
+        long insightsLatencyMillis = 50;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--data" -> data = Paths.get(args[i + 1]);
+                case "--storage" -> storage = args[i + 1];
+                case "--executor" -> executorKind = args[i + 1];
+                case "--clients" -> clients = Integer.parseInt(args[i + 1]);
+                case "--requests" -> requests = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                case "--score-latency-ms" -> scoreLatencyMillis = Long.parseLong(args[i + 1]);
+                case "--insights-latency-ms" -> insightsLatencyMillis = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (warmup < 0) {
+            warmup = requests / 10;
+        }
+        // As ServerMain does; otherwise Nagle's algorithm adds ~40 ms to each kept-alive response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        List<String> users = ScaleTestHarness.readUsernames(data.resolve("users.csv"));
+        if (users.isEmpty()) {
+            throw new IllegalArgumentException("No users in " + data.resolve("users.csv"));
+        }
+
+        FileUserDataAccessObject userDataAccess =
+                new FileUserDataAccessObject(data.resolve("users.csv").toString(), new UserFactory());
+        HealthRecordStore store = ScaleTestHarness.openStore(data, storage);
+        WriteBehindHealthDataAccessObject healthDataAccess = new WriteBehindHealthDataAccessObject(userDataAccess, store);
+        ExecutorService requestExecutor = switch (executorKind) {
+            case "background" -> ExecutorFactory.newBackgroundExecutor("http-request");
+            case "fixed" -> Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+            default -> throw new IllegalArgumentException("Unknown executor: " + executorKind);
+        };
+        HttpApiServer server = new HttpApiServer(new InetSocketAddress("127.0.0.1", 0), requestExecutor,
+                userDataAccess, healthDataAccess, new LocalScoreCalculator(scoreLatencyMillis),
+                new DelayedInsights(insightsLatencyMillis));
+        server.start();
+
+        System.out.printf("Storage %s, %d users, executor %s (%s), %d clients, %d requests (+%d warmup)%n",
+                storage, users.size(), executorKind, requestExecutor.getClass().getSimpleName(),
+                clients, requests, warmup);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        String baseUrl = "http://127.0.0.1:" + server.getPort();
+        try {
+            run(client, baseUrl, users, clients, warmup, 7, null);
+            LatencyRecorder[] recorders = new LatencyRecorder[Endpoint.values().length];
+            for (int i = 0; i < recorders.length; i++) {
+                recorders[i] = new LatencyRecorder();
+            }
+            long elapsed = run(client, baseUrl, users, clients, requests, 8, recorders);
+            report(recorders, elapsed);
+        } finally {
+            server.close();
+            requestExecutor.shutdown();
+            healthDataAccess.close();
+            if (store instanceof HealthMetricsLogStore) {
+                ((HealthMetricsLogStore) store).close();
+            }
+            userDataAccess.close();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Sends {@code requests} requests, logins included, from {@code clients} concurrent clients.
+     * @param recorders latency recorders indexed by Endpoint ordinal, or null to discard timings
+     * @return the wall-clock time in nanoseconds
+     */
+    private static long run(HttpClient client, String baseUrl, List<String> users, int clients, int requests,
+                            long seed, LatencyRecorder[] recorders) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            Random random = new Random(seed * 1_000_003L + c);
+            Thread worker = new Thread(() -> {
+                Client session = new Client(client, baseUrl, random, recorders);
+                try {
+                    start.await();
+                    while (remaining.get() > 0) {
+                        session.next(users, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "load-client-" + c);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void report(LatencyRecorder[] recorders, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%-10s %8s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "failed", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long total = 0;
+        List<Long> all = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyRecorder recorder = recorders[endpoint.ordinal()];
+            long[] sorted = recorder.sorted();
+            total += sorted.length;
+            for (long nanos : sorted) {
+                all.add(nanos);
+            }
+            System.out.printf(Locale.ROOT, "%-10s %8d %8d %10.0f %9.3f %9.3f %9.3f %9.3f%n",
+                    endpoint.name().toLowerCase(Locale.ROOT), sorted.length, recorder.getFailures(),
+                    sorted.length / seconds,
+                    LatencyRecorder.percentile(sorted, 0.50), LatencyRecorder.percentile(sorted, 0.90),
+                    LatencyRecorder.percentile(sorted, 0.99), LatencyRecorder.percentile(sorted, 1.0));
+        }
+        long[] sorted = all.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf(Locale.ROOT, "Total: %d requests in %.2f s (%.0f req/s), p50 %.3f ms, p99 %.3f ms%n",
+                total, seconds, total / seconds,
+                LatencyRecorder.percentile(sorted, 0.50), LatencyRecorder.percentile(sorted, 0.99));
+    }
+
+    /**
+     * One simulated client: logs in on its first request, then sends a random mix on its session.
+     */
+    private static final class Client {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final Random random;
+        private final LatencyRecorder[] recorders;
+        private String token;
+
+        Client(HttpClient client, String baseUrl, Random random, LatencyRecorder[] recorders) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.random = random;
+            this.recorders = recorders;
+        }
+
+        void next(List<String> users, AtomicInteger remaining) throws InterruptedException {
+            if (token == null) {
+                String username = users.get(random.nextInt(users.size()));
+                String password = "password" + username.substring("user".length());
+                HttpResponse<String> response = send(Endpoint.LOGIN, remaining, post("/login",
+                        new JSONObject().put("username", username).put("password", password)));
+                if (response == null || response.statusCode() != 200) {
+                    return;
+                }
+                token = new JSONObject(response.body()).getString("token");
+                // A fresh session has no metrics for today yet, which the score needs
+                send(Endpoint.METRICS, remaining, metrics());
+                return;
+            }
+            Endpoint endpoint = MIX[random.nextInt(MIX.length)];
+            HttpRequest request = switch (endpoint) {
+                case METRICS -> metrics();
+                case SCORE -> get("/score?date=" + LocalDate.now());
+                case HISTORY -> get("/history?metric=" + METRICS[random.nextInt(METRICS.length)]
+                        + "&range=" + RANGES[random.nextInt(RANGES.length)] + "&aggregation=none");
+                case GOALS -> post("/goals", new JSONObject()
+                        .put("goalType", "Maintain").put("target", "").put("timeframe", "8"));
+                default -> get("/insights");
+            };
+            send(endpoint, remaining, request);
+        }
+
+        private HttpRequest metrics() {
+            return post("/metrics", new JSONObject()
+                    .put("sleepHours", 5.0 + random.nextInt(40) / 10.0).put("steps", 2000 + random.nextInt(12000))
+                    .put("waterIntake", 0.5 + random.nextInt(30) / 10.0).put("calories", 1400 + random.nextInt(1600))
+                    .put("exerciseMinutes", random.nextInt(90)));
+        }
+
+        /**
+         * @return the response, or null if the request budget ran out or the request failed
+         */
+        private HttpResponse<String> send(Endpoint endpoint, AtomicInteger remaining, HttpRequest request)
+                throws InterruptedException {
+            if (remaining.getAndDecrement() <= 0) {
+                return null;
+            }
+            long begin = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                response = null;
+            }
+            long nanos = System.nanoTime() - begin;
+            if (recorders != null) {
+                recorders[endpoint.ordinal()].record(nanos, response != null && response.statusCode() == 200);
+            }
+            return response;
+        }
+
+        private HttpRequest get(String path) {
+            return builder(path).GET().build();
+        }
+
+        private HttpRequest post(String path, JSONObject body) {
+            return builder(path).POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+        }
+
+        private HttpRequest.Builder builder(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder;
+        }
+    }
+
+    /**
+     * Stands in for the Gemini insights call: answers on a timer thread after a delay, the way
+     * the real call completes on a background thread once the response arrives.
+     */
+    private static final class DelayedInsights extends GeminiAPIService {
+
+        private final long latencyMillis;
+
+        DelayedInsights(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void getHealthInsightsAsync(String healthData, InsightsCallback callback, Executor callbackExecutor) {
+            CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS)
+                    .execute(() -> callback.onSuccess("Keep logging your sleep and steps every day."));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package benchmarks;
+
+import Entities.UserFactory;
+import data_access.FileUserDataAccessObject;
+import data_access.HealthMetricsLogStore;
+import data_access.WriteBehindHealthDataAccessObject;
+import interface_adapter.daily_health_score.DailyHealthScoreController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import use_case.daily_health_score.DailyHealthScoreInteractor;
+import use_case.daily_health_score.DailyHealthScoreOutputBoundary;
+import use_case.daily_health_score.DailyHealthScoreOutputData;
+import use_case.goals.GoalsInputData;
+import use_case.goals.GoalsInteractor;
+import use_case.goals.GoalsOutputBoundary;
+import use_case.goals.GoalsOutputData;
+import use_case.input_metrics.InputMetricsInputData;
+import use_case.input_metrics.InputMetricsInteractor;
+import use_case.input_metrics.InputMetricsOutputBoundary;
+import use_case.input_metrics.InputMetricsOutputData;
+import use_case.login.AsyncLoginUserDataAccessInterface;
+import use_case.login.LoginInputData;
+import use_case.login.LoginInteractor;
+import use_case.login.LoginOutputBoundary;
+import use_case.login.LoginOutputData;
+import use_case.logout.LogoutInteractor;
+import use_case.logout.LogoutOutputBoundary;
+import use_case.logout.LogoutOutputData;
+import use_case.session.SessionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete user sessions per second, driven headlessly by concurrent clients over one set of
+ * shared DAOs: each operation opens a session, logs in as a random user, saves today's metrics,
+ * computes the daily score, calculates a goal and logs out. Every client builds its interactors
+ * over its own SessionContext, the way a server would per connection, and checks that each use
+ * case saw its own user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SessionBenchmark {
+
+    @Param({"10000"})
+    public int users;
+
+    private Path directory;
+    private FileUserDataAccessObject userDataAccess;
+    private AsyncLoginUserDataAccessInterface loginDataAccess;
+    private HealthMetricsLogStore store;
+    private WriteBehindHealthDataAccessObject healthDataAccess;
+    private LocalScoreCalculator calculator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sessions");
+        Path csv = directory.resolve("users.csv");
+        new SyntheticDataGenerator(users, 1, 0.0, 42).writeUsersCsv(csv);
+        userDataAccess = new FileUserDataAccessObject(csv.toString(), new UserFactory());
+        loginDataAccess = AsyncLoginUserDataAccessInterface.blocking(userDataAccess);
+        store = new HealthMetricsLogStore(directory.resolve(SyntheticDataGenerator.LOG_DIRECTORY));
+        healthDataAccess = new WriteBehindHealthDataAccessObject(userDataAccess, store);
+        calculator = new LocalScoreCalculator(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        healthDataAccess.close();
+        store.close();
+        userDataAccess.close();
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    /**
+     * One simulated client: its presenters record which user each use case ended with.
+     */
+    @State(Scope.Thread)
+    public static class Client implements LoginOutputBoundary, InputMetricsOutputBoundary,
+            DailyHealthScoreOutputBoundary, GoalsOutputBoundary, LogoutOutputBoundary {
+
+        private final Random random = new Random();
+        private String loggedIn;
+        private int succeeded;
+
+        @Override
+        public void prepareSuccessView(LoginOutputData outputData) {
+            loggedIn = outputData.getUsername();
+        }
+
+        @Override
+        public void prepareSuccessView(InputMetricsOutputData outputData) {
+            succeeded++;
+        }
+
+        @Override
+        public void prepareSuccessView(DailyHealthScoreOutputData outputData) {
+            succeeded++;
+        }
+
+        @Override
+        public void prepareSuccessView(GoalsOutputData outputData) {
+            succeeded++;
+        }
+
+        @Override
+        public void prepareSuccessView(LogoutOutputData outputData) {
+            loggedIn = null;
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            throw new IllegalStateException(errorMessage);
+        }
+
+        @Override
+        public void present(GoalsOutputData outputData) {
+        }
+
+        @Override
+        public void presentError(String errorMessage) {
+            throw new IllegalStateException(errorMessage);
+        }
+
+        @Override
+        public void redirectToSettings(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        @Override
+        public void updateCurrentWeight(int weightKg) {
+        }
+
+        @Override
+        public void switchToLoginView() {
+        }
+
+        @Override
+        public void switchToHomeView() {
+        }
+    }
+
+    @Benchmark
+    public int session(Client client) {
+        SessionContext session = SessionContext.create();
+        int user = client.random.nextInt(users);
+        String username = SyntheticDataGenerator.userName(user);
+
+        new LoginInteractor(loginDataAccess, client, Runnable::run, session)
+                .execute(new LoginInputData(username, "password" + user));
+        if (!username.equals(session.getUsername()) || !username.equals(client.loggedIn)) {
+            throw new IllegalStateException("Session should be signed in as " + username);
+        }
+
+        new InputMetricsInteractor(healthDataAccess, client, session)
+                .execute(new InputMetricsInputData(username, 7.5f, 8000, 2.0f, 2000, 30.0f));
+        new DailyHealthScoreController(new DailyHealthScoreInteractor(healthDataAccess, client, calculator), session)
+                .computeDailyHealthScore(LocalDate.now());
+        new GoalsInteractor(userDataAccess, client, session)
+                .execute(new GoalsInputData("Maintain", "", "4"));
+        new LogoutInteractor(session, client).execute();
+        return client.succeeded;
+    }
+}
@@ -0,0 +1,230 @@
+package benchmarks;
+
+import Entities.HealthMetrics;
+import Entities.User;
+import data_access.HealthMetricsColumnStore;
+import data_access.HealthMetricsColumnarConverter;
+import data_access.HealthMetricsLogMigrator;
+import data_access.HealthMetricsLogStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates realistic multi-user, multi-year health_metrics.json and users.csv files for the
+ * benchmarks and the scale test harness. Output is deterministic for a given seed.
+ * <p>
+ * Every user gets a personal baseline for each metric; days vary around it with noise and a
+ * weekend effect, a fraction of days is skipped, a fraction of records uses the legacy
+ * sleepHour/waterLitres field names, and most logged days carry a score and feedback as
+ * written by the Daily Health Score use case. The JSON file can also be converted into the
+ * segmented log and columnar storage formats.
+ */
+public final class SyntheticDataGenerator {
+
+    public static final LocalDate DEFAULT_LAST_DAY = LocalDate.of(2025, 12, 31);
+
+    // Directory names AppBuilder opens for -Dbetterblueprint.storage=log and =columnar
+    public static final String LOG_DIRECTORY = "health_metrics_log";
+    public static final String COLUMN_DIRECTORY = "health_metrics_columns";
+
+    private final int users;
+    private final int days;
+    private final double gapRate;
+    private final double legacyRate;
+    private final double scoreRate;
+    private final long seed;
+    private final LocalDate lastDay;
+
+    public SyntheticDataGenerator(int users, int days, double gapRate, long seed) {
+        this(users, days, gapRate, seed, DEFAULT_LAST_DAY);
+    }
+
+    public SyntheticDataGenerator(int users, int days, double gapRate, long seed, LocalDate lastDay) {
+        this(users, days, gapRate, 0.0, 0.8, seed, lastDay);
+    }
+
+    /**
+     * @param users number of users
+     * @param days number of days of history per user, ending on {@code lastDay}
+     * @param gapRate fraction of days (0..1) a user did not log
+     * @param legacyRate fraction of records (0..1) written with legacy field names
+     * @param scoreRate fraction of records (0..1) that carry a score and feedback
+     * @param seed random seed
+     * @param lastDay the most recent day in the data
+     */
+    public SyntheticDataGenerator(int users, int days, double gapRate, double legacyRate, double scoreRate,
+                                  long seed, LocalDate lastDay) {
+        this.users = users;
+        this.days = days;
+        this.gapRate = gapRate;
+        this.legacyRate = legacyRate;
+        this.scoreRate = scoreRate;
+        this.seed = seed;
+        this.lastDay = lastDay;
+    }
+
+    public static String userName(int user) {
+        return "user" + user;
+    }
+
+    public List<User> users() {
+        Random random = new Random(seed);
+        List<User> result = new ArrayList<>(users);
+        for (int user = 0; user < users; user++) {
+            result.add(new User(userName(user), "password" + user,
+                    18 + random.nextInt(60), 150 + random.nextInt(50), 50 + random.nextInt(60)));
+        }
+        return result;
+    }
+
+    /**
+     * @return one user's history, oldest day first, with gaps
+     */
+    public List<HealthMetrics> metricsFor(int user) {
+        Random random = new Random(seed * 31 + user);
+        double sleep = 6.0 + random.nextDouble() * 2.5;
+        double steps = 3000 + random.nextDouble() * 9000;
+        double water = 1.0 + random.nextDouble() * 2.0;
+        double exercise = random.nextDouble() * 60;
+        double calories = 1600 + random.nextDouble() * 1200;
+
+        List<HealthMetrics> history = new ArrayList<>(days);
+        for (int day = days - 1; day >= 0; day--) {
+            if (random.nextDouble() < gapRate) {
+                continue;
+            }
+            LocalDate date = lastDay.minusDays(day);
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            history.add(new HealthMetrics(userName(user), date,
+                    clamp(sleep + (weekend ? 0.8 : 0) + random.nextGaussian() * 0.8, 0, 24),
+                    (int) clamp(steps * (weekend ? 0.8 : 1.0) + random.nextGaussian() * 1500, 0, 40000),
+                    round(clamp(water + random.nextGaussian() * 0.4, 0, 8)),
+                    round(clamp(exercise + random.nextGaussian() * 15, 0, 300)),
+                    (int) clamp(calories + random.nextGaussian() * 250, 0, 6000)));
+        }
+        return history;
+    }
+
+    /**
+     * Writes every user's history as a health_metrics.json array, streamed so large files do
+     * not have to fit in memory.
+     * @return the number of records written
+     */
+    public int writeHealthMetrics(Path file) throws IOException {
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        int written = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write('[');
+            for (int user = 0; user < users; user++) {
+                for (HealthMetrics m : metricsFor(user)) {
+                    if (written++ > 0) {
+                        out.write(',');
+                    }
+                    // Records written before the field names were standardized
+                    boolean legacy = random.nextDouble() < legacyRate;
+                    out.write(String.format(Locale.ROOT,
+                            "{\"userId\":\"%s\",\"date\":\"%s\",\"%s\":%.1f,\"%s\":%.1f,"
+                                    + "\"exerciseMinutes\":%.1f,\"calories\":%d,\"steps\":%d",
+                            m.getUserId(), m.getDate(), legacy ? "sleepHour" : "sleepHours", m.getSleepHours(),
+                            legacy ? "waterLitres" : "waterIntake", m.getWaterIntake(),
+                            m.getExerciseMinutes(), m.getCalories(), m.getSteps()));
+                    if (random.nextDouble() < scoreRate) {
+                        out.write(String.format(Locale.ROOT, ",\"score\":%d,\"feedback\":\"%s\"",
+                                40 + random.nextInt(60), "Keep up the good work on your sleep and hydration."));
+                    }
+                    out.write('}');
+                }
+            }
+            out.write(']');
+        }
+        return written;
+    }
+
+    /**
+     * Writes the users in the format read by FileUserDataAccessObject.
+     */
+    public void writeUsersCsv(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("username,password,age,height,weight");
+            out.newLine();
+            for (User user : users()) {
+                out.write(String.format("%s,%s,%d,%d,%d", user.getName(), user.getPassword(),
+                        user.getAge(), user.getHeight(), user.getWeight()));
+                out.newLine();
+            }
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * Usage: SyntheticDataGenerator [--users N] [--days D] [--gaps RATE] [--legacy RATE]
+     * [--scores RATE] [--seed S] [--end yyyy-MM-dd] [--formats json,log,columnar] [--out DIR]
+     * <p>
+     * History ends today unless {@code --end} is given. The JSON file is always written; the
+     * log and columnar formats are converted from it into the directories AppBuilder uses, so
+     * the output directory can serve as the application's working directory.
+     */
+    public static void main(String[] args) throws IOException {
+        int users = 100;
+        int days = 3 * 365;
+        double gaps = 0.1;
+        double legacy = 0.05;
+        double scores = 0.8;
+        long seed = 42;
+        LocalDate end = LocalDate.now();
+        List<String> formats = Arrays.asList("json", "log", "columnar");
+        Path out = Paths.get(".");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--users" -> users = Integer.parseInt(args[i + 1]);
+                case "--days" -> days = Integer.parseInt(args[i + 1]);
+                case "--gaps" -> gaps = Double.parseDouble(args[i + 1]);
+                case "--legacy" -> legacy = Double.parseDouble(args[i + 1]);
+                case "--scores" -> scores = Double.parseDouble(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--end" -> end = LocalDate.parse(args[i + 1]);
+                case "--formats" -> formats = Arrays.asList(args[i + 1].split(","));
+                case "--out" -> out = Paths.get(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Files.createDirectories(out);
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(users, days, gaps, legacy, scores, seed, end);
+        Path json = out.resolve("health_metrics.json");
+        int records = generator.writeHealthMetrics(json);
+        generator.writeUsersCsv(out.resolve("users.csv"));
+        System.out.printf("Wrote %d users and %d health records to %s%n", users, records, json.toAbsolutePath());
+
+        if (formats.contains("log")) {
+            try (HealthMetricsLogStore logStore = new HealthMetricsLogStore(out.resolve(LOG_DIRECTORY))) {
+                int migrated = HealthMetricsLogMigrator.migrate(json, logStore);
+                System.out.printf("Wrote %d records to the segmented log in %s%n", migrated, logStore.getDirectory());
+            }
+        }
+        if (formats.contains("columnar")) {
+            HealthMetricsColumnStore columnStore = new HealthMetricsColumnStore(out.resolve(COLUMN_DIRECTORY));
+            int converted = HealthMetricsColumnarConverter.convert(json, columnStore);
+            System.out.printf("Wrote %d records to columnar files in %s%n", converted, columnStore.getDirectory());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package benchmarks;
+
+import Entities.UserFactory;
+import data_access.DBUserDataAccessObject;
+import data_access.LocalUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import use_case.login.LoginInputData;
+import use_case.login.LoginInteractor;
+import use_case.login.LoginOutputBoundary;
+import use_case.login.LoginOutputData;
+import use_case.login.LoginUserDataAccessInterface;
+import use_case.signup.SignupInputData;
+import use_case.signup.SignupInteractor;
+import use_case.signup.SignupOutputBoundary;
+import use_case.signup.SignupOutputData;
+import use_case.signup.SignupUserDataAccessInterface;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Login and signup throughput through DBUserDataAccessObject against the local stand-in user
+ * service, comparing the shared pooled client with the old client-per-call DAO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class UserServiceBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"legacy", "pooled"})
+    public String client;
+
+    private final AtomicLong nextSignup = new AtomicLong();
+    private LocalUserService service;
+    private LoginInteractor login;
+    private SignupInteractor signup;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = new LocalUserService();
+        for (int i = 0; i < USERS; i++) {
+            service.addUser(SyntheticDataGenerator.userName(i), "password" + i);
+        }
+
+        UserFactory userFactory = new UserFactory();
+        Object dataAccess = client.equals("legacy")
+                ? new LegacyDBUserDataAccessObject(userFactory, service.getBaseUrl())
+                : new DBUserDataAccessObject(userFactory, service.getBaseUrl());
+        login = new LoginInteractor((LoginUserDataAccessInterface) dataAccess, new LoginOutputBoundary() {
+            @Override
+            public void prepareSuccessView(LoginOutputData outputData) {
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                throw new IllegalStateException(errorMessage);
+            }
+
+            @Override
+            public void switchToLoginView() {
+            }
+        });
+        signup = new SignupInteractor((SignupUserDataAccessInterface) dataAccess, new SignupOutputBoundary() {
+            @Override
+            public void prepareSuccessView(SignupOutputData outputData) {
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                throw new IllegalStateException(errorMessage);
+            }
+
+            @Override
+            public void switchToLoginView() {
+            }
+        }, userFactory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public void login() {
+        int user = (int) (Thread.currentThread().getId() % USERS);
+        login.execute(new LoginInputData(SyntheticDataGenerator.userName(user), "password" + user));
+    }
+
+    @Benchmark
+    public void signup() {
+        String username = "signup" + nextSignup.incrementAndGet();
+        signup.execute(new SignupInputData(username, "secret", "secret"));
+    }
+}
@@ -0,0 +1,106 @@
+package benchmarks;
+
+import Entities.User;
+import Entities.UserFactory;
+import data_access.FileUserDataAccessObject;
+import data_access.UsersCsvLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of reading users.csv: the BufferedReader and String.split parsing the
+ * FileUserDataAccessObject constructor used to do, the memory-mapped UsersCsvLoader on one
+ * thread and in parallel chunks, and the whole constructor as it is now, loading every
+ * account or, lazily, only indexing the file (with and without a saved index).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersCsvLoadBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    public int users;
+
+    private final UserFactory userFactory = new UserFactory();
+    private Path directory;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        directory = Files.createTempDirectory("users-csv");
+        csv = directory.resolve("users.csv");
+        new SyntheticDataGenerator(users, 1, 0.0, 42).writeUsersCsv(csv);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Map<String, User> bufferedReaderSplit() throws IOException {
+        return LegacyUsersCsvReader.read(csv.toFile(), userFactory);
+    }
+
+    @Benchmark
+    public Map<String, User> mappedSequential() {
+        return UsersCsvLoader.load(csv, userFactory, false).getUsers();
+    }
+
+    @Benchmark
+    public Map<String, User> mappedParallel() {
+        return UsersCsvLoader.load(csv, userFactory, true).getUsers();
+    }
+
+    /**
+     * Deletes the saved users.csv index before each call, so the lazy constructor has to scan the file.
+     */
+    @State(Scope.Thread)
+    public static class ColdIndex {
+        @Setup(Level.Invocation)
+        public void deleteIndex(UsersCsvLoadBenchmark benchmark) throws IOException {
+            Files.deleteIfExists(benchmark.directory.resolve("users.csv.idx"));
+        }
+    }
+
+    @Benchmark
+    public User lazyDataAccessObject() {
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory,
+                FileUserDataAccessObject.DEFAULT_COMPACTION_THRESHOLD, FileUserDataAccessObject.DEFAULT_LAZY_CACHE_SIZE);
+        User user = dataAccess.get("user1");
+        dataAccess.close();
+        return user;
+    }
+
+    @Benchmark
+    public User lazyDataAccessObjectColdIndex(ColdIndex coldIndex) {
+        return lazyDataAccessObject();
+    }
+
+    @Benchmark
+    public FileUserDataAccessObject fileDataAccessObject() {
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory);
+        dataAccess.close();
+        return dataAccess;
+    }
+}
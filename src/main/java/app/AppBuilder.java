@@ -2,9 +2,15 @@ package app;
 
 import Entities.User;
 import Entities.UserFactory;
-import data_access.DailyHealthScoreDataAccessObject;
+import data_access.AsyncUserDataAccessObject;
 import data_access.FileUserDataAccessObject;
-import data_access.HealthMetricsDataAccessObject;
+import data_access.HealthMetricsColumnStore;
+import data_access.HealthMetricsColumnarConverter;
+import data_access.HealthMetricsJsonFile;
+import data_access.HealthMetricsLogMigrator;
+import data_access.HealthMetricsLogStore;
+import data_access.HealthRecordStore;
+import data_access.WriteBehindHealthDataAccessObject;
 import interface_adapter.ViewManagerModel;
 import interface_adapter.change_password.ChangePasswordController;
 import interface_adapter.change_password.ChangePasswordPresenter;
@@ -50,6 +56,7 @@ import use_case.logout.LogoutInputBoundary;
 import use_case.logout.LogoutInteractor;
 import use_case.logout.LogoutOutputBoundary;
 import use_case.settings.SettingsInputBoundary;
+import use_case.session.SessionContext;
 import use_case.settings.SettingsInteractor;
 import use_case.settings.SettingsOutputBoundary;
 import use_case.signup.SignupInputBoundary;
@@ -66,15 +73,50 @@ import view.*;
 
 import javax.swing.*;
 import java.awt.*;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
 
 public class AppBuilder {
+    // Health metrics storage: "json" (default), "log" (segmented log) or "columnar" (binary per-user files)
+    static final String STORAGE_PROPERTY = "betterblueprint.storage";
+    // Read accounts from users.csv on demand instead of all at startup
+    static final String LAZY_USERS_PROPERTY = "betterblueprint.users.lazy";
+    // "false" asks Gemini for the daily score and its feedback in two calls instead of one
+    static final String COMBINED_SCORE_PROPERTY = "betterblueprint.gemini.combinedScore";
+    // Write-behind tuning for the health metrics cache
+    static final String FLUSH_BATCH_SIZE_PROPERTY = "betterblueprint.flush.batchSize";
+    static final String FLUSH_MAX_DELAY_PROPERTY = "betterblueprint.flush.maxDelayMillis";
+    // Number of users whose health history the cache keeps in memory
+    static final String CACHED_USERS_PROPERTY = "betterblueprint.cache.maxUsers";
+    private static final String METRICS_FILE_PATH = "health_metrics.json";
+    private static final String METRICS_LOG_DIRECTORY = "health_metrics_log";
+    private static final String METRICS_COLUMN_DIRECTORY = "health_metrics_columns";
+
     private final JPanel cardPanel = new JPanel();
     private final CardLayout cardLayout = new CardLayout();
     private final UserFactory userFactory = new UserFactory();
     private final ViewManagerModel viewManagerModel = new ViewManagerModel();
     private final ViewManager viewManager = new ViewManager(cardPanel, cardLayout, viewManagerModel);
-    private final FileUserDataAccessObject userDataAccessObject = new FileUserDataAccessObject("users.csv", userFactory);
-    private final HealthMetricsDataAccessObject healthMetricsDataAccessObject = new HealthMetricsDataAccessObject(userDataAccessObject);
+    private final FileUserDataAccessObject userDataAccessObject = new FileUserDataAccessObject("users.csv", userFactory,
+            FileUserDataAccessObject.DEFAULT_COMPACTION_THRESHOLD,
+            Boolean.getBoolean(LAZY_USERS_PROPERTY) ? FileUserDataAccessObject.DEFAULT_LAZY_CACHE_SIZE : 0);
+    // Login, signup and settings run their DAO calls here instead of on the event dispatch thread
+    private final ExecutorService userDataAccessExecutor = ExecutorFactory.newBackgroundExecutor("user-data-access");
+    // The daily score and its feedback are requested from Gemini in parallel here
+    private final ExecutorService healthScoreExecutor = ExecutorFactory.newBackgroundExecutor("health-score");
+    private final AsyncUserDataAccessObject asyncUserDataAccessObject =
+            new AsyncUserDataAccessObject(userDataAccessObject, userDataAccessExecutor);
+    private final HealthRecordStore healthRecordStore = openHealthRecordStore();
+    private final WriteBehindHealthDataAccessObject healthMetricsDataAccessObject = new WriteBehindHealthDataAccessObject(
+            userDataAccessObject,
+            healthRecordStore,
+            Integer.getInteger(FLUSH_BATCH_SIZE_PROPERTY, WriteBehindHealthDataAccessObject.DEFAULT_BATCH_SIZE),
+            Long.getLong(FLUSH_MAX_DELAY_PROPERTY, WriteBehindHealthDataAccessObject.DEFAULT_MAX_DELAY_MILLIS),
+            Integer.getInteger(CACHED_USERS_PROPERTY, WriteBehindHealthDataAccessObject.DEFAULT_MAX_CACHED_USERS));
+    // The window's signed-in user; the DAOs above are shared and hold no per-user state
+    private final SessionContext session = SessionContext.create();
+    // One Gemini client, and so one connection pool and dispatcher, for every use case that calls it
+    private final GeminiAPIService geminiAPIService = new GeminiAPIService();
 
 
     private SignupView signupView;
@@ -100,6 +142,46 @@ public class AppBuilder {
         cardPanel.setLayout(cardLayout);
     }
 
+    /**
+     * Opens the health metrics store selected by the storage property. The log and columnar
+     * stores import health_metrics.json the first time they are used.
+     */
+    static HealthRecordStore openHealthRecordStore() {
+        switch (System.getProperty(STORAGE_PROPERTY, "json").toLowerCase()) {
+            case "log" -> {
+                HealthMetricsLogStore store = new HealthMetricsLogStore(Paths.get(METRICS_LOG_DIRECTORY));
+                HealthMetricsLogMigrator.migrate(Paths.get(METRICS_FILE_PATH), store);
+                return store;
+            }
+            case "columnar" -> {
+                HealthMetricsColumnStore store = new HealthMetricsColumnStore(Paths.get(METRICS_COLUMN_DIRECTORY));
+                HealthMetricsColumnarConverter.convert(Paths.get(METRICS_FILE_PATH), store);
+                return store;
+            }
+            default -> {
+                return new HealthMetricsJsonFile(METRICS_FILE_PATH);
+            }
+        }
+    }
+
+    static boolean isCombinedScoreEnabled() {
+        return Boolean.parseBoolean(System.getProperty(COMBINED_SCORE_PROPERTY, "true"));
+    }
+
+    /**
+     * Writes out any health metrics still waiting in the write-behind cache and closes the
+     * stores behind it. Main registers this as a JVM shutdown hook.
+     */
+    public void shutdown() {
+        userDataAccessExecutor.shutdown();
+        healthScoreExecutor.shutdown();
+        userDataAccessObject.close();
+        healthMetricsDataAccessObject.close();
+        if (healthRecordStore instanceof HealthMetricsLogStore) {
+            ((HealthMetricsLogStore) healthRecordStore).close();
+        }
+    }
+
     public AppBuilder addLoginView() {
         loginViewModel = new LoginViewModel();
         loginView = new LoginView(loginViewModel);
@@ -128,8 +210,6 @@ public class AppBuilder {
     public AppBuilder addHealthInsightsUseCase() {
         healthInsightsViewModel = new HealthInsightsViewModel();
 
-        GeminiAPIService geminiAPIService = new GeminiAPIService();
-
         HealthInsightsOutputBoundary healthInsightsOutputBoundary =
                 new HealthInsightsPresenter(healthInsightsViewModel);
 
@@ -138,7 +218,8 @@ public class AppBuilder {
                         healthInsightsOutputBoundary,
                         healthMetricsDataAccessObject,
                         userDataAccessObject,
-                        geminiAPIService
+                        geminiAPIService,
+                        SwingUtilities::invokeLater
                 );
 
         healthInsightsController = new HealthInsightsController(healthInsightsInteractor);
@@ -166,7 +247,8 @@ public class AppBuilder {
                 settingsViewModel,
                 myScoreView,
                 healthInsightsView,
-                goalsView
+                goalsView,
+                healthMetricsDataAccessObject
         );
 
         cardPanel.add(homeView, homeView.getViewName());
@@ -180,7 +262,7 @@ public class AppBuilder {
         final SignupOutputBoundary signupOutputBoundary = new SignupPresenter(viewManagerModel,
                 signupViewModel, loginViewModel);
         final SignupInputBoundary userSignupInteractor = new SignupInteractor(
-                userDataAccessObject, signupOutputBoundary, userFactory);
+                asyncUserDataAccessObject, signupOutputBoundary, userFactory, SwingUtilities::invokeLater);
 
         final SignupController controller = new SignupController(userSignupInteractor);
         signupView.setSignupController(controller);
@@ -196,7 +278,7 @@ public class AppBuilder {
         );
 
         final LoginInputBoundary loginInteractor = new LoginInteractor(
-                userDataAccessObject, loginOutputBoundary
+                asyncUserDataAccessObject, loginOutputBoundary, SwingUtilities::invokeLater, session
         );
 
         final LoginController loginController = new LoginController(loginInteractor);
@@ -210,7 +292,7 @@ public class AppBuilder {
         final InputMetricsOutputBoundary inputMetricsOutputBoundary =
                 new InputMetricsPresenter(inputMetricsViewModel, viewManagerModel);
         final InputMetricsInputBoundary inputMetricsInteractor =
-                new InputMetricsInteractor(healthMetricsDataAccessObject, inputMetricsOutputBoundary);
+                new InputMetricsInteractor(healthMetricsDataAccessObject, inputMetricsOutputBoundary, session);
 
         InputMetricsController controller = new InputMetricsController(inputMetricsInteractor);
         inputMetricsView.setInputMetricsController(controller);
@@ -225,7 +307,7 @@ public class AppBuilder {
         );
 
         final LogoutInputBoundary logoutInteractor = new LogoutInteractor(
-                userDataAccessObject, logoutOutputBoundary);
+                session, logoutOutputBoundary);
 
         final LogoutInputBoundary logoutInteractorWithReset = new LogoutInputBoundary() {
             @Override
@@ -268,8 +350,10 @@ public class AppBuilder {
                 goalsViewModel
         );
         final SettingsInputBoundary settingsInteractor = new SettingsInteractor(
-                userDataAccessObject,
-                settingsOutputBoundary
+                asyncUserDataAccessObject,
+                settingsOutputBoundary,
+                SwingUtilities::invokeLater,
+                session
         );
 
         final SettingsController settingsController = new SettingsController(settingsInteractor);
@@ -298,20 +382,22 @@ public class AppBuilder {
 
         myScoreView = new MyScoreView(dailyHealthScoreViewModel, null);
 
-        GeminiAPIService geminiService = new GeminiAPIService();
-
-        HealthScoreCalculator scoreCalculator = new GeminiHealthScoreCalculator(geminiService);
+        // Concurrent requests for the same metrics share one Gemini call
+        HealthScoreCalculator scoreCalculator =
+                new CoalescingHealthScoreCalculator(new GeminiHealthScoreCalculator(geminiAPIService,
+                        isCombinedScoreEnabled()));
 
-        DailyHealthScoreUserDataAccessInterface metricsDAO =
-                new DailyHealthScoreDataAccessObject(userDataAccessObject);
+        // Shares the write-behind cache with the Input Metrics use case
+        DailyHealthScoreUserDataAccessInterface metricsDAO = healthMetricsDataAccessObject;
 
         DailyHealthScoreOutputBoundary presenter =
                 new DailyHealthScorePresenter(dailyHealthScoreViewModel);
 
         DailyHealthScoreInputBoundary interactor =
-                new DailyHealthScoreInteractor(metricsDAO, presenter, scoreCalculator);
+                new DailyHealthScoreInteractor(metricsDAO, presenter, scoreCalculator,
+                        healthScoreExecutor, SwingUtilities::invokeLater);
 
-        dailyHealthScoreController = new DailyHealthScoreController(interactor, metricsDAO);
+        dailyHealthScoreController = new DailyHealthScoreController(interactor, session);
 
         myScoreView.setController(dailyHealthScoreController);
 
@@ -321,11 +407,11 @@ public class AppBuilder {
     public AppBuilder addGoalsUseCase() {
         GoalsPresenter goalsPresenter = new GoalsPresenter(goalsViewModel);
         GoalsInputBoundary goalsInteractor =
-                new GoalsInteractor(userDataAccessObject, goalsPresenter);
+                new GoalsInteractor(userDataAccessObject, goalsPresenter, session);
         GoalsController goalsController = new GoalsController(goalsInteractor);
         goalsView.setGoalsController(goalsController);
 
-        String currentUsername = userDataAccessObject.getCurrentUsername();
+        String currentUsername = session.getUsername();
         if (currentUsername != null) {
             User user = userDataAccessObject.get(currentUsername);
             if (user != null) {
@@ -0,0 +1,66 @@
+package app;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors background work (remote DAO calls and the like) runs on.
+ * <p>
+ * On a JDK with virtual threads (21+) every task gets its own virtual thread, so blocking
+ * I/O costs no platform thread. The project compiles for older JDKs, so the factory method is
+ * looked up reflectively; where it is missing a bounded pool of daemon platform threads is
+ * used instead.
+ */
+public final class ExecutorFactory {
+
+    static final int DEFAULT_MAX_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private ExecutorFactory() {
+    }
+
+    /**
+     * @param name prefix for the names of pooled threads
+     * @return a virtual-thread-per-task executor if available, otherwise a bounded pool
+     */
+    public static ExecutorService newBackgroundExecutor(String name) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        return virtual != null ? virtual : newBoundedExecutor(name, DEFAULT_MAX_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @return a virtual-thread-per-task executor, or null if this JDK has no virtual threads
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A pool of at most {@code maxThreads} daemon threads that are released after a minute
+     * idle, with a bounded queue; submissions beyond the queue are rejected rather than
+     * growing memory without limit.
+     */
+    static ExecutorService newBoundedExecutor(String name, int maxThreads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
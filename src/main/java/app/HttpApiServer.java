@@ -0,0 +1,408 @@
+package app;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data_access.FileUserDataAccessObject;
+import data_access.WriteBehindHealthDataAccessObject;
+import interface_adapter.JsonPresenter;
+import interface_adapter.JsonResponse;
+import interface_adapter.daily_health_score.DailyHealthScoreController;
+import interface_adapter.daily_health_score.DailyHealthScoreJsonPresenter;
+import interface_adapter.goals.GoalsJsonPresenter;
+import interface_adapter.health_history.HealthHistoryJsonPresenter;
+import interface_adapter.health_insights.HealthInsightsJsonPresenter;
+import interface_adapter.input_metrics.InputMetricsJsonPresenter;
+import interface_adapter.login.LoginJsonPresenter;
+import interface_adapter.logout.LogoutJsonPresenter;
+import org.json.JSONException;
+import org.json.JSONObject;
+import services.GeminiAPIService;
+import use_case.daily_health_score.DailyHealthScoreInteractor;
+import use_case.daily_health_score.HealthScoreCalculator;
+import use_case.goals.GoalsInputData;
+import use_case.goals.GoalsInteractor;
+import use_case.healthHistory.healthHistoryInputData;
+import use_case.healthHistory.healthHistoryInteractor;
+import use_case.health_insights.HealthInsightsInputData;
+import use_case.health_insights.HealthInsightsInteractor;
+import use_case.input_metrics.InputMetricsInputData;
+import use_case.input_metrics.InputMetricsInteractor;
+import use_case.login.AsyncLoginUserDataAccessInterface;
+import use_case.login.LoginInputData;
+import use_case.login.LoginInteractor;
+import use_case.logout.LogoutInteractor;
+import use_case.session.SessionContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Serves the use cases as JSON over HTTP with the JDK's embedded server, for running
+ * BetterBlueprint headless as a backend for many users at once.
+ * <p>
+ * {@code POST /login} with {@code {"username", "password"}} opens a session and returns its
+ * token; every other endpoint needs an {@code Authorization: Bearer <token>} header and acts
+ * as that session's user:
+ * <ul>
+ *     <li>{@code POST /logout}</li>
+ *     <li>{@code POST /metrics} with {@code {"sleepHours", "steps", "waterIntake", "calories", "exerciseMinutes"}}</li>
+ *     <li>{@code GET /score?date=YYYY-MM-DD} (today if omitted)</li>
+ *     <li>{@code GET /history?metric=sleep&range=week&aggregation=none}</li>
+ *     <li>{@code POST /goals} with {@code {"goalType", "target", "timeframe"}}</li>
+ *     <li>{@code GET /insights}</li>
+ * </ul>
+ * Each request builds its interactor over the shared DAOs with the session's
+ * SessionContext and a JSON presenter, and its handler waits for the presenter. Requests
+ * run on the executor passed in; with a virtual thread per request, the waits for the DAOs
+ * and the Gemini API hold no platform thread. The score and feedback calls of {@code /score}
+ * run in parallel on an executor of the server's own, so they never wait behind the
+ * request handlers that are waiting for them. Errors are answered as {@code {"error": ...}}.
+ * <p>
+ * A session ends at logout or once it has been idle for {@code sessionIdleMillis}. At most
+ * {@code maxSessions} are open at a time; a login beyond that ends the least recently used.
+ */
+public class HttpApiServer implements AutoCloseable {
+
+    // Matches the Gemini client's read timeout
+    static final long RESPONSE_TIMEOUT_SECONDS = 30;
+    public static final long DEFAULT_SESSION_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    private static final String BEARER = "Bearer ";
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int INTERNAL_ERROR = 500;
+    private static final int GATEWAY_TIMEOUT = 504;
+
+    private final FileUserDataAccessObject userDataAccess;
+    private final AsyncLoginUserDataAccessInterface loginDataAccess;
+    private final WriteBehindHealthDataAccessObject healthDataAccess;
+    private final HealthScoreCalculator scoreCalculator;
+    private final GeminiAPIService geminiAPIService;
+    private final HttpServer server;
+    private final ExecutorService scoreExecutor = ExecutorFactory.newBackgroundExecutor("score-pipeline");
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long sessionIdleMillis;
+    private final int maxSessions;
+    private final LongSupplier clock;
+
+    /**
+     * @param address the address to listen on; port 0 picks a free port
+     * @param executor runs the request handlers
+     * @param userDataAccess the user accounts
+     * @param healthDataAccess the health metrics and scores
+     * @param scoreCalculator computes daily scores
+     * @param geminiAPIService generates insights
+     * @throws IOException if the address cannot be bound
+     */
+    public HttpApiServer(InetSocketAddress address, Executor executor,
+                         FileUserDataAccessObject userDataAccess,
+                         WriteBehindHealthDataAccessObject healthDataAccess,
+                         HealthScoreCalculator scoreCalculator,
+                         GeminiAPIService geminiAPIService) throws IOException {
+        this(address, executor, userDataAccess, healthDataAccess, scoreCalculator, geminiAPIService,
+                DEFAULT_SESSION_IDLE_MILLIS, DEFAULT_MAX_SESSIONS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param sessionIdleMillis how long a session may go without a request before it ends
+     * @param maxSessions number of sessions open at a time
+     * @param clock millisecond time source, replaceable in tests
+     */
+    HttpApiServer(InetSocketAddress address, Executor executor,
+                  FileUserDataAccessObject userDataAccess,
+                  WriteBehindHealthDataAccessObject healthDataAccess,
+                  HealthScoreCalculator scoreCalculator,
+                  GeminiAPIService geminiAPIService,
+                  long sessionIdleMillis, int maxSessions, LongSupplier clock) throws IOException {
+        this.sessionIdleMillis = sessionIdleMillis;
+        this.maxSessions = Math.max(1, maxSessions);
+        this.clock = clock;
+        this.userDataAccess = userDataAccess;
+        this.loginDataAccess = AsyncLoginUserDataAccessInterface.blocking(userDataAccess);
+        this.healthDataAccess = healthDataAccess;
+        this.scoreCalculator = scoreCalculator;
+        this.geminiAPIService = geminiAPIService;
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+
+        route("/login", "POST", false, this::login);
+        route("/logout", "POST", true, this::logout);
+        route("/metrics", "POST", true, this::inputMetrics);
+        route("/score", "GET", true, this::dailyHealthScore);
+        route("/history", "GET", true, this::healthHistory);
+        route("/goals", "POST", true, this::goals);
+        route("/insights", "GET", true, this::healthInsights);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of sessions that have logged in and not yet out or expired
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops accepting requests, giving those in flight up to a second to finish. The DAOs and
+     * the request executor belong to the caller and are left open.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        scoreExecutor.shutdown();
+    }
+
+    private CompletableFuture<JsonResponse> login(Request request) {
+        JSONObject body = request.body();
+        SessionContext session = SessionContext.create();
+        LoginJsonPresenter presenter = new LoginJsonPresenter();
+        new LoginInteractor(loginDataAccess, presenter, Runnable::run, session)
+                .execute(new LoginInputData(body.getString("username"), body.getString("password")));
+        return presenter.getResponse().thenApply(response -> {
+            if (response.isSuccess()) {
+                String token = newToken();
+                openSession(token, session);
+                response.getBody().put("token", token);
+            }
+            return response;
+        });
+    }
+
+    private CompletableFuture<JsonResponse> logout(Request request) {
+        LogoutJsonPresenter presenter = new LogoutJsonPresenter();
+        new LogoutInteractor(request.session, presenter).execute();
+        sessions.remove(request.token);
+        return presenter.getResponse();
+    }
+
+    private CompletableFuture<JsonResponse> inputMetrics(Request request) {
+        JSONObject body = request.body();
+        InputMetricsJsonPresenter presenter = new InputMetricsJsonPresenter();
+        new InputMetricsInteractor(healthDataAccess, presenter, request.session)
+                .execute(new InputMetricsInputData(request.session.getUsername(),
+                        body.getFloat("sleepHours"), body.getInt("steps"), body.getFloat("waterIntake"),
+                        body.getInt("calories"), body.getFloat("exerciseMinutes")));
+        return presenter.getResponse();
+    }
+
+    private CompletableFuture<JsonResponse> dailyHealthScore(Request request) {
+        String date = request.query("date");
+        DailyHealthScoreJsonPresenter presenter = new DailyHealthScoreJsonPresenter();
+        new DailyHealthScoreController(new DailyHealthScoreInteractor(healthDataAccess, presenter, scoreCalculator,
+                scoreExecutor, Runnable::run), request.session).computeDailyHealthScore(date == null ? LocalDate.now() : LocalDate.parse(date));
+        return presenter.getResponse();
+    }
+
+    private CompletableFuture<JsonResponse> healthHistory(Request request) {
+        String metric = request.query("metric");
+        String range = request.query("range");
+        String aggregation = request.query("aggregation");
+        HealthHistoryJsonPresenter presenter = new HealthHistoryJsonPresenter();
+        new healthHistoryInteractor(healthDataAccess, presenter).execute(new healthHistoryInputData(
+                metric == null ? "sleep" : metric, range == null ? "week" : range,
+                request.session.getUsername(), aggregation == null ? "none" : aggregation));
+        return presenter.getResponse();
+    }
+
+    private CompletableFuture<JsonResponse> goals(Request request) {
+        JSONObject body = request.body();
+        GoalsJsonPresenter presenter = new GoalsJsonPresenter();
+        new GoalsInteractor(userDataAccess, presenter, request.session).execute(new GoalsInputData(
+                body.getString("goalType"), body.optString("target"), body.optString("timeframe")));
+        return presenter.getResponse();
+    }
+
+    private CompletableFuture<JsonResponse> healthInsights(Request request) {
+        HealthInsightsJsonPresenter presenter = new HealthInsightsJsonPresenter();
+        new HealthInsightsInteractor(presenter, healthDataAccess, userDataAccess, geminiAPIService)
+                .execute(new HealthInsightsInputData(request.session.getUsername()));
+        return presenter.getResponse();
+    }
+
+    private interface Endpoint {
+        CompletableFuture<JsonResponse> handle(Request request);
+    }
+
+    private void route(String path, String method, boolean signedIn, Endpoint endpoint) {
+        server.createContext(path, exchange -> {
+            JsonResponse response;
+            try {
+                response = respond(exchange, path, method, signedIn, endpoint);
+            } catch (JSONException | IllegalArgumentException | DateTimeParseException e) {
+                response = error(JsonPresenter.BAD_REQUEST, e.getMessage());
+            } catch (TimeoutException e) {
+                response = error(GATEWAY_TIMEOUT, "Timed out after " + RESPONSE_TIMEOUT_SECONDS + " s");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response = error(INTERNAL_ERROR, "Interrupted");
+            } catch (ExecutionException | RuntimeException e) {
+                System.err.println("Error handling " + method + " " + path + ": " + e);
+                response = error(INTERNAL_ERROR, "Internal error");
+            }
+            send(exchange, response);
+        });
+    }
+
+    private JsonResponse respond(HttpExchange exchange, String path, String method, boolean signedIn,
+                                 Endpoint endpoint) throws IOException, InterruptedException,
+            ExecutionException, TimeoutException {
+        // A context also receives every path below its own
+        if (!exchange.getRequestURI().getPath().equals(path)) {
+            return error(NOT_FOUND, "Not found");
+        }
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            return error(METHOD_NOT_ALLOWED, "Use " + method);
+        }
+        String token = null;
+        SessionContext session = null;
+        if (signedIn) {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            token = authorization != null && authorization.startsWith(BEARER)
+                    ? authorization.substring(BEARER.length()) : null;
+            session = token == null ? null : activeSession(token);
+            if (session == null) {
+                return error(JsonPresenter.UNAUTHORIZED, "Log in first");
+            }
+        }
+        return endpoint.handle(new Request(exchange, token, session))
+                .get(RESPONSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Drops expired sessions, then the least recently used ones while the cap is reached,
+     * and opens the new one.
+     */
+    private synchronized void openSession(String token, SessionContext context) {
+        long now = clock.getAsLong();
+        sessions.values().removeIf(session -> session.isExpired(now));
+        while (sessions.size() >= maxSessions) {
+            sessions.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                    .ifPresent(eldest -> sessions.remove(eldest.getKey()));
+        }
+        sessions.put(token, new Session(context, now));
+    }
+
+    /**
+     * @return the token's session, or null if there is none or it has expired
+     */
+    private SessionContext activeSession(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (session.isExpired(now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.lastUsed = now;
+        return session.context;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static JsonResponse error(int status, String message) {
+        return new JsonResponse(status, new JSONObject().put("error", message));
+    }
+
+    private static void send(HttpExchange exchange, JsonResponse response) throws IOException {
+        byte[] bytes = response.getBody().toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.getStatus(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * A logged-in session and when it last made a request.
+     */
+    private final class Session {
+        private final SessionContext context;
+        private volatile long lastUsed;
+
+        private Session(SessionContext context, long lastUsed) {
+            this.context = context;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean isExpired(long now) {
+            return now - lastUsed >= sessionIdleMillis;
+        }
+    }
+
+    /**
+     * One request: its exchange and, for signed-in endpoints, its session.
+     */
+    private static final class Request {
+        private final HttpExchange exchange;
+        private final String token;
+        private final SessionContext session;
+        private Map<String, String> query;
+
+        private Request(HttpExchange exchange, String token, SessionContext session) {
+            this.exchange = exchange;
+            this.token = token;
+            this.session = session;
+        }
+
+        JSONObject body() {
+            try (InputStream in = exchange.getRequestBody()) {
+                return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        String query(String name) {
+            if (query == null) {
+                query = new HashMap<>();
+                String raw = exchange.getRequestURI().getRawQuery();
+                if (raw != null) {
+                    for (String pair : raw.split("&")) {
+                        int equals = pair.indexOf('=');
+                        if (equals > 0) {
+                            query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                        }
+                    }
+                }
+            }
+            return query.get(name);
+        }
+    }
+}
@@ -5,6 +5,9 @@ import javax.swing.*;
 public class Main {
     public static void main(String[] args) {
         AppBuilder appBuilder = new AppBuilder();
+        // Flush cached health metrics to disk however the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(appBuilder::shutdown, "betterblueprint-shutdown"));
+
         JFrame application = appBuilder
                 .addLoginView()
                 .addSignupView()
@@ -0,0 +1,74 @@
+package app;
+
+import Entities.UserFactory;
+import data_access.FileUserDataAccessObject;
+import data_access.HealthMetricsLogStore;
+import data_access.HealthRecordStore;
+import data_access.WriteBehindHealthDataAccessObject;
+import interface_adapter.daily_health_score.CoalescingHealthScoreCalculator;
+import interface_adapter.daily_health_score.GeminiHealthScoreCalculator;
+import services.GeminiAPIService;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Entry point for the headless server mode: serves the use cases over HTTP (see
+ * HttpApiServer) instead of opening the Swing window. It reads and writes the same users.csv
+ * and health metrics storage as Main and honours the same system properties.
+ * <p>
+ * Usage: ServerMain [--host HOST] [--port PORT]
+ */
+public class ServerMain {
+
+    static final int DEFAULT_PORT = 8080;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        // The JDK server writes headers and body separately; without TCP_NODELAY, Nagle's
+        // algorithm and delayed ACKs add ~40 ms to every response on a kept-alive connection
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        String host = "0.0.0.0";
+        int port = DEFAULT_PORT;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--host" -> host = args[i + 1];
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        FileUserDataAccessObject userDataAccessObject = new FileUserDataAccessObject("users.csv", new UserFactory(),
+                FileUserDataAccessObject.DEFAULT_COMPACTION_THRESHOLD,
+                Boolean.getBoolean(AppBuilder.LAZY_USERS_PROPERTY) ? FileUserDataAccessObject.DEFAULT_LAZY_CACHE_SIZE : 0);
+        HealthRecordStore healthRecordStore = AppBuilder.openHealthRecordStore();
+        WriteBehindHealthDataAccessObject healthMetricsDataAccessObject = new WriteBehindHealthDataAccessObject(
+                userDataAccessObject,
+                healthRecordStore,
+                Integer.getInteger(AppBuilder.FLUSH_BATCH_SIZE_PROPERTY, WriteBehindHealthDataAccessObject.DEFAULT_BATCH_SIZE),
+                Long.getLong(AppBuilder.FLUSH_MAX_DELAY_PROPERTY, WriteBehindHealthDataAccessObject.DEFAULT_MAX_DELAY_MILLIS),
+                Integer.getInteger(AppBuilder.CACHED_USERS_PROPERTY, WriteBehindHealthDataAccessObject.DEFAULT_MAX_CACHED_USERS));
+        GeminiAPIService geminiAPIService = new GeminiAPIService();
+
+        // One virtual thread per request where the JDK has them, a bounded pool otherwise
+        ExecutorService requestExecutor = ExecutorFactory.newBackgroundExecutor("http-request");
+        HttpApiServer server = new HttpApiServer(new InetSocketAddress(host, port), requestExecutor,
+                userDataAccessObject, healthMetricsDataAccessObject,
+                new CoalescingHealthScoreCalculator(new GeminiHealthScoreCalculator(geminiAPIService,
+                        AppBuilder.isCombinedScoreEnabled())),
+                geminiAPIService);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            requestExecutor.shutdown();
+            userDataAccessObject.close();
+            healthMetricsDataAccessObject.close();
+            if (healthRecordStore instanceof HealthMetricsLogStore) {
+                ((HealthMetricsLogStore) healthRecordStore).close();
+            }
+        }, "betterblueprint-shutdown"));
+
+        server.start();
+        System.out.println("BetterBlueprint server listening on " + host + ":" + server.getPort());
+    }
+}
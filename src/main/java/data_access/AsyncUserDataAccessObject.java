@@ -0,0 +1,75 @@
+package data_access;
+
+import Entities.User;
+import use_case.login.AsyncLoginUserDataAccessInterface;
+import use_case.login.LoginUserDataAccessInterface;
+import use_case.settings.AsyncSettingsUserDataAccessInterface;
+import use_case.settings.SettingsUserDataAccessInterface;
+import use_case.signup.AsyncSignupUserDataAccessInterface;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Runs a blocking user DAO (FileUserDataAccessObject, DBUserDataAccessObject,
+ * InMemoryUserDataAccessObject or a cache in front of one) on a background executor and
+ * exposes it through the async login, signup and settings interfaces.
+ * <p>
+ * Only the lookups and saves go to the executor; the current username is in-memory state
+ * and is read and written directly.
+ */
+public class AsyncUserDataAccessObject implements AsyncLoginUserDataAccessInterface,
+        AsyncSignupUserDataAccessInterface,
+        AsyncSettingsUserDataAccessInterface {
+
+    private final LoginUserDataAccessInterface delegate;
+    private final Executor executor;
+
+    /**
+     * @param delegate the blocking DAO
+     * @param executor the executor the DAO calls run on
+     */
+    public AsyncUserDataAccessObject(LoginUserDataAccessInterface delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsByNameAsync(String username) {
+        return CompletableFuture.supplyAsync(() -> delegate.existsByName(username), executor);
+    }
+
+    @Override
+    public CompletableFuture<User> getAsync(String username) {
+        return CompletableFuture.supplyAsync(() -> delegate.get(username), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(User user) {
+        return CompletableFuture.runAsync(() -> delegate.save(user), executor);
+    }
+
+    /**
+     * Runs the delegate's own {@code update} on the executor when it has one, so a DAO that
+     * locks the user across the read and the save keeps doing so.
+     */
+    @Override
+    public CompletableFuture<User> updateAsync(String username, Consumer<User> change) {
+        if (delegate instanceof SettingsUserDataAccessInterface) {
+            final SettingsUserDataAccessInterface settings = (SettingsUserDataAccessInterface) delegate;
+            return CompletableFuture.supplyAsync(() -> settings.update(username, change), executor);
+        }
+        return AsyncSettingsUserDataAccessInterface.super.updateAsync(username, change);
+    }
+
+    @Override
+    public void setCurrentUsername(String name) {
+        delegate.setCurrentUsername(name);
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        return delegate.getCurrentUsername();
+    }
+}
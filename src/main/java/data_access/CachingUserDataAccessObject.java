@@ -0,0 +1,198 @@
+package data_access;
+
+import Entities.User;
+import use_case.change_password.ChangePasswordUserDataAccessInterface;
+import use_case.login.LoginUserDataAccessInterface;
+import use_case.signup.SignupUserDataAccessInterface;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache in front of a remote user DAO such as DBUserDataAccessObject.
+ * <p>
+ * A lookup of an unknown username fetches the whole user with one {@code get} call and
+ * answers both {@code existsByName} and {@code get} from that entry, so a login costs at most
+ * one round trip. Usernames the service does not know are cached as negative entries with a
+ * shorter lifetime. Entries expire after their TTL, the least recently used entry is evicted
+ * once {@code maxEntries} are cached, and {@code save} and {@code changePassword} write
+ * through to the delegate and drop the user's entry.
+ *
+ * @param <D> the wrapped DAO
+ */
+public class CachingUserDataAccessObject<D extends LoginUserDataAccessInterface
+        & SignupUserDataAccessInterface & ChangePasswordUserDataAccessInterface>
+        implements LoginUserDataAccessInterface,
+        SignupUserDataAccessInterface,
+        ChangePasswordUserDataAccessInterface {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final D delegate;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+
+    // guarded by this
+    private final LinkedHashMap<String, CachedUser> entries;
+    private long hits;
+    private long misses;
+    // bumped by every invalidation, so a fetch that raced with a write is not cached
+    private long generation;
+
+    public CachingUserDataAccessObject(D delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS, System::nanoTime);
+    }
+
+    /**
+     * @param delegate the DAO lookups and writes go to
+     * @param maxEntries the most usernames kept, positive and negative entries together
+     * @param ttlMillis how long a fetched user is served from the cache
+     * @param negativeTtlMillis how long a username the delegate does not know is remembered as missing
+     * @param clock nanosecond time source, replaceable in tests
+     */
+    public CachingUserDataAccessObject(D delegate, int maxEntries, long ttlMillis, long negativeTtlMillis,
+                                       LongSupplier clock) {
+        this.delegate = delegate;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > CachingUserDataAccessObject.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public boolean existsByName(String username) {
+        return lookup(username) != null;
+    }
+
+    /**
+     * @throws RuntimeException if the user does not exist, as the delegate would
+     */
+    @Override
+    public User get(String username) {
+        User user = lookup(username);
+        if (user == null) {
+            // Let the delegate report the missing user in its own words
+            return delegate.get(username);
+        }
+        return user;
+    }
+
+    @Override
+    public void save(User user) {
+        try {
+            delegate.save(user);
+        } finally {
+            invalidate(user.getName());
+        }
+    }
+
+    @Override
+    public void changePassword(User user) {
+        try {
+            delegate.changePassword(user);
+        } finally {
+            invalidate(user.getName());
+        }
+    }
+
+    @Override
+    public void setCurrentUsername(String name) {
+        delegate.setCurrentUsername(name);
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        return delegate.getCurrentUsername();
+    }
+
+    /**
+     * Drops the cached entry for the username, if any.
+     */
+    public synchronized void invalidate(String username) {
+        entries.remove(username);
+        generation++;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the user, or null if the delegate does not know the username
+     */
+    private User lookup(String username) {
+        long fetchGeneration;
+        synchronized (this) {
+            CachedUser entry = entries.get(username);
+            if (entry != null && entry.expiresAt - clock.getAsLong() > 0) {
+                hits++;
+                return entry.user;
+            }
+            if (entry != null) {
+                entries.remove(username);
+            }
+            misses++;
+            fetchGeneration = generation;
+        }
+
+        // The remote call is made without holding the lock
+        User user = fetch(username);
+        synchronized (this) {
+            if (generation == fetchGeneration) {
+                long ttl = user == null ? negativeTtlNanos : ttlNanos;
+                entries.put(username, new CachedUser(user, clock.getAsLong() + ttl));
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Fetches the user with one {@code get}; only if that fails is {@code existsByName} asked
+     * whether the user is missing or the call failed for another reason.
+     */
+    private User fetch(String username) {
+        try {
+            return delegate.get(username);
+        } catch (RuntimeException e) {
+            if (!delegate.existsByName(username)) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static final class CachedUser {
+        private final User user;
+        private final long expiresAt;
+
+        private CachedUser(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
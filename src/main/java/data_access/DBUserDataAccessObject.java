@@ -10,55 +10,102 @@ import use_case.login.LoginUserDataAccessInterface;
 import use_case.logout.LogoutUserDataAccessInterface;
 import use_case.signup.SignupUserDataAccessInterface;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The DAO for user data.
+ * <p>
+ * All instances share one OkHttpClient by default, so the connection pool, keep-alive
+ * connections and dispatcher threads survive across calls instead of being rebuilt for
+ * every request. Every response is closed once its body has been read, which returns the
+ * connection to the pool. Call counts and latencies are recorded per endpoint.
  */
 public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
         LoginUserDataAccessInterface,
         ChangePasswordUserDataAccessInterface,
         LogoutUserDataAccessInterface {
+    public static final String DEFAULT_BASE_URL = "http://vm003.teach.cs.toronto.edu:20112";
+
     private static final int SUCCESS_CODE = 200;
     private static final String CONTENT_TYPE_LABEL = "Content-Type";
     private static final String CONTENT_TYPE_JSON = "application/json";
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse(CONTENT_TYPE_JSON);
     private static final String STATUS_CODE_LABEL = "status_code";
     private static final String USERNAME = "username";
     private static final String PASSWORD = "password";
     private static final String MESSAGE = "message";
+
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private static final OkHttpClient SHARED_CLIENT = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .writeTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .retryOnConnectionFailure(true)
+            .build();
+
     private final UserFactory userFactory;
+    private final HttpUrl baseUrl;
+    private final OkHttpClient client;
+    private final HttpEndpointMetrics metrics = new HttpEndpointMetrics();
 
     private String currentUsername;
 
     public DBUserDataAccessObject(UserFactory userFactory) {
+        this(userFactory, DEFAULT_BASE_URL);
+    }
+
+    public DBUserDataAccessObject(UserFactory userFactory, String baseUrl) {
+        this(userFactory, baseUrl, SHARED_CLIENT);
+    }
+
+    /**
+     * @param userFactory creates the users read from the service
+     * @param baseUrl the user service's base URL
+     * @param client the HTTP client; pass a client derived from another with
+     *               {@code newBuilder()} to share its pool
+     */
+    public DBUserDataAccessObject(UserFactory userFactory, String baseUrl, OkHttpClient client) {
         this.userFactory = userFactory;
+        this.baseUrl = HttpUrl.get(baseUrl);
+        this.client = client;
+    }
+
+    /**
+     * @return the client shared by DBUserDataAccessObjects created without one
+     */
+    public static OkHttpClient sharedClient() {
+        return SHARED_CLIENT;
+    }
+
+    /**
+     * @return call counts and latencies of the user service endpoints
+     */
+    public HttpEndpointMetrics getEndpointMetrics() {
+        return metrics;
     }
 
     @Override
     public User get(String username) {
         // Make an API call to get the user object.
-        final OkHttpClient client = new OkHttpClient().newBuilder().build();
         final Request request = new Request.Builder()
-                .url(String.format("http://vm003.teach.cs.toronto.edu:20112/user?username=%s", username))
-                .addHeader("Content-Type", CONTENT_TYPE_JSON)
+                .url(endpoint("user").addQueryParameter(USERNAME, username).build())
+                .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
-        try {
-            final Response response = client.newCall(request).execute();
+        final JSONObject responseBody = execute("GET /user", request);
 
-            final JSONObject responseBody = new JSONObject(response.body().string());
+        if (responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE) {
+            final JSONObject userJSONObject = responseBody.getJSONObject("user");
+            final String name = userJSONObject.getString(USERNAME);
+            final String password = userJSONObject.getString(PASSWORD);
 
-            if (responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE) {
-                final JSONObject userJSONObject = responseBody.getJSONObject("user");
-                final String name = userJSONObject.getString(USERNAME);
-                final String password = userJSONObject.getString(PASSWORD);
-
-                return userFactory.create(name, password, 0, 0, 0);
-            }
-            else {
-                throw new RuntimeException(responseBody.getString(MESSAGE));
-            }
+            return userFactory.create(name, password, 0, 0, 0);
         }
-        catch (IOException | JSONException ex) {
-            throw new RuntimeException(ex);
+        else {
+            throw new RuntimeException(responseBody.getString(MESSAGE));
         }
     }
 
@@ -74,88 +121,78 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
 
     @Override
     public boolean existsByName(String username) {
-        final OkHttpClient client = new OkHttpClient().newBuilder()
-                .build();
         final Request request = new Request.Builder()
-                .url(String.format("http://vm003.teach.cs.toronto.edu:20112/checkIfUserExists?username=%s", username))
+                .url(endpoint("checkIfUserExists").addQueryParameter(USERNAME, username).build())
                 .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
-        try {
-            final Response response = client.newCall(request).execute();
+        final JSONObject responseBody = execute("GET /checkIfUserExists", request);
 
-            final JSONObject responseBody = new JSONObject(response.body().string());
-
-            //                throw new RuntimeException(responseBody.getString("message"));
-            return responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE;
-        }
-        catch (IOException | JSONException ex) {
-            throw new RuntimeException(ex);
-        }
+        return responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE;
     }
 
     @Override
     public void save(User user) {
-        final OkHttpClient client = new OkHttpClient().newBuilder()
-                .build();
-
         // POST METHOD
-        final MediaType mediaType = MediaType.parse(CONTENT_TYPE_JSON);
-        final JSONObject requestBody = new JSONObject();
-        requestBody.put(USERNAME, user.getName());
-        requestBody.put(PASSWORD, user.getPassword());
-        final RequestBody body = RequestBody.create(requestBody.toString(), mediaType);
         final Request request = new Request.Builder()
-                .url("http://vm003.teach.cs.toronto.edu:20112/user")
-                .method("POST", body)
+                .url(endpoint("user").build())
+                .method("POST", credentialsBody(user))
                 .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
-        try {
-            final Response response = client.newCall(request).execute();
+        final JSONObject responseBody = execute("POST /user", request);
 
-            final JSONObject responseBody = new JSONObject(response.body().string());
-
-            if (responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE) {
-                // success!
-            }
-            else {
-                throw new RuntimeException(responseBody.getString(MESSAGE));
-            }
-        }
-        catch (IOException | JSONException ex) {
-            throw new RuntimeException(ex);
+        if (responseBody.getInt(STATUS_CODE_LABEL) != SUCCESS_CODE) {
+            throw new RuntimeException(responseBody.getString(MESSAGE));
         }
     }
 
     @Override
     public void changePassword(User user) {
-        final OkHttpClient client = new OkHttpClient().newBuilder()
+        // PUT METHOD
+        final Request request = new Request.Builder()
+                .url(endpoint("user").build())
+                .method("PUT", credentialsBody(user))
+                .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
                 .build();
+        final JSONObject responseBody = execute("PUT /user", request);
 
-        // POST METHOD
-        final MediaType mediaType = MediaType.parse(CONTENT_TYPE_JSON);
+        if (responseBody.getInt(STATUS_CODE_LABEL) != SUCCESS_CODE) {
+            throw new RuntimeException(responseBody.getString(MESSAGE));
+        }
+    }
+
+    private HttpUrl.Builder endpoint(String path) {
+        return baseUrl.newBuilder().addPathSegment(path);
+    }
+
+    private static RequestBody credentialsBody(User user) {
         final JSONObject requestBody = new JSONObject();
         requestBody.put(USERNAME, user.getName());
         requestBody.put(PASSWORD, user.getPassword());
-        final RequestBody body = RequestBody.create(requestBody.toString(), mediaType);
-        final Request request = new Request.Builder()
-                .url("http://vm003.teach.cs.toronto.edu:20112/user")
-                .method("PUT", body)
-                .addHeader(CONTENT_TYPE_LABEL, CONTENT_TYPE_JSON)
-                .build();
-        try {
-            final Response response = client.newCall(request).execute();
-
-            final JSONObject responseBody = new JSONObject(response.body().string());
+        return RequestBody.create(requestBody.toString(), JSON_MEDIA_TYPE);
+    }
 
-            if (responseBody.getInt(STATUS_CODE_LABEL) == SUCCESS_CODE) {
-                // success!
-            }
-            else {
-                throw new RuntimeException(responseBody.getString(MESSAGE));
+    /**
+     * Executes the request and parses the JSON body, always closing the response so its
+     * connection goes back to the pool.
+     * @throws RuntimeException if the call fails or the body is not JSON
+     */
+    private JSONObject execute(String endpointName, Request request) {
+        final long start = System.nanoTime();
+        boolean success = false;
+        try (Response response = client.newCall(request).execute()) {
+            final ResponseBody body = response.body();
+            if (body == null) {
+                throw new IOException("Empty response from " + endpointName);
             }
+            final JSONObject responseBody = new JSONObject(body.string());
+            success = true;
+            return responseBody;
         }
         catch (IOException | JSONException ex) {
             throw new RuntimeException(ex);
         }
+        finally {
+            metrics.record(endpointName, System.nanoTime() - start, success);
+        }
     }
-}
\ No newline at end of file
+}
@@ -9,14 +9,53 @@ import use_case.settings.SettingsUserDataAccessInterface;
 import use_case.signup.SignupUserDataAccessInterface;
 import use_case.goals.GoalsUserDataAccessInterface;
 
-
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * DAO for user data implemented using a File to persist the data.
+ * <p>
+ * users.csv holds a snapshot of every account. Updates do not rewrite it: each save or
+ * password change appends the account's new row to a change log beside it (users.csv.log,
+ * same row format), and the log is replayed over the snapshot on construction, later rows
+ * winning. Once the log holds {@code compactionThreshold} rows, a background thread writes a
+ * fresh snapshot (temporary file + atomic rename) and starts a new log. A users.csv written
+ * before the change log existed is read unchanged.
+ * <p>
+ * With a positive {@code lazyCacheSize}, accounts are not read at construction. A
+ * username-to-row index of users.csv (saved as users.csv.idx) is built or reused instead, and
+ * {@code get} and {@code existsByName} read single rows on demand, keeping the most recently
+ * used users in memory. Only accounts updated since the last snapshot are held in full; a
+ * compaction streams the old snapshot into the new one and re-indexes it.
+ * <p>
+ * The DAO can be shared between threads. Accounts are kept in a concurrent map; updates of
+ * the same username are serialized by one of a fixed set of striped locks, and
+ * {@link #update} holds that lock across its read, change and save. Log rows are written by
+ * a single writer thread, which appends whatever rows are waiting in one write; a save
+ * returns once its row is in the log.
  */
 public class FileUserDataAccessObject implements SignupUserDataAccessInterface,
         LoginUserDataAccessInterface,
@@ -24,15 +63,49 @@ public class FileUserDataAccessObject implements SignupUserDataAccessInterface,
         LogoutUserDataAccessInterface,
         SettingsUserDataAccessInterface,
         UserDataAccessInterface,
-        GoalsUserDataAccessInterface {
+        GoalsUserDataAccessInterface,
+        AutoCloseable {
+
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 500;
+    public static final int DEFAULT_LAZY_CACHE_SIZE = 256;
 
     private static final String HEADER = "username,password,age,height,weight";
+    private static final String LOG_SUFFIX = ".log";
+    // the log being folded into the snapshot; only left behind if a compaction did not finish
+    private static final String COMPACTING_SUFFIX = ".log.compacting";
+    private static final String SNAPSHOT_SUFFIX = ".tmp";
+    private static final int LOCK_STRIPES = 64;
 
     private final File csvFile;
+    private final Path logFile;
+    private final Path compactingFile;
+    private final Path snapshotFile;
+    private final int compactionThreshold;
+    private final UserFactory userFactory;
     private final Map<String, Integer> headers = new LinkedHashMap<>();
-    private final Map<String, User> accounts = new HashMap<>();
+    // every account, or when loading lazily only those updated since the snapshot was indexed
+    private final Map<String, User> accounts = new ConcurrentHashMap<>();
+    // users read through the index; guarded by itself, null when every account is loaded
+    private final Map<String, User> lazyCache;
+    private final Object[] stripes = new Object[LOCK_STRIPES];
+    private final ExecutorService compactor;
+    private final Object compactionLock = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final BlockingQueue<LogWrite> writes = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private volatile String currentUsername;
+    private double loadMillis;
+
+    // guarded by lazyCache; swapped when a compaction re-indexes users.csv
+    private UsersCsvIndex index;
 
-    private String currentUsername;
+    // owned by the writer thread once it has started
+    private FileChannel logChannel;
+    private volatile int logEntries;
+
+    // guarded by writes
+    private boolean closed;
 
     /**
      * Construct this DAO for saving to and reading from a local file.
@@ -41,37 +114,297 @@ public class FileUserDataAccessObject implements SignupUserDataAccessInterface,
      * @throws RuntimeException if there is an IOException when accessing the file
      */
     public FileUserDataAccessObject(String csvPath, UserFactory userFactory) {
+        this(csvPath, userFactory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Construct this DAO for saving to and reading from a local file.
+     * @param csvPath the path of the file to save to
+     * @param userFactory factory for creating user objects
+     * @param compactionThreshold number of logged updates that triggers a background compaction
+     * @throws RuntimeException if there is an IOException when accessing the file
+     */
+    public FileUserDataAccessObject(String csvPath, UserFactory userFactory, int compactionThreshold) {
+        this(csvPath, userFactory, compactionThreshold, 0);
+    }
+
+    /**
+     * Construct this DAO for saving to and reading from a local file.
+     * @param csvPath the path of the file to save to
+     * @param userFactory factory for creating user objects
+     * @param compactionThreshold number of logged updates that triggers a background compaction
+     * @param lazyCacheSize number of users read on demand to keep in memory, or 0 to read every
+     *                      account at construction
+     * @throws RuntimeException if there is an IOException when accessing the file
+     */
+    public FileUserDataAccessObject(String csvPath, UserFactory userFactory, int compactionThreshold,
+                                    int lazyCacheSize) {
 
         csvFile = new File(csvPath);
+        logFile = csvFile.toPath().resolveSibling(csvFile.getName() + LOG_SUFFIX);
+        compactingFile = csvFile.toPath().resolveSibling(csvFile.getName() + COMPACTING_SUFFIX);
+        snapshotFile = csvFile.toPath().resolveSibling(csvFile.getName() + SNAPSHOT_SUFFIX);
+        this.compactionThreshold = Math.max(1, compactionThreshold);
+        this.userFactory = userFactory;
         headers.put("username", 0);
         headers.put("password", 1);
         headers.put("age", 2);
         headers.put("height", 3);
         headers.put("weight", 4);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+        this.lazyCache = lazyCacheSize <= 0 ? null : new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+                return size() > lazyCacheSize;
+            }
+        };
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "users-csv-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        if (csvFile.length() == 0) {
-            save();
+        try {
+            if (csvFile.length() == 0) {
+                writeSnapshot(sink -> { });
+            }
+            if (lazyCache != null) {
+                final long start = System.nanoTime();
+                index = UsersCsvIndex.open(csvFile.toPath());
+                loadMillis = (System.nanoTime() - start) / 1e6;
+            }
+            else {
+                final UsersCsvLoader.Result loaded = UsersCsvLoader.load(csvFile.toPath(), userFactory);
+                accounts.putAll(loaded.getUsers());
+                loadMillis = loaded.getLoadMillis();
+            }
+
+            // A compaction that did not finish left its log behind; fold it in now
+            final boolean interrupted = Files.exists(compactingFile);
+            replay(compactingFile);
+            logEntries = replay(logFile);
+            if (interrupted) {
+                writeSnapshot(snapshotRows(new HashMap<>(accounts)));
+                Files.deleteIfExists(compactingFile);
+                Files.deleteIfExists(logFile);
+                logEntries = 0;
+                if (lazyCache != null) {
+                    index.close();
+                    index = UsersCsvIndex.open(csvFile.toPath());
+                    accounts.clear();
+                }
+            }
+            logChannel = openLog();
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
         }
-        else {
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
-                final String header = reader.readLine();
+        writer = new Thread(this::writeLoop, "users-csv-writer");
+        writer.setDaemon(true);
+        writer.start();
+        if (logEntries >= this.compactionThreshold) {
+            scheduleCompaction();
+        }
+    }
 
-                if (!header.equals(HEADER)) {
-                    throw new RuntimeException(String.format("header should be%n: %s%n but was:%n%s", HEADER, header));
+    @Override
+    public void save(User user) {
+        final LogWrite write;
+        synchronized (stripeFor(user.getName())) {
+            write = apply(user);
+        }
+        await(write);
+    }
+
+    /**
+     * Changes a copy of the stored user and saves it while holding the username's lock, so
+     * concurrent updates of the same user are applied one after another and none is lost.
+     * Readers see either the old user or the fully changed copy.
+     * @throws RuntimeException if the user does not exist or the change is rejected
+     */
+    @Override
+    public User update(String username, Consumer<User> change) {
+        final User updated;
+        final LogWrite write;
+        synchronized (stripeFor(username)) {
+            final User current = get(username);
+            if (current == null) {
+                throw new RuntimeException("User not found");
+            }
+            updated = userFactory.create(current.getName(), current.getPassword(),
+                    current.getAge(), current.getHeight(), current.getWeight());
+            change.accept(updated);
+            write = apply(updated);
+        }
+        await(write);
+        return updated;
+    }
+
+    /**
+     * @return how long reading users.csv, or indexing it when loading lazily, took when this
+     * DAO was constructed
+     */
+    public double getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * @return the number of updates in the change log that are not yet in users.csv
+     */
+    public int getLogEntryCount() {
+        return logEntries;
+    }
+
+    /**
+     * Folds the change log into users.csv on the calling thread.
+     * @throws RuntimeException if the snapshot cannot be written; the log is kept
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            compactionScheduled.set(false);
+            if (logEntries == 0 && !Files.exists(compactingFile)) {
+                return;
+            }
+            // Updates from here on go to a fresh log, which the snapshot does not need. Every
+            // row in the rotated log was applied to accounts before it was queued, so a copy
+            // taken after the rotation includes it.
+            await(enqueue(LogWrite.rotation()));
+            final Map<String, User> updated = new HashMap<>(accounts);
+
+            try {
+                writeSnapshot(snapshotRows(updated));
+                Files.delete(compactingFile);
+            }
+            catch (IOException ex) {
+                throw new RuntimeException("Error compacting users.csv: " + ex.getMessage());
+            }
+            if (lazyCache != null) {
+                reindex(updated);
+            }
+        }
+    }
+
+    /**
+     * Waits for a running compaction, then stops the writer once the queued rows are in the
+     * change log. Saved rows are already on disk, so nothing else needs to be flushed.
+     */
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        final LogWrite stop;
+        synchronized (writes) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stop = LogWrite.stop();
+            writes.add(stop);
+        }
+        try {
+            await(stop);
+        }
+        catch (RuntimeException ex) {
+            System.err.println("Error closing users change log: " + ex.getMessage());
+        }
+        if (lazyCache != null) {
+            synchronized (lazyCache) {
+                index.close();
+            }
+        }
+    }
+
+    private User parseRow(String row) {
+        final String[] col = row.split(",");
+        final String username = String.valueOf(col[headers.get("username")]);
+        final String password = String.valueOf(col[headers.get("password")]);
+        final int age = Integer.parseInt(col[headers.get("age")]);
+        final int height = Integer.parseInt(col[headers.get("height")]);
+        final int weight = Integer.parseInt(col[headers.get("weight")]);
+        return userFactory.create(username, password, age, height, weight);
+    }
+
+    private static String formatRow(User user) {
+        return String.format("%s,%s,%d,%d,%d",
+                user.getName(),
+                user.getPassword(),
+                user.getAge(),
+                user.getHeight(),
+                user.getWeight());
+    }
+
+    /**
+     * @param updated a copy of the accounts map
+     * @return the rows of a snapshot holding the accounts; when loading lazily, the live rows
+     * of the indexed snapshot are streamed, except for the updated accounts
+     */
+    private SnapshotRows snapshotRows(Map<String, User> updated) {
+        final UsersCsvIndex source;
+        if (lazyCache == null) {
+            source = null;
+        }
+        else {
+            synchronized (lazyCache) {
+                source = index;
+            }
+        }
+        return sink -> {
+            if (source != null) {
+                source.forEachLiveRow((username, row) -> {
+                    if (!updated.containsKey(username)) {
+                        sink.accept(row);
+                    }
+                });
+            }
+            for (User user : updated.values()) {
+                sink.accept(formatRow(user));
+            }
+        };
+    }
+
+    /**
+     * Switches lookups to a fresh index of users.csv after a compaction. Accounts still
+     * holding the value written to the snapshot are now found through the index.
+     */
+    private void reindex(Map<String, User> written) {
+        final UsersCsvIndex rebuilt = UsersCsvIndex.open(csvFile.toPath());
+        synchronized (lazyCache) {
+            final UsersCsvIndex old = index;
+            index = rebuilt;
+            for (Map.Entry<String, User> entry : written.entrySet()) {
+                if (accounts.remove(entry.getKey(), entry.getValue())) {
+                    lazyCache.remove(entry.getKey());
                 }
+            }
+            old.close();
+        }
+    }
 
-                String row;
-                while ((row = reader.readLine()) != null) {
-                    final String[] col = row.split(",");
-                    final String username = String.valueOf(col[headers.get("username")]);
-                    final String password = String.valueOf(col[headers.get("password")]);
-                    final int age = Integer.parseInt(col[headers.get("age")]);
-                    final int height = Integer.parseInt(col[headers.get("height")]);
-                    final int weight = Integer.parseInt(col[headers.get("weight")]);
-                    final User user = userFactory.create(username, password, age, height, weight);
-                    accounts.put(username, user);
+    /**
+     * @return the user read through the index, or null if users.csv does not contain it
+     */
+    private User lookup(String username) {
+        synchronized (lazyCache) {
+            final User cached = lazyCache.get(username);
+            if (cached != null) {
+                return cached;
+            }
+            try {
+                final String row = index.find(username);
+                if (row == null) {
+                    return null;
                 }
+                final User user = parseRow(row);
+                lazyCache.put(username, user);
+                return user;
             }
             catch (IOException ex) {
                 throw new RuntimeException(ex);
@@ -79,35 +412,250 @@ public class FileUserDataAccessObject implements SignupUserDataAccessInterface,
         }
     }
 
-    private void save() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(csvFile))) {
-            writer.write(HEADER);
-            writer.newLine();
+    /**
+     * Applies the rows of a change log to the accounts. A last row without its newline was
+     * torn by a crash mid-append and never acknowledged, so it is skipped even if it parses;
+     * any other row that does not parse means the log is corrupt.
+     * @return the number of rows applied
+     */
+    private int replay(Path log) throws IOException {
+        if (!Files.exists(log)) {
+            return 0;
+        }
+        final String contents = Files.readString(log, StandardCharsets.UTF_8);
+        final int complete = contents.lastIndexOf('\n') + 1;
+        int applied = 0;
+        int lineNumber = 0;
+        for (String row : contents.substring(0, complete).split("\n")) {
+            lineNumber++;
+            if (row.isEmpty()) {
+                continue;
+            }
+            final User user;
+            try {
+                user = parseRow(row);
+            }
+            catch (RuntimeException ex) {
+                throw new IOException("Malformed row " + lineNumber + " in " + log.getFileName() + ": " + row, ex);
+            }
+            accounts.put(user.getName(), user);
+            applied++;
+        }
+        return applied;
+    }
 
-            for (User user : accounts.values()) {
-                String line = String.format("%s,%s,%d,%d,%d",
-                        user.getName(),
-                        user.getPassword(),
-                        user.getAge(),
-                        user.getHeight(),
-                        user.getWeight());
-                writer.write(line);
-                writer.newLine();
+    /**
+     * Drops a torn last row left behind by a crash, so the next append starts on a fresh
+     * line instead of gluing itself onto the torn row.
+     */
+    private static void truncateTornTail(Path log) throws IOException {
+        if (!Files.exists(log)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = channel.size();
+            final ByteBuffer single = ByteBuffer.allocate(1);
+            while (position > 0) {
+                single.clear();
+                channel.read(single, position - 1);
+                if (single.get(0) == '\n') {
+                    break;
+                }
+                position--;
+            }
+            if (position != channel.size()) {
+                channel.truncate(position);
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
     }
 
-    @Override
-    public void save(User user) {
+    private FileChannel openLog() throws IOException {
+        truncateTornTail(logFile);
+        return FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Object stripeFor(String username) {
+        final int hash = username.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Stores the user and queues its log row. Called with the username's lock held, so rows
+     * for one username are queued in the order the updates were made.
+     */
+    private LogWrite apply(User user) {
+        final LogWrite write = LogWrite.row(formatRow(user));
         accounts.put(user.getName(), user);
-        this.save();
+        forget(user.getName());
+        return enqueue(write);
+    }
+
+    private LogWrite enqueue(LogWrite write) {
+        synchronized (writes) {
+            if (closed) {
+                throw new RuntimeException("users.csv is closed");
+            }
+            writes.add(write);
+        }
+        return write;
+    }
+
+    private static void await(LogWrite write) {
+        try {
+            write.done.join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    /**
+     * Runs on the writer thread: appends queued rows in batches, rotates the log for
+     * compactions and closes it when the DAO is closed.
+     */
+    private void writeLoop() {
+        final List<LogWrite> batch = new ArrayList<>();
+        final List<LogWrite> rows = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(writes.take());
+            }
+            catch (InterruptedException ex) {
+                return;
+            }
+            writes.drainTo(batch);
+            for (LogWrite write : batch) {
+                if (write.row != null) {
+                    rows.add(write);
+                    continue;
+                }
+                appendRows(rows);
+                rows.clear();
+                if (write.stop) {
+                    closeLog(write);
+                    return;
+                }
+                rotateLog(write);
+            }
+            appendRows(rows);
+            rows.clear();
+            batch.clear();
+        }
+    }
+
+    // writer thread only
+    private void appendRows(List<LogWrite> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 32);
+        for (LogWrite write : rows) {
+            bytes.writeBytes(write.row);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        try {
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+        }
+        catch (IOException ex) {
+            final RuntimeException error = new RuntimeException(ex);
+            rows.forEach(write -> write.done.completeExceptionally(error));
+            return;
+        }
+        logEntries += rows.size();
+        // Scheduled before the writers are released, so a close() that follows a save still
+        // finds the compaction queued and waits for it
+        if (logEntries >= compactionThreshold) {
+            scheduleCompaction();
+        }
+        rows.forEach(write -> write.done.complete(null));
+    }
+
+    // writer thread only
+    private void rotateLog(LogWrite rotation) {
+        try {
+            logChannel.close();
+            if (Files.exists(compactingFile)) {
+                Files.write(compactingFile, Files.readAllBytes(logFile), StandardOpenOption.APPEND);
+                Files.delete(logFile);
+            }
+            else {
+                Files.move(logFile, compactingFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            logChannel = openLog();
+            logEntries = 0;
+            rotation.done.complete(null);
+        }
+        catch (IOException ex) {
+            rotation.done.completeExceptionally(
+                    new RuntimeException("Error rotating users change log: " + ex.getMessage()));
+            try {
+                if (!logChannel.isOpen()) {
+                    logChannel = openLog();
+                }
+            }
+            catch (IOException reopen) {
+                System.err.println("Error reopening users change log: " + reopen.getMessage());
+            }
+        }
+    }
+
+    // writer thread only
+    private void closeLog(LogWrite stop) {
+        try {
+            logChannel.close();
+            stop.done.complete(null);
+        }
+        catch (IOException ex) {
+            stop.done.completeExceptionally(new RuntimeException(ex.getMessage()));
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (compactor.isShutdown() || !compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        compactor.execute(() -> {
+            try {
+                compact();
+            }
+            catch (RuntimeException ex) {
+                System.err.println(ex.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Replaces users.csv with the header and rows (temporary file + atomic rename).
+     */
+    private void writeSnapshot(SnapshotRows rows) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 1 << 16);
+            writer.write(HEADER);
+            writer.write(System.lineSeparator());
+            rows.writeTo(row -> {
+                writer.write(row);
+                writer.write(System.lineSeparator());
+            });
+            writer.flush();
+            channel.force(true);
+        }
+        Files.move(snapshotFile, csvFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
     @Override
     public User get(String username) {
-        return accounts.get(username);
+        final User user = accounts.get(username);
+        if (user != null || lazyCache == null) {
+            return user;
+        }
+        return lookup(username);
     }
 
     @Override
@@ -117,23 +665,83 @@ public class FileUserDataAccessObject implements SignupUserDataAccessInterface,
 
     @Override
     public String getCurrentUsername() {
-        if (currentUsername != null) return currentUsername;
+        final String current = currentUsername;
+        if (current != null) return current;
         // fallback: if we have any accounts loaded from users.csv, return the first username
-        if (!accounts.isEmpty()) {
-            return accounts.keySet().iterator().next();
+        final Iterator<String> usernames = accounts.keySet().iterator();
+        if (usernames.hasNext()) {
+            return usernames.next();
+        }
+        if (lazyCache != null) {
+            synchronized (lazyCache) {
+                try {
+                    return index.firstUsername();
+                }
+                catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
         }
         return null;
     }
 
     @Override
     public boolean existsByName(String identifier) {
-        return accounts.containsKey(identifier);
+        return accounts.containsKey(identifier) || lazyCache != null && lookup(identifier) != null;
     }
 
     @Override
     public void changePassword(User user) {
-        // Replace the User object in the map
-        accounts.put(user.getName(), user);
-        save();
+        final LogWrite write;
+        synchronized (stripeFor(user.getName())) {
+            // Replace the User object in the map
+            write = apply(user);
+        }
+        await(write);
+    }
+
+    /**
+     * Drops a user read through the index; the updated account is held in full from now on.
+     */
+    private void forget(String username) {
+        if (lazyCache != null) {
+            synchronized (lazyCache) {
+                lazyCache.remove(username);
+            }
+        }
+    }
+
+    private interface RowSink {
+        void accept(String row) throws IOException;
+    }
+
+    private interface SnapshotRows {
+        void writeTo(RowSink sink) throws IOException;
+    }
+
+    /**
+     * A request to the writer thread: a log row to append, a log rotation or the final close.
+     */
+    private static final class LogWrite {
+        private final byte[] row;
+        private final boolean stop;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private LogWrite(byte[] row, boolean stop) {
+            this.row = row;
+            this.stop = stop;
+        }
+
+        static LogWrite row(String row) {
+            return new LogWrite((row + "\n").getBytes(StandardCharsets.UTF_8), false);
+        }
+
+        static LogWrite rotation() {
+            return new LogWrite(null, false);
+        }
+
+        static LogWrite stop() {
+            return new LogWrite(null, true);
+        }
     }
 }
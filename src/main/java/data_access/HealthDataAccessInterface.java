@@ -1,10 +1,12 @@
 package data_access;
 
 import Entities.HealthMetrics;
+import use_case.input_metrics.InputMetricsDataAccessInterface;
+
 import java.util.List;
 
-public interface HealthDataAccessInterface {
+public interface HealthDataAccessInterface extends InputMetricsDataAccessInterface {
     void saveHealthMetrics(HealthMetrics healthMetrics);
     List<HealthMetrics> getHealthMetricsByUser(String userId);
     String getCurrentUsername();
-}
\ No newline at end of file
+}
@@ -0,0 +1,300 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary, columnar storage of health history with one file per user.
+ * <p>
+ * File layout (big-endian): a 12 byte header (magic, version, row count) followed by one
+ * contiguous column per field, each holding row-count values in date order:
+ * epoch day (int), sleep hours (double), steps (int), water intake (double), exercise
+ * minutes (double), calories (int) and score (int, {@link HealthMetricsColumns#NO_SCORE}
+ * if unscored). The feedback text follows as a column of byte lengths (-1 for none) and
+ * the concatenated UTF-8 bytes. Files are memory-mapped for reading, so loading a user's
+ * history is one bulk read per column instead of a JSON parse, and a date range only copies
+ * the rows it covers. On Windows, which cannot replace a file while it is mapped, files are
+ * read into the heap instead (see {@link UsersCsvLoader#contents(FileChannel)}).
+ */
+public class HealthMetricsColumnStore implements HealthRecordStore {
+
+    static final String FILE_SUFFIX = ".hmc";
+    static final int MAGIC = 0x484D4346; // "HMCF"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+
+    private final Path directory;
+
+    /**
+     * @param directory directory holding the per-user files; created if missing
+     * @throws RuntimeException if the directory cannot be created
+     */
+    public HealthMetricsColumnStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating health metrics column store: " + e.getMessage());
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the user's history in column form (empty if the user has none)
+     */
+    public HealthMetricsColumns readColumns(String userId) {
+        return readRange(userId, null, null);
+    }
+
+    /**
+     * Reads only the rows dated between {@code from} and {@code to} (both inclusive; null
+     * means unbounded). The start and end rows are found by binary search over the date
+     * column, so days outside the range are never copied out of the file.
+     *
+     * @return the matching rows in column form (empty if there are none)
+     */
+    public HealthMetricsColumns readRange(String userId, LocalDate from, LocalDate to) {
+        Path file = fileFor(userId);
+        if (!Files.exists(file)) {
+            return HealthMetricsColumns.fromRecords(userId, new ArrayList<>());
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = UsersCsvLoader.contents(channel);
+            int rows = readHeader(buffer, file);
+            int first = from == null ? 0 : firstRowOnOrAfter(buffer, rows, from.toEpochDay());
+            int end = to == null ? rows : firstRowOnOrAfter(buffer, rows, to.toEpochDay() + 1);
+            return readRows(buffer, userId, rows, first, Math.max(first, end));
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading health metrics columns: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the user's history as entities, ordered by date
+     */
+    public List<HealthMetrics> readMetrics(String userId) {
+        HealthMetricsColumns columns = readColumns(userId);
+        List<HealthMetrics> metrics = new ArrayList<>(columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            metrics.add(columns.toHealthMetrics(row));
+        }
+        return metrics;
+    }
+
+    /**
+     * @return the user's metrics dated between {@code from} and {@code to} (both inclusive),
+     *         ordered by date
+     */
+    public List<HealthMetrics> readMetrics(String userId, LocalDate from, LocalDate to) {
+        HealthMetricsColumns columns = readRange(userId, from, to);
+        List<HealthMetrics> metrics = new ArrayList<>(columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            metrics.add(columns.toHealthMetrics(row));
+        }
+        return metrics;
+    }
+
+    @Override
+    public List<JSONObject> readUser(String userId) {
+        HealthMetricsColumns columns = readColumns(userId);
+        List<JSONObject> records = new ArrayList<>(columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            records.add(columns.toJson(row));
+        }
+        return records;
+    }
+
+    /**
+     * Reads the range through {@link #readRange}, so only its rows are copied out.
+     */
+    @Override
+    public List<JSONObject> readUser(String userId, LocalDate from, LocalDate to) {
+        HealthMetricsColumns columns = readRange(userId, from, to);
+        List<JSONObject> records = new ArrayList<>(columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            records.add(columns.toJson(row));
+        }
+        return records;
+    }
+
+    /**
+     * Merges the records into each affected user's file, rewriting only those files.
+     */
+    @Override
+    public synchronized void writeAll(Collection<JSONObject> records) {
+        Map<String, List<JSONObject>> byUser = new LinkedHashMap<>();
+        for (JSONObject record : records) {
+            byUser.computeIfAbsent(record.getString(HealthMetricsJsonCodec.USER_ID), id -> new ArrayList<>()).add(record);
+        }
+
+        for (Map.Entry<String, List<JSONObject>> user : byUser.entrySet()) {
+            List<JSONObject> merged = readUser(user.getKey());
+            merged.addAll(user.getValue());
+            write(HealthMetricsColumns.fromRecords(user.getKey(), merged));
+        }
+    }
+
+    /**
+     * Replaces a user's file with the given columns (temporary file + atomic rename).
+     */
+    public synchronized void write(HealthMetricsColumns columns) {
+        int rows = columns.size();
+        byte[][] feedbackBytes = new byte[rows][];
+        int feedbackTotal = 0;
+        for (int row = 0; row < rows; row++) {
+            String text = columns.getFeedback(row);
+            if (text != null) {
+                feedbackBytes[row] = text.getBytes(StandardCharsets.UTF_8);
+                feedbackTotal += feedbackBytes[row].length;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES
+                + rows * (5 * Integer.BYTES + 3 * Double.BYTES) + feedbackTotal);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(rows);
+        for (int value : columns.epochDays()) buffer.putInt(value);
+        for (double value : columns.sleepHours()) buffer.putDouble(value);
+        for (int value : columns.steps()) buffer.putInt(value);
+        for (double value : columns.waterIntake()) buffer.putDouble(value);
+        for (double value : columns.exerciseMinutes()) buffer.putDouble(value);
+        for (int value : columns.calories()) buffer.putInt(value);
+        for (int value : columns.scores()) buffer.putInt(value);
+        for (byte[] text : feedbackBytes) buffer.putInt(text == null ? -1 : text.length);
+        for (byte[] text : feedbackBytes) {
+            if (text != null) {
+                buffer.put(text);
+            }
+        }
+        buffer.flip();
+
+        Path file = fileFor(columns.getUserId());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save health metrics columns: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the file holding the user's history; user ids are Base64-encoded so any
+     *         username maps to a safe file name
+     */
+    Path fileFor(String userId) {
+        String name = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(userId.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(name + FILE_SUFFIX);
+    }
+
+    /**
+     * Copies rows {@code [first, end)} of every column out of the file contents.
+     */
+    private static HealthMetricsColumns readRows(ByteBuffer buffer, String userId, int rows, int first, int end) {
+        int count = end - first;
+        int[] epochDays = new int[count];
+        double[] sleepHours = new double[count];
+        int[] steps = new int[count];
+        double[] waterIntake = new double[count];
+        double[] exerciseMinutes = new double[count];
+        int[] calories = new int[count];
+        int[] scores = new int[count];
+        int[] feedbackLengths = new int[count];
+
+        // Columns are stored back to back, each holding one value per row
+        long offset = HEADER_BYTES;
+        buffer.position(columnStart(offset, first, Integer.BYTES)).asIntBuffer().get(epochDays);
+        offset += (long) Integer.BYTES * rows;
+        buffer.position(columnStart(offset, first, Double.BYTES)).asDoubleBuffer().get(sleepHours);
+        offset += (long) Double.BYTES * rows;
+        buffer.position(columnStart(offset, first, Integer.BYTES)).asIntBuffer().get(steps);
+        offset += (long) Integer.BYTES * rows;
+        buffer.position(columnStart(offset, first, Double.BYTES)).asDoubleBuffer().get(waterIntake);
+        offset += (long) Double.BYTES * rows;
+        buffer.position(columnStart(offset, first, Double.BYTES)).asDoubleBuffer().get(exerciseMinutes);
+        offset += (long) Double.BYTES * rows;
+        buffer.position(columnStart(offset, first, Integer.BYTES)).asIntBuffer().get(calories);
+        offset += (long) Integer.BYTES * rows;
+        buffer.position(columnStart(offset, first, Integer.BYTES)).asIntBuffer().get(scores);
+        offset += (long) Integer.BYTES * rows;
+        long lengthsOffset = offset;
+        buffer.position(columnStart(offset, first, Integer.BYTES)).asIntBuffer().get(feedbackLengths);
+        offset += (long) Integer.BYTES * rows;
+
+        // Skip the feedback text of the rows before the range
+        for (int row = 0; row < first; row++) {
+            offset += Math.max(0, buffer.getInt((int) (lengthsOffset + (long) Integer.BYTES * row)));
+        }
+        buffer.position((int) offset);
+
+        String[] feedback = new String[count];
+        for (int row = 0; row < count; row++) {
+            if (feedbackLengths[row] >= 0) {
+                byte[] text = new byte[feedbackLengths[row]];
+                buffer.get(text);
+                feedback[row] = new String(text, StandardCharsets.UTF_8);
+            }
+        }
+
+        return new HealthMetricsColumns(userId, epochDays, sleepHours, steps, waterIntake,
+                exerciseMinutes, calories, scores, feedback);
+    }
+
+    private static int columnStart(long columnOffset, int row, int width) {
+        return (int) (columnOffset + (long) width * row);
+    }
+
+    /**
+     * Binary search over the mapped date column.
+     * @return the first row dated on or after {@code epochDay} ({@code rows} if there is none)
+     */
+    private static int firstRowOnOrAfter(ByteBuffer buffer, int rows, long epochDay) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(HEADER_BYTES + Integer.BYTES * mid) < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Validates the header and returns the row count.
+     */
+    static int readHeader(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a health metrics column file: " + file);
+        }
+        return buffer.getInt(8);
+    }
+}
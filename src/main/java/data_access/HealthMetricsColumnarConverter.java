@@ -0,0 +1,70 @@
+package data_access;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-shot conversion of the legacy health_metrics.json array into per-user columnar files.
+ * Like HealthMetricsLogMigrator, it leaves a marker file behind so later startups skip it.
+ */
+public class HealthMetricsColumnarConverter {
+
+    static final String MARKER_FILE = "CONVERTED";
+
+    private HealthMetricsColumnarConverter() {
+    }
+
+    /**
+     * Converts every record of the JSON file into the column store, unless that was already
+     * done. Legacy field names are resolved once here rather than on every load.
+     *
+     * @param jsonFile the legacy health_metrics.json file
+     * @param columnStore the store to convert into
+     * @return the number of records converted (0 if the conversion already ran)
+     * @throws RuntimeException if the JSON file cannot be read
+     */
+    public static int convert(Path jsonFile, HealthMetricsColumnStore columnStore) {
+        Path marker = columnStore.getDirectory().resolve(MARKER_FILE);
+        if (Files.exists(marker)) {
+            return 0;
+        }
+
+        int converted = 0;
+        try {
+            if (Files.exists(jsonFile)) {
+                String content = new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8);
+                if (!content.trim().isEmpty()) {
+                    JSONArray array = new JSONArray(content);
+                    Map<String, List<JSONObject>> byUser = new LinkedHashMap<>();
+                    for (int i = 0; i < array.length(); i++) {
+                        try {
+                            JSONObject record = HealthMetricsJsonCodec.normalize(array.getJSONObject(i));
+                            byUser.computeIfAbsent(record.getString(HealthMetricsJsonCodec.USER_ID),
+                                    id -> new ArrayList<>()).add(record);
+                            converted++;
+                        } catch (JSONException | IllegalArgumentException e) {
+                            System.err.println("Skipping unreadable health metrics record " + i + ": " + e.getMessage());
+                        }
+                    }
+                    for (Map.Entry<String, List<JSONObject>> user : byUser.entrySet()) {
+                        columnStore.write(HealthMetricsColumns.fromRecords(user.getKey(), user.getValue()));
+                    }
+                }
+            }
+            Files.writeString(marker, jsonFile.toAbsolutePath().toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Error converting health metrics: " + e.getMessage());
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,124 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One user's health history in column form: parallel arrays indexed by row, with rows
+ * sorted by date. This is the in-memory shape of a HealthMetricsColumnStore file.
+ */
+public final class HealthMetricsColumns {
+
+    /** Score value stored for days that have not been scored yet. */
+    public static final int NO_SCORE = -1;
+
+    private final String userId;
+    private final int[] epochDays;
+    private final double[] sleepHours;
+    private final int[] steps;
+    private final double[] waterIntake;
+    private final double[] exerciseMinutes;
+    private final int[] calories;
+    private final int[] scores;
+    private final String[] feedback;
+
+    HealthMetricsColumns(String userId, int[] epochDays, double[] sleepHours, int[] steps, double[] waterIntake,
+                         double[] exerciseMinutes, int[] calories, int[] scores, String[] feedback) {
+        this.userId = userId;
+        this.epochDays = epochDays;
+        this.sleepHours = sleepHours;
+        this.steps = steps;
+        this.waterIntake = waterIntake;
+        this.exerciseMinutes = exerciseMinutes;
+        this.calories = calories;
+        this.scores = scores;
+        this.feedback = feedback;
+    }
+
+    /**
+     * Builds the columns from JSON records, resolving legacy field names once per record.
+     * Later records for the same date replace earlier ones.
+     */
+    static HealthMetricsColumns fromRecords(String userId, Iterable<JSONObject> records) {
+        TreeMap<Integer, JSONObject> byDay = new TreeMap<>();
+        for (JSONObject record : records) {
+            byDay.put((int) LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE)).toEpochDay(), record);
+        }
+
+        int size = byDay.size();
+        int[] epochDays = new int[size];
+        double[] sleepHours = new double[size];
+        int[] steps = new int[size];
+        double[] waterIntake = new double[size];
+        double[] exerciseMinutes = new double[size];
+        int[] calories = new int[size];
+        int[] scores = new int[size];
+        String[] feedback = new String[size];
+
+        int row = 0;
+        for (Map.Entry<Integer, JSONObject> entry : byDay.entrySet()) {
+            HealthMetrics metrics = HealthMetricsJsonCodec.fromJson(entry.getValue());
+            epochDays[row] = entry.getKey();
+            sleepHours[row] = metrics.getSleepHours();
+            steps[row] = metrics.getSteps();
+            waterIntake[row] = metrics.getWaterIntake();
+            exerciseMinutes[row] = metrics.getExerciseMinutes();
+            calories[row] = metrics.getCalories();
+            scores[row] = entry.getValue().optInt(HealthMetricsJsonCodec.SCORE, NO_SCORE);
+            feedback[row] = entry.getValue().optString(HealthMetricsJsonCodec.FEEDBACK, null);
+            row++;
+        }
+        return new HealthMetricsColumns(userId, epochDays, sleepHours, steps, waterIntake,
+                exerciseMinutes, calories, scores, feedback);
+    }
+
+    public String getUserId() { return userId; }
+    public int size() { return epochDays.length; }
+
+    public LocalDate getDate(int row) { return LocalDate.ofEpochDay(epochDays[row]); }
+    public double getSleepHours(int row) { return sleepHours[row]; }
+    public int getSteps(int row) { return steps[row]; }
+    public double getWaterIntake(int row) { return waterIntake[row]; }
+    public double getExerciseMinutes(int row) { return exerciseMinutes[row]; }
+    public int getCalories(int row) { return calories[row]; }
+    public int getScore(int row) { return scores[row]; }
+    public String getFeedback(int row) { return feedback[row]; }
+
+    /**
+     * @return the row holding the date, or -1 if the date has no record
+     */
+    public int indexOf(LocalDate date) {
+        int row = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        return row >= 0 ? row : -1;
+    }
+
+    public HealthMetrics toHealthMetrics(int row) {
+        return new HealthMetrics(userId, getDate(row), sleepHours[row], steps[row],
+                waterIntake[row], exerciseMinutes[row], calories[row]);
+    }
+
+    public JSONObject toJson(int row) {
+        JSONObject json = HealthMetricsJsonCodec.toJson(toHealthMetrics(row));
+        if (scores[row] != NO_SCORE) {
+            json.put(HealthMetricsJsonCodec.SCORE, scores[row]);
+        }
+        if (feedback[row] != null) {
+            json.put(HealthMetricsJsonCodec.FEEDBACK, feedback[row]);
+        }
+        return json;
+    }
+
+    int[] epochDays() { return epochDays; }
+    double[] sleepHours() { return sleepHours; }
+    int[] steps() { return steps; }
+    double[] waterIntake() { return waterIntake; }
+    double[] exerciseMinutes() { return exerciseMinutes; }
+    int[] calories() { return calories; }
+    int[] scores() { return scores; }
+    String[] feedback() { return feedback; }
+}
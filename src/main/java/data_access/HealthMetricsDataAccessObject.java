@@ -1,17 +1,11 @@
 package data_access;
 
 import Entities.HealthMetrics;
-import org.json.JSONArray;
 import org.json.JSONObject;
 import use_case.input_metrics.InputMetricsDataAccessInterface;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,81 +14,31 @@ import java.util.List;
 public class HealthMetricsDataAccessObject implements InputMetricsDataAccessInterface, HealthDataAccessInterface {
     private static final String METRICS_FILE_PATH = "health_metrics.json";
     private final FileUserDataAccessObject userDataAccessObject;
+    private final HealthMetricsJsonFile metricsFile;
 
     public HealthMetricsDataAccessObject(FileUserDataAccessObject userDataAccessObject) {
-        this.userDataAccessObject = userDataAccessObject;
+        this(userDataAccessObject, METRICS_FILE_PATH);
+    }
 
-        File file = new File(METRICS_FILE_PATH);
-        if (!file.exists()) {
-            try {
-                file.createNewFile();
-                try (FileWriter writer = new FileWriter(file)) {
-                    writer.write("[]");
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("Error creating health metrics file: " + e.getMessage());
-            }
-        }
+    /**
+     * @param metricsFilePath the JSON file to read and write instead of health_metrics.json
+     */
+    public HealthMetricsDataAccessObject(FileUserDataAccessObject userDataAccessObject, String metricsFilePath) {
+        this.userDataAccessObject = userDataAccessObject;
+        this.metricsFile = new HealthMetricsJsonFile(metricsFilePath);
     }
 
     @Override
     public void saveHealthMetrics(HealthMetrics healthMetrics) {
-        try {
-            String content = new String(Files.readAllBytes(Paths.get(METRICS_FILE_PATH)));
-            JSONArray metricsArray;
-
-            if (content.trim().isEmpty() || content.trim().equals("[]")) {
-                metricsArray = new JSONArray();
-            } else {
-                metricsArray = new JSONArray(content);
-            }
-
-            boolean updated = false;
-            for (int i = 0; i < metricsArray.length(); i++) {
-                JSONObject obj = metricsArray.getJSONObject(i);
-                if (obj.getString("userId").equals(healthMetrics.getUserId()) &&
-                        obj.getString("date").equals(healthMetrics.getDate().toString())) {
-                    metricsArray.put(i, healthMetricsToJson(healthMetrics));
-                    updated = true;
-                    break;
-                }
-            }
-
-            if (!updated) {
-                metricsArray.put(healthMetricsToJson(healthMetrics));
-            }
-
-            try (FileWriter writer = new FileWriter(METRICS_FILE_PATH)) {
-                writer.write(metricsArray.toString(4));
-            }
-
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save health metrics: " + e.getMessage());
-        }
+        metricsFile.writeAll(Collections.singletonList(healthMetricsToJson(healthMetrics)));
     }
 
     @Override
     public List<HealthMetrics> getHealthMetricsByUser(String userId) {
         List<HealthMetrics> userMetrics = new ArrayList<>();
 
-        try {
-            String content = new String(Files.readAllBytes(Paths.get(METRICS_FILE_PATH)));
-
-            if (content.trim().isEmpty() || content.trim().equals("[]")) {
-                return userMetrics;
-            }
-
-            JSONArray metricsArray = new JSONArray(content);
-
-            for (int i = 0; i < metricsArray.length(); i++) {
-                JSONObject obj = metricsArray.getJSONObject(i);
-                if (obj.getString("userId").equals(userId)) {
-                    userMetrics.add(jsonToHealthMetrics(obj));
-                }
-            }
-
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading health metrics: " + e.getMessage());
+        for (JSONObject obj : metricsFile.readUser(userId)) {
+            userMetrics.add(jsonToHealthMetrics(obj));
         }
 
         return userMetrics;
@@ -105,63 +49,12 @@ public class HealthMetricsDataAccessObject implements InputMetricsDataAccessInte
         return userDataAccessObject.getCurrentUsername();
     }
 
-    /**
-     * Converts HealthMetrics object to JSON.
-     * Uses standardized field names consistently.
-     */
     private JSONObject healthMetricsToJson(HealthMetrics metrics) {
-        JSONObject json = new JSONObject();
-        json.put("userId", metrics.getUserId());
-        json.put("date", metrics.getDate().toString());
-
-        // Use standardized field names consistently
-        json.put("sleepHours", metrics.getSleepHours());
-        json.put("waterIntake", metrics.getWaterIntake());
-        json.put("exerciseMinutes", metrics.getExerciseMinutes());
-        json.put("calories", metrics.getCalories());
-        json.put("steps", metrics.getSteps());
-
-        return json;
+        return HealthMetricsJsonCodec.toJson(metrics);
     }
 
-    /**
-     * Converts JSON to HealthMetrics object.
-     * Prioritizes standardized field names with backward compatibility for legacy data.
-     */
     private HealthMetrics jsonToHealthMetrics(JSONObject json) {
-        // Prioritize new standardized field names, fallback to old names for backward compatibility
-        double sleepHour;
-        if (json.has("sleepHours")) {
-            sleepHour = json.getDouble("sleepHours");
-        } else if (json.has("sleepHour")) {
-            sleepHour = json.getDouble("sleepHour"); // Fallback for legacy data
-        } else {
-            sleepHour = 0.0;
-        }
-
-        int steps = json.optInt("steps", 0);
-
-        double waterLitres;
-        if (json.has("waterIntake")) {
-            waterLitres = json.getDouble("waterIntake");
-        } else if (json.has("waterLitres")) {
-            waterLitres = json.getDouble("waterLitres"); // Fallback for legacy data
-        } else {
-            waterLitres = 0.0;
-        }
-
-        double exerciseMinutes = json.optDouble("exerciseMinutes", 0.0);
-        int calories = json.optInt("calories", 0);
-
-        return new HealthMetrics(
-                json.getString("userId"),
-                LocalDate.parse(json.getString("date")),
-                sleepHour,
-                steps,
-                waterLitres,
-                exerciseMinutes,
-                calories
-        );
+        return HealthMetricsJsonCodec.fromJson(json);
     }
 
     public HealthMetrics getLatestMetrics(String userId) {
@@ -182,4 +75,4 @@ public class HealthMetricsDataAccessObject implements InputMetricsDataAccessInte
         return latest;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package data_access;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary index of a HealthMetricsLogStore: for every user, a date-ordered map from
+ * LocalDate to the segment and byte offset of that day's live record.
+ * <p>
+ * The index is saved next to the segments together with a watermark describing the log it
+ * was built from, so a restart can reuse it (or just catch up on the tail of the active
+ * segment) instead of replaying the whole log.
+ */
+final class HealthMetricsIndex {
+
+    private static final int MAGIC = 0x484D4958; // "HMIX"
+    private static final int VERSION = 1;
+
+    /**
+     * Location of one record in the log.
+     */
+    static final class Pointer {
+        final int segmentId;
+        final long offset;
+
+        Pointer(int segmentId, long offset) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * The state of the log an index file was written against.
+     */
+    static final class Watermark {
+        final List<Integer> sealedSegments;
+        final int activeSegmentId;
+        final long activeSize;
+
+        Watermark(List<Integer> sealedSegments, int activeSegmentId, long activeSize) {
+            this.sealedSegments = sealedSegments;
+            this.activeSegmentId = activeSegmentId;
+            this.activeSize = activeSize;
+        }
+    }
+
+    private final Map<String, TreeMap<LocalDate, Pointer>> byUser = new HashMap<>();
+    private Watermark watermark;
+
+    void put(String userId, LocalDate date, Pointer pointer) {
+        byUser.computeIfAbsent(userId, id -> new TreeMap<>()).put(date, pointer);
+    }
+
+    Pointer get(String userId, LocalDate date) {
+        TreeMap<LocalDate, Pointer> days = byUser.get(userId);
+        return days == null ? null : days.get(date);
+    }
+
+    /**
+     * @return the user's pointers ordered by date (empty if the user has no records)
+     */
+    NavigableMap<LocalDate, Pointer> forUser(String userId) {
+        TreeMap<LocalDate, Pointer> days = byUser.get(userId);
+        return days == null ? Collections.emptyNavigableMap() : Collections.unmodifiableNavigableMap(days);
+    }
+
+    int size() {
+        int size = 0;
+        for (TreeMap<LocalDate, Pointer> days : byUser.values()) {
+            size += days.size();
+        }
+        return size;
+    }
+
+    void clear() {
+        byUser.clear();
+        watermark = null;
+    }
+
+    Watermark getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Writes the index atomically (temporary file + rename).
+     */
+    void save(Path file, Watermark current) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(current.sealedSegments.size());
+            for (int segmentId : current.sealedSegments) {
+                out.writeInt(segmentId);
+            }
+            out.writeInt(current.activeSegmentId);
+            out.writeLong(current.activeSize);
+
+            out.writeInt(byUser.size());
+            for (Map.Entry<String, TreeMap<LocalDate, Pointer>> user : byUser.entrySet()) {
+                out.writeUTF(user.getKey());
+                out.writeInt(user.getValue().size());
+                for (Map.Entry<LocalDate, Pointer> day : user.getValue().entrySet()) {
+                    out.writeLong(day.getKey().toEpochDay());
+                    out.writeInt(day.getValue().segmentId);
+                    out.writeLong(day.getValue().offset);
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        watermark = current;
+    }
+
+    /**
+     * Replaces the contents of this index with the saved file.
+     * @return false if the file is missing or unreadable, in which case the index is left empty
+     */
+    boolean load(Path file) {
+        clear();
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            int sealedCount = in.readInt();
+            List<Integer> sealed = new ArrayList<>(sealedCount);
+            for (int i = 0; i < sealedCount; i++) {
+                sealed.add(in.readInt());
+            }
+            int activeSegmentId = in.readInt();
+            long activeSize = in.readLong();
+
+            int users = in.readInt();
+            for (int u = 0; u < users; u++) {
+                String userId = in.readUTF();
+                int days = in.readInt();
+                for (int d = 0; d < days; d++) {
+                    LocalDate date = LocalDate.ofEpochDay(in.readLong());
+                    put(userId, date, new Pointer(in.readInt(), in.readLong()));
+                }
+            }
+            watermark = new Watermark(sealed, activeSegmentId, activeSize);
+            return true;
+        } catch (IOException e) {
+            clear();
+            return false;
+        }
+    }
+}
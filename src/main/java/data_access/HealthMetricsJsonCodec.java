@@ -0,0 +1,102 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+
+/**
+ * Converts between HealthMetrics entities and their JSON record representation.
+ * Shared by every DAO that persists health metrics so the field names stay consistent.
+ */
+final class HealthMetricsJsonCodec {
+
+    static final String USER_ID = "userId";
+    static final String DATE = "date";
+    static final String SCORE = "score";
+    static final String FEEDBACK = "feedback";
+
+    private HealthMetricsJsonCodec() {
+    }
+
+    /**
+     * Converts HealthMetrics object to JSON.
+     * Uses standardized field names consistently.
+     */
+    static JSONObject toJson(HealthMetrics metrics) {
+        JSONObject json = new JSONObject();
+        json.put(USER_ID, metrics.getUserId());
+        json.put(DATE, metrics.getDate().toString());
+
+        // Use standardized field names consistently
+        json.put("sleepHours", metrics.getSleepHours());
+        json.put("waterIntake", metrics.getWaterIntake());
+        json.put("exerciseMinutes", metrics.getExerciseMinutes());
+        json.put("calories", metrics.getCalories());
+        json.put("steps", metrics.getSteps());
+
+        return json;
+    }
+
+    /**
+     * Converts JSON to HealthMetrics object.
+     * Prioritizes standardized field names with backward compatibility for legacy data.
+     */
+    static HealthMetrics fromJson(JSONObject json) {
+        // Prioritize new standardized field names, fallback to old names for backward compatibility
+        double sleepHour;
+        if (json.has("sleepHours")) {
+            sleepHour = json.getDouble("sleepHours");
+        } else if (json.has("sleepHour")) {
+            sleepHour = json.getDouble("sleepHour"); // Fallback for legacy data
+        } else {
+            sleepHour = 0.0;
+        }
+
+        int steps = json.optInt("steps", 0);
+
+        double waterLitres;
+        if (json.has("waterIntake")) {
+            waterLitres = json.getDouble("waterIntake");
+        } else if (json.has("waterLitres")) {
+            waterLitres = json.getDouble("waterLitres"); // Fallback for legacy data
+        } else {
+            waterLitres = 0.0;
+        }
+
+        double exerciseMinutes = json.optDouble("exerciseMinutes", 0.0);
+        int calories = json.optInt("calories", 0);
+
+        return new HealthMetrics(
+                json.getString(USER_ID),
+                LocalDate.parse(json.getString(DATE)),
+                sleepHour,
+                steps,
+                waterLitres,
+                exerciseMinutes,
+                calories
+        );
+    }
+
+    /**
+     * @return the key identifying a record's (userId, date) pair
+     */
+    static String recordKey(JSONObject record) {
+        return record.optString(USER_ID) + '\u0000' + record.optString(DATE);
+    }
+
+    /**
+     * Builds the canonical record for a stored row: standardized metric fields plus
+     * the score and feedback written by the Daily Health Score use case, if present.
+     */
+    static JSONObject normalize(JSONObject json) {
+        JSONObject normalized = toJson(fromJson(json));
+        if (json.has(SCORE)) {
+            normalized.put(SCORE, json.get(SCORE));
+        }
+        if (json.has(FEEDBACK)) {
+            normalized.put(FEEDBACK, json.get(FEEDBACK));
+        }
+        return normalized;
+    }
+}
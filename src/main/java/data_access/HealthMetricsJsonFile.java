@@ -0,0 +1,256 @@
+package data_access;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The health_metrics.json file: a single JSON array holding every user's daily records.
+ * Shared by the JSON-backed health DAOs.
+ * <p>
+ * Writes are crash-safe: each batch is first appended to a write-ahead journal and fsynced,
+ * then the updated array is written to a temporary snapshot, fsynced and atomically renamed
+ * over the file, and finally the journal is cleared. A crash at any point leaves either the
+ * old or the new file in place, never a truncated one, and journaled batches that had not yet
+ * reached the file are replayed when the next instance is constructed.
+ */
+public class HealthMetricsJsonFile implements HealthRecordStore {
+
+    private static final String JOURNAL_SUFFIX = ".wal";
+    private static final String SNAPSHOT_SUFFIX = ".tmp";
+
+    private final String path;
+    private final Path file;
+    private final Path journal;
+    private final Path snapshot;
+    private final boolean journaled;
+
+    /**
+     * @param path location of the JSON file; it is created as an empty array if missing
+     * @throws RuntimeException if the file cannot be created or recovered
+     */
+    public HealthMetricsJsonFile(String path) {
+        this(path, true);
+    }
+
+    /**
+     * @param path location of the JSON file; it is created as an empty array if missing
+     * @param journaled false to overwrite the file in place without a journal, as the DAOs
+     *                  originally did; only meant for comparing the two write paths
+     * @throws RuntimeException if the file cannot be created or recovered
+     */
+    public HealthMetricsJsonFile(String path, boolean journaled) {
+        this.path = path;
+        this.file = Paths.get(path);
+        this.journal = Paths.get(path + JOURNAL_SUFFIX);
+        this.snapshot = Paths.get(path + SNAPSHOT_SUFFIX);
+        this.journaled = journaled;
+
+        File file = new File(path);
+        if (!file.exists()) {
+            try {
+                file.createNewFile();
+                try (FileWriter writer = new FileWriter(file)) {
+                    writer.write("[]");
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error creating health metrics file: " + e.getMessage());
+            }
+        }
+
+        if (journaled) {
+            try {
+                recover();
+            } catch (IOException e) {
+                throw new RuntimeException("Error recovering health metrics file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return every record in the file, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public JSONArray readAll() throws IOException {
+        String content = new String(Files.readAllBytes(Paths.get(path)));
+
+        if (content.trim().isEmpty() || content.trim().equals("[]")) {
+            return new JSONArray();
+        }
+        return new JSONArray(content);
+    }
+
+    /**
+     * @return the record for the user on the date, or null if there is none
+     * @throws IOException if the file cannot be read
+     */
+    public JSONObject read(String userId, LocalDate date) throws IOException {
+        JSONArray array = readAll();
+        String dateStr = date.toString();
+
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject obj = array.getJSONObject(i);
+            if (obj.getString(HealthMetricsJsonCodec.USER_ID).equals(userId) &&
+                    obj.getString(HealthMetricsJsonCodec.DATE).equals(dateStr)) {
+                return obj;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<JSONObject> readUser(String userId) {
+        List<JSONObject> records = new ArrayList<>();
+        try {
+            JSONArray array = readAll();
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject obj = array.getJSONObject(i);
+                if (obj.getString(HealthMetricsJsonCodec.USER_ID).equals(userId)) {
+                    records.add(obj);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading health metrics: " + e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * Replaces existing records in place and appends new ones, then rewrites the file once
+     * for the whole batch.
+     */
+    @Override
+    public synchronized void writeAll(Collection<JSONObject> records) {
+        try {
+            JSONArray array = readAll();
+            merge(array, records);
+
+            if (!journaled) {
+                try (FileWriter writer = new FileWriter(path)) {
+                    writer.write(array.toString(4)); // pretty print
+                }
+                return;
+            }
+
+            appendToJournal(records);
+            writeSnapshot(array);
+            clearJournal();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save health metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finishes whatever a crashed writer left behind: a half-written snapshot is discarded
+     * (the rename never happened, so the file is intact) and journaled batches are applied.
+     */
+    private void recover() throws IOException {
+        Files.deleteIfExists(snapshot);
+        if (!Files.exists(journal) || Files.size(journal) == 0) {
+            return;
+        }
+
+        List<JSONArray> batches = new ArrayList<>();
+        for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+            try {
+                batches.add(new JSONArray(line));
+            } catch (JSONException e) {
+                // torn final line: that batch was never acknowledged, so it is dropped
+            }
+        }
+
+        if (!batches.isEmpty()) {
+            JSONArray array = readAll();
+            for (JSONArray batch : batches) {
+                List<JSONObject> records = new ArrayList<>();
+                for (int i = 0; i < batch.length(); i++) {
+                    records.add(batch.getJSONObject(i));
+                }
+                merge(array, records);
+            }
+            writeSnapshot(array);
+        }
+        clearJournal();
+    }
+
+    private void appendToJournal(Collection<JSONObject> records) throws IOException {
+        byte[] line = (new JSONArray(records).toString() + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(journal,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private void writeSnapshot(JSONArray array) throws IOException {
+        byte[] content = array.toString(4).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(snapshot,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(snapshot, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    private void clearJournal() throws IOException {
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Makes the rename itself durable. Not every platform allows opening a directory,
+     * in which case the rename is still atomic, just not yet guaranteed on disk.
+     */
+    private void syncDirectory() {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void merge(JSONArray array, Collection<JSONObject> records) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < array.length(); i++) {
+            positions.put(HealthMetricsJsonCodec.recordKey(array.getJSONObject(i)), i);
+        }
+
+        for (JSONObject record : records) {
+            String key = HealthMetricsJsonCodec.recordKey(record);
+            Integer position = positions.get(key);
+            if (position != null) {
+                array.put(position, record);
+            } else {
+                positions.put(key, array.length());
+                array.put(record);
+            }
+        }
+    }
+}
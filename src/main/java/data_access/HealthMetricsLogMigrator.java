@@ -0,0 +1,62 @@
+package data_access;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One-shot migration of the legacy health_metrics.json array into a HealthMetricsLogStore.
+ * A marker file in the log directory records that the migration ran, so later startups skip it.
+ */
+public class HealthMetricsLogMigrator {
+
+    static final String MARKER_FILE = "MIGRATED";
+
+    private HealthMetricsLogMigrator() {
+    }
+
+    /**
+     * Copies every record of the JSON file into the log store, unless that was already done.
+     * Legacy field names are normalized; saved scores and feedback are carried over.
+     * The JSON file itself is left untouched.
+     *
+     * @param jsonFile the legacy health_metrics.json file
+     * @param logStore the store to migrate into
+     * @return the number of records migrated (0 if the migration already ran)
+     * @throws RuntimeException if the JSON file cannot be read
+     */
+    public static int migrate(Path jsonFile, HealthMetricsLogStore logStore) {
+        Path marker = logStore.getDirectory().resolve(MARKER_FILE);
+        if (Files.exists(marker)) {
+            return 0;
+        }
+
+        int migrated = 0;
+        try {
+            if (Files.exists(jsonFile)) {
+                String content = new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8);
+                if (!content.trim().isEmpty()) {
+                    JSONArray array = new JSONArray(content);
+                    for (int i = 0; i < array.length(); i++) {
+                        try {
+                            logStore.upsert(HealthMetricsJsonCodec.normalize(array.getJSONObject(i)));
+                            migrated++;
+                        } catch (JSONException | IllegalArgumentException e) {
+                            System.err.println("Skipping unreadable health metrics record " + i + ": " + e.getMessage());
+                        }
+                    }
+                }
+            }
+            logStore.flush();
+            Files.writeString(marker, jsonFile.toAbsolutePath().toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Error migrating health metrics: " + e.getMessage());
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,568 @@
+package data_access;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only, segmented record log for health metrics.
+ * <p>
+ * Every upsert is appended as one compact JSON line to the active segment, so a save costs a
+ * single small write no matter how much history is stored. Reads replay the segments in order
+ * and the last record written for a (userId, date) pair wins. Once enough sealed segments pile
+ * up, a background task merges them into one segment that holds only the live records.
+ * <p>
+ * A per-user (userId, date) index maps every live record to its segment and byte offset, so
+ * point lookups and per-user reads touch only the records they return. The index is saved
+ * beside the segments and rebuilt from them on startup if it is missing or out of date.
+ */
+public class HealthMetricsLogStore implements HealthRecordStore, AutoCloseable {
+
+    static final long DEFAULT_MAX_SEGMENT_BYTES = 1024 * 1024;
+    static final int DEFAULT_COMPACTION_THRESHOLD = 4;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final String INDEX_FILE = "index.dat";
+    private static final int READ_CHUNK_BYTES = 4096;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService compactor;
+    private final HealthMetricsIndex index = new HealthMetricsIndex();
+
+    // sealed segments are immutable; ids ascend with age, the active segment always has the highest id
+    private final List<Integer> sealedSegments = new ArrayList<>();
+    private int activeSegmentId;
+    private FileChannel activeChannel;
+    private long activeSize;
+    private boolean compactionScheduled;
+    // runs right after a compacted segment replaces its target; tests use it to simulate a crash
+    Runnable afterCompactionMove = () -> { };
+
+    public HealthMetricsLogStore(Path directory) {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Opens (or creates) a log store in the given directory.
+     * @param directory directory holding the segment files
+     * @param maxSegmentBytes size after which the active segment is sealed and a new one started
+     * @param compactionThreshold number of sealed segments that triggers a background compaction
+     * @throws RuntimeException if the directory or segments cannot be opened
+     */
+    public HealthMetricsLogStore(Path directory, long maxSegmentBytes, int compactionThreshold) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.compactionThreshold = Math.max(2, compactionThreshold);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-metrics-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Files.createDirectories(directory);
+            List<Integer> existing = listSegmentIds();
+            if (existing.isEmpty()) {
+                activeSegmentId = 1;
+            } else {
+                activeSegmentId = existing.get(existing.size() - 1);
+                sealedSegments.addAll(existing.subList(0, existing.size() - 1));
+            }
+            openActiveSegment();
+            loadOrRebuildIndex();
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening health metrics log: " + e.getMessage());
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Appends a record; it supersedes any earlier record for the same (userId, date).
+     * @param record JSON record containing at least "userId" and "date"
+     */
+    public void upsert(JSONObject record) {
+        byte[] line = (record.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+
+        lock.writeLock().lock();
+        try {
+            if (activeSize > 0 && activeSize + line.length > maxSegmentBytes) {
+                rollActiveSegment();
+            }
+            long offset = activeSize;
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                activeSize += activeChannel.write(buffer, activeSize);
+            }
+            index.put(record.getString(HealthMetricsJsonCodec.USER_ID),
+                    LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE)),
+                    new HealthMetricsIndex.Pointer(activeSegmentId, offset));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append health metrics record: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void writeAll(Collection<JSONObject> records) {
+        for (JSONObject record : records) {
+            upsert(record);
+        }
+    }
+
+    /**
+     * Returns the live record for a user on a date, or null if there is none.
+     */
+    public JSONObject read(String userId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            HealthMetricsIndex.Pointer pointer = index.get(userId, date);
+            if (pointer == null) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(pointer.segmentId), StandardOpenOption.READ)) {
+                return parseLine(readLineAt(channel, pointer.offset));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading health metrics log: " + e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the live records of one user, ordered by date.
+     */
+    @Override
+    public List<JSONObject> readUser(String userId) {
+        lock.readLock().lock();
+        try {
+            return readPointers(index.forUser(userId).values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the live records of one user dated from {@code from} to {@code to}, ordered by
+     * date; only the records inside the range are read from the segments.
+     */
+    @Override
+    public List<JSONObject> readUser(String userId, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return readPointers(index.forUser(userId).subMap(from, true, to, true).values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of live (userId, date) records
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if no record has ever been appended to this store
+     */
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return sealedSegments.isEmpty() && activeSize == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of segment files currently making up the log, including the active one
+     */
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return sealedSegments.size() + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces appended records down to the storage device.
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            activeChannel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to flush health metrics log: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merges all sealed segments into one, dropping superseded records.
+     * Runs on the calling thread; normally this is triggered in the background.
+     */
+    public synchronized void compact() {
+        List<Integer> toMerge;
+        lock.readLock().lock();
+        try {
+            toMerge = new ArrayList<>(sealedSegments);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (toMerge.size() < 2) {
+            return;
+        }
+
+        // Sealed segments never change, so they can be merged without blocking writers
+        Map<String, String> live = new LinkedHashMap<>();
+        try {
+            for (int segmentId : toMerge) {
+                scanSegment(segmentId, 0, (offset, line) -> {
+                    JSONObject record = parseLine(line);
+                    if (record != null) {
+                        String key = HealthMetricsJsonCodec.recordKey(record);
+                        live.remove(key);
+                        live.put(key, line);
+                    }
+                });
+            }
+
+            int targetId = toMerge.get(toMerge.size() - 1);
+            Path compacted = directory.resolve(segmentName(targetId) + COMPACT_SUFFIX);
+            Map<String, Long> newOffsets = new HashMap<>();
+            long position = 0;
+            try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, String> entry : live.entrySet()) {
+                    newOffsets.put(entry.getKey(), position);
+                    writer.write(entry.getValue());
+                    writer.write('\n');
+                    position += entry.getValue().getBytes(StandardCharsets.UTF_8).length + 1;
+                }
+            }
+            try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            lock.writeLock().lock();
+            try {
+                // The saved index points into the segment about to be replaced, and its watermark
+                // would still match the segment list; drop it so a crash before saveIndex()
+                // below rebuilds the index instead of reusing stale offsets.
+                Files.deleteIfExists(directory.resolve(INDEX_FILE));
+                // The merged file takes the newest merged id so replay order is preserved even
+                // if we crash before the older segments are deleted.
+                Files.move(compacted, segmentPath(targetId),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                afterCompactionMove.run();
+                for (int segmentId : toMerge) {
+                    if (segmentId != targetId) {
+                        Files.deleteIfExists(segmentPath(segmentId));
+                        sealedSegments.remove(Integer.valueOf(segmentId));
+                    }
+                }
+
+                // Repoint entries that still refer to a merged segment; anything pointing at a
+                // newer segment was overwritten after the merge started and stays as it is.
+                for (Map.Entry<String, Long> entry : newOffsets.entrySet()) {
+                    int separator = entry.getKey().indexOf('\u0000');
+                    String userId = entry.getKey().substring(0, separator);
+                    LocalDate date = LocalDate.parse(entry.getKey().substring(separator + 1));
+                    HealthMetricsIndex.Pointer current = index.get(userId, date);
+                    if (current != null && toMerge.contains(current.segmentId)) {
+                        index.put(userId, date, new HealthMetricsIndex.Pointer(targetId, entry.getValue()));
+                    }
+                }
+                saveIndex();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            System.err.println("Health metrics log compaction failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.writeLock().lock();
+        try {
+            activeChannel.force(true);
+            activeChannel.close();
+            saveIndex();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close health metrics log: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the records behind the given pointers, keeping one channel open per segment.
+     */
+    private List<JSONObject> readPointers(Collection<HealthMetricsIndex.Pointer> pointers) {
+        List<JSONObject> records = new ArrayList<>(pointers.size());
+        Map<Integer, FileChannel> channels = new HashMap<>();
+        try {
+            for (HealthMetricsIndex.Pointer pointer : pointers) {
+                FileChannel channel = channels.get(pointer.segmentId);
+                if (channel == null) {
+                    channel = FileChannel.open(segmentPath(pointer.segmentId), StandardOpenOption.READ);
+                    channels.put(pointer.segmentId, channel);
+                }
+                JSONObject record = parseLine(readLineAt(channel, pointer.offset));
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading health metrics log: " + e.getMessage());
+        } finally {
+            for (FileChannel channel : channels.values()) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reuses the saved index when it matches the segments on disk (catching up on records
+     * appended to the active segment since it was written); otherwise rebuilds it by
+     * replaying every segment.
+     */
+    private void loadOrRebuildIndex() throws IOException {
+        boolean loaded = index.load(directory.resolve(INDEX_FILE));
+        HealthMetricsIndex.Watermark saved = index.getWatermark();
+
+        if (loaded
+                && saved.sealedSegments.equals(sealedSegments)
+                && saved.activeSegmentId == activeSegmentId
+                && saved.activeSize <= activeSize) {
+            indexSegment(activeSegmentId, saved.activeSize);
+            return;
+        }
+
+        index.clear();
+        for (int segmentId : sealedSegments) {
+            indexSegment(segmentId, 0);
+        }
+        indexSegment(activeSegmentId, 0);
+        saveIndex();
+    }
+
+    private void indexSegment(int segmentId, long from) throws IOException {
+        scanSegment(segmentId, from, (offset, line) -> {
+            JSONObject record = parseLine(line);
+            if (record != null && record.has(HealthMetricsJsonCodec.USER_ID) && record.has(HealthMetricsJsonCodec.DATE)) {
+                index.put(record.getString(HealthMetricsJsonCodec.USER_ID),
+                        LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE)),
+                        new HealthMetricsIndex.Pointer(segmentId, offset));
+            }
+        });
+    }
+
+    private void saveIndex() {
+        try {
+            index.save(directory.resolve(INDEX_FILE),
+                    new HealthMetricsIndex.Watermark(new ArrayList<>(sealedSegments), activeSegmentId, activeSize));
+        } catch (IOException e) {
+            // The index can always be rebuilt from the segments, so this is not fatal
+            System.err.println("Error saving health metrics index: " + e.getMessage());
+        }
+    }
+
+    private interface LineVisitor {
+        void visit(long offset, String line);
+    }
+
+    /**
+     * Walks the lines of a segment from the given byte offset, reporting where each one starts.
+     */
+    private void scanSegment(int segmentId, long from, LineVisitor visitor) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(segmentPath(segmentId)))) {
+            long skipped = 0;
+            while (skipped < from) {
+                long n = in.skip(from - skipped);
+                if (n <= 0) {
+                    return;
+                }
+                skipped += n;
+            }
+
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long lineStart = from;
+            long position = from;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == '\n') {
+                    visitor.visit(lineStart, line.toString(StandardCharsets.UTF_8));
+                    line.reset();
+                    lineStart = position;
+                } else {
+                    line.write(b);
+                }
+            }
+        }
+    }
+
+    private static String readLineAt(FileChannel channel, long offset) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK_BYTES);
+        long position = offset;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    return line.toString(StandardCharsets.UTF_8);
+                }
+                line.write(b);
+            }
+            position += read;
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private void rollActiveSegment() throws IOException {
+        activeChannel.force(true);
+        activeChannel.close();
+        sealedSegments.add(activeSegmentId);
+        activeSegmentId++;
+        openActiveSegment();
+        saveIndex();
+
+        if (sealedSegments.size() >= compactionThreshold && !compactionScheduled) {
+            compactionScheduled = true;
+            compactor.submit(() -> {
+                try {
+                    compact();
+                } finally {
+                    lock.writeLock().lock();
+                    compactionScheduled = false;
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+    }
+
+    private void openActiveSegment() throws IOException {
+        activeChannel = FileChannel.open(segmentPath(activeSegmentId),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeSize = activeChannel.size();
+        truncateTornTail();
+    }
+
+    /**
+     * Drops a partially written last line left behind by a crash, so the next append starts
+     * on a fresh line instead of gluing itself onto the torn record.
+     */
+    private void truncateTornTail() throws IOException {
+        long position = activeSize;
+        ByteBuffer single = ByteBuffer.allocate(1);
+        while (position > 0) {
+            single.clear();
+            activeChannel.read(single, position - 1);
+            if (single.get(0) == '\n') {
+                break;
+            }
+            position--;
+        }
+        if (position != activeSize) {
+            activeChannel.truncate(position);
+            activeSize = position;
+        }
+    }
+
+    private List<Integer> listSegmentIds() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    ids.add(Integer.parseInt(number));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private Path segmentPath(int segmentId) {
+        return directory.resolve(segmentName(segmentId));
+    }
+
+    private static String segmentName(int segmentId) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX);
+    }
+
+    private static JSONObject parseLine(String line) {
+        if (line.isEmpty()) {
+            return null;
+        }
+        try {
+            return new JSONObject(line);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+}
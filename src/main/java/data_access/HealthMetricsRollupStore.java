@@ -0,0 +1,155 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import use_case.healthHistory.healthHistoryAggregation;
+import use_case.healthHistory.healthHistoryMetric;
+import use_case.healthHistory.healthMetricRollup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Incrementally maintained rollup tables of each user's health metrics: count, sum, min and
+ * max of every chartable metric per ISO week, calendar month and calendar year, next to the
+ * daily values they were built from.
+ * <p>
+ * A newly saved day is folded into its three buckets in constant time. Re-saving a day that
+ * already exists rebuilds only the buckets containing it from the daily values, since a
+ * replaced minimum or maximum cannot be subtracted out.
+ */
+public class HealthMetricsRollupStore {
+
+    private static final healthHistoryMetric[] METRICS = healthHistoryMetric.values();
+    private static final healthHistoryAggregation[] ROLLUPS = {
+            healthHistoryAggregation.WEEK, healthHistoryAggregation.MONTH, healthHistoryAggregation.YEAR
+    };
+
+    private final Map<String, UserRollups> byUser = new HashMap<>();
+
+    /**
+     * @return true if the user's rollups have been built and are kept up to date
+     */
+    public synchronized boolean isLoaded(String userId) {
+        return byUser.containsKey(userId);
+    }
+
+    /**
+     * Builds the user's rollups from their full history, replacing any existing ones.
+     */
+    public synchronized void load(String userId, Collection<HealthMetrics> history) {
+        UserRollups rollups = new UserRollups();
+        for (HealthMetrics metrics : history) {
+            rollups.put(metrics.getDate(), valuesOf(metrics));
+        }
+        byUser.put(userId, rollups);
+    }
+
+    /**
+     * Drops the user's rollups; they are rebuilt from the full history when next queried.
+     */
+    public synchronized void unload(String userId) {
+        byUser.remove(userId);
+    }
+
+    /**
+     * Folds a saved day into the user's rollups. Users whose rollups have not been loaded
+     * yet are skipped; their rollups are built from the full history when first queried.
+     */
+    public synchronized void record(HealthMetrics metrics) {
+        UserRollups rollups = byUser.get(metrics.getUserId());
+        if (rollups != null) {
+            rollups.put(metrics.getDate(), valuesOf(metrics));
+        }
+    }
+
+    /**
+     * @return the rollups of one metric for buckets from the one containing {@code from} up
+     *         to {@code to}, ordered by bucket start (empty if the user is not loaded)
+     */
+    public synchronized List<healthMetricRollup> query(String userId, healthHistoryMetric metric,
+                                                       healthHistoryAggregation aggregation,
+                                                       LocalDate from, LocalDate to) {
+        List<healthMetricRollup> result = new ArrayList<>();
+        UserRollups rollups = byUser.get(userId);
+        LocalDate first = aggregation.bucketStart(from);
+        if (rollups == null || first.isAfter(to)) {
+            return result;
+        }
+
+        int m = metric.ordinal();
+        if (aggregation == healthHistoryAggregation.DAY) {
+            for (Map.Entry<LocalDate, double[]> day : rollups.daily.subMap(first, true, to, true).entrySet()) {
+                double value = day.getValue()[m];
+                result.add(new healthMetricRollup(day.getKey(), 1, value, value, value));
+            }
+            return result;
+        }
+
+        for (Map.Entry<LocalDate, Bucket> entry : rollups.buckets.get(aggregation).subMap(first, true, to, true).entrySet()) {
+            Bucket bucket = entry.getValue();
+            result.add(new healthMetricRollup(entry.getKey(), bucket.count, bucket.sum[m], bucket.min[m], bucket.max[m]));
+        }
+        return result;
+    }
+
+    private static double[] valuesOf(HealthMetrics metrics) {
+        double[] values = new double[METRICS.length];
+        for (healthHistoryMetric metric : METRICS) {
+            values[metric.ordinal()] = metric.valueOf(metrics);
+        }
+        return values;
+    }
+
+    /**
+     * Statistics of every metric over one bucket.
+     */
+    private static final class Bucket {
+        int count;
+        final double[] sum = new double[METRICS.length];
+        final double[] min = new double[METRICS.length];
+        final double[] max = new double[METRICS.length];
+
+        void add(double[] values) {
+            for (int m = 0; m < values.length; m++) {
+                sum[m] += values[m];
+                min[m] = count == 0 ? values[m] : Math.min(min[m], values[m]);
+                max[m] = count == 0 ? values[m] : Math.max(max[m], values[m]);
+            }
+            count++;
+        }
+    }
+
+    private static final class UserRollups {
+        final TreeMap<LocalDate, double[]> daily = new TreeMap<>();
+        final Map<healthHistoryAggregation, TreeMap<LocalDate, Bucket>> buckets =
+                new EnumMap<>(healthHistoryAggregation.class);
+
+        UserRollups() {
+            for (healthHistoryAggregation aggregation : ROLLUPS) {
+                buckets.put(aggregation, new TreeMap<>());
+            }
+        }
+
+        void put(LocalDate date, double[] values) {
+            double[] previous = daily.put(date, values);
+            for (healthHistoryAggregation aggregation : ROLLUPS) {
+                LocalDate start = aggregation.bucketStart(date);
+                if (previous == null) {
+                    buckets.get(aggregation).computeIfAbsent(start, s -> new Bucket()).add(values);
+                } else {
+                    Bucket rebuilt = new Bucket();
+                    for (double[] day : daily.subMap(start, true, aggregation.bucketEnd(start), true).values()) {
+                        rebuilt.add(day);
+                    }
+                    buckets.get(aggregation).put(start, rebuilt);
+                }
+            }
+        }
+    }
+}
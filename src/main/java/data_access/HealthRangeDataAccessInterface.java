@@ -0,0 +1,25 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import use_case.healthHistory.healthHistoryUserDataAccessInterface;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Health metrics data access that can answer date-range queries without loading a user's
+ * whole history.
+ */
+public interface HealthRangeDataAccessInterface extends HealthDataAccessInterface,
+        healthHistoryUserDataAccessInterface {
+
+    @Override
+    List<HealthMetrics> getHealthMetricsByUser(String userId);
+
+    /**
+     * @return the user's metrics dated between {@code from} and {@code to} (both inclusive),
+     *         ordered by date
+     */
+    @Override
+    List<HealthMetrics> getHealthMetricsByUser(String userId, LocalDate from, LocalDate to);
+}
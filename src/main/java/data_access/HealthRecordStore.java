@@ -0,0 +1,43 @@
+package data_access;
+
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persistent storage of health metric records, one JSON record per (userId, date).
+ * Implemented by each on-disk format so caching layers can sit in front of any of them.
+ */
+public interface HealthRecordStore {
+
+    /**
+     * @param userId the user whose records to read
+     * @return the user's stored records (empty if there are none)
+     */
+    List<JSONObject> readUser(String userId);
+
+    /**
+     * Stores that keep each user's records in date order override this to read only the
+     * range; by default the user's records are read and filtered.
+     * @return the user's records dated between {@code from} and {@code to} (both inclusive)
+     */
+    default List<JSONObject> readUser(String userId, LocalDate from, LocalDate to) {
+        List<JSONObject> inRange = new ArrayList<>();
+        for (JSONObject record : readUser(userId)) {
+            LocalDate date = LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE));
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                inRange.add(record);
+            }
+        }
+        return inRange;
+    }
+
+    /**
+     * Inserts or replaces the given records, matched on (userId, date), as one batch.
+     * @param records complete records to store
+     */
+    void writeAll(Collection<JSONObject> records);
+}
@@ -0,0 +1,77 @@
+package data_access;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counts and latencies of remote HTTP endpoints, keyed by a short endpoint name such as
+ * "GET /user". Safe to update from any number of threads.
+ */
+public class HttpEndpointMetrics {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Records one call.
+     * @param endpoint the endpoint name
+     * @param nanos how long the call took, including reading the response body
+     * @param success false if the call failed or its response could not be read
+     */
+    public void record(String endpoint, long nanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.calls.increment();
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    public long getCallCount(String endpoint) {
+        Endpoint stats = endpoints.get(endpoint);
+        return stats == null ? 0 : stats.calls.sum();
+    }
+
+    public long getErrorCount(String endpoint) {
+        Endpoint stats = endpoints.get(endpoint);
+        return stats == null ? 0 : stats.errors.sum();
+    }
+
+    /**
+     * @return the mean latency in milliseconds (0 if the endpoint has not been called)
+     */
+    public double getAverageMillis(String endpoint) {
+        Endpoint stats = endpoints.get(endpoint);
+        long calls = stats == null ? 0 : stats.calls.sum();
+        return calls == 0 ? 0.0 : stats.totalNanos.sum() / (calls * 1e6);
+    }
+
+    public double getMaxMillis(String endpoint) {
+        Endpoint stats = endpoints.get(endpoint);
+        return stats == null ? 0.0 : stats.maxNanos.get() / 1e6;
+    }
+
+    /**
+     * One line per endpoint, sorted by name.
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        for (String endpoint : new TreeMap<>(endpoints).keySet()) {
+            summary.append(String.format("%s: %d calls, %d errors, avg %.2f ms, max %.2f ms%n",
+                    endpoint, getCallCount(endpoint), getErrorCount(endpoint),
+                    getAverageMillis(endpoint), getMaxMillis(endpoint)));
+        }
+        return summary.toString();
+    }
+
+    private static final class Endpoint {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
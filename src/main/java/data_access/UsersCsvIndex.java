@@ -0,0 +1,398 @@
+package data_access;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Username to row offset index over a users.csv snapshot, for loading accounts on demand.
+ * <p>
+ * The index is an open-addressed table of username hashes and row offsets; usernames are not
+ * kept in memory, so a lookup reads the candidate row back from the file and compares the
+ * name. When a username appears on several rows, the index points at the last one. The table
+ * is saved beside the snapshot (users.csv.idx) and reused while the snapshot's size and
+ * modification time match; otherwise it is rebuilt by scanning the file.
+ */
+final class UsersCsvIndex implements AutoCloseable {
+
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x55494458;
+    private static final int VERSION = 1;
+    private static final int INDEX_HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4 + 8;
+    private static final int READ_SIZE = 128;
+
+    /**
+     * Receives the rows of the snapshot that are the last row for their username.
+     */
+    interface RowVisitor {
+        void visit(String username, String row) throws IOException;
+    }
+
+    private final FileChannel channel;
+    private final int size;
+    private final long firstRow;
+    private final boolean loadedFromFile;
+    // slots are empty where offsets is 0; a data row never starts at offset 0
+    private final int[] hashes;
+    private final long[] offsets;
+
+    private UsersCsvIndex(FileChannel channel, int[] hashes, long[] offsets, int size, long firstRow,
+                          boolean loadedFromFile) {
+        this.channel = channel;
+        this.hashes = hashes;
+        this.offsets = offsets;
+        this.size = size;
+        this.firstRow = firstRow;
+        this.loadedFromFile = loadedFromFile;
+    }
+
+    /**
+     * Opens the snapshot for lookups, reusing the saved index if it is still current and
+     * otherwise building one and saving it.
+     * @throws RuntimeException if the snapshot cannot be read or has the wrong header
+     */
+    static UsersCsvIndex open(Path csv) {
+        final Path indexFile = csv.resolveSibling(csv.getFileName() + INDEX_SUFFIX);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(csv, StandardOpenOption.READ);
+            final long csvSize = channel.size();
+            final long modified = Files.getLastModifiedTime(csv).toMillis();
+            final UsersCsvIndex saved = readIndex(channel, indexFile, csvSize, modified);
+            if (saved != null) {
+                return saved;
+            }
+            final UsersCsvIndex built = build(channel);
+            try {
+                built.write(indexFile, csvSize, modified);
+            }
+            catch (IOException ex) {
+                System.err.println("Error saving users index: " + ex.getMessage());
+            }
+            return built;
+        }
+        catch (IOException | RuntimeException ex) {
+            closeQuietly(channel);
+            throw ex instanceof RuntimeException ? (RuntimeException) ex : new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * @return the number of distinct usernames in the snapshot
+     */
+    int size() {
+        return size;
+    }
+
+    boolean isLoadedFromFile() {
+        return loadedFromFile;
+    }
+
+    /**
+     * @return the last row for the username, or null if the snapshot does not contain it
+     */
+    String find(String username) throws IOException {
+        final int hash = hash(username.getBytes(StandardCharsets.UTF_8));
+        final int mask = offsets.length - 1;
+        for (int slot = hash & mask; offsets[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash) {
+                final String row = readRow(offsets[slot]);
+                if (row != null && username.equals(usernameOf(row))) {
+                    return row;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the username on the first data row, or null if the snapshot has none
+     */
+    String firstUsername() throws IOException {
+        if (size == 0) {
+            return null;
+        }
+        final String row = readRow(firstRow);
+        return row == null ? null : usernameOf(row);
+    }
+
+    /**
+     * Streams the snapshot in file order, skipping rows superseded by a later row for the
+     * same username.
+     */
+    void forEachLiveRow(RowVisitor visitor) throws IOException {
+        final ByteBuffer block = ByteBuffer.allocate(1 << 16);
+        byte[] line = new byte[256];
+        int lineLength = 0;
+        long lineStart = firstRow;
+        long position = firstRow;
+        final long end = channel.size();
+        while (position < end) {
+            block.clear();
+            final int read = channel.read(block, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                final byte b = block.get(i);
+                if (b == '\n') {
+                    visitLine(visitor, line, lineLength, lineStart);
+                    lineLength = 0;
+                    lineStart = position + i + 1;
+                }
+                else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+            position += read;
+        }
+        visitLine(visitor, line, lineLength, lineStart);
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(channel);
+    }
+
+    private void visitLine(RowVisitor visitor, byte[] line, int length, long offset) throws IOException {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        final int comma = indexOf(line, length, (byte) ',');
+        if (comma <= 0 || !isLive(hash(line, comma), offset)) {
+            return;
+        }
+        final String row = new String(line, 0, length, StandardCharsets.UTF_8);
+        visitor.visit(usernameOf(row), row);
+    }
+
+    private boolean isLive(int hash, long offset) {
+        final int mask = offsets.length - 1;
+        for (int slot = hash & mask; offsets[slot] != 0; slot = (slot + 1) & mask) {
+            if (offsets[slot] == offset) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the row starting at the offset without its line ending, or null past the end of the file
+     */
+    private String readRow(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+        while (true) {
+            final int read = channel.read(buffer, offset + buffer.position());
+            final int newline = indexOf(buffer.array(), buffer.position(), (byte) '\n');
+            if (newline >= 0 || read <= 0) {
+                int length = newline >= 0 ? newline : buffer.position();
+                if (length == 0 && read <= 0) {
+                    return null;
+                }
+                if (length > 0 && buffer.get(length - 1) == '\r') {
+                    length--;
+                }
+                return new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+            }
+            if (!buffer.hasRemaining()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+        }
+    }
+
+    /**
+     * Scans the snapshot once, recording the offset of the last row for each username.
+     */
+    private static UsersCsvIndex build(FileChannel channel) throws IOException {
+        final ByteBuffer buffer = UsersCsvLoader.contents(channel);
+        final int limit = buffer.limit();
+        final int firstRow = UsersCsvLoader.checkHeader(buffer, limit);
+
+        int capacity = Integer.highestOneBit(Math.max(16, limit / 8));
+        int[] hashes = new int[capacity];
+        long[] offsets = new long[capacity];
+        int size = 0;
+
+        int rowStart = firstRow;
+        while (rowStart < limit) {
+            int position = rowStart;
+            int comma = -1;
+            int hash = 0;
+            byte b;
+            while (position < limit && (b = buffer.get(position)) != '\n') {
+                if (comma < 0) {
+                    if (b == ',') {
+                        comma = position;
+                    }
+                    else {
+                        hash = 31 * hash + (b & 0xff);
+                    }
+                }
+                position++;
+            }
+            if (comma > rowStart) {
+                if (size * 2 >= capacity) {
+                    capacity *= 2;
+                    final int[] grownHashes = new int[capacity];
+                    final long[] grownOffsets = new long[capacity];
+                    for (int i = 0; i < offsets.length; i++) {
+                        if (offsets[i] != 0) {
+                            insert(grownHashes, grownOffsets, hashes[i], offsets[i]);
+                        }
+                    }
+                    hashes = grownHashes;
+                    offsets = grownOffsets;
+                }
+                if (put(buffer, hashes, offsets, spread(hash), rowStart, comma - rowStart)) {
+                    size++;
+                }
+            }
+            rowStart = position + 1;
+        }
+        return new UsersCsvIndex(channel, hashes, offsets, size, firstRow, false);
+    }
+
+    /**
+     * Points the username's slot at the row, adding a slot if the username is new.
+     * @return whether a slot was added
+     */
+    private static boolean put(ByteBuffer buffer, int[] hashes, long[] offsets, int hash, int rowStart,
+                               int nameLength) {
+        final int mask = offsets.length - 1;
+        int slot = hash & mask;
+        for (; offsets[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && sameName(buffer, (int) offsets[slot], rowStart, nameLength)) {
+                offsets[slot] = rowStart;
+                return false;
+            }
+        }
+        hashes[slot] = hash;
+        offsets[slot] = rowStart;
+        return true;
+    }
+
+    private static void insert(int[] hashes, long[] offsets, int hash, long offset) {
+        final int mask = offsets.length - 1;
+        int slot = hash & mask;
+        while (offsets[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        offsets[slot] = offset;
+    }
+
+    private static boolean sameName(ByteBuffer buffer, int existing, int candidate, int nameLength) {
+        for (int i = 0; i < nameLength; i++) {
+            if (buffer.get(existing + i) != buffer.get(candidate + i)) {
+                return false;
+            }
+        }
+        return buffer.get(existing + nameLength) == ',';
+    }
+
+    /**
+     * @return the saved index, or null if there is none or it does not describe this snapshot
+     */
+    private static UsersCsvIndex readIndex(FileChannel channel, Path indexFile, long csvSize, long modified) {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (buffer.remaining() < INDEX_HEADER_BYTES
+                    || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != csvSize || buffer.getLong() != modified) {
+                return null;
+            }
+            final int size = buffer.getInt();
+            final int capacity = buffer.getInt();
+            final long firstRow = buffer.getLong();
+            if (Integer.bitCount(capacity) != 1 || buffer.remaining() != capacity * 12L) {
+                return null;
+            }
+            final long[] offsets = new long[capacity];
+            buffer.asLongBuffer().get(offsets);
+            buffer.position(buffer.position() + capacity * 8);
+            final int[] hashes = new int[capacity];
+            buffer.asIntBuffer().get(hashes);
+            return new UsersCsvIndex(channel, hashes, offsets, size, firstRow, true);
+        }
+        catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves the table beside the snapshot (temporary file + atomic rename).
+     */
+    private void write(Path indexFile, long csvSize, long modified) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(INDEX_HEADER_BYTES + offsets.length * 12);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(csvSize).putLong(modified)
+                .putInt(size).putInt(offsets.length).putLong(firstRow);
+        buffer.asLongBuffer().put(offsets);
+        buffer.position(buffer.position() + offsets.length * 8);
+        buffer.asIntBuffer().put(hashes);
+        buffer.position(buffer.capacity()).flip();
+
+        final Path temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String usernameOf(String row) {
+        final int comma = row.indexOf(',');
+        return comma < 0 ? row : row.substring(0, comma);
+    }
+
+    private static int hash(byte[] name) {
+        return hash(name, name.length);
+    }
+
+    private static int hash(byte[] name, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + (name[i] & 0xff);
+        }
+        return spread(hash);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int indexOf(byte[] bytes, int length, byte target) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        }
+        catch (IOException ex) {
+            System.err.println("Error closing users.csv: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package data_access;
+
+import Entities.User;
+import Entities.UserFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads users.csv (username,password,age,height,weight) by scanning the memory-mapped bytes
+ * of the file directly.
+ * <p>
+ * On Windows the file is read into memory instead of mapped: a mapping stays alive until it
+ * is garbage collected, and while it does Windows refuses to replace the file, which the
+ * background compaction of users.csv does.
+ * <p>
+ * Rows are split on the bytes themselves and the three integer columns are parsed in place,
+ * so the only objects created per row are the username and password Strings and the User.
+ * Large files are cut into chunks at newline boundaries and parsed in parallel; the chunks
+ * are merged in file order, so a later row for the same username still wins.
+ */
+public final class UsersCsvLoader {
+
+    static final String HEADER = "username,password,age,height,weight";
+
+    // Files smaller than this are parsed on the calling thread
+    static final long PARALLEL_THRESHOLD_BYTES = 1024 * 1024;
+
+    private static final byte[] HEADER_BYTES = HEADER.getBytes(StandardCharsets.UTF_8);
+    private static final int COLUMNS = 5;
+    private static final boolean MAP_FILES = !System.getProperty("os.name", "").startsWith("Windows");
+
+    private UsersCsvLoader() {
+    }
+
+    /**
+     * The loaded accounts and how long loading took.
+     */
+    public static final class Result {
+        private final Map<String, User> users;
+        private final int rows;
+        private final long loadNanos;
+
+        private Result(Map<String, User> users, int rows, long loadNanos) {
+            this.users = users;
+            this.rows = rows;
+            this.loadNanos = loadNanos;
+        }
+
+        /** @return the accounts by username; the last row for a username wins */
+        public Map<String, User> getUsers() { return users; }
+        /** @return the number of data rows read, including superseded ones */
+        public int getRowCount() { return rows; }
+        public long getLoadNanos() { return loadNanos; }
+        public double getLoadMillis() { return loadNanos / 1e6; }
+    }
+
+    /**
+     * Loads the file, in parallel chunks if it is large enough to benefit.
+     * @throws RuntimeException if the file cannot be read, has the wrong header or a malformed row
+     */
+    public static Result load(Path csv, UserFactory userFactory) {
+        return load(csv, userFactory, ForkJoinPool.commonPool().getParallelism() > 1);
+    }
+
+    /**
+     * @param parallel whether files over {@link #PARALLEL_THRESHOLD_BYTES} are split into
+     *                 chunks parsed on the common fork-join pool
+     * @throws RuntimeException if the file cannot be read, has the wrong header or a malformed row
+     */
+    public static Result load(Path csv, UserFactory userFactory, boolean parallel) {
+        final long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = contents(channel);
+            final int limit = buffer.limit();
+            final int firstRow = checkHeader(buffer, limit);
+
+            final int chunks = parallel && limit >= PARALLEL_THRESHOLD_BYTES
+                    ? ForkJoinPool.commonPool().getParallelism() * 4 : 1;
+            final List<Chunk> parsed = new ArrayList<>(chunks);
+            int chunkStart = firstRow;
+            for (int i = 1; i <= chunks && chunkStart < limit; i++) {
+                final int chunkEnd = i == chunks ? limit
+                        : nextLineStart(buffer, Math.max(chunkStart, firstRow + (int) ((long) (limit - firstRow) * i / chunks)), limit);
+                parsed.add(new Chunk(buffer.duplicate(), chunkStart, chunkEnd, userFactory));
+                chunkStart = chunkEnd;
+            }
+
+            if (parsed.size() > 1) {
+                ForkJoinTask.invokeAll(parsed);
+            } else {
+                parsed.forEach(Chunk::compute);
+            }
+
+            int rows = 0;
+            for (Chunk chunk : parsed) {
+                rows += chunk.users.size();
+            }
+            final Map<String, User> users = new HashMap<>(Math.max(16, (int) (rows / 0.75f) + 1));
+            for (Chunk chunk : parsed) {
+                if (chunk.error != null) {
+                    throw chunk.error;
+                }
+                for (User user : chunk.users) {
+                    users.put(user.getName(), user);
+                }
+            }
+            return new Result(users, rows, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the whole file, memory-mapped where the platform lets a mapped file be replaced
+     *         and read into the heap otherwise
+     */
+    static ByteBuffer contents(FileChannel channel) throws IOException {
+        return contents(channel, MAP_FILES);
+    }
+
+    static ByteBuffer contents(FileChannel channel, boolean map) throws IOException {
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new RuntimeException("File is too large to map: " + size + " bytes");
+        }
+        if (map) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer, buffer.position());
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * @return the offset of the first data row
+     * @throws RuntimeException if the first line is not the expected header
+     */
+    static int checkHeader(ByteBuffer buffer, int limit) {
+        int end = 0;
+        while (end < limit && buffer.get(end) != '\n') {
+            end++;
+        }
+        final int headerEnd = end > 0 && buffer.get(end - 1) == '\r' ? end - 1 : end;
+        boolean matches = headerEnd == HEADER_BYTES.length;
+        for (int i = 0; matches && i < headerEnd; i++) {
+            matches = buffer.get(i) == HEADER_BYTES[i];
+        }
+        if (!matches) {
+            final byte[] header = new byte[headerEnd];
+            buffer.get(0, header);
+            throw new RuntimeException(String.format("header should be%n: %s%n but was:%n%s",
+                    HEADER, new String(header, StandardCharsets.UTF_8)));
+        }
+        return Math.min(limit, end + 1);
+    }
+
+    private static int nextLineStart(ByteBuffer buffer, int from, int limit) {
+        int position = from;
+        while (position < limit && buffer.get(position - 1) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Parses the rows in {@code [start, end)}; both ends are at the start of a line.
+     */
+    @SuppressWarnings("serial")
+    private static final class Chunk extends RecursiveAction {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final UserFactory userFactory;
+        private final List<User> users = new ArrayList<>();
+        private final int[] fieldStarts = new int[COLUMNS];
+        private final int[] fieldEnds = new int[COLUMNS];
+        private byte[] scratch = new byte[64];
+        private RuntimeException error;
+
+        private Chunk(ByteBuffer buffer, int start, int end, UserFactory userFactory) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.userFactory = userFactory;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                int position = start;
+                while (position < end) {
+                    position = parseRow(position);
+                }
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        /**
+         * @return the start of the next row
+         */
+        private int parseRow(int rowStart) {
+            int field = 0;
+            fieldStarts[0] = rowStart;
+            int position = rowStart;
+            while (position < end) {
+                final byte b = buffer.get(position);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == ',') {
+                    if (field < COLUMNS) {
+                        fieldEnds[field] = position;
+                    }
+                    field++;
+                    if (field < COLUMNS) {
+                        fieldStarts[field] = position + 1;
+                    }
+                }
+                position++;
+            }
+            int rowEnd = position;
+            if (rowEnd > rowStart && buffer.get(rowEnd - 1) == '\r') {
+                rowEnd--;
+            }
+            final int next = Math.min(end, position + 1);
+            if (rowEnd == rowStart) {
+                // blank line
+                return next;
+            }
+            if (field < COLUMNS - 1) {
+                throw malformed(rowStart, rowEnd);
+            }
+            if (field == COLUMNS - 1) {
+                fieldEnds[field] = rowEnd;
+            }
+
+            final String username = string(fieldStarts[0], fieldEnds[0]);
+            final String password = string(fieldStarts[1], fieldEnds[1]);
+            final int age = parseInt(2, rowStart, rowEnd);
+            final int height = parseInt(3, rowStart, rowEnd);
+            final int weight = parseInt(4, rowStart, rowEnd);
+            users.add(userFactory.create(username, password, age, height, weight));
+            return next;
+        }
+
+        private String string(int from, int to) {
+            final int length = to - from;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                scratch[i] = buffer.get(from + i);
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private int parseInt(int field, int rowStart, int rowEnd) {
+            int position = fieldStarts[field];
+            final int to = fieldEnds[field];
+            boolean negative = false;
+            if (position < to && buffer.get(position) == '-') {
+                negative = true;
+                position++;
+            }
+            if (position == to || to - position > 9) {
+                throw malformed(rowStart, rowEnd);
+            }
+            int value = 0;
+            for (; position < to; position++) {
+                final int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw malformed(rowStart, rowEnd);
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+
+        private RuntimeException malformed(int rowStart, int rowEnd) {
+            return new RuntimeException("Malformed users.csv row: " + string(rowStart, rowEnd));
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONObject;
+import use_case.daily_health_score.DailyHealthScoreOutputData;
+import use_case.daily_health_score.DailyHealthScoreUserDataAccessInterface;
+import use_case.healthHistory.healthHistoryAggregation;
+import use_case.healthHistory.healthHistoryMetric;
+import use_case.healthHistory.healthMetricRollup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared in-memory cache in front of a HealthRecordStore, serving both the health metrics
+ * and the daily health score use cases.
+ * <p>
+ * A user's records are loaded from the store on first access and served from memory after
+ * that. Date-range queries for a user who is not loaded read only the range from the store.
+ * Saves update the cache immediately and are written to the store in the background:
+ * pending records are coalesced per (userId, date) and flushed as one batch once
+ * {@code batchSize} of them are waiting or {@code maxDelayMillis} after the first one
+ * arrived, whichever comes first. A background flush the store rejects is retried with
+ * exponential backoff. {@link #close()} flushes whatever is still pending.
+ * <p>
+ * At most {@code maxCachedUsers} users' histories are held; the least recently used one is
+ * dropped when another is loaded. Records still waiting to be written are laid over the
+ * store's contents when a dropped user is loaded again.
+ * <p>
+ * Week, month and year rollups of each loaded user are kept alongside the cache and updated
+ * on every save, so aggregated history charts never re-scan the daily records.
+ */
+public class WriteBehindHealthDataAccessObject implements HealthRangeDataAccessInterface,
+        DailyHealthScoreUserDataAccessInterface,
+        AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 32;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 2000;
+    public static final int DEFAULT_MAX_CACHED_USERS = 1000;
+    private static final long MIN_RETRY_DELAY_MILLIS = 50;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+    private final FileUserDataAccessObject userDataAccessObject;
+    private final HealthRecordStore store;
+    private final int batchSize;
+    private final long maxDelayMillis;
+    private final int maxCachedUsers;
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private final HealthMetricsRollupStore rollups = new HealthMetricsRollupStore();
+
+    // guarded by this
+    private final Map<String, TreeMap<LocalDate, JSONObject>> recordsByUser = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TreeMap<LocalDate, JSONObject>> eldest) {
+            if (size() <= maxCachedUsers) {
+                return false;
+            }
+            rollups.unload(eldest.getKey());
+            return true;
+        }
+    };
+    private final Map<String, JSONObject> pending = new LinkedHashMap<>();
+    // the batch being written by flush(); still the newest copy of its records until it lands
+    private List<JSONObject> flushing = List.of();
+    private ScheduledFuture<?> scheduledFlush;
+    private int failedFlushes;
+    private boolean closed;
+
+    public WriteBehindHealthDataAccessObject(FileUserDataAccessObject userDataAccessObject, HealthRecordStore store) {
+        this(userDataAccessObject, store, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public WriteBehindHealthDataAccessObject(FileUserDataAccessObject userDataAccessObject, HealthRecordStore store,
+                                             int batchSize, long maxDelayMillis) {
+        this(userDataAccessObject, store, batchSize, maxDelayMillis, DEFAULT_MAX_CACHED_USERS);
+    }
+
+    /**
+     * @param userDataAccessObject source of the current username
+     * @param store the store records are read from and flushed to
+     * @param batchSize number of pending records that triggers an immediate flush
+     * @param maxDelayMillis longest time a saved record may wait before being flushed
+     * @param maxCachedUsers number of users whose history is kept in memory
+     */
+    public WriteBehindHealthDataAccessObject(FileUserDataAccessObject userDataAccessObject, HealthRecordStore store,
+                                             int batchSize, long maxDelayMillis, int maxCachedUsers) {
+        this.userDataAccessObject = userDataAccessObject;
+        this.store = store;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxDelayMillis = Math.max(0, maxDelayMillis);
+        this.maxCachedUsers = Math.max(1, maxCachedUsers);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-metrics-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void saveHealthMetrics(HealthMetrics healthMetrics) {
+        put(HealthMetricsJsonCodec.toJson(healthMetrics), healthMetrics);
+    }
+
+    @Override
+    public synchronized List<HealthMetrics> getHealthMetricsByUser(String userId) {
+        List<HealthMetrics> userMetrics = new ArrayList<>();
+        for (JSONObject record : userRecords(userId).values()) {
+            userMetrics.add(HealthMetricsJsonCodec.fromJson(record));
+        }
+        return userMetrics;
+    }
+
+    @Override
+    public synchronized List<HealthMetrics> getHealthMetricsByUser(String userId, LocalDate from, LocalDate to) {
+        List<HealthMetrics> userMetrics = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return userMetrics;
+        }
+        TreeMap<LocalDate, JSONObject> records = recordsByUser.get(userId);
+        if (records == null) {
+            // Read just the range from the store rather than load and cache the whole history
+            records = new TreeMap<>();
+            for (JSONObject record : store.readUser(userId, from, to)) {
+                records.put(LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE)), record);
+            }
+            overlayUnwritten(userId, records, from, to);
+        }
+        for (JSONObject record : records.subMap(from, true, to, true).values()) {
+            userMetrics.add(HealthMetricsJsonCodec.fromJson(record));
+        }
+        return userMetrics;
+    }
+
+    @Override
+    public synchronized List<healthMetricRollup> getRollups(String userId, healthHistoryMetric metric,
+                                                            healthHistoryAggregation aggregation,
+                                                            LocalDate from, LocalDate to) {
+        if (!rollups.isLoaded(userId)) {
+            rollups.load(userId, getHealthMetricsByUser(userId));
+        }
+        return rollups.query(userId, metric, aggregation, from, to);
+    }
+
+    public synchronized HealthMetrics getLatestMetrics(String userId) {
+        TreeMap<LocalDate, JSONObject> records = userRecords(userId);
+        return records.isEmpty() ? null : HealthMetricsJsonCodec.fromJson(records.lastEntry().getValue());
+    }
+
+    @Override
+    public synchronized HealthMetrics getMetricsForDate(String userId, LocalDate date) {
+        JSONObject record = userRecords(userId).get(date);
+        return record == null ? null : HealthMetricsJsonCodec.fromJson(record);
+    }
+
+    @Override
+    public void saveDailyHealthScore(DailyHealthScoreOutputData scoreData) {
+        JSONObject updated;
+        synchronized (this) {
+            JSONObject existing = userRecords(scoreData.getUserId()).get(scoreData.getDate());
+
+            // A score is only attached to a day that already has metrics
+            if (existing == null) {
+                return;
+            }
+
+            // Cached records are never mutated in place; the flusher may be serializing them
+            updated = new JSONObject(existing.toString());
+        }
+        updated.put(HealthMetricsJsonCodec.SCORE, scoreData.getScore());
+        updated.put(HealthMetricsJsonCodec.FEEDBACK, scoreData.getFeedback());
+        put(updated, null);
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        return userDataAccessObject.getCurrentUsername();
+    }
+
+    /**
+     * @return the number of users whose history is held in memory
+     */
+    public synchronized int getCachedUserCount() {
+        return recordsByUser.size();
+    }
+
+    /**
+     * @return the number of saved records not yet written to the store
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes every pending record to the store on the calling thread.
+     * @throws RuntimeException if the store rejects the batch; the records stay pending
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<JSONObject> batch;
+            synchronized (this) {
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                flushing = batch;
+            }
+
+            try {
+                store.writeAll(batch);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    // Put the batch back unless a newer save for the same day is already waiting
+                    for (JSONObject record : batch) {
+                        pending.putIfAbsent(HealthMetricsJsonCodec.recordKey(record), record);
+                    }
+                    flushing = List.of();
+                }
+                throw e;
+            }
+            synchronized (this) {
+                flushing = List.of();
+            }
+        }
+    }
+
+    /**
+     * Stops the background flusher and writes out everything still pending.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            // The flush below covers it; a delayed flush would otherwise hold up shutdown
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * @param metrics the metrics the record was built from, or null if they are unchanged
+     *                (a score update); used to keep the rollups current
+     */
+    private void put(JSONObject record, HealthMetrics metrics) {
+        boolean writeThrough;
+        synchronized (this) {
+            LocalDate date = LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE));
+            userRecords(record.getString(HealthMetricsJsonCodec.USER_ID)).put(date, record);
+            if (metrics != null) {
+                rollups.record(metrics);
+            }
+
+            String key = HealthMetricsJsonCodec.recordKey(record);
+            pending.remove(key);
+            pending.put(key, record);
+
+            // Once closed there is no background flusher; write through so nothing is lost
+            writeThrough = closed;
+            if (!closed) {
+                if (pending.size() >= batchSize) {
+                    flusher.execute(this::flushInBackground);
+                } else if (scheduledFlush == null) {
+                    scheduledFlush = flusher.schedule(this::flushInBackground, maxDelayMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        if (writeThrough) {
+            flush();
+        }
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+            synchronized (this) {
+                failedFlushes = 0;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error flushing health metrics: " + e.getMessage());
+            synchronized (this) {
+                // Retry even if no further save arrives; close() flushes on its own
+                if (!closed && scheduledFlush == null) {
+                    long delay = Math.min(MAX_RETRY_DELAY_MILLIS,
+                            Math.max(maxDelayMillis, MIN_RETRY_DELAY_MILLIS) << Math.min(failedFlushes, 20));
+                    failedFlushes++;
+                    scheduledFlush = flusher.schedule(this::flushInBackground, delay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    private TreeMap<LocalDate, JSONObject> userRecords(String userId) {
+        TreeMap<LocalDate, JSONObject> records = recordsByUser.get(userId);
+        if (records == null) {
+            records = new TreeMap<>();
+            for (JSONObject record : store.readUser(userId)) {
+                records.put(LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE)), record);
+            }
+            // The user may have been dropped from the cache before their saves were written
+            overlayUnwritten(userId, records, LocalDate.MIN, LocalDate.MAX);
+            recordsByUser.put(userId, records);
+        }
+        return records;
+    }
+
+    /**
+     * Puts the user's records that are not in the store yet, dated from {@code from} to
+     * {@code to}, over the ones read from it.
+     */
+    private void overlayUnwritten(String userId, TreeMap<LocalDate, JSONObject> records, LocalDate from, LocalDate to) {
+        for (Collection<JSONObject> unwritten : List.of(flushing, pending.values())) {
+            for (JSONObject record : unwritten) {
+                LocalDate date = LocalDate.parse(record.getString(HealthMetricsJsonCodec.DATE));
+                if (record.getString(HealthMetricsJsonCodec.USER_ID).equals(userId)
+                        && !date.isBefore(from) && !date.isAfter(to)) {
+                    records.put(date, record);
+                }
+            }
+        }
+    }
+}
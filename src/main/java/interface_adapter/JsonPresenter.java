@@ -0,0 +1,41 @@
+package interface_adapter;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base class of the presenters that answer one HTTP request with JSON instead of updating a
+ * Swing ViewModel. Each request gets its own presenter; the response completes when the
+ * interactor presents, which for the async use cases happens on another thread.
+ */
+public abstract class JsonPresenter {
+
+    public static final int OK = 200;
+    public static final int BAD_REQUEST = 400;
+    public static final int UNAUTHORIZED = 401;
+
+    private final CompletableFuture<JsonResponse> response = new CompletableFuture<>();
+
+    /**
+     * @return the response, completed by the first success or fail view the interactor prepares
+     */
+    public CompletableFuture<JsonResponse> getResponse() {
+        return response;
+    }
+
+    protected void succeed(JSONObject body) {
+        complete(OK, body);
+    }
+
+    /**
+     * Completes the response with {@code {"error": errorMessage}}.
+     */
+    protected void fail(int status, String errorMessage) {
+        complete(status, new JSONObject().put("error", errorMessage));
+    }
+
+    protected void complete(int status, JSONObject body) {
+        response.complete(new JsonResponse(status, body));
+    }
+}
@@ -0,0 +1,30 @@
+package interface_adapter;
+
+import org.json.JSONObject;
+
+/**
+ * An HTTP status code and JSON body prepared by a JSON presenter: the headless counterpart
+ * of a ViewModel's state.
+ */
+public class JsonResponse {
+
+    private final int status;
+    private final JSONObject body;
+
+    public JsonResponse(int status, JSONObject body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public JSONObject getBody() {
+        return body;
+    }
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+}
@@ -0,0 +1,74 @@
+package interface_adapter.daily_health_score;
+
+import Entities.HealthMetrics;
+import services.SingleFlight;
+import use_case.daily_health_score.HealthScoreCalculator;
+import use_case.daily_health_score.HealthScoreResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HealthScoreCalculator decorator that shares one delegate call between concurrent requests
+ * for the same metrics, e.g. a double-clicked compute button or several sessions scoring the
+ * same day at once. Requests are identical when the metric values (and, for feedback, the
+ * score) are equal; the user and date do not take part, as the prompts do not mention them.
+ */
+public class CoalescingHealthScoreCalculator implements HealthScoreCalculator {
+
+    private final HealthScoreCalculator delegate;
+    private final SingleFlight<List<Object>, Integer> scores = new SingleFlight<>();
+    private final SingleFlight<List<Object>, String> feedback = new SingleFlight<>();
+    private final SingleFlight<List<Object>, HealthScoreResult> results = new SingleFlight<>();
+
+    public CoalescingHealthScoreCalculator(HealthScoreCalculator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int calculateScore(HealthMetrics metrics) throws Exception {
+        return scores.call(key(metrics), () -> delegate.calculateScore(metrics));
+    }
+
+    @Override
+    public String generateFeedback(HealthMetrics metrics, int score) throws Exception {
+        List<Object> key = key(metrics);
+        key.add(score);
+        return feedback.call(key, () -> delegate.generateFeedback(metrics, score));
+    }
+
+    @Override
+    public Integer estimateScore(HealthMetrics metrics) {
+        return delegate.estimateScore(metrics);
+    }
+
+    @Override
+    public boolean scoresWithFeedback() {
+        return delegate.scoresWithFeedback();
+    }
+
+    @Override
+    public HealthScoreResult calculateScoreWithFeedback(HealthMetrics metrics) throws Exception {
+        return results.call(key(metrics), () -> delegate.calculateScoreWithFeedback(metrics));
+    }
+
+    /**
+     * @return the requests that shared another request's call
+     */
+    public long getCoalescedCallCount() {
+        return scores.getCoalescedCount() + feedback.getCoalescedCount() + results.getCoalescedCount();
+    }
+
+    /**
+     * @return the calls made to the delegate
+     */
+    public long getDelegateCallCount() {
+        return scores.getCallCount() + feedback.getCallCount() + results.getCallCount();
+    }
+
+    private static List<Object> key(HealthMetrics metrics) {
+        return new ArrayList<>(Arrays.asList(metrics.getSleepHours(), metrics.getExerciseMinutes(),
+                metrics.getCalories(), metrics.getWaterIntake(), metrics.getSteps()));
+    }
+}
@@ -3,6 +3,7 @@ package interface_adapter.daily_health_score;
 import use_case.daily_health_score.DailyHealthScoreInputBoundary;
 import use_case.daily_health_score.DailyHealthScoreInputData;
 import use_case.daily_health_score.DailyHealthScoreUserDataAccessInterface;
+import use_case.session.SessionContext;
 
 import java.time.LocalDate;
 
@@ -14,22 +15,29 @@ import java.time.LocalDate;
 public class DailyHealthScoreController {
 
     private final DailyHealthScoreInputBoundary dailyHealthScoreInteractor;
-    private final DailyHealthScoreUserDataAccessInterface userDataAccess;
+    private final SessionContext session;
 
     public DailyHealthScoreController(DailyHealthScoreInputBoundary interactor,
                                       DailyHealthScoreUserDataAccessInterface userDataAccess) {
+        this(interactor, SessionContext.readOnly(userDataAccess::getCurrentUsername));
+    }
+
+    /**
+     * @param session the session whose signed-in user the score is computed for
+     */
+    public DailyHealthScoreController(DailyHealthScoreInputBoundary interactor, SessionContext session) {
         this.dailyHealthScoreInteractor = interactor;
-        this.userDataAccess = userDataAccess;
+        this.session = session;
     }
 
     /**
      * Trigger the DailyHealthScore use case.
-     * Gets the current user automatically from the data access object.
+     * Gets the current user automatically from the session.
      *
      * @param date The date for which the health score should be computed.
      */
     public void computeDailyHealthScore(LocalDate date) {
-        String userId = userDataAccess.getCurrentUsername();
+        String userId = session.getUsername();
 
         DailyHealthScoreInputData inputData =
                 new DailyHealthScoreInputData(date, userId);
@@ -0,0 +1,35 @@
+package interface_adapter.daily_health_score;
+
+import Entities.HealthMetrics;
+import interface_adapter.JsonPresenter;
+import org.json.JSONObject;
+import use_case.daily_health_score.DailyHealthScoreOutputBoundary;
+import use_case.daily_health_score.DailyHealthScoreOutputData;
+
+/**
+ * Presents the Daily Health Score use case as JSON: the date, score and feedback, and the
+ * metrics they were computed from.
+ */
+public class DailyHealthScoreJsonPresenter extends JsonPresenter implements DailyHealthScoreOutputBoundary {
+
+    @Override
+    public void prepareSuccessView(DailyHealthScoreOutputData outputData) {
+        HealthMetrics metrics = outputData.getMetrics();
+        succeed(new JSONObject()
+                .put("date", outputData.getDate().toString())
+                .put("userId", outputData.getUserId())
+                .put("score", outputData.getScore())
+                .put("feedback", outputData.getFeedback())
+                .put("metrics", new JSONObject()
+                        .put("sleepHours", metrics.getSleepHours())
+                        .put("steps", metrics.getSteps())
+                        .put("waterIntake", metrics.getWaterIntake())
+                        .put("exerciseMinutes", metrics.getExerciseMinutes())
+                        .put("calories", metrics.getCalories())));
+    }
+
+    @Override
+    public void prepareFailView(String errorMessage) {
+        fail(BAD_REQUEST, errorMessage);
+    }
+}
@@ -18,11 +18,25 @@ public class DailyHealthScorePresenter implements DailyHealthScoreOutputBoundary
 
     @Override
     public void prepareSuccessView(DailyHealthScoreOutputData data) {
+        presentResult(data);
+    }
+
+    /**
+     * Shows the result so far; a null feedback is kept as null so the view can show that it
+     * is still being generated.
+     */
+    @Override
+    public void preparePartialView(DailyHealthScoreOutputData partialData) {
+        presentResult(partialData);
+    }
+
+    private void presentResult(DailyHealthScoreOutputData data) {
         DailyHealthScoreState newState = new DailyHealthScoreState();
 
         newState.setUserId(data.getUserId());
         newState.setDate(data.getDate());
         newState.setScore(data.getScore());
+        newState.setScoreEstimated(data.isScoreEstimated());
         newState.setFeedback(data.getFeedback());
         newState.setErrorMessage(null);
 
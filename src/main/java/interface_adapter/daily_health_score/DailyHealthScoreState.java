@@ -7,6 +7,9 @@ public class DailyHealthScoreState {
     private String userId;
     private LocalDate date;
     private Integer score;
+    // true while the score is a local estimate awaiting the remote one
+    private boolean scoreEstimated;
+    // null while the feedback is still being generated
     private String feedback;
     private String errorMessage;
 
@@ -42,6 +45,10 @@ public class DailyHealthScoreState {
         return score;
     }
 
+    public boolean isScoreEstimated() {
+        return scoreEstimated;
+    }
+
     public String getFeedback() {
         return feedback;
     }
@@ -63,6 +70,10 @@ public class DailyHealthScoreState {
         this.score = score;
     }
 
+    public void setScoreEstimated(boolean scoreEstimated) {
+        this.scoreEstimated = scoreEstimated;
+    }
+
     public void setFeedback(String feedback) {
         this.feedback = feedback;
     }
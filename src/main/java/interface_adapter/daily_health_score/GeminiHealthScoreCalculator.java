@@ -2,19 +2,63 @@ package interface_adapter.daily_health_score;
 
 import services.GeminiAPIService;
 import use_case.daily_health_score.HealthScoreCalculator;
+import use_case.daily_health_score.HealthScoreResult;
 import Entities.HealthMetrics;
 
+import java.io.IOException;
+
 /**
  * Adapter implementation of HealthScoreCalculator that delegates to GeminiAPIService.
  * This class acts as a bridge between the use case layer and the services layer,
  * following Clean Architecture principles.
+ * <p>
+ * In combined mode the score and feedback come from one Gemini call that answers with a JSON
+ * object; if that call fails or its answer cannot be parsed, the separate score and feedback
+ * calls are made instead. Only a failed call (including a non-2xx response) or an answer that
+ * cannot be used falls back; an interrupt is passed on so no further calls are made.
  */
 public class GeminiHealthScoreCalculator implements HealthScoreCalculator {
 
     private final GeminiAPIService geminiService;
+    private final boolean combined;
 
     public GeminiHealthScoreCalculator(GeminiAPIService geminiService) {
+        this(geminiService, false);
+    }
+
+    /**
+     * @param combined whether to ask for the score and feedback in one call
+     */
+    public GeminiHealthScoreCalculator(GeminiAPIService geminiService, boolean combined) {
         this.geminiService = geminiService;
+        this.combined = combined;
+    }
+
+    @Override
+    public boolean scoresWithFeedback() {
+        return combined;
+    }
+
+    @Override
+    public HealthScoreResult calculateScoreWithFeedback(HealthMetrics metrics) throws Exception {
+        if (combined) {
+            try {
+                GeminiAPIService.ScoreAndFeedback result = geminiService.calculateHealthScoreWithFeedback(
+                        metrics.getSleepHours(),
+                        metrics.getExerciseMinutes(),
+                        metrics.getCalories(),
+                        metrics.getWaterIntake(),
+                        metrics.getSteps()
+                );
+                return new HealthScoreResult(result.getScore(), result.getFeedback());
+            } catch (IOException | IllegalArgumentException e) {
+                logFallback("Gemini combined score and feedback request", e, "separate score and feedback requests");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+        return HealthScoreCalculator.super.calculateScoreWithFeedback(metrics);
     }
 
     @Override
@@ -27,10 +71,12 @@ public class GeminiHealthScoreCalculator implements HealthScoreCalculator {
                     metrics.getWaterIntake(),
                     metrics.getSteps()
             );
-        } catch (Exception e) {
-            System.err.println("Gemini API score calculation failed: " + e.getMessage());
-            System.err.println("Using fallback algorithm.");
+        } catch (IOException | IllegalArgumentException e) {
+            logFallback("Gemini API score calculation", e, "fallback algorithm");
             return calculateFallbackScore(metrics);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
         }
     }
 
@@ -46,6 +92,18 @@ public class GeminiHealthScoreCalculator implements HealthScoreCalculator {
         );
     }
 
+    /**
+     * The fallback algorithm's score, available immediately while Gemini is asked.
+     */
+    @Override
+    public Integer estimateScore(HealthMetrics metrics) {
+        return calculateFallbackScore(metrics);
+    }
+
+    private static void logFallback(String request, Exception failure, String fallback) {
+        System.err.println(request + " failed: " + failure.getMessage() + "; using " + fallback + ".");
+    }
+
     /**
      * Fallback calculation if Gemini fails to return a valid score.
      * Uses a simple algorithm based on how close metrics are to recommended values.
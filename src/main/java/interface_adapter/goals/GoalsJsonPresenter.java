@@ -0,0 +1,50 @@
+package interface_adapter.goals;
+
+import interface_adapter.JsonPresenter;
+import org.json.JSONObject;
+import use_case.goals.GoalsOutputBoundary;
+import use_case.goals.GoalsOutputData;
+
+/**
+ * Presents the Goals use case as JSON. A redirect to Settings becomes a 400 error whose
+ * body also carries {@code "redirect": "settings"}.
+ */
+public class GoalsJsonPresenter extends JsonPresenter implements GoalsOutputBoundary {
+
+    @Override
+    public void present(GoalsOutputData outputData) {
+        prepareSuccessView(outputData);
+    }
+
+    @Override
+    public void prepareSuccessView(GoalsOutputData outputData) {
+        succeed(new JSONObject()
+                .put("goalType", outputData.getGoalType())
+                .put("dailyIntakeCalories", outputData.getDailyIntakeCalories())
+                .put("dailyBurnCalories", outputData.getDailyBurnCalories())
+                .put("explanation", outputData.getExplanation())
+                .put("currentWeightKg", outputData.getCurrentWeightKg())
+                .put("target", outputData.getTarget())
+                .put("timeframe", outputData.getTimeframe()));
+    }
+
+    @Override
+    public void prepareFailView(String errorMessage) {
+        fail(BAD_REQUEST, errorMessage);
+    }
+
+    @Override
+    public void presentError(String errorMessage) {
+        fail(BAD_REQUEST, errorMessage);
+    }
+
+    @Override
+    public void redirectToSettings(String message) {
+        complete(BAD_REQUEST, new JSONObject().put("error", message).put("redirect", "settings"));
+    }
+
+    @Override
+    public void updateCurrentWeight(int weightKg) {
+        // Only sent to refresh the Swing view's weight label
+    }
+}
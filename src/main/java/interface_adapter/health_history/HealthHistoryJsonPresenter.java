@@ -0,0 +1,34 @@
+package interface_adapter.health_history;
+
+import interface_adapter.JsonPresenter;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import use_case.healthHistory.healthHistoryOutputBoundary;
+import use_case.healthHistory.healthHistoryOutputData;
+import use_case.healthHistory.healthMetricRecord;
+
+/**
+ * Presents the Health History use case as JSON: the metric, the range and one
+ * {@code {"date", "value"}} point per record.
+ */
+public class HealthHistoryJsonPresenter extends JsonPresenter implements healthHistoryOutputBoundary {
+
+    @Override
+    public void prepareSuccessView(healthHistoryOutputData outputData) {
+        JSONArray records = new JSONArray();
+        for (healthMetricRecord record : outputData.getRecords()) {
+            records.put(new JSONObject()
+                    .put("date", record.getDate().toString())
+                    .put("value", record.getValue()));
+        }
+        succeed(new JSONObject()
+                .put("metricType", outputData.getMetricType())
+                .put("timeRange", outputData.getTimeRange())
+                .put("records", records));
+    }
+
+    @Override
+    public void prepareFailView(String errorMessage) {
+        fail(BAD_REQUEST, errorMessage);
+    }
+}
@@ -0,0 +1,22 @@
+package interface_adapter.health_insights;
+
+import interface_adapter.JsonPresenter;
+import org.json.JSONObject;
+import use_case.health_insights.HealthInsightsOutputBoundary;
+import use_case.health_insights.HealthInsightsOutputData;
+
+/**
+ * Presents the Health Insights use case as JSON: {@code {"insights": ...}}.
+ */
+public class HealthInsightsJsonPresenter extends JsonPresenter implements HealthInsightsOutputBoundary {
+
+    @Override
+    public void prepareSuccessView(HealthInsightsOutputData outputData) {
+        succeed(new JSONObject().put("insights", outputData.getInsights()));
+    }
+
+    @Override
+    public void prepareFailView(String errorMessage) {
+        fail(BAD_REQUEST, errorMessage);
+    }
+}
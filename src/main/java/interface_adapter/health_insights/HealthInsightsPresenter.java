@@ -16,8 +16,9 @@ public class HealthInsightsPresenter implements HealthInsightsOutputBoundary {
     public void prepareSuccessView(HealthInsightsOutputData outputData) {
         HealthInsightsState state = healthInsightsViewModel.getState();
 
-        SwingUtilities.invokeLater(() -> {
+        onEventDispatchThread(() -> {
             state.setInsights(outputData.getInsights());
+            state.setStreaming(false);
 
             state.setErrorMessage("");
 
@@ -28,16 +29,46 @@ public class HealthInsightsPresenter implements HealthInsightsOutputBoundary {
         });
     }
 
+    @Override
+    public void prepareChunkView(String chunk) {
+        HealthInsightsState state = healthInsightsViewModel.getState();
+
+        onEventDispatchThread(() -> {
+            // The first chunk of a response replaces the previous insights
+            String soFar = state.isStreaming() ? state.getInsights() : "";
+            state.setInsights(soFar + chunk);
+            state.setStreaming(true);
+            state.setErrorMessage("");
+
+            healthInsightsViewModel.setState(state);
+            healthInsightsViewModel.fireChunkAppended(chunk);
+        });
+    }
+
     @Override
     public void prepareFailView(String errorMessage) {
         HealthInsightsState state = healthInsightsViewModel.getState();
 
-        SwingUtilities.invokeLater(() -> {
+        onEventDispatchThread(() -> {
             state.setErrorMessage(errorMessage);
+            state.setStreaming(false);
             healthInsightsViewModel.setState(state);
             healthInsightsViewModel.firePropertyChange();
 
             System.out.println("Error generating insights: " + errorMessage);
         });
     }
+
+    /**
+     * Runs the update at once when called on the event dispatch thread, as the interactor's
+     * callbacks are, so a request superseded after the interactor checked it cannot reach
+     * the view later.
+     */
+    private static void onEventDispatchThread(Runnable update) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            update.run();
+        } else {
+            SwingUtilities.invokeLater(update);
+        }
+    }
 }
\ No newline at end of file
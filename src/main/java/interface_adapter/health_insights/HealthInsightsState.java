@@ -3,10 +3,15 @@ package interface_adapter.health_insights;
 public class HealthInsightsState {
     private String insights = "";
     private String errorMessage = "";
+    // true from the first streamed chunk until the whole insights or an error arrive
+    private boolean streaming;
 
     public String getInsights() { return insights; }
     public void setInsights(String insights) { this.insights = insights; }
 
+    public boolean isStreaming() { return streaming; }
+    public void setStreaming(boolean streaming) { this.streaming = streaming; }
+
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 }
@@ -20,6 +20,14 @@ public class HealthInsightsViewModel extends ViewModel<HealthInsightsState> {
         support.firePropertyChange("state", null, this.getState());
     }
 
+    /**
+     * Tells listeners that a chunk was appended to the state's insights, so they can append
+     * it rather than redraw the whole text.
+     */
+    public void fireChunkAppended(String chunk) {
+        support.firePropertyChange("chunk", null, chunk);
+    }
+
     @Override
     public void addPropertyChangeListener(PropertyChangeListener listener) {
         support.addPropertyChangeListener(listener);
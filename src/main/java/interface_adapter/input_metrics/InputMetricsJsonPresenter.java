@@ -0,0 +1,29 @@
+package interface_adapter.input_metrics;
+
+import interface_adapter.JsonPresenter;
+import org.json.JSONObject;
+import use_case.input_metrics.InputMetricsOutputBoundary;
+import use_case.input_metrics.InputMetricsOutputData;
+
+/**
+ * Presents the Input Metrics use case as JSON: {@code {"date": ..., "message": ...}}.
+ */
+public class InputMetricsJsonPresenter extends JsonPresenter implements InputMetricsOutputBoundary {
+
+    @Override
+    public void prepareSuccessView(InputMetricsOutputData outputData) {
+        succeed(new JSONObject()
+                .put("date", outputData.getDate())
+                .put("message", outputData.getMessage()));
+    }
+
+    @Override
+    public void prepareFailView(String errorMessage) {
+        fail(BAD_REQUEST, errorMessage);
+    }
+
+    @Override
+    public void switchToHomeView() {
+        // There is no home view to switch to
+    }
+}
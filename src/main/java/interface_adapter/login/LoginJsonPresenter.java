@@ -0,0 +1,27 @@
+package interface_adapter.login;
+
+import interface_adapter.JsonPresenter;
+import org.json.JSONObject;
+import use_case.login.LoginOutputBoundary;
+import use_case.login.LoginOutputData;
+
+/**
+ * Presents the Login use case as JSON: {@code {"username": ...}} or a 401 error.
+ */
+public class LoginJsonPresenter extends JsonPresenter implements LoginOutputBoundary {
+
+    @Override
+    public void prepareSuccessView(LoginOutputData outputData) {
+        succeed(new JSONObject().put("username", outputData.getUsername()));
+    }
+
+    @Override
+    public void prepareFailView(String errorMessage) {
+        fail(UNAUTHORIZED, errorMessage);
+    }
+
+    @Override
+    public void switchToLoginView() {
+        // There is no login view to switch to
+    }
+}
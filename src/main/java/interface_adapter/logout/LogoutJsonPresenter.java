@@ -0,0 +1,17 @@
+package interface_adapter.logout;
+
+import interface_adapter.JsonPresenter;
+import org.json.JSONObject;
+import use_case.logout.LogoutOutputBoundary;
+import use_case.logout.LogoutOutputData;
+
+/**
+ * Presents the Logout use case as an empty JSON object.
+ */
+public class LogoutJsonPresenter extends JsonPresenter implements LogoutOutputBoundary {
+
+    @Override
+    public void prepareSuccessView(LogoutOutputData outputData) {
+        succeed(new JSONObject());
+    }
+}
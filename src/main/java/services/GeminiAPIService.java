@@ -1,83 +1,296 @@
 package services;
 
+import data_access.HttpEndpointMetrics;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import javax.swing.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-
+import java.util.function.Consumer;
+
+/**
+ * Client for the Gemini generateContent API.
+ * <p>
+ * Create one instance per application and share it between the use cases: each instance
+ * owns an OkHttpClient whose connection pool and dispatcher are sized by
+ * {@link GeminiClientSettings}. Every call goes through the dispatcher, so at most
+ * {@code maxRequests} (and {@code maxRequestsPerHost} to Gemini) are in flight and the rest
+ * wait in its queue; HTTP/2 lets the calls in flight share one multiplexed connection.
+ */
 public class GeminiAPIService {
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1/models/gemini-2.0-flash:generateContent";
+    private static final String GEMINI_MODEL_URL = "https://generativelanguage.googleapis.com/v1/models/gemini-2.0-flash";
+    private static final String GENERATE_CONTENT = ":generateContent";
+    private static final String STREAM_GENERATE_CONTENT = ":streamGenerateContent";
     private static final String HEADER_CONTENT_TYPE = "Content-Type";
     private static final String MEDIA_TYPE_JSON = "application/json";
     private static final MediaType JSON_MEDIA_TYPE = MediaType.parse(MEDIA_TYPE_JSON);
+    private static final String ENDPOINT_NAME = "POST generateContent";
+    private static final String STREAM_ENDPOINT_NAME = "POST streamGenerateContent";
+    private static final String SSE_DATA_PREFIX = "data:";
+    // Part of every cache key; bump it whenever the score or feedback prompt changes
+    private static final int PROMPT_VERSION = 1;
+    private static final String API_KEY_MISSING_INSIGHTS = "API key not configured. Please set the GEMINI_API_KEY environment variable to use AI insights.";
+    private static final String FALLBACK_INSIGHTS = "Based on your health metrics, I recommend focusing on consistent sleep patterns, regular physical activity, and balanced nutrition for optimal wellness.";
 
     private static final String QUERY_PARAM_KEY = "?key=";
+    // Asks for the stream as server-sent events rather than one JSON array
+    private static final String QUERY_PARAM_SSE_KEY = "?alt=sse&key=";
 
     private final String apiKey;
+    private final String modelUrl;
     private final OkHttpClient client;
+    private final GeminiResponseCache cache;
+    private final HttpEndpointMetrics metrics = new HttpEndpointMetrics();
+    private final SingleFlight<String, String> insightsFlight = new SingleFlight<>();
 
     public GeminiAPIService() {
-        this.apiKey = System.getenv("GEMINI_API_KEY");
+        this(GeminiClientSettings.fromSystemProperties(), GeminiResponseCache.fromSystemProperties());
+    }
+
+    /**
+     * @param cache where score and feedback answers are cached, or null to always call Gemini
+     */
+    public GeminiAPIService(GeminiClientSettings settings, GeminiResponseCache cache) {
+        this(settings, cache, System.getenv("GEMINI_API_KEY"), GEMINI_MODEL_URL);
+    }
 
+    /**
+     * @param modelUrl the model's URL, to which the {@code :generateContent} and
+     *                 {@code :streamGenerateContent} methods are appended
+     */
+    GeminiAPIService(GeminiClientSettings settings, GeminiResponseCache cache, String apiKey, String modelUrl) {
+        this.apiKey = apiKey;
+        this.modelUrl = modelUrl;
+        this.cache = cache;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(settings.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(settings.getMaxRequestsPerHost());
         this.client = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
+                .dispatcher(dispatcher)
+                // Negotiated over TLS; plain-HTTP endpoints fall back to HTTP/1.1
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(settings.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(settings.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(settings.getWriteTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .callTimeout(settings.getCallTimeoutMillis(), TimeUnit.MILLISECONDS)
                 .build();
     }
 
-    public void getHealthInsightsAsync(String healthData, InsightsCallback callback) {
-        new SwingWorker<String, Void>() {
-            @Override
-            protected String doInBackground() throws Exception {
-                return getHealthInsights(healthData);
+    /**
+     * @return the number of Gemini calls currently being executed
+     */
+    public int getInFlightRequestCount() {
+        return client.dispatcher().runningCallsCount();
+    }
+
+    /**
+     * @return the number of Gemini calls waiting for the dispatcher limits
+     */
+    public int getQueuedRequestCount() {
+        return client.dispatcher().queuedCallsCount();
+    }
+
+    /**
+     * @return the cache of score and feedback answers, or null if caching is off
+     */
+    public GeminiResponseCache getResponseCache() {
+        return cache;
+    }
+
+    /**
+     * @return insights requests that shared an identical request's call instead of making their own
+     */
+    public long getCoalescedInsightsCount() {
+        return insightsFlight.getCoalescedCount();
+    }
+
+    /**
+     * @return call counts and latencies of completed Gemini calls
+     */
+    public HttpEndpointMetrics getEndpointMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Requests insights for the health data from the streaming endpoint. The text is passed
+     * to {@link InsightsCallback#onChunk} piece by piece as Gemini generates it, then to
+     * {@code onSuccess} whole. A request for the same data as one still in flight shares that
+     * request's call: it receives the whole text, but not the chunks.
+     *
+     * @param callbackExecutor runs the callbacks, in order, e.g. {@code SwingUtilities::invokeLater}
+     *                         for Swing presenters or {@code Runnable::run} to call them on the
+     *                         thread reading the response
+     */
+    public void getHealthInsightsAsync(String healthData, InsightsCallback callback, Executor callbackExecutor) {
+        CompletableFuture<String> insights = apiKey == null || apiKey.isEmpty()
+                ? CompletableFuture.completedFuture(API_KEY_MISSING_INSIGHTS)
+                : insightsFlight.execute(healthData, () -> stream(createRequestBody(insightsPrompt(healthData)),
+                        chunk -> callbackExecutor.execute(() -> callback.onChunk(chunk))));
+        insights.whenComplete((result, error) -> callbackExecutor.execute(() -> {
+            if (error == null) {
+                callback.onSuccess(result);
+            } else {
+                callback.onError("API error: " + messageOf(error));
             }
+        }));
+    }
+
+    private static String insightsPrompt(String healthData) {
+        return "You are a health coach. Analyze this health data and provide 2-3 specific, actionable insights. " +
+                "Focus on sleep hours, steps, water intake, exercise minutes, and calories. " +
+                "Be specific about the numbers mentioned and give practical recommendations. " +
+                "Keep it under 200 words. Data: " + healthData;
+    }
+
+    /**
+     * Sends a prompt through the dispatcher and waits for the response.
+     * @return the raw response body
+     * @throws IOException if the call fails or the response is not 2xx
+     * @throws InterruptedException if interrupted while waiting; the call is cancelled
+     */
+    private String call(String prompt) throws Exception {
+        return call(createRequestBody(prompt));
+    }
+
+    private String call(JSONObject requestBody) throws Exception {
+        CompletableFuture<String> response = generate(requestBody);
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
 
+    /**
+     * Enqueues a generateContent call; it starts once the dispatcher limits allow.
+     * @return the raw response body
+     */
+    private CompletableFuture<String> generate(JSONObject requestBody) {
+        Request request = new Request.Builder()
+                .url(modelUrl + GENERATE_CONTENT + QUERY_PARAM_KEY + apiKey)
+                .post(RequestBody.create(requestBody.toString(), JSON_MEDIA_TYPE))
+                .addHeader(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
+                .build();
+        CompletableFuture<String> body = new CompletableFuture<>();
+        long start = System.nanoTime();
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
             @Override
-            protected void done() {
-                try {
-                    String insights = get();
-                    callback.onSuccess(insights);
-                } catch (Exception e) {
-                    callback.onError(e.getMessage());
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    String responseBody = response.body().string();
+                    if (!response.isSuccessful()) {
+                        throw new IOException("API request failed: " + response.code() + " - " + responseBody);
+                    }
+                    metrics.record(ENDPOINT_NAME, System.nanoTime() - start, true);
+                    body.complete(responseBody);
+                } catch (IOException | RuntimeException e) {
+                    metrics.record(ENDPOINT_NAME, System.nanoTime() - start, false);
+                    body.completeExceptionally(e);
                 }
             }
-        }.execute();
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                metrics.record(ENDPOINT_NAME, System.nanoTime() - start, false);
+                body.completeExceptionally(e);
+            }
+        });
+        // Cancelling the future, e.g. because the caller gave up, cancels the HTTP call
+        body.whenComplete((result, error) -> {
+            if (body.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return body;
     }
 
-    private String getHealthInsights(String healthData) {
-        if (apiKey == null || apiKey.isEmpty()) {
-            return "API key not configured. Please set the GEMINI_API_KEY environment variable to use AI insights.";
-        }
-        try {
-            String prompt = "You are a health coach. Analyze this health data and provide 2-3 specific, actionable insights. " +
-                    "Focus on sleep hours, steps, water intake, exercise minutes, and calories. " +
-                    "Be specific about the numbers mentioned and give practical recommendations. " +
-                    "Keep it under 200 words. Data: " + healthData;
-
-            JSONObject requestBody = createRequestBody(prompt);
-            String requestBodyString = requestBody.toString();
-
-            Request request = new Request.Builder()
-                    .url(GEMINI_API_URL + QUERY_PARAM_KEY + apiKey)
-                    .post(RequestBody.create(requestBodyString, JSON_MEDIA_TYPE))
-                    .addHeader(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body().string();
-                    throw new RuntimeException("API request failed: " + response.code() + " - " + errorBody);
+    /**
+     * Enqueues a streamGenerateContent call and reads its server-sent events as they arrive.
+     * @param onChunk receives the text of each event, on an OkHttp thread
+     * @return the whole text, once the stream ends
+     */
+    private CompletableFuture<String> stream(JSONObject requestBody, Consumer<String> onChunk) {
+        Request request = new Request.Builder()
+                .url(modelUrl + STREAM_GENERATE_CONTENT + QUERY_PARAM_SSE_KEY + apiKey)
+                .post(RequestBody.create(requestBody.toString(), JSON_MEDIA_TYPE))
+                .addHeader(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
+                .build();
+        CompletableFuture<String> text = new CompletableFuture<>();
+        long start = System.nanoTime();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        throw new IOException("API request failed: " + response.code() + " - " + response.body().string());
+                    }
+                    StringBuilder whole = new StringBuilder();
+                    BufferedSource source = response.body().source();
+                    String line;
+                    while ((line = source.readUtf8Line()) != null) {
+                        // Gemini sends each event as a single "data:" line; blank lines separate them
+                        if (!line.startsWith(SSE_DATA_PREFIX)) {
+                            continue;
+                        }
+                        String chunk = chunkText(line.substring(SSE_DATA_PREFIX.length()).trim());
+                        if (!chunk.isEmpty()) {
+                            whole.append(chunk);
+                            onChunk.accept(chunk);
+                        }
+                    }
+                    metrics.record(STREAM_ENDPOINT_NAME, System.nanoTime() - start, true);
+                    text.complete(whole.length() == 0 ? FALLBACK_INSIGHTS : whole.toString().trim());
+                } catch (IOException | RuntimeException e) {
+                    metrics.record(STREAM_ENDPOINT_NAME, System.nanoTime() - start, false);
+                    text.completeExceptionally(e);
                 }
+            }
 
-                String responseBody = response.body().string();
-                return parseApiResponse(responseBody);
+            @Override
+            public void onFailure(Call call, IOException e) {
+                metrics.record(STREAM_ENDPOINT_NAME, System.nanoTime() - start, false);
+                text.completeExceptionally(e);
             }
-        } catch (Exception e) {
-            throw new RuntimeException("API error: " + e.getMessage());
+        });
+        return text;
+    }
+
+    /**
+     * @return the text parts of one streamed event; empty for events without text, such as
+     *         the last one, which may only carry the finish reason and token counts
+     */
+    private static String chunkText(String eventData) {
+        StringBuilder text = new StringBuilder();
+        try {
+            JSONArray candidates = new JSONObject(eventData).optJSONArray("candidates");
+            JSONObject content = candidates == null || candidates.isEmpty()
+                    ? null : candidates.getJSONObject(0).optJSONObject("content");
+            JSONArray parts = content == null ? null : content.optJSONArray("parts");
+            for (int i = 0; parts != null && i < parts.length(); i++) {
+                text.append(parts.getJSONObject(i).optString("text"));
+            }
+        } catch (JSONException e) {
+            System.err.println("Skipping unreadable Gemini stream event: " + eventData);
         }
+        return text.toString();
+    }
+
+    private static String messageOf(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
     }
 
     private JSONObject createRequestBody(String prompt) {
@@ -104,26 +317,41 @@ public class GeminiAPIService {
 
     private String parseApiResponse(String responseBody) {
         try {
-            JSONObject json = new JSONObject(responseBody);
-            JSONArray candidates = json.getJSONArray("candidates");
-            JSONObject candidate = candidates.getJSONObject(0);
-            JSONObject content = candidate.getJSONObject("content");
-            JSONArray parts = content.getJSONArray("parts");
-            String text = parts.getJSONObject(0).getString("text");
-
-            return text.trim();
+            return extractText(responseBody);
         } catch (Exception e) {
-            return "Based on your health metrics, I recommend focusing on consistent sleep patterns, regular physical activity, and balanced nutrition for optimal wellness.";
+            return FALLBACK_INSIGHTS;
         }
     }
 
+    /**
+     * @throws JSONException if the response does not have the expected shape
+     */
+    private static String extractText(String responseBody) {
+        JSONObject json = new JSONObject(responseBody);
+        JSONArray candidates = json.getJSONArray("candidates");
+        JSONObject candidate = candidates.getJSONObject(0);
+        JSONObject content = candidate.getJSONObject("content");
+        JSONArray parts = content.getJSONArray("parts");
+        String text = parts.getJSONObject(0).getString("text");
+
+        return text.trim();
+    }
+
     public interface InsightsCallback {
         void onSuccess(String insights);
         void onError(String errorMessage);
+
+        /**
+         * Receives the next piece of the insights while they are being generated; the pieces
+         * joined make up the text later passed to {@link #onSuccess}.
+         */
+        default void onChunk(String chunk) {
+        }
     }
 
     /**
      * Calculate a health score (0-100) based on daily health metrics using Gemini API.
+     * Scores already calculated for the same metrics are answered from the response cache.
      *
      * @param sleepHours Sleep duration in hours
      * @param exerciseMinutes Exercise duration in minutes
@@ -135,6 +363,20 @@ public class GeminiAPIService {
      */
     public int calculateHealthScore(double sleepHours, double exerciseMinutes,
                                     int calories, double waterIntake, int steps) throws Exception {
+        String key = GeminiResponseCache.key(PROMPT_VERSION, "score", sleepHours, exerciseMinutes, calories, waterIntake, steps);
+        String cached = cache == null ? null : cache.get(key);
+        if (cached != null) {
+            return Integer.parseInt(cached);
+        }
+        int score = requestHealthScore(sleepHours, exerciseMinutes, calories, waterIntake, steps);
+        if (cache != null) {
+            cache.put(key, Integer.toString(score));
+        }
+        return score;
+    }
+
+    private int requestHealthScore(double sleepHours, double exerciseMinutes,
+                                   int calories, double waterIntake, int steps) throws Exception {
         String prompt =
                 "You are a health score calculator. Analyze these daily health metrics and calculate a health score from 0-100.\n\n" +
                         "Metrics:\n" +
@@ -153,47 +395,31 @@ public class GeminiAPIService {
                         "Weight sleep, exercise, and steps slightly higher than calories and water.\n\n" +
                         "Respond with ONLY the integer score (0-100), nothing else.";
 
-        JSONObject requestBody = createRequestBody(prompt);
-        String requestBodyString = requestBody.toString();
+        String result = parseApiResponse(call(prompt)).trim();
 
-        Request request = new Request.Builder()
-                .url(GEMINI_API_URL + QUERY_PARAM_KEY + apiKey)
-                .post(RequestBody.create(requestBodyString, JSON_MEDIA_TYPE))
-                .addHeader(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
-                .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                String errorBody = response.body().string();
-                throw new RuntimeException("API request failed: " + response.code() + " - " + errorBody);
+        // Parse the score
+        try {
+            int score = Integer.parseInt(result);
+            if (score < 0 || score > 100) {
+                throw new IllegalArgumentException("Score out of valid range: " + score);
             }
-
-            String responseBody = response.body().string();
-            String result = parseApiResponse(responseBody).trim();
-
-            // Parse the score
-            try {
-                int score = Integer.parseInt(result);
-                if (score < 0 || score > 100) {
-                    throw new IllegalArgumentException("Score out of valid range: " + score);
-                }
-                return score;
-            } catch (NumberFormatException e) {
-                // Try to extract first number
-                String numbersOnly = result.replaceAll("[^0-9]", "");
-                if (!numbersOnly.isEmpty() && numbersOnly.length() <= 3) {
-                    int score = Integer.parseInt(numbersOnly);
-                    if (score >= 0 && score <= 100) {
-                        return score;
-                    }
+            return score;
+        } catch (NumberFormatException e) {
+            // Try to extract first number
+            String numbersOnly = result.replaceAll("[^0-9]", "");
+            if (!numbersOnly.isEmpty() && numbersOnly.length() <= 3) {
+                int score = Integer.parseInt(numbersOnly);
+                if (score >= 0 && score <= 100) {
+                    return score;
                 }
-                throw new IllegalArgumentException("Unable to parse score from response: " + result);
             }
+            throw new IllegalArgumentException("Unable to parse score from response: " + result);
         }
     }
 
     /**
      * Generate personalized health feedback based on metrics and score using Gemini API.
+     * Feedback already generated for the same metrics and score is answered from the response cache.
      *
      * @param sleepHours Sleep duration in hours
      * @param exerciseMinutes Exercise duration in minutes
@@ -206,6 +432,11 @@ public class GeminiAPIService {
      */
     public String generateHealthFeedback(double sleepHours, double exerciseMinutes,
                                         int calories, double waterIntake, int steps, int score) throws Exception {
+        String key = GeminiResponseCache.key(PROMPT_VERSION, "feedback", sleepHours, exerciseMinutes, calories, waterIntake, steps, score);
+        String cached = cache == null ? null : cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
         String prompt =
                 "A user has these daily health metrics:\n" +
                         "- Sleep: " + sleepHours + " hours (Recommended: 7-9)\n" +
@@ -218,23 +449,139 @@ public class GeminiAPIService {
                         "Mention what they're doing well and one specific improvement they should focus on. " +
                         "Be positive and actionable.";
 
+        String feedback;
+        try {
+            feedback = extractText(call(prompt));
+        } catch (JSONException e) {
+            // Not worth caching: the next request may get a proper answer
+            return FALLBACK_INSIGHTS;
+        }
+        if (cache != null) {
+            cache.put(key, feedback);
+        }
+        return feedback;
+    }
+
+    /**
+     * Calculate the health score and the feedback for it with one Gemini call, asking for a
+     * JSON object that follows a response schema. Answers already received for the same
+     * metrics are served from the response cache.
+     *
+     * @param sleepHours Sleep duration in hours
+     * @param exerciseMinutes Exercise duration in minutes
+     * @param calories Caloric intake
+     * @param waterIntake Water intake in liters
+     * @param steps Daily step count
+     * @return the score (0-100) and feedback
+     * @throws Exception if the API call fails
+     * @throws IllegalArgumentException if the answer is not a valid score and feedback
+     */
+    public ScoreAndFeedback calculateHealthScoreWithFeedback(double sleepHours, double exerciseMinutes,
+                                                             int calories, double waterIntake, int steps) throws Exception {
+        String key = GeminiResponseCache.key(PROMPT_VERSION, "scoreAndFeedback", sleepHours, exerciseMinutes, calories, waterIntake, steps);
+        String cached = cache == null ? null : cache.get(key);
+        if (cached != null) {
+            return parseScoreAndFeedback(cached);
+        }
+        String prompt =
+                "You are a health score calculator and coach. Analyze these daily health metrics.\n\n" +
+                        "Metrics:\n" +
+                        "- Sleep: " + sleepHours + " hours (Recommended: 7-9 hours)\n" +
+                        "- Exercise: " + exerciseMinutes + " minutes (Recommended: 30+ minutes)\n" +
+                        "- Calories: " + calories + " kcal (Recommended: 2000-2500 kcal)\n" +
+                        "- Water: " + waterIntake + " liters (Recommended: 2-3 liters)\n" +
+                        "- Steps: " + steps + " steps (Recommended: 8000-10000 steps)\n\n" +
+                        "Scoring guidelines:\n" +
+                        "- 90-100: Excellent - All metrics near optimal\n" +
+                        "- 75-89: Good - Most metrics healthy\n" +
+                        "- 60-74: Fair - Some improvement needed\n" +
+                        "- 40-59: Poor - Several metrics need attention\n" +
+                        "- 0-39: Very Poor - Most metrics unhealthy\n\n" +
+                        "Calculate the score by comparing each metric to its recommended range. " +
+                        "Weight sleep, exercise, and steps slightly higher than calories and water.\n\n" +
+                        "Then provide feedback and reasoning for that score in 2-3 sentences (max 50 words). " +
+                        "Mention what they're doing well and one specific improvement they should focus on. " +
+                        "Be positive and actionable.\n\n" +
+                        "Respond with a JSON object with an integer \"score\" (0-100) and a string \"feedback\".";
+
         JSONObject requestBody = createRequestBody(prompt);
-        String requestBodyString = requestBody.toString();
+        JSONObject generationConfig = requestBody.getJSONObject("generationConfig");
+        generationConfig.put("responseMimeType", MEDIA_TYPE_JSON);
+        generationConfig.put("responseSchema", scoreAndFeedbackSchema());
 
-        Request request = new Request.Builder()
-                .url(GEMINI_API_URL + QUERY_PARAM_KEY + apiKey)
-                .post(RequestBody.create(requestBodyString, JSON_MEDIA_TYPE))
-                .addHeader(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
-                .build();
+        String text;
+        try {
+            text = extractText(call(requestBody));
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Unexpected response shape: " + e.getMessage());
+        }
+        ScoreAndFeedback result = parseScoreAndFeedback(text);
+        if (cache != null) {
+            cache.put(key, text);
+        }
+        return result;
+    }
+
+    private static JSONObject scoreAndFeedbackSchema() {
+        JSONObject properties = new JSONObject()
+                .put("score", new JSONObject().put("type", "INTEGER"))
+                .put("feedback", new JSONObject().put("type", "STRING"));
+        return new JSONObject()
+                .put("type", "OBJECT")
+                .put("properties", properties)
+                .put("required", new JSONArray().put("score").put("feedback"))
+                .put("propertyOrdering", new JSONArray().put("score").put("feedback"));
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                String errorBody = response.body().string();
-                throw new RuntimeException("API request failed: " + response.code() + " - " + errorBody);
+    /**
+     * Parses a combined answer, tolerating a Markdown code fence around the object and a
+     * score sent as a string or a whole-valued decimal.
+     *
+     * @throws IllegalArgumentException if there is no object with a 0-100 score and non-empty feedback
+     */
+    static ScoreAndFeedback parseScoreAndFeedback(String text) {
+        int start = text.indexOf('{');
+        int end = text.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("No JSON object in response: " + text);
+        }
+        try {
+            JSONObject json = new JSONObject(text.substring(start, end + 1));
+            Object rawScore = json.get("score");
+            double score = rawScore instanceof Number
+                    ? ((Number) rawScore).doubleValue()
+                    : Double.parseDouble(rawScore.toString().trim());
+            if (score != Math.rint(score) || score < 0 || score > 100) {
+                throw new IllegalArgumentException("Score out of valid range: " + rawScore);
+            }
+            String feedback = json.getString("feedback").trim();
+            if (feedback.isEmpty()) {
+                throw new IllegalArgumentException("Empty feedback in response");
             }
+            return new ScoreAndFeedback((int) score, feedback);
+        } catch (JSONException | NumberFormatException e) {
+            throw new IllegalArgumentException("Unable to parse score and feedback from response: " + text);
+        }
+    }
+
+    /**
+     * A health score together with the feedback written for it.
+     */
+    public static final class ScoreAndFeedback {
+        private final int score;
+        private final String feedback;
+
+        public ScoreAndFeedback(int score, String feedback) {
+            this.score = score;
+            this.feedback = feedback;
+        }
+
+        public int getScore() {
+            return score;
+        }
 
-            String responseBody = response.body().string();
-            return parseApiResponse(responseBody).trim();
+        public String getFeedback() {
+            return feedback;
         }
     }
-}
\ No newline at end of file
+}
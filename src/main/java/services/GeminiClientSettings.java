@@ -0,0 +1,70 @@
+package services;
+
+/**
+ * Timeouts and concurrency limits for the HTTP client GeminiAPIService uses.
+ * <p>
+ * {@link #fromSystemProperties()} reads overrides such as
+ * {@code -Dbetterblueprint.gemini.readTimeoutMillis=10000}; anything not set keeps its default.
+ */
+public final class GeminiClientSettings {
+
+    public static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+    public static final long DEFAULT_READ_TIMEOUT_MILLIS = 30_000;
+    public static final long DEFAULT_WRITE_TIMEOUT_MILLIS = 30_000;
+    // Whole call, including queueing behind the dispatcher limits; 0 means no limit
+    public static final long DEFAULT_CALL_TIMEOUT_MILLIS = 60_000;
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 16;
+
+    private static final String PROPERTY_PREFIX = "betterblueprint.gemini.";
+
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long writeTimeoutMillis;
+    private final long callTimeoutMillis;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+
+    /**
+     * @param maxRequests calls that may be in flight at once; further calls wait in a queue
+     * @param maxRequestsPerHost calls that may be in flight to the Gemini host at once
+     */
+    public GeminiClientSettings(long connectTimeoutMillis, long readTimeoutMillis, long writeTimeoutMillis,
+                                long callTimeoutMillis, int maxRequests, int maxRequestsPerHost) {
+        if (maxRequests < 1 || maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("Request limits must be at least 1");
+        }
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.callTimeoutMillis = callTimeoutMillis;
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public static GeminiClientSettings defaults() {
+        return new GeminiClientSettings(DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_READ_TIMEOUT_MILLIS,
+                DEFAULT_WRITE_TIMEOUT_MILLIS, DEFAULT_CALL_TIMEOUT_MILLIS,
+                DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST);
+    }
+
+    /**
+     * @return the defaults, overridden by any {@code betterblueprint.gemini.*} system properties
+     */
+    public static GeminiClientSettings fromSystemProperties() {
+        return new GeminiClientSettings(
+                Long.getLong(PROPERTY_PREFIX + "connectTimeoutMillis", DEFAULT_CONNECT_TIMEOUT_MILLIS),
+                Long.getLong(PROPERTY_PREFIX + "readTimeoutMillis", DEFAULT_READ_TIMEOUT_MILLIS),
+                Long.getLong(PROPERTY_PREFIX + "writeTimeoutMillis", DEFAULT_WRITE_TIMEOUT_MILLIS),
+                Long.getLong(PROPERTY_PREFIX + "callTimeoutMillis", DEFAULT_CALL_TIMEOUT_MILLIS),
+                Integer.getInteger(PROPERTY_PREFIX + "maxRequests", DEFAULT_MAX_REQUESTS),
+                Integer.getInteger(PROPERTY_PREFIX + "maxRequestsPerHost", DEFAULT_MAX_REQUESTS_PER_HOST));
+    }
+
+    public long getConnectTimeoutMillis() { return connectTimeoutMillis; }
+    public long getReadTimeoutMillis() { return readTimeoutMillis; }
+    public long getWriteTimeoutMillis() { return writeTimeoutMillis; }
+    public long getCallTimeoutMillis() { return callTimeoutMillis; }
+    public int getMaxRequests() { return maxRequests; }
+    public int getMaxRequestsPerHost() { return maxRequestsPerHost; }
+}
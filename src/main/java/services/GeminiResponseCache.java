@@ -0,0 +1,242 @@
+package services;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of Gemini answers, keyed by a SHA-256 hash of everything that determines the answer:
+ * the prompt template version, the kind of answer and the values filled into the prompt.
+ * Users who log the same metrics, or re-open the score view for an unchanged day, get the
+ * cached answer instead of another round trip.
+ * <p>
+ * Entries expire after their TTL and the least recently used entry is evicted once
+ * {@code maxEntries} are cached. If a file is given, every new entry is appended to it as a
+ * JSON line and unexpired entries are loaded back on startup; the file is rewritten from the
+ * live entries once it holds twice as many lines as the cache holds entries.
+ */
+public class GeminiResponseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String PROPERTY_PREFIX = "betterblueprint.gemini.cache.";
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Path file;
+    private final LongSupplier clock;
+
+    // guarded by this
+    private final LinkedHashMap<String, CachedResponse> entries;
+    private long hits;
+    private long misses;
+    private int fileLines;
+
+    public GeminiResponseCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, null, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries the most answers kept
+     * @param ttlMillis how long an answer is served from the cache
+     * @param file where entries are persisted across restarts, or null to keep them in memory only
+     * @param clock wall-clock time in milliseconds, replaceable in tests; persisted expiry
+     *              times are compared against it after a restart
+     */
+    public GeminiResponseCache(int maxEntries, long ttlMillis, Path file, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.file = file;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > GeminiResponseCache.this.maxEntries;
+            }
+        };
+        if (file != null) {
+            load();
+        }
+    }
+
+    /**
+     * @return a cache configured by the {@code betterblueprint.gemini.cache.*} system properties:
+     *         {@code maxEntries}, {@code ttlMillis} and {@code file}
+     */
+    public static GeminiResponseCache fromSystemProperties() {
+        String file = System.getProperty(PROPERTY_PREFIX + "file");
+        return new GeminiResponseCache(
+                Integer.getInteger(PROPERTY_PREFIX + "maxEntries", DEFAULT_MAX_ENTRIES),
+                Long.getLong(PROPERTY_PREFIX + "ttlMillis", DEFAULT_TTL_MILLIS),
+                file == null || file.isEmpty() ? null : Paths.get(file),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Builds the cache key for an answer. Values are joined in their canonical string form, so
+     * equal inputs always hash to the same key.
+     *
+     * @param promptVersion version of the prompt template; bump it when the prompt changes
+     * @param kind which answer this is, e.g. "score" or "feedback"
+     * @param values the values filled into the prompt, in a fixed order
+     */
+    public static String key(int promptVersion, String kind, Object... values) {
+        StringBuilder canonical = new StringBuilder().append(promptVersion).append('\u0000').append(kind);
+        for (Object value : values) {
+            canonical.append('\u0000').append(value);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JDK is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the cached answer, or null if there is none or it has expired
+     */
+    public synchronized String get(String key) {
+        CachedResponse entry = entries.get(key);
+        if (entry != null && entry.expiresAt - clock.getAsLong() > 0) {
+            hits++;
+            return entry.value;
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(String key, String value) {
+        CachedResponse entry = new CachedResponse(value, clock.getAsLong() + ttlMillis);
+        entries.put(key, entry);
+        if (file != null) {
+            append(key, entry);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        if (file != null) {
+            rewrite();
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the fraction of lookups answered from the cache, or 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            long now = clock.getAsLong();
+            for (String line : lines) {
+                try {
+                    JSONObject json = new JSONObject(line);
+                    long expiresAt = json.getLong("expiresAt");
+                    if (expiresAt - now > 0) {
+                        entries.put(json.getString("key"), new CachedResponse(json.getString("value"), expiresAt));
+                    }
+                } catch (JSONException e) {
+                    // A line cut short by a crash; the entries before it are still good
+                    System.err.println("Skipping unreadable Gemini cache entry in " + file);
+                }
+            }
+            fileLines = lines.size();
+        } catch (IOException e) {
+            System.err.println("Could not load Gemini cache from " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void append(String key, CachedResponse entry) {
+        if (fileLines >= 2 * maxEntries) {
+            rewrite();
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(toJson(key, entry));
+            writer.newLine();
+            fileLines++;
+        } catch (IOException e) {
+            System.err.println("Could not persist Gemini cache entry to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void rewrite() {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+                    writer.write(toJson(entry.getKey(), entry.getValue()));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileLines = entries.size();
+        } catch (IOException e) {
+            System.err.println("Could not rewrite Gemini cache file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String toJson(String key, CachedResponse entry) {
+        return new JSONObject()
+                .put("key", key)
+                .put("value", entry.value)
+                .put("expiresAt", entry.expiresAt)
+                .toString();
+    }
+
+    private static final class CachedResponse {
+        private final String value;
+        private final long expiresAt;
+
+        private CachedResponse(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
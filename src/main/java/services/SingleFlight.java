@@ -0,0 +1,102 @@
+package services;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key onto one execution: the first caller for a key
+ * runs the call and every caller that arrives while it is in flight gets the same result (or
+ * failure). Once the call completes the key is free again, so results are not cached.
+ *
+ * @param <K> the request key; must implement equals and hashCode
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Runs the call on the calling thread unless one for the same key is already in flight,
+     * in which case it waits for that one's result.
+     *
+     * @throws Exception whatever the call threw, for every caller that shared it
+     */
+    public V call(K key, Callable<V> call) throws Exception {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            try {
+                return leader.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        calls.incrementAndGet();
+        try {
+            V result = call.call();
+            inFlight.remove(key, mine);
+            mine.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the asynchronous call unless one for the same key is already in flight.
+     *
+     * @return a future for the shared result; cancelling it does not cancel the call
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return leader.thenApply(result -> result);
+        }
+        calls.incrementAndGet();
+        CompletableFuture<V> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            inFlight.remove(key, mine);
+            if (error == null) {
+                mine.complete(value);
+            } else {
+                mine.completeExceptionally(error);
+            }
+        });
+        return mine.thenApply(value -> value);
+    }
+
+    /**
+     * @return the calls actually executed
+     */
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    /**
+     * @return the requests that shared another request's call instead of executing their own
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
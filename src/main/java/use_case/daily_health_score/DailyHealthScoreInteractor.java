@@ -1,24 +1,65 @@
 package use_case.daily_health_score;
 
 import java.time.LocalDate;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import Entities.HealthMetrics;
 
 /**
  * The Daily Health Score Interactor.
+ * <p>
+ * When the calculator has a local estimate, it is presented at once as a partial result.
+ * A calculator that {@linkplain HealthScoreCalculator#scoresWithFeedback scores with feedback}
+ * is then asked for both in one call on {@code workExecutor}. Otherwise the remote score and
+ * the feedback (written for the estimate) are requested in parallel, and each is presented
+ * as a partial result when it arrives; without an estimate the feedback waits for the score.
+ * The remote score always wins: if it differs from the estimate, the feedback is written
+ * again for the remote score, so the saved feedback explains the score shown with it.
+ * The finished score is persisted once, then presented as the success view.
  */
 
 public class DailyHealthScoreInteractor implements DailyHealthScoreInputBoundary {
 
+    private static final String SERVICE_ERROR_MESSAGE =
+            "Failed to generate health score due to an external service error. Please try again later.";
+
     private final DailyHealthScoreUserDataAccessInterface userDataAccessObject;
     private final DailyHealthScoreOutputBoundary healthScorePresenter;
     private final HealthScoreCalculator scoreCalculator;
+    private final Executor workExecutor;
+    private final Executor presenterExecutor;
 
+    /**
+     * Creates an interactor that runs every step on the calling thread, one after another.
+     */
     public DailyHealthScoreInteractor(DailyHealthScoreUserDataAccessInterface userDataAccessObject,
                                       DailyHealthScoreOutputBoundary outputBoundary,
                                       HealthScoreCalculator scoreCalculator) {
+        this(userDataAccessObject, outputBoundary, scoreCalculator, Runnable::run, Runnable::run);
+    }
+
+    /**
+     * @param userDataAccessObject the DAO metrics are read from and scores saved to
+     * @param outputBoundary the presenter
+     * @param scoreCalculator computes the score and feedback
+     * @param workExecutor runs the calculator calls and the save; the score and feedback
+     *                     calls overlap if it has more than one thread
+     * @param presenterExecutor runs the presenter calls, e.g. {@code SwingUtilities::invokeLater}
+     *                          so the views are updated on the event dispatch thread; it must
+     *                          run them in the order submitted
+     */
+    public DailyHealthScoreInteractor(DailyHealthScoreUserDataAccessInterface userDataAccessObject,
+                                      DailyHealthScoreOutputBoundary outputBoundary,
+                                      HealthScoreCalculator scoreCalculator,
+                                      Executor workExecutor,
+                                      Executor presenterExecutor) {
         this.userDataAccessObject = userDataAccessObject;
         this.healthScorePresenter = outputBoundary;
         this.scoreCalculator = scoreCalculator;
+        this.workExecutor = workExecutor;
+        this.presenterExecutor = presenterExecutor;
     }
 
     @Override
@@ -31,52 +72,118 @@ public class DailyHealthScoreInteractor implements DailyHealthScoreInputBoundary
         HealthMetrics healthMetrics = userDataAccessObject.getMetricsForDate(userId, date);
 
         if (healthMetrics == null) {
-            healthScorePresenter.prepareFailView(
+            presenterExecutor.execute(() -> healthScorePresenter.prepareFailView(
                     "No health metrics found for " + date + ". Please enter your daily health data first."
-            );
+            ));
             return;
         }
 
+        Pipeline pipeline = new Pipeline();
+        Integer estimate = scoreCalculator.estimateScore(healthMetrics);
+        if (estimate != null) {
+            pipeline.presentPartial(new DailyHealthScoreOutputData(date, userId, estimate, null, healthMetrics, true));
+        }
+
+        CompletableFuture<DailyHealthScoreOutputData> result;
+        if (scoreCalculator.scoresWithFeedback()) {
+            result = async(() -> scoreCalculator.calculateScoreWithFeedback(healthMetrics))
+                    .thenApply(r -> new DailyHealthScoreOutputData(date, userId, r.getScore(), r.getFeedback(), healthMetrics));
+        } else {
+            result = scoreThenFeedback(pipeline, userId, date, healthMetrics, estimate);
+        }
 
-        int score;
-        String feedback;
+        result.whenComplete((outputData, apiException) -> {
+            if (apiException != null) {
+                // The Gemini service could throw IOException, APIException, InterruptedException, etc.
+                pipeline.presentFinal(() -> healthScorePresenter.prepareFailView(SERVICE_ERROR_MESSAGE));
+                return;
+            }
+
+            // Persist the computed score
+            try {
+                userDataAccessObject.saveDailyHealthScore(outputData);
+            } catch (Exception persistenceException) {
+                pipeline.presentFinal(() -> healthScorePresenter.prepareFailView(
+                        "Health score calculated but could not be saved. Please try again."
+                ));
+                return;
+            }
+
+            // Present success
+            pipeline.presentFinal(() -> healthScorePresenter.prepareSuccessView(outputData));
+        });
+    }
 
+    /**
+     * Requests the score and the feedback with separate calls, in parallel if there is an
+     * estimate to write the feedback for.
+     */
+    private CompletableFuture<DailyHealthScoreOutputData> scoreThenFeedback(Pipeline pipeline, String userId,
+                                                                           LocalDate date,
+                                                                           HealthMetrics healthMetrics,
+                                                                           Integer estimate) {
+        // Compute score using Gemini API via calculator
+        CompletableFuture<Integer> score = async(() -> scoreCalculator.calculateScore(healthMetrics));
+
+        // Generate feedback, in parallel with the score when there is an estimate to write it for
+        CompletableFuture<String> feedback = estimate != null
+                ? async(() -> scoreCalculator.generateFeedback(healthMetrics, estimate))
+                : score.thenCompose(s -> async(() -> scoreCalculator.generateFeedback(healthMetrics, s)));
+
+        if (estimate != null) {
+            score.thenAccept(s -> {
+                if (!feedback.isDone()) {
+                    pipeline.presentPartial(new DailyHealthScoreOutputData(date, userId, s, null, healthMetrics));
+                }
+            });
+            feedback.thenAccept(f -> {
+                if (!score.isDone()) {
+                    pipeline.presentPartial(new DailyHealthScoreOutputData(date, userId, estimate, f, healthMetrics, true));
+                }
+            });
+        }
 
-        try {
-            // Compute score using Gemini API via calculator
-            score = scoreCalculator.calculateScore(healthMetrics);
+        return score.thenCombine(feedback, (s, f) -> new DailyHealthScoreOutputData(date, userId, s, f, healthMetrics))
+                .thenCompose(outputData -> {
+                    if (estimate == null || outputData.getScore() == estimate) {
+                        return CompletableFuture.completedFuture(outputData);
+                    }
+                    // The feedback explains the estimate; write it again for the remote score
+                    int s = outputData.getScore();
+                    return async(() -> scoreCalculator.generateFeedback(healthMetrics, s))
+                            .thenApply(f -> new DailyHealthScoreOutputData(date, userId, s, f, healthMetrics));
+                });
+    }
 
-            // Generate feedback
-            feedback = scoreCalculator.generateFeedback(healthMetrics, score);
+    private <T> CompletableFuture<T> async(Callable<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        workExecutor.execute(() -> {
+            try {
+                result.complete(call.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
 
-        } catch (Exception apiException) {
-            // The Gemini service could throw IOException, APIException, InterruptedException, etc.
-            healthScorePresenter.prepareFailView(
-                    "Failed to generate health score due to an external service error. Please try again later."
-            );
-            return;
+    /**
+     * Hands one execution's results to the presenter executor, so no partial result is
+     * submitted after the final one.
+     */
+    private final class Pipeline {
+        // guarded by this
+        private boolean finished;
+
+        synchronized void presentPartial(DailyHealthScoreOutputData partialData) {
+            if (!finished) {
+                presenterExecutor.execute(() -> healthScorePresenter.preparePartialView(partialData));
+            }
         }
 
-        // Build output data (still uses raw primitives for presentation/reporting)
-        DailyHealthScoreOutputData outputData = new DailyHealthScoreOutputData(
-                date,
-                userId,
-                score,
-                feedback,
-                healthMetrics
-        );
-
-        // Persist the computed score
-        try {
-            userDataAccessObject.saveDailyHealthScore(outputData);
-        } catch (Exception persistenceException) {
-            healthScorePresenter.prepareFailView(
-                    "Health score calculated but could not be saved. Please try again."
-            );
-            return;
+        synchronized void presentFinal(Runnable presentation) {
+            finished = true;
+            presenterExecutor.execute(presentation);
         }
-
-        // Present success
-        healthScorePresenter.prepareSuccessView(outputData);
     }
-}
\ No newline at end of file
+}
@@ -17,4 +17,13 @@ public interface DailyHealthScoreOutputBoundary {
      */
     void prepareFailView(String errorMessage);
 
+    /**
+     * Shows a result that is not final yet, e.g. a local score estimate whose feedback is
+     * still being generated. Each call supersedes the previous one, and prepareSuccessView or
+     * prepareFailView always follows.
+     * @param partialData the result so far; its feedback is null until generated
+     */
+    default void preparePartialView(DailyHealthScoreOutputData partialData) {
+    }
+
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ public class DailyHealthScoreOutputData {
     private final int score;
     private final String feedback;
     private final HealthMetrics metrics;
+    private final boolean scoreEstimated;
 
     public DailyHealthScoreOutputData(
             LocalDate date,
@@ -21,18 +22,34 @@ public class DailyHealthScoreOutputData {
             int score,
             String feedback,
             HealthMetrics metrics
+    ) {
+        this(date, userId, score, feedback, metrics, false);
+    }
+
+    /**
+     * @param scoreEstimated whether the score is a local estimate still being refined
+     */
+    public DailyHealthScoreOutputData(
+            LocalDate date,
+            String userId,
+            int score,
+            String feedback,
+            HealthMetrics metrics,
+            boolean scoreEstimated
     ) {
         this.date = date;
         this.userId = userId;
         this.score = score;
         this.feedback = feedback;
         this.metrics = metrics;
+        this.scoreEstimated = scoreEstimated;
     }
 
     public LocalDate getDate() { return date; }
     public String getUserId() { return userId; }
     public int getScore() { return score; }
     public String getFeedback() { return feedback; }
+    public boolean isScoreEstimated() { return scoreEstimated; }
 
     public HealthMetrics getMetrics() { return metrics; }
 }
\ No newline at end of file
@@ -10,4 +10,31 @@ public interface HealthScoreCalculator {
     int calculateScore(HealthMetrics metrics) throws Exception;
 
     String generateFeedback(HealthMetrics metrics, int score) throws Exception;
+
+    /**
+     * A score computed locally, without a remote call, that can be shown while
+     * {@link #calculateScore} is still running.
+     * @return the estimate, or null if this calculator has none
+     */
+    default Integer estimateScore(HealthMetrics metrics) {
+        return null;
+    }
+
+    /**
+     * @return true if {@link #calculateScoreWithFeedback} gets both in fewer calls than
+     *         {@link #calculateScore} and {@link #generateFeedback} together, so it should be
+     *         preferred
+     */
+    default boolean scoresWithFeedback() {
+        return false;
+    }
+
+    /**
+     * Calculates the score and the feedback for it together; by default with
+     * {@link #calculateScore} followed by {@link #generateFeedback}.
+     */
+    default HealthScoreResult calculateScoreWithFeedback(HealthMetrics metrics) throws Exception {
+        int score = calculateScore(metrics);
+        return new HealthScoreResult(score, generateFeedback(metrics, score));
+    }
 }
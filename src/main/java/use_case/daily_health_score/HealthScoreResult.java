@@ -0,0 +1,17 @@
+package use_case.daily_health_score;
+
+/**
+ * A health score together with the feedback written for it.
+ */
+public class HealthScoreResult {
+    private final int score;
+    private final String feedback;
+
+    public HealthScoreResult(int score, String feedback) {
+        this.score = score;
+        this.feedback = feedback;
+    }
+
+    public int getScore() { return score; }
+    public String getFeedback() { return feedback; }
+}
@@ -1,6 +1,7 @@
 package use_case.goals;
 
 import Entities.User;
+import use_case.session.SessionContext;
 
 /**
  * The Goals Interactor.
@@ -26,11 +27,23 @@ public class GoalsInteractor implements GoalsInputBoundary {
 
     private final GoalsOutputBoundary presenter;
     private final GoalsUserDataAccessInterface userDataAccess;
+    private final SessionContext session;
 
     public GoalsInteractor(final GoalsUserDataAccessInterface userDataAccess,
                            final GoalsOutputBoundary presenter) {
+        this(userDataAccess, presenter,
+                SessionContext.readOnly(userDataAccess::getCurrentUsername));
+    }
+
+    /**
+     * @param session the session whose signed-in user the goals are calculated for
+     */
+    public GoalsInteractor(final GoalsUserDataAccessInterface userDataAccess,
+                           final GoalsOutputBoundary presenter,
+                           final SessionContext session) {
         this.userDataAccess = userDataAccess;
         this.presenter = presenter;
+        this.session = session;
     }
 
     @Override
@@ -73,7 +86,7 @@ public class GoalsInteractor implements GoalsInputBoundary {
     }
 
     private User getCurrentUser() {
-        final String username = userDataAccess.getCurrentUsername();
+        final String username = session.getUsername();
         if (username == null) {
             return null;
         }
@@ -136,7 +149,7 @@ public class GoalsInteractor implements GoalsInputBoundary {
 
     @Override
     public void refreshCurrentWeight() {
-        final String username = userDataAccess.getCurrentUsername();
+        final String username = session.getUsername();
         if (username == null) {
             presenter.updateCurrentWeight(DEFAULT_INT);
         } else {
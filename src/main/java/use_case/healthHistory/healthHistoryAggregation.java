@@ -0,0 +1,56 @@
+package use_case.healthHistory;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * How daily records are grouped before being charted: one point per day, per ISO week
+ * (starting on Monday), per calendar month or per calendar year.
+ */
+public enum healthHistoryAggregation {
+    DAY,
+    WEEK,
+    MONTH,
+    YEAR;
+
+    /**
+     * @return the aggregation named by the input data, or null for raw daily records
+     *         ("none", "raw", null or an unknown name)
+     */
+    public static healthHistoryAggregation fromString(String aggregation) {
+        if (aggregation == null) {
+            return null;
+        }
+        return switch (aggregation.toLowerCase()) {
+            case "day", "daily" -> DAY;
+            case "week", "weekly" -> WEEK;
+            case "month", "monthly" -> MONTH;
+            case "year", "yearly" -> YEAR;
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the first day of the bucket containing the date
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(DayOfWeek.MONDAY);
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * @return the last day of the bucket starting on {@code bucketStart}
+     */
+    public LocalDate bucketEnd(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart;
+            case WEEK -> bucketStart.plusDays(6);
+            case MONTH -> bucketStart.plusMonths(1).minusDays(1);
+            case YEAR -> bucketStart.plusYears(1).minusDays(1);
+        };
+    }
+}
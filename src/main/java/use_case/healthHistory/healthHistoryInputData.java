@@ -6,11 +6,21 @@ public class healthHistoryInputData {
     private final String metricType;
     private final String timeRange;
     private final String user;
+    private final String aggregation;
 
     public healthHistoryInputData(String metricType, String timeRange, String user) {
+        this(metricType, timeRange, user, "none");
+    }
+
+    /**
+     * @param aggregation "none" for one point per daily record, or "week"/"month"/"year" for
+     *                    one averaged point per bucket
+     */
+    public healthHistoryInputData(String metricType, String timeRange, String user, String aggregation) {
         this.metricType = metricType;
         this.timeRange = timeRange;
         this.user = user;
+        this.aggregation = aggregation;
     }
 
     public String getMetricType() {
@@ -23,4 +33,8 @@ public class healthHistoryInputData {
 
     public String getUser(){return user;}
 
-}
\ No newline at end of file
+    public String getAggregation() {
+        return aggregation;
+    }
+
+}
@@ -3,17 +3,14 @@ package use_case.healthHistory;
 import Entities.HealthMetrics;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Comparator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.TreeMap;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.io.IOException;
 
 
@@ -33,137 +30,134 @@ public class healthHistoryInteractor implements healthHistoryInputBoundary {
 
     @Override
     public void execute(healthHistoryInputData inputData) {
-        fetchHistory(inputData.getMetricType(), inputData.getTimeRange(), inputData.getUser());
+        fetchHistory(inputData.getMetricType(), inputData.getTimeRange(), inputData.getUser(),
+                inputData.getAggregation());
     }
 
     /**
      * Fetch history for a metric/timeRange/user.
      */
     public void fetchHistory(String metricType, String timeRange, String userId) {
+        fetchHistory(metricType, timeRange, userId, "none");
+    }
+
+    /**
+     * Fetch history for a metric/timeRange/user, with one averaged point per week, month or
+     * year bucket when an aggregation is given (see healthHistoryAggregation). The first
+     * bucket only averages the days on or after the start of the range.
+     */
+    public void fetchHistory(String metricType, String timeRange, String userId, String aggregationName) {
         List<healthMetricRecord> records = new ArrayList<>();
+        healthHistoryAggregation aggregation = healthHistoryAggregation.fromString(aggregationName);
+
+        if (dataAccess != null && aggregation != null) {
+            healthHistoryMetric metric = healthHistoryMetric.fromString(metricType);
+            if (metric != null) {
+                // Rollups are read pre-aggregated instead of re-scanning the daily records
+                LocalDate boundary = rangeStart(timeRange);
+                List<healthMetricRollup> rollups = dataAccess.getRollups(userId, metric, aggregation,
+                        boundary, LocalDate.MAX);
+                if (!rollups.isEmpty() && rollups.get(0).getBucketStart().isBefore(boundary)) {
+                    // The first bucket starts before the range; re-aggregate only its days inside it
+                    LocalDate firstBucketEnd = aggregation.bucketEnd(rollups.get(0).getBucketStart());
+                    List<healthMetricRollup> clipped = new ArrayList<>(healthMetricRollup.aggregate(
+                            dataAccess.getHealthMetricsByUser(userId, boundary, firstBucketEnd), metric, aggregation));
+                    clipped.addAll(rollups.subList(1, rollups.size()));
+                    rollups = clipped;
+                }
+                for (healthMetricRollup rollup : rollups) {
+                    records.add(new healthMetricRecord(rollup.getBucketStart(), rollup.getAverage()));
+                }
+            }
+            presenter.prepareSuccessView(new healthHistoryOutputData(timeRange, metricType, records));
+            return;
+        }
 
         if (dataAccess != null) {
-            List<HealthMetrics> metrics = dataAccess.getHealthMetricsByUser(userId);
+            LocalDate boundary = rangeStart(timeRange);
+
+            // Only the days on or after the boundary are read from storage
+            List<HealthMetrics> metrics = dataAccess.getHealthMetricsByUser(userId, boundary, LocalDate.MAX);
             if (metrics == null || metrics.isEmpty()) {
                 presenter.prepareSuccessView(new healthHistoryOutputData(timeRange, metricType, records));
                 return;
             }
 
-            LocalDate now = LocalDate.now();
-            LocalDate boundary = switch (timeRange.toLowerCase()) {
-                case "day" -> now.minusDays(1);
-                case "week" -> now.minusWeeks(1);
-                case "month" -> now.minusMonths(1);
-                case "year" -> now.minusYears(1);
-                default -> now.minusYears(20);
-            };
-
-            for (HealthMetrics m : metrics) {
-                if (m.getDate().isBefore(boundary)) continue;
-
-                double val;
-                switch (metricType.toLowerCase()) {
-                    case "sleep", "sleephours" -> val = m.getSleepHours();
-                    case "water", "waterintake" -> val = m.getWaterIntake();
-                    case "exercise", "exerciseminutes" -> val = m.getExerciseMinutes();
-                    case "calories" -> val = (double) m.getCalories();
-                    default -> {
-                        continue;
-                    }
+            healthHistoryMetric metric = healthHistoryMetric.fromString(metricType);
+            if (metric != null) {
+                for (HealthMetrics m : metrics) {
+                    records.add(new healthMetricRecord(m.getDate(), metric.valueOf(m)));
                 }
-                records.add(new healthMetricRecord(m.getDate(), val));
             }
 
             presenter.prepareSuccessView(new healthHistoryOutputData(timeRange, metricType, records));
             return;
         }
 
-        String content = null;
-        try (InputStream is = getClass().getResourceAsStream("/health_metrics.json")) {
+        String metricKey = metricType;
+        if (metricType.equalsIgnoreCase("sleep")) metricKey = "sleepHours";
+        if (metricType.equalsIgnoreCase("water")) metricKey = "waterIntake";
+        if (metricType.equalsIgnoreCase("exercise")) metricKey = "exerciseMinutes";
+
+        // Stream the file once, keeping only this user's records inside the range
+        List<healthMetricRecord> filtered = new ArrayList<>();
+        try (InputStream is = openMetricsFile()) {
             if (is != null) {
-                content = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            } else {
-                try {
-                    content = Files.readString(Paths.get("health_metrics.json"), StandardCharsets.UTF_8);
-                } catch (IOException ex) {
-                    content = null;
-                }
+                filtered = healthHistoryJsonScanner.scan(is, userId, metricKey, rangeStart(timeRange));
             }
         } catch (IOException ignored) {
         }
 
-        if (content == null || content.isBlank()) {
+        if (filtered.isEmpty()) {
             // return empty success (presenter will handle empty list)
             presenter.prepareSuccessView(new healthHistoryOutputData(timeRange, metricType, records));
             return;
         }
 
-        Pattern objPattern = Pattern.compile("\\{[^}]*\\}");
-        Matcher objMatcher = objPattern.matcher(content);
-
-        DateTimeFormatter isoFmt = DateTimeFormatter.ISO_LOCAL_DATE;
-
-        String metricKey = metricType;
-        if (metricType.equalsIgnoreCase("sleep")) metricKey = "sleepHours";
-        if (metricType.equalsIgnoreCase("water")) metricKey = "waterIntake";
-        if (metricType.equalsIgnoreCase("exercise")) metricKey = "exerciseMinutes";
-
-        Pattern datePattern = Pattern.compile("\"date\"\\s*:\\s*\"([^\"]+)\"");
-        Pattern metricPattern = Pattern.compile("\"" + Pattern.quote(metricKey) + "\"\\s*:\\s*([0-9]+\\.?[0-9]*)");
-        Pattern userPattern = Pattern.compile("\"user\"\\s*:\\s*\"([^\"]+)\"");
+        filtered.sort(Comparator.comparing(healthMetricRecord::getDate));
 
-        List<Record> temp = new ArrayList<>();
-
-        while (objMatcher.find()) {
-            String obj = objMatcher.group();
-            Matcher userMatcher = userPattern.matcher(obj);
-            if (userMatcher.find()) {
-                String u = userMatcher.group(1);
-                if (!u.equals(userId)) continue;
+        if (aggregation != null) {
+            // Average the parsed records per bucket; the file has no rollup tables
+            Map<LocalDate, double[]> buckets = new TreeMap<>();
+            for (healthMetricRecord r : filtered) {
+                double[] bucket = buckets.computeIfAbsent(aggregation.bucketStart(r.getDate()), d -> new double[2]);
+                bucket[0] += r.getValue();
+                bucket[1]++;
             }
-
-            Matcher dMatch = datePattern.matcher(obj);
-            Matcher mMatch = metricPattern.matcher(obj);
-
-            if (dMatch.find() && mMatch.find()) {
-                try {
-                    LocalDate date = LocalDate.parse(dMatch.group(1), isoFmt);
-                    double val = Double.parseDouble(mMatch.group(1));
-                    temp.add(new Record(date, val));
-                } catch (Exception ignored) {
-                }
+            for (Map.Entry<LocalDate, double[]> bucket : buckets.entrySet()) {
+                records.add(new healthMetricRecord(bucket.getKey(), bucket.getValue()[0] / bucket.getValue()[1]));
             }
+        } else {
+            records.addAll(filtered);
         }
 
-        if (temp.isEmpty()) {
-            presenter.prepareSuccessView(new healthHistoryOutputData(timeRange, metricType, records));
-            return;
-        }
+        presenter.prepareSuccessView(new healthHistoryOutputData(timeRange, metricType, records));
+    }
 
+    private static LocalDate rangeStart(String timeRange) {
         LocalDate now = LocalDate.now();
-        LocalDate boundary = switch (timeRange.toLowerCase()) {
+        return switch (timeRange.toLowerCase()) {
             case "day" -> now.minusDays(1);
             case "week" -> now.minusWeeks(1);
             case "month" -> now.minusMonths(1);
             case "year" -> now.minusYears(1);
             default -> now.minusYears(20);
         };
-
-        List<Record> filtered = temp.stream()
-                .filter(r -> !r.date.isBefore(boundary))
-                .sorted(Comparator.comparing(r -> r.date))
-                .collect(Collectors.toList());
-
-        for (Record r : filtered) {
-            records.add(new healthMetricRecord(r.date, r.value));
-        }
-
-        presenter.prepareSuccessView(new healthHistoryOutputData(timeRange, metricType, records));
     }
 
-    private static class Record {
-        LocalDate date;
-        double value;
-        Record(LocalDate date, double value) { this.date = date; this.value = value; }
+    /**
+     * @return the bundled health_metrics.json resource if present, else the file in the
+     *         working directory, or null if neither exists
+     */
+    private InputStream openMetricsFile() {
+        InputStream is = getClass().getResourceAsStream("/health_metrics.json");
+        if (is != null) {
+            return is;
+        }
+        try {
+            return Files.newInputStream(Paths.get("health_metrics.json"));
+        } catch (IOException ex) {
+            return null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,401 @@
+package use_case.healthHistory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for the health_metrics.json fallback of the health history use case.
+ * <p>
+ * Walks the UTF-8 bytes of the file once through a fixed buffer, looking only at the "date",
+ * "user" and requested metric fields of each object, and emits a healthMetricRecord for every
+ * object that passes the user and date filters. Nothing else is materialized: the file is
+ * never decoded into a String, keys and user names are compared as bytes in place, and
+ * numbers and dates are parsed straight from the buffer.
+ */
+public final class healthHistoryJsonScanner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] DATE_KEY = "date".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] USER_KEY = "user".getBytes(StandardCharsets.UTF_8);
+
+    private static final int OTHER_FIELD = 0;
+    private static final int DATE_FIELD = 1;
+    private static final int USER_FIELD = 2;
+    private static final int METRIC_FIELD = 3;
+
+    // Powers of ten that are exact doubles, for parsing short decimals without rounding error
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private final byte[] userId;
+    private final byte[] metricKey;
+    private final LocalDate from;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private byte[] scratch = new byte[64];
+    private int scratchLength;
+    private int position;
+    private int limit;
+
+    private healthHistoryJsonScanner(InputStream in, String userId, String metricKey, LocalDate from) {
+        this.in = in;
+        this.userId = userId == null ? null : userId.getBytes(StandardCharsets.UTF_8);
+        this.metricKey = metricKey.getBytes(StandardCharsets.UTF_8);
+        this.from = from;
+    }
+
+    /**
+     * Scans a UTF-8 JSON array of flat metric objects.
+     * <p>
+     * Objects whose "user" field names a different user are skipped (objects without one are
+     * kept), as are objects without a parseable "date" and numeric {@code metricKey} field or
+     * dated before {@code from}. The first occurrence of each field wins.
+     *
+     * @return the matching records in file order
+     * @throws IOException if the stream fails
+     */
+    public static List<healthMetricRecord> scan(InputStream in, String userId, String metricKey, LocalDate from)
+            throws IOException {
+        return new healthHistoryJsonScanner(in, userId, metricKey, from).scanAll();
+    }
+
+    private List<healthMetricRecord> scanAll() throws IOException {
+        List<healthMetricRecord> records = new ArrayList<>();
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '{') {
+                healthMetricRecord record = scanObject();
+                if (record != null) {
+                    records.add(record);
+                }
+            } else if (c == '"') {
+                skipString();
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads the members of an object whose opening brace has been consumed.
+     * @return the record, or null if the object does not match
+     */
+    private healthMetricRecord scanObject() throws IOException {
+        boolean userMatches = true;
+        boolean userSeen = false;
+        boolean dateSeen = false;
+        boolean valueSeen = false;
+        LocalDate date = null;
+        double value = 0.0;
+
+        while (true) {
+            int c = readNonWhitespace();
+            if (c == -1 || c == '}') {
+                break;
+            }
+            if (c != '"') {
+                // Not a key; tolerate stray separators and malformed members
+                if (c == '{' || c == '[') {
+                    skipNested();
+                }
+                continue;
+            }
+
+            readString();
+            int field = classify();
+
+            c = readNonWhitespace();
+            if (c != ':') {
+                continue;
+            }
+
+            c = readNonWhitespace();
+            if (c == '"') {
+                if (field == DATE_FIELD && !dateSeen) {
+                    readString();
+                    dateSeen = true;
+                    date = parseDate();
+                } else if (field == USER_FIELD && !userSeen) {
+                    readString();
+                    userSeen = true;
+                    userMatches = userId != null && scratchEquals(userId);
+                } else {
+                    skipString();
+                }
+            } else if (c == '{' || c == '[') {
+                skipNested();
+            } else if (c != -1 && c != '}') {
+                if (field == METRIC_FIELD && !valueSeen) {
+                    readToken(c);
+                    try {
+                        value = parseNumber();
+                        valueSeen = true;
+                    } catch (NumberFormatException ignored) {
+                    }
+                } else {
+                    skipToken();
+                }
+            } else {
+                break;
+            }
+        }
+
+        if (!userMatches || date == null || !valueSeen || date.isBefore(from)) {
+            return null;
+        }
+        return new healthMetricRecord(date, value);
+    }
+
+    private int classify() {
+        if (scratchEquals(DATE_KEY)) {
+            return DATE_FIELD;
+        }
+        if (scratchEquals(USER_KEY)) {
+            return USER_FIELD;
+        }
+        if (scratchEquals(metricKey)) {
+            return METRIC_FIELD;
+        }
+        return OTHER_FIELD;
+    }
+
+    private boolean scratchEquals(byte[] value) {
+        if (scratchLength != value.length) {
+            return false;
+        }
+        for (int i = 0; i < scratchLength; i++) {
+            if (scratch[i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses an ISO yyyy-MM-dd date held in the scratch buffer without going through a formatter.
+     * @return the date, or null if it is not a valid date
+     */
+    private LocalDate parseDate() {
+        if (scratchLength != 10 || scratch[4] != '-' || scratch[7] != '-') {
+            return null;
+        }
+        int year = digits(0, 4);
+        int month = digits(5, 7);
+        int day = digits(8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private int digits(int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = scratch[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Parses the number held in the scratch buffer. Plain decimals of up to 15 significant
+     * digits are computed directly (exactly as Double.parseDouble would round them); anything
+     * else, such as exponents, goes through Double.parseDouble.
+     * @throws NumberFormatException if the token is not a number
+     */
+    private double parseNumber() {
+        int i = 0;
+        boolean negative = scratchLength > 0 && scratch[0] == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < scratchLength; i++) {
+            byte b = scratch[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digitCount++;
+                if (inFraction) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                digitCount = Integer.MAX_VALUE;
+                break;
+            }
+        }
+        if (digitCount == 0 || digitCount > 15) {
+            return Double.parseDouble(new String(scratch, 0, scratchLength, StandardCharsets.UTF_8));
+        }
+        double result = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -result : result;
+    }
+
+    /**
+     * Reads a string whose opening quote has been consumed into the scratch buffer as UTF-8.
+     */
+    private void readString() throws IOException {
+        scratchLength = 0;
+        while (true) {
+            if (position == limit && !fill()) {
+                return;
+            }
+            byte b = buffer[position++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                int c = read();
+                switch (c) {
+                    case 'n' -> append((byte) '\n');
+                    case 't' -> append((byte) '\t');
+                    case 'r' -> append((byte) '\r');
+                    case 'b' -> append((byte) '\b');
+                    case 'f' -> append((byte) '\f');
+                    case 'u' -> appendUtf8(readUnicodeEscape());
+                    case -1 -> {
+                        return;
+                    }
+                    default -> append((byte) c);
+                }
+            } else {
+                append(b);
+            }
+        }
+    }
+
+    private char readUnicodeEscape() throws IOException {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                return '\uFFFD';
+            }
+            code = code * 16 + digit;
+        }
+        return (char) code;
+    }
+
+    private void appendUtf8(char c) {
+        for (byte b : String.valueOf(c).getBytes(StandardCharsets.UTF_8)) {
+            append(b);
+        }
+    }
+
+    private void append(byte b) {
+        if (scratchLength == scratch.length) {
+            byte[] grown = new byte[scratch.length * 2];
+            System.arraycopy(scratch, 0, grown, 0, scratchLength);
+            scratch = grown;
+        }
+        scratch[scratchLength++] = b;
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return;
+            }
+            byte b = buffer[position++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                read();
+            }
+        }
+    }
+
+    /**
+     * Skips an object or array whose opening bracket has been consumed.
+     */
+    private void skipNested() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) != -1) {
+            if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Reads a number or literal starting with {@code first} into the scratch buffer, leaving
+     * the delimiter that ends it unread.
+     */
+    private void readToken(int first) throws IOException {
+        scratchLength = 0;
+        append((byte) first);
+        int c;
+        while ((c = peek()) != -1 && !isDelimiter(c)) {
+            append((byte) c);
+            position++;
+        }
+    }
+
+    private void skipToken() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && !isDelimiter(c)) {
+            position++;
+        }
+    }
+
+    private static boolean isDelimiter(int c) {
+        return c == ',' || c == '}' || c == ']' || isWhitespace(c);
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private int readNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (isWhitespace(c));
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+}
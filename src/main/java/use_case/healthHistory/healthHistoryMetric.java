@@ -0,0 +1,40 @@
+package use_case.healthHistory;
+
+import Entities.HealthMetrics;
+
+/**
+ * The metrics that can be charted in the health history.
+ */
+public enum healthHistoryMetric {
+    SLEEP_HOURS,
+    WATER_INTAKE,
+    EXERCISE_MINUTES,
+    CALORIES;
+
+    /**
+     * Resolves the metric names used by the views ("sleep", "water", "exercise", "calories")
+     * and their field-name spellings.
+     * @return the metric, or null if the name is not a chartable metric
+     */
+    public static healthHistoryMetric fromString(String metricType) {
+        if (metricType == null) {
+            return null;
+        }
+        return switch (metricType.toLowerCase()) {
+            case "sleep", "sleephours" -> SLEEP_HOURS;
+            case "water", "waterintake" -> WATER_INTAKE;
+            case "exercise", "exerciseminutes" -> EXERCISE_MINUTES;
+            case "calories" -> CALORIES;
+            default -> null;
+        };
+    }
+
+    public double valueOf(HealthMetrics metrics) {
+        return switch (this) {
+            case SLEEP_HOURS -> metrics.getSleepHours();
+            case WATER_INTAKE -> metrics.getWaterIntake();
+            case EXERCISE_MINUTES -> metrics.getExerciseMinutes();
+            case CALORIES -> (double) metrics.getCalories();
+        };
+    }
+}
@@ -1,9 +1,42 @@
 package use_case.healthHistory;
 
 import Entities.HealthMetrics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface healthHistoryUserDataAccessInterface {
     List<HealthMetrics> getHealthMetricsByUser(String userId);
 
+    /**
+     * Returns the user's metrics dated between {@code from} and {@code to} (both inclusive).
+     * The default filters the full history; storage that keeps records sorted by date
+     * should override it to read only the requested range.
+     */
+    default List<HealthMetrics> getHealthMetricsByUser(String userId, LocalDate from, LocalDate to) {
+        List<HealthMetrics> inRange = new ArrayList<>();
+        List<HealthMetrics> all = getHealthMetricsByUser(userId);
+        if (all == null) {
+            return inRange;
+        }
+        for (HealthMetrics metrics : all) {
+            if (!metrics.getDate().isBefore(from) && !metrics.getDate().isAfter(to)) {
+                inRange.add(metrics);
+            }
+        }
+        return inRange;
+    }
+
+    /**
+     * Returns per-bucket statistics of one metric for buckets starting between the bucket
+     * containing {@code from} and {@code to}. The default aggregates the raw range; storage
+     * that maintains rollup tables should override it.
+     */
+    default List<healthMetricRollup> getRollups(String userId, healthHistoryMetric metric,
+                                                healthHistoryAggregation aggregation,
+                                                LocalDate from, LocalDate to) {
+        List<HealthMetrics> inRange = getHealthMetricsByUser(userId, aggregation.bucketStart(from), to);
+        return healthMetricRollup.aggregate(inRange, metric, aggregation);
+    }
 }
@@ -0,0 +1,79 @@
+package use_case.healthHistory;
+
+import Entities.HealthMetrics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pre-aggregated statistics of one metric over one bucket (day, week, month or year).
+ */
+public class healthMetricRollup {
+
+    private final LocalDate bucketStart;
+    private final int count;
+    private final double sum;
+    private final double min;
+    private final double max;
+
+    public healthMetricRollup(LocalDate bucketStart, int count, double sum, double min, double max) {
+        this.bucketStart = bucketStart;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Aggregates raw daily metrics, for data access that keeps no rollups of its own.
+     * @return one rollup per non-empty bucket, ordered by bucket start
+     */
+    public static List<healthMetricRollup> aggregate(List<HealthMetrics> metrics, healthHistoryMetric metric,
+                                                     healthHistoryAggregation aggregation) {
+        // count, sum, min, max per bucket
+        TreeMap<LocalDate, double[]> buckets = new TreeMap<>();
+        for (HealthMetrics m : metrics) {
+            double value = metric.valueOf(m);
+            double[] bucket = buckets.computeIfAbsent(aggregation.bucketStart(m.getDate()),
+                    start -> new double[] {0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY});
+            bucket[0]++;
+            bucket[1] += value;
+            bucket[2] = Math.min(bucket[2], value);
+            bucket[3] = Math.max(bucket[3], value);
+        }
+
+        List<healthMetricRollup> rollups = new ArrayList<>(buckets.size());
+        for (Map.Entry<LocalDate, double[]> bucket : buckets.entrySet()) {
+            double[] stats = bucket.getValue();
+            rollups.add(new healthMetricRollup(bucket.getKey(), (int) stats[0], stats[1], stats[2], stats[3]));
+        }
+        return rollups;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+}
@@ -7,26 +7,53 @@ import data_access.UserDataAccessInterface;
 import services.GeminiAPIService;
 
 import java.util.List;
-
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Health Insights Interactor. Each execution supersedes the ones before it: the streamed
+ * chunks and the result of an earlier request still running are dropped, so two streams are
+ * never interleaved in the view.
+ */
 public class HealthInsightsInteractor implements HealthInsightsInputBoundary {
     private final HealthInsightsOutputBoundary healthInsightsOutputBoundary;
     private final HealthDataAccessInterface healthDataAccess;
     private final UserDataAccessInterface userDataAccess;
     private final GeminiAPIService geminiAPIService;
+    private final Executor presenterExecutor;
+    private final AtomicLong latestRequest = new AtomicLong();
 
+    /**
+     * Creates an interactor that presents the insights on the thread that receives them.
+     */
     public HealthInsightsInteractor(HealthInsightsOutputBoundary healthInsightsOutputBoundary,
                                     HealthDataAccessInterface healthDataAccess,
                                     UserDataAccessInterface userDataAccess,
                                     GeminiAPIService geminiAPIService) {
+        this(healthInsightsOutputBoundary, healthDataAccess, userDataAccess, geminiAPIService, Runnable::run);
+    }
+
+    /**
+     * @param presenterExecutor runs the presenter calls for the streamed chunks and the
+     *                          result, e.g. {@code SwingUtilities::invokeLater}; it must run
+     *                          them in the order submitted
+     */
+    public HealthInsightsInteractor(HealthInsightsOutputBoundary healthInsightsOutputBoundary,
+                                    HealthDataAccessInterface healthDataAccess,
+                                    UserDataAccessInterface userDataAccess,
+                                    GeminiAPIService geminiAPIService,
+                                    Executor presenterExecutor) {
         this.healthInsightsOutputBoundary = healthInsightsOutputBoundary;
         this.healthDataAccess = healthDataAccess;
         this.userDataAccess = userDataAccess;
         this.geminiAPIService = geminiAPIService;
+        this.presenterExecutor = presenterExecutor;
     }
 
     @Override
     public void execute(HealthInsightsInputData inputData) {
         String userId = inputData.getUserId();
+        long request = latestRequest.incrementAndGet();
 
         try {
             User user = userDataAccess.get(userId);
@@ -46,21 +73,39 @@ public class HealthInsightsInteractor implements HealthInsightsInputBoundary {
             geminiAPIService.getHealthInsightsAsync(analysisData, new GeminiAPIService.InsightsCallback() {
                 @Override
                 public void onSuccess(String insights) {
+                    if (isSuperseded(request)) {
+                        return;
+                    }
                     HealthInsightsOutputData outputData = new HealthInsightsOutputData(insights);
                     healthInsightsOutputBoundary.prepareSuccessView(outputData);
                 }
 
                 @Override
                 public void onError(String errorMessage) {
+                    if (isSuperseded(request)) {
+                        return;
+                    }
                     healthInsightsOutputBoundary.prepareFailView("Error generating insights: " + errorMessage);
                 }
-            });
+
+                @Override
+                public void onChunk(String chunk) {
+                    if (isSuperseded(request)) {
+                        return;
+                    }
+                    healthInsightsOutputBoundary.prepareChunkView(chunk);
+                }
+            }, presenterExecutor);
 
         } catch (Exception e) {
             healthInsightsOutputBoundary.prepareFailView("Error generating insights: " + e.getMessage());
         }
     }
 
+    private boolean isSuperseded(long request) {
+        return request != latestRequest.get();
+    }
+
     private String prepareAnalysisData(User user, List<HealthMetrics> healthHistory) {
         StringBuilder data = new StringBuilder();
 
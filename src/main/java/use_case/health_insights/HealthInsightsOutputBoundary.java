@@ -3,4 +3,12 @@ package use_case.health_insights;
 public interface HealthInsightsOutputBoundary {
     void prepareSuccessView(HealthInsightsOutputData outputData);
     void prepareFailView(String errorMessage);
+
+    /**
+     * Shows the next piece of the insights while the rest is still being generated;
+     * prepareSuccessView follows with the whole text, or prepareFailView if generation fails.
+     * @param chunk the text generated since the previous call
+     */
+    default void prepareChunkView(String chunk) {
+    }
 }
@@ -1,23 +1,37 @@
 package use_case.input_metrics;
 
 import Entities.HealthMetrics;
+import use_case.session.SessionContext;
+
 import java.time.LocalDate;
 
 public class InputMetricsInteractor implements InputMetricsInputBoundary {
     private final InputMetricsDataAccessInterface healthMetricsDataAccess;
     private final InputMetricsOutputBoundary outputBoundary;
+    private final SessionContext session;
 
     public InputMetricsInteractor(InputMetricsDataAccessInterface healthMetricsDataAccess,
                                   InputMetricsOutputBoundary outputBoundary) {
+        this(healthMetricsDataAccess, outputBoundary,
+                SessionContext.readOnly(healthMetricsDataAccess::getCurrentUsername));
+    }
+
+    /**
+     * @param session the session whose signed-in user the metrics are saved for
+     */
+    public InputMetricsInteractor(InputMetricsDataAccessInterface healthMetricsDataAccess,
+                                  InputMetricsOutputBoundary outputBoundary,
+                                  SessionContext session) {
         this.healthMetricsDataAccess = healthMetricsDataAccess;
         this.outputBoundary = outputBoundary;
+        this.session = session;
     }
 
     @Override
     public void execute(InputMetricsInputData inputData) {
         try {
             // Get current user ID and date
-            String userId = healthMetricsDataAccess.getCurrentUsername();
+            String userId = session.getUsername();
             LocalDate date = LocalDate.now();
 
             // Create HealthMetrics with ALL required parameters including steps
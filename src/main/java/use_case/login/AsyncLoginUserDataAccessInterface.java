@@ -0,0 +1,59 @@
+package use_case.login;
+
+import Entities.User;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking DAO interface for the Login Use Case. Lookups complete on the DAO's own
+ * threads, so the caller (typically the Swing event dispatch thread) never waits on I/O.
+ */
+public interface AsyncLoginUserDataAccessInterface {
+
+    /**
+     * Checks if the given username exists.
+     * @param username the username to look for
+     * @return a future completed with true if the user exists
+     */
+    CompletableFuture<Boolean> existsByNameAsync(String username);
+
+    /**
+     * Returns the user with the given username.
+     * @param username the username to look up
+     * @return a future completed with the user, or completed exceptionally if the lookup fails
+     */
+    CompletableFuture<User> getAsync(String username);
+
+    void setCurrentUsername(String name);
+
+    String getCurrentUsername();
+
+    /**
+     * Adapts a blocking DAO by running every call on the calling thread.
+     * @param dataAccess the blocking DAO
+     * @return futures that are already complete when returned
+     */
+    static AsyncLoginUserDataAccessInterface blocking(LoginUserDataAccessInterface dataAccess) {
+        return new AsyncLoginUserDataAccessInterface() {
+            @Override
+            public CompletableFuture<Boolean> existsByNameAsync(String username) {
+                return CompletableFuture.supplyAsync(() -> dataAccess.existsByName(username), Runnable::run);
+            }
+
+            @Override
+            public CompletableFuture<User> getAsync(String username) {
+                return CompletableFuture.supplyAsync(() -> dataAccess.get(username), Runnable::run);
+            }
+
+            @Override
+            public void setCurrentUsername(String name) {
+                dataAccess.setCurrentUsername(name);
+            }
+
+            @Override
+            public String getCurrentUsername() {
+                return dataAccess.getCurrentUsername();
+            }
+        };
+    }
+}
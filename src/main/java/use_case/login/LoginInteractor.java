@@ -1,46 +1,99 @@
 package use_case.login;
 
 import Entities.User;
+import use_case.session.SessionContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * The Login Interactor.
+ * <p>
+ * The user lookup is composed from the async DAO, so {@link #execute} returns without
+ * waiting for it; the presenter is called on {@code presenterExecutor} once the lookup
+ * completes. A successful login signs the user in to the interactor's {@link SessionContext}.
  */
 public class LoginInteractor implements LoginInputBoundary {
-    private final LoginUserDataAccessInterface userDataAccessObject;
+    private final AsyncLoginUserDataAccessInterface userDataAccessObject;
     private final LoginOutputBoundary loginPresenter;
+    private final Executor presenterExecutor;
+    private final SessionContext session;
 
+    /**
+     * Creates an interactor over a blocking DAO; {@link #execute} completes on the calling thread.
+     */
     public LoginInteractor(LoginUserDataAccessInterface userDataAccessInterface,
                            LoginOutputBoundary loginOutputBoundary) {
+        this(AsyncLoginUserDataAccessInterface.blocking(userDataAccessInterface), loginOutputBoundary, Runnable::run);
+    }
+
+    /**
+     * Creates an interactor that signs users in to the DAO's current username.
+     * @param userDataAccessInterface the async DAO
+     * @param loginOutputBoundary the presenter
+     * @param presenterExecutor runs the presenter calls, e.g. {@code SwingUtilities::invokeLater}
+     *                          so the views are updated on the event dispatch thread
+     */
+    public LoginInteractor(AsyncLoginUserDataAccessInterface userDataAccessInterface,
+                           LoginOutputBoundary loginOutputBoundary,
+                           Executor presenterExecutor) {
+        this(userDataAccessInterface, loginOutputBoundary, presenterExecutor,
+                SessionContext.of(userDataAccessInterface::getCurrentUsername,
+                        userDataAccessInterface::setCurrentUsername));
+    }
+
+    /**
+     * @param userDataAccessInterface the async DAO
+     * @param loginOutputBoundary the presenter
+     * @param presenterExecutor runs the presenter calls
+     * @param session the session a successful login signs in to
+     */
+    public LoginInteractor(AsyncLoginUserDataAccessInterface userDataAccessInterface,
+                           LoginOutputBoundary loginOutputBoundary,
+                           Executor presenterExecutor,
+                           SessionContext session) {
         this.userDataAccessObject = userDataAccessInterface;
         this.loginPresenter = loginOutputBoundary;
+        this.presenterExecutor = presenterExecutor;
+        this.session = session;
     }
 
     @Override
     public void execute(LoginInputData loginInputData) {
         final String username = loginInputData.getUsername();
         final String password = loginInputData.getPassword();
-        if (!userDataAccessObject.existsByName(username)) {
-            loginPresenter.prepareFailView(username + ": Account does not exist.");
-        }
-        else {
-            final String pwd = userDataAccessObject.get(username).getPassword();
-            if (!password.equals(pwd)) {
-                loginPresenter.prepareFailView("Incorrect password for \"" + username + "\".");
-            }
-            else {
-
-                final User user = userDataAccessObject.get(loginInputData.getUsername());
-
-                userDataAccessObject.setCurrentUsername(username);
-
-                final LoginOutputData loginOutputData = new LoginOutputData(user.getName());
-                loginPresenter.prepareSuccessView(loginOutputData);
-            }
-        }
+        userDataAccessObject.existsByNameAsync(username)
+                .thenCompose(exists -> exists
+                        ? userDataAccessObject.getAsync(username)
+                        : CompletableFuture.<User>completedFuture(null))
+                .whenComplete((user, error) -> presenterExecutor.execute(() -> {
+                    if (error != null) {
+                        loginPresenter.prepareFailView(messageOf(error));
+                    }
+                    else if (user == null) {
+                        loginPresenter.prepareFailView(username + ": Account does not exist.");
+                    }
+                    else if (!password.equals(user.getPassword())) {
+                        loginPresenter.prepareFailView("Incorrect password for \"" + username + "\".");
+                    }
+                    else {
+                        session.setUsername(username);
+
+                        final LoginOutputData loginOutputData = new LoginOutputData(user.getName());
+                        loginPresenter.prepareSuccessView(loginOutputData);
+                    }
+                }));
     }
 
     @Override
     public void switchToLoginView() {
         loginPresenter.switchToLoginView();
     }
+
+    private static String messageOf(Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
 }
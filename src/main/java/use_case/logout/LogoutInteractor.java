@@ -1,24 +1,35 @@
 package use_case.logout;
 
+import use_case.session.SessionContext;
+
 /**
  * The Logout Interactor.
  */
 public class LogoutInteractor implements LogoutInputBoundary {
-    private final LogoutUserDataAccessInterface userDataAccessObject;
+    private final SessionContext session;
     private final LogoutOutputBoundary logoutPresenter;
 
     public LogoutInteractor(LogoutUserDataAccessInterface userDataAccessInterface,
                             LogoutOutputBoundary logoutOutputBoundary) {
-        this.userDataAccessObject = userDataAccessInterface;
+        this(SessionContext.of(userDataAccessInterface::getCurrentUsername,
+                userDataAccessInterface::setCurrentUsername), logoutOutputBoundary);
+    }
+
+    /**
+     * @param session the session to sign out of
+     * @param logoutOutputBoundary the presenter
+     */
+    public LogoutInteractor(SessionContext session, LogoutOutputBoundary logoutOutputBoundary) {
+        this.session = session;
         this.logoutPresenter = logoutOutputBoundary;
     }
 
     @Override
     public void execute() {
-        // * set the current username to null in the DAO
+        // * sign the session out
         // * instantiate the `LogoutOutputData`, which needs to contain the username.
         // * tell the presenter to prepare a success view.
-        userDataAccessObject.setCurrentUsername(null);
+        session.setUsername(null);
 
         LogoutOutputData logoutOutputData = new LogoutOutputData(null);
         logoutPresenter.prepareSuccessView(logoutOutputData);
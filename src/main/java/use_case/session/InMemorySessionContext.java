@@ -0,0 +1,19 @@
+package use_case.session;
+
+/**
+ * A session whose username is held in a volatile field.
+ */
+final class InMemorySessionContext implements SessionContext {
+
+    private volatile String username;
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public void setUsername(String username) {
+        this.username = username;
+    }
+}
@@ -0,0 +1,58 @@
+package use_case.session;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The signed-in user of one session: the desktop window, or one client of a headless server.
+ * <p>
+ * Interactors read and change the current user through the session they were built with
+ * instead of through a username held by a shared DAO, so one process can serve many
+ * sessions at once over the same data access objects.
+ */
+public interface SessionContext {
+
+    /**
+     * @return the signed-in username, or null if nobody is signed in
+     */
+    String getUsername();
+
+    /**
+     * @param username the signed-in username, or null to sign out
+     */
+    void setUsername(String username);
+
+    /**
+     * @return a new session with nobody signed in; it may be read and changed from any thread
+     */
+    static SessionContext create() {
+        return new InMemorySessionContext();
+    }
+
+    /**
+     * Adapts a current username kept elsewhere, e.g. by a DAO that still tracks one user
+     * for the whole process.
+     */
+    static SessionContext of(Supplier<String> username, Consumer<String> setUsername) {
+        return new SessionContext() {
+            @Override
+            public String getUsername() {
+                return username.get();
+            }
+
+            @Override
+            public void setUsername(String name) {
+                setUsername.accept(name);
+            }
+        };
+    }
+
+    /**
+     * Adapts a current username that this session may read but not change.
+     */
+    static SessionContext readOnly(Supplier<String> username) {
+        return of(username, name -> {
+            throw new UnsupportedOperationException("This session's user cannot be changed");
+        });
+    }
+}
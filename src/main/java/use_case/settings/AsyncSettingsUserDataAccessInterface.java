@@ -0,0 +1,72 @@
+package use_case.settings;
+
+import Entities.User;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking DAO interface for the Settings Use Case. Calls complete on the DAO's own
+ * threads, so the caller (typically the Swing event dispatch thread) never waits on I/O.
+ */
+public interface AsyncSettingsUserDataAccessInterface {
+
+    /**
+     * Returns the user with the given username.
+     * @param username the username to look up
+     * @return a future completed with the user, or completed exceptionally if the lookup fails
+     */
+    CompletableFuture<User> getAsync(String username);
+
+    /**
+     * Saves the user.
+     * @param user the user to save
+     * @return a future completed once the user is saved, or completed exceptionally if saving fails
+     */
+    CompletableFuture<Void> saveAsync(User user);
+
+    /**
+     * Applies a change to the user and saves it; see {@link SettingsUserDataAccessInterface#update}.
+     * The default composes {@link #getAsync} and {@link #saveAsync}.
+     * @param username the user to update
+     * @param change the change, which may throw IllegalArgumentException for invalid values
+     * @return a future completed with the saved user, or completed exceptionally if the update fails
+     */
+    default CompletableFuture<User> updateAsync(String username, Consumer<User> change) {
+        return getAsync(username).thenCompose(user -> {
+            change.accept(user);
+            return saveAsync(user).thenApply(saved -> user);
+        });
+    }
+
+    String getCurrentUsername();
+
+    /**
+     * Adapts a blocking DAO by running every call on the calling thread.
+     * @param dataAccess the blocking DAO
+     * @return futures that are already complete when returned
+     */
+    static AsyncSettingsUserDataAccessInterface blocking(SettingsUserDataAccessInterface dataAccess) {
+        return new AsyncSettingsUserDataAccessInterface() {
+            @Override
+            public CompletableFuture<User> getAsync(String username) {
+                return CompletableFuture.supplyAsync(() -> dataAccess.get(username), Runnable::run);
+            }
+
+            @Override
+            public CompletableFuture<Void> saveAsync(User user) {
+                return CompletableFuture.runAsync(() -> dataAccess.save(user), Runnable::run);
+            }
+
+            @Override
+            public CompletableFuture<User> updateAsync(String username, Consumer<User> change) {
+                return CompletableFuture.supplyAsync(() -> dataAccess.update(username, change), Runnable::run);
+            }
+
+            @Override
+            public String getCurrentUsername() {
+                return dataAccess.getCurrentUsername();
+            }
+        };
+    }
+}
@@ -1,19 +1,60 @@
 package use_case.settings;
 
-import Entities.User;
+import use_case.session.SessionContext;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * The Settings Interactor - handles the business logic for updating user settings.
+ * <p>
+ * The input is parsed up front; the user is changed and saved through the async DAO's
+ * {@code updateAsync}, so {@link #execute} returns without waiting for it, concurrent updates
+ * of the same user are not lost, and the presenter is called on {@code presenterExecutor}.
  */
 public class SettingsInteractor implements SettingsInputBoundary {
 
-    private final SettingsUserDataAccessInterface userDataAccessObject;
+    private final AsyncSettingsUserDataAccessInterface userDataAccessObject;
     private final SettingsOutputBoundary settingsPresenter;
+    private final Executor presenterExecutor;
+    private final SessionContext session;
 
+    /**
+     * Creates an interactor over a blocking DAO; {@link #execute} completes on the calling thread.
+     */
     public SettingsInteractor(SettingsUserDataAccessInterface userDataAccessObject,
                               SettingsOutputBoundary settingsPresenter) {
+        this(AsyncSettingsUserDataAccessInterface.blocking(userDataAccessObject), settingsPresenter, Runnable::run);
+    }
+
+    /**
+     * Creates an interactor that updates the DAO's current user.
+     * @param userDataAccessObject the async DAO
+     * @param settingsPresenter the presenter
+     * @param presenterExecutor runs the presenter calls, e.g. {@code SwingUtilities::invokeLater}
+     *                          so the views are updated on the event dispatch thread
+     */
+    public SettingsInteractor(AsyncSettingsUserDataAccessInterface userDataAccessObject,
+                              SettingsOutputBoundary settingsPresenter,
+                              Executor presenterExecutor) {
+        this(userDataAccessObject, settingsPresenter, presenterExecutor,
+                SessionContext.readOnly(userDataAccessObject::getCurrentUsername));
+    }
+
+    /**
+     * @param userDataAccessObject the async DAO
+     * @param settingsPresenter the presenter
+     * @param presenterExecutor runs the presenter calls
+     * @param session the session whose signed-in user is updated
+     */
+    public SettingsInteractor(AsyncSettingsUserDataAccessInterface userDataAccessObject,
+                              SettingsOutputBoundary settingsPresenter,
+                              Executor presenterExecutor,
+                              SessionContext session) {
         this.userDataAccessObject = userDataAccessObject;
         this.settingsPresenter = settingsPresenter;
+        this.presenterExecutor = presenterExecutor;
+        this.session = session;
     }
 
     @Override
@@ -28,47 +69,55 @@ public class SettingsInteractor implements SettingsInputBoundary {
             return;
         }
 
+        // Parse before touching the DAO so bad input never costs a lookup
+        final int age;
+        final int height;
+        final int weight;
         try {
-            // Get current user
-            final String currentUsername = userDataAccessObject.getCurrentUsername();
-            final User user = userDataAccessObject.get(currentUsername);
-
-            // Update age if provided
-            if (ageProvided) {
-                final int age = Integer.parseInt(settingsInputData.getAge().trim());
-                user.updateAge(age);
-            }
-
-            // Update height if provided
-            if (heightProvided) {
-                final int height = Integer.parseInt(settingsInputData.getHeight().trim());
-                user.updateHeight(height);
-            }
-
-            // Update weight if provided
-            if (weightProvided) {
-                final int weight = Integer.parseInt(settingsInputData.getWeight().trim());
-                user.updateWeight(weight);
-            }
-
-            // Save updated user
-            userDataAccessObject.save(user);
-
-            // Prepare success response with current values and update flags
-            final SettingsOutputData outputData = new SettingsOutputData(
-                user.getAge(),
-                user.getHeight(),
-                user.getWeight(),
-                ageProvided,
-                heightProvided,
-                weightProvided
-            );
-            settingsPresenter.prepareSuccessView(outputData);
-
+            age = ageProvided ? Integer.parseInt(settingsInputData.getAge().trim()) : 0;
+            height = heightProvided ? Integer.parseInt(settingsInputData.getHeight().trim()) : 0;
+            weight = weightProvided ? Integer.parseInt(settingsInputData.getWeight().trim()) : 0;
         } catch (NumberFormatException exception) {
             settingsPresenter.prepareFailView("Please enter valid numbers for the provided fields.");
-        } catch (IllegalArgumentException exception) {
-            settingsPresenter.prepareFailView(exception.getMessage());
+            return;
         }
+
+        // Get current user
+        final String currentUsername = session.getUsername();
+        userDataAccessObject.updateAsync(currentUsername, user -> {
+                    // The entity rejects out-of-range values with IllegalArgumentException
+                    if (ageProvided) {
+                        user.updateAge(age);
+                    }
+                    if (heightProvided) {
+                        user.updateHeight(height);
+                    }
+                    if (weightProvided) {
+                        user.updateWeight(weight);
+                    }
+                })
+                .whenComplete((user, error) -> presenterExecutor.execute(() -> {
+                    if (error != null) {
+                        settingsPresenter.prepareFailView(messageOf(error));
+                        return;
+                    }
+
+                    // Prepare success response with current values and update flags
+                    final SettingsOutputData outputData = new SettingsOutputData(
+                        user.getAge(),
+                        user.getHeight(),
+                        user.getWeight(),
+                        ageProvided,
+                        heightProvided,
+                        weightProvided
+                    );
+                    settingsPresenter.prepareSuccessView(outputData);
+                }));
+    }
+
+    private static String messageOf(Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
     }
 }
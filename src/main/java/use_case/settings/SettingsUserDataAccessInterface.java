@@ -2,6 +2,8 @@ package use_case.settings;
 
 import Entities.User;
 
+import java.util.function.Consumer;
+
 /**
  * DAO interface for the Settings Use Case.
  */
@@ -20,6 +22,21 @@ public interface SettingsUserDataAccessInterface {
      */
     void save(User user);
 
+    /**
+     * Applies a change to the user and saves it. DAOs shared between threads override this
+     * so that concurrent updates of the same user cannot overwrite each other; the default
+     * simply gets, changes and saves the user.
+     * @param username the user to update
+     * @param change the change, which may throw IllegalArgumentException for invalid values
+     * @return the saved user
+     */
+    default User update(String username, Consumer<User> change) {
+        final User user = get(username);
+        change.accept(user);
+        save(user);
+        return user;
+    }
+
     /**
      * Returns the current logged-in username.
      * @return the current username
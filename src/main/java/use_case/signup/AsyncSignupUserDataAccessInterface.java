@@ -0,0 +1,45 @@
+package use_case.signup;
+
+import Entities.User;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking DAO interface for the Signup Use Case. Calls complete on the DAO's own
+ * threads, so the caller (typically the Swing event dispatch thread) never waits on I/O.
+ */
+public interface AsyncSignupUserDataAccessInterface {
+
+    /**
+     * Checks if the given username exists.
+     * @param username the username to look for
+     * @return a future completed with true if the user exists
+     */
+    CompletableFuture<Boolean> existsByNameAsync(String username);
+
+    /**
+     * Saves the user.
+     * @param user the user to save
+     * @return a future completed once the user is saved, or completed exceptionally if saving fails
+     */
+    CompletableFuture<Void> saveAsync(User user);
+
+    /**
+     * Adapts a blocking DAO by running every call on the calling thread.
+     * @param dataAccess the blocking DAO
+     * @return futures that are already complete when returned
+     */
+    static AsyncSignupUserDataAccessInterface blocking(SignupUserDataAccessInterface dataAccess) {
+        return new AsyncSignupUserDataAccessInterface() {
+            @Override
+            public CompletableFuture<Boolean> existsByNameAsync(String username) {
+                return CompletableFuture.supplyAsync(() -> dataAccess.existsByName(username), Runnable::run);
+            }
+
+            @Override
+            public CompletableFuture<Void> saveAsync(User user) {
+                return CompletableFuture.runAsync(() -> dataAccess.save(user), Runnable::run);
+            }
+        };
+    }
+}
@@ -3,47 +3,101 @@ package use_case.signup;
 import Entities.User;
 import Entities.UserFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 /**
  * The Signup Interactor.
+ * <p>
+ * The existence check and the save are composed from the async DAO, so {@link #execute}
+ * returns without waiting for them; the presenter is called on {@code presenterExecutor}.
  */
 public class SignupInteractor implements SignupInputBoundary {
-    private final SignupUserDataAccessInterface userDataAccessObject;
+    private final AsyncSignupUserDataAccessInterface userDataAccessObject;
     private final SignupOutputBoundary userPresenter;
     private final UserFactory userFactory;
+    private final Executor presenterExecutor;
 
+    /**
+     * Creates an interactor over a blocking DAO; {@link #execute} completes on the calling thread.
+     */
     public SignupInteractor(SignupUserDataAccessInterface signupDataAccessInterface,
                             SignupOutputBoundary signupOutputBoundary,
                             UserFactory userFactory) {
+        this(AsyncSignupUserDataAccessInterface.blocking(signupDataAccessInterface), signupOutputBoundary,
+                userFactory, Runnable::run);
+    }
+
+    /**
+     * @param signupDataAccessInterface the async DAO
+     * @param signupOutputBoundary the presenter
+     * @param userFactory creates the new user
+     * @param presenterExecutor runs the presenter calls, e.g. {@code SwingUtilities::invokeLater}
+     *                          so the views are updated on the event dispatch thread
+     */
+    public SignupInteractor(AsyncSignupUserDataAccessInterface signupDataAccessInterface,
+                            SignupOutputBoundary signupOutputBoundary,
+                            UserFactory userFactory,
+                            Executor presenterExecutor) {
         this.userDataAccessObject = signupDataAccessInterface;
         this.userPresenter = signupOutputBoundary;
         this.userFactory = userFactory;
+        this.presenterExecutor = presenterExecutor;
     }
 
     @Override
     public void execute(SignupInputData signupInputData) {
-        if (userDataAccessObject.existsByName(signupInputData.getUsername())) {
-            userPresenter.prepareFailView("User already exists.");
+        userDataAccessObject.existsByNameAsync(signupInputData.getUsername())
+                .thenCompose(exists -> {
+                    final String error = validate(signupInputData, exists);
+                    if (error != null) {
+                        return CompletableFuture.completedFuture(error);
+                    }
+                    final User user = userFactory.create(signupInputData.getUsername(), signupInputData.getPassword());
+                    return userDataAccessObject.saveAsync(user).thenApply(saved -> (String) null);
+                })
+                .whenComplete((error, failure) -> presenterExecutor.execute(() -> {
+                    if (failure != null) {
+                        userPresenter.prepareFailView(messageOf(failure));
+                    }
+                    else if (error != null) {
+                        userPresenter.prepareFailView(error);
+                    }
+                    else {
+                        final SignupOutputData signupOutputData = new SignupOutputData(signupInputData.getUsername());
+                        userPresenter.prepareSuccessView(signupOutputData);
+                    }
+                }));
+    }
+
+    @Override
+    public void switchToLoginView() {
+        userPresenter.switchToLoginView();
+    }
+
+    /**
+     * @return the reason the signup is rejected, or null if the user can be created
+     */
+    private static String validate(SignupInputData signupInputData, boolean exists) {
+        if (exists) {
+            return "User already exists.";
         }
         else if (!signupInputData.getPassword().equals(signupInputData.getRepeatPassword())) {
-            userPresenter.prepareFailView("Passwords don't match.");
+            return "Passwords don't match.";
         }
         else if ("".equals(signupInputData.getPassword())) {
-            userPresenter.prepareFailView("New password cannot be empty");
+            return "New password cannot be empty";
         }
         else if ("".equals(signupInputData.getUsername())) {
-            userPresenter.prepareFailView("Username cannot be empty");
-        }
-        else {
-            final User user = userFactory.create(signupInputData.getUsername(), signupInputData.getPassword());
-            userDataAccessObject.save(user);
-
-            final SignupOutputData signupOutputData = new SignupOutputData(user.getName());
-            userPresenter.prepareSuccessView(signupOutputData);
+            return "Username cannot be empty";
         }
+        return null;
     }
 
-    @Override
-    public void switchToLoginView() {
-        userPresenter.switchToLoginView();
+    private static String messageOf(Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
     }
 }
@@ -5,6 +5,7 @@ import use_case.healthHistory.healthHistoryInteractor;
 import use_case.healthHistory.healthHistoryOutputBoundary;
 import use_case.healthHistory.healthHistoryOutputData;
 import use_case.healthHistory.healthMetricRecord;
+import use_case.healthHistory.healthHistoryUserDataAccessInterface;
 
 import javax.swing.*;
 import java.awt.*;
@@ -199,7 +200,8 @@ public class HealthHistoryView extends JPanel {
         g.drawString(msg, x, y);
     }
 
-    public static healthHistoryInteractor getHealthHistoryInteractor(HealthHistoryView historyView) {
+    public static healthHistoryInteractor getHealthHistoryInteractor(HealthHistoryView historyView,
+                                                                     healthHistoryUserDataAccessInterface dataAccess) {
         healthHistoryOutputBoundary directPresenter = new healthHistoryOutputBoundary() {
             @Override
             public void prepareSuccessView(healthHistoryOutputData data) {
@@ -230,7 +232,7 @@ public class HealthHistoryView extends JPanel {
             }
         };
 
-        final healthHistoryInteractor historyInteractor = new healthHistoryInteractor(null, directPresenter);
+        final healthHistoryInteractor historyInteractor = new healthHistoryInteractor(dataAccess, directPresenter);
         return historyInteractor;
     }
 }
@@ -27,6 +27,8 @@ public class HealthInsightsView extends JPanel implements PropertyChangeListener
     private transient JPanel homeContentPanel;
 
     private String currentUserId;
+    // true while the text area shows the placeholder rather than insights
+    private boolean showingPlaceholder;
 
     private static final String FONT_FAMILY = "Segoe UI";
 
@@ -169,6 +171,9 @@ public class HealthInsightsView extends JPanel implements PropertyChangeListener
         if (healthInsightsController != null) {
             if (currentUserId != null && !currentUserId.isEmpty()) {
                 insightsTextArea.setText("Generating insights... Please wait.");
+                showingPlaceholder = true;
+                // A stream this request supersedes must not be continued by the new one
+                healthInsightsViewModel.getState().setStreaming(false);
                 errorLabel.setText("");
                 errorLabel.setVisible(false);
 
@@ -200,15 +205,29 @@ public class HealthInsightsView extends JPanel implements PropertyChangeListener
     public void propertyChange(PropertyChangeEvent evt) {
         if ("state".equals(evt.getPropertyName())) {
             updateViewFromState();
+        } else if ("chunk".equals(evt.getPropertyName())) {
+            appendChunk((String) evt.getNewValue());
         }
     }
 
+    // Called on the event dispatch thread by the presenter
+    private void appendChunk(String chunk) {
+        // The first chunk replaces the "Generating insights..." placeholder
+        if (showingPlaceholder) {
+            insightsTextArea.setText("");
+            showingPlaceholder = false;
+        }
+        insightsTextArea.append(chunk);
+        errorLabel.setVisible(false);
+    }
+
     private void updateViewFromState() {
         HealthInsightsState state = healthInsightsViewModel.getState();
 
         SwingUtilities.invokeLater(() -> {
             if (state.getInsights() != null && !state.getInsights().isEmpty()) {
                 insightsTextArea.setText(state.getInsights());
+                showingPlaceholder = false;
             }
 
             if (state.getErrorMessage() != null && !state.getErrorMessage().isEmpty()) {
@@ -14,6 +14,7 @@ import use_case.healthHistory.healthHistoryOutputBoundary;
 import use_case.healthHistory.healthHistoryOutputData;
 import use_case.healthHistory.healthMetricRecord;
 import use_case.healthHistory.healthHistoryInteractor;
+import use_case.healthHistory.healthHistoryUserDataAccessInterface;
 
 public class HomeView extends JPanel {
     // --- 1. DEFINE BLUE/GREEN THEME COLOR PALETTE ---
@@ -45,7 +46,8 @@ public class HomeView extends JPanel {
     private final JPanel healthInsightsView;
     private GoalsView goalsView;
 
-    public HomeView(HomeViewModel homeViewModel, ViewManagerModel viewManagerModel, JPanel inputMetricsView, SettingsViewModel settingsViewModel, JPanel myScoreView, JPanel healthInsightsView, JPanel goalsView) {
+    public HomeView(HomeViewModel homeViewModel, ViewManagerModel viewManagerModel, JPanel inputMetricsView, SettingsViewModel settingsViewModel, JPanel myScoreView, JPanel healthInsightsView, JPanel goalsView,
+                    healthHistoryUserDataAccessInterface historyDataAccess) {
         this.homeViewModel = homeViewModel;
         this.viewManagerModel = viewManagerModel;
         this.settingsViewModel = settingsViewModel;
@@ -155,7 +157,7 @@ public class HomeView extends JPanel {
             }
         };
 
-        final healthHistoryInteractor historyInteractor = new healthHistoryInteractor(null, directPresenter);
+        final healthHistoryInteractor historyInteractor = new healthHistoryInteractor(historyDataAccess, directPresenter);
 
         // Build a history panel that contains controls + the chart
         JPanel historyPanel = new JPanel(new BorderLayout());
@@ -182,12 +184,19 @@ public class HomeView extends JPanel {
         historyPanel.add(historyView, BorderLayout.CENTER);
 
         // refresh action: read combos and request data
-        String userId = "user1";
         Runnable refresh = () -> {
+            String userId = homeViewModel.getState().getUsername();
+            if (userId == null || userId.isEmpty()) {
+                // Nobody is logged in yet
+                historyView.updateData(new ArrayList<>(), new ArrayList<>(), "");
+                return;
+            }
             String selectedMetric = (String) metricCombo.getSelectedItem();
             String metricKey = mapMetricSelectionToKey(selectedMetric);
             String selectedRange = (String) rangeCombo.getSelectedItem();
-            historyInteractor.fetchHistory(metricKey, selectedRange, userId);
+            // A year of daily points is charted as weekly averages
+            String aggregation = "year".equals(selectedRange) ? "week" : "none";
+            historyInteractor.fetchHistory(metricKey, selectedRange, userId, aggregation);
         };
 
         metricCombo.addActionListener(e -> refresh.run());
@@ -278,12 +278,13 @@ public class MyScoreView extends JPanel implements PropertyChangeListener {
                 computeButton.setVisible(false);
                 errorLabel.setVisible(false);
 
-                scoreLabel.setText("Score: " + (state.getScore() != null ? state.getScore() : ""));
+                scoreLabel.setText("Score: " + (state.getScore() != null ? state.getScore() : "")
+                        + (state.isScoreEstimated() ? " (estimate)" : ""));
                 scoreLabel.setVisible(true);
 
                 // Format feedback with HTML for better text wrapping
                 // Remove \n characters and clean up the text
-                String feedbackText = state.getFeedback() != null ? state.getFeedback() : "";
+                String feedbackText = state.getFeedback() != null ? state.getFeedback() : "Generating feedback...";
                 feedbackText = feedbackText.replace("\\n", " ").replace("\n", " ").trim();
                 feedbackLabel.setText("<html><div style='width: 550px; text-align: center;'>" +
                         feedbackText + "</div></html>");
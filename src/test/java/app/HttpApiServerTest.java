@@ -0,0 +1,212 @@
+package app;
+
+import Entities.HealthMetrics;
+import Entities.UserFactory;
+import data_access.FileUserDataAccessObject;
+import data_access.HealthMetricsJsonFile;
+import data_access.WriteBehindHealthDataAccessObject;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import services.GeminiAPIService;
+import use_case.daily_health_score.HealthScoreCalculator;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end tests of the headless server: real DAOs in a temporary directory, a local
+ * score calculator and canned insights instead of the Gemini API.
+ */
+class HttpApiServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ExecutorService executor;
+    private FileUserDataAccessObject userDataAccess;
+    private WriteBehindHealthDataAccessObject healthDataAccess;
+    private HttpApiServer server;
+    private HealthScoreCalculator calculator;
+    private GeminiAPIService gemini;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UserFactory userFactory = new UserFactory();
+        userDataAccess = new FileUserDataAccessObject(tempDir.resolve("users.csv").toString(), userFactory);
+        userDataAccess.save(userFactory.create("alice", "secret", 30, 170, 65));
+        userDataAccess.save(userFactory.create("bob", "hunter2", 40, 180, 90));
+        healthDataAccess = new WriteBehindHealthDataAccessObject(userDataAccess,
+                new HealthMetricsJsonFile(tempDir.resolve("health_metrics.json").toString()));
+
+        calculator = new HealthScoreCalculator() {
+            @Override
+            public int calculateScore(HealthMetrics metrics) {
+                return (int) Math.round(metrics.getSleepHours() * 10);
+            }
+
+            @Override
+            public String generateFeedback(HealthMetrics metrics, int score) {
+                return "Feedback for " + metrics.getUserId();
+            }
+        };
+        gemini = new GeminiAPIService() {
+            @Override
+            public void getHealthInsightsAsync(String healthData, InsightsCallback callback, Executor callbackExecutor) {
+                callback.onSuccess("Insights: " + healthData.length());
+            }
+        };
+
+        executor = Executors.newFixedThreadPool(8);
+        server = new HttpApiServer(new InetSocketAddress("127.0.0.1", 0), executor,
+                userDataAccess, healthDataAccess, calculator, gemini);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        executor.shutdownNow();
+        healthDataAccess.close();
+        userDataAccess.close();
+    }
+
+    @Test
+    void testSessionRunsEveryUseCaseAsItsUser() throws Exception {
+        String token = login("alice", "secret");
+
+        HttpResponse<String> saved = post("/metrics", token, new JSONObject()
+                .put("sleepHours", 7.5).put("steps", 9000).put("waterIntake", 2.0)
+                .put("calories", 2100).put("exerciseMinutes", 30));
+        assertEquals(200, saved.statusCode(), saved.body());
+
+        JSONObject score = json(get("/score?date=" + LocalDate.now(), token));
+        assertEquals("alice", score.getString("userId"));
+        assertEquals(75, score.getInt("score"));
+        assertEquals("Feedback for alice", score.getString("feedback"));
+
+        JSONObject history = json(get("/history?metric=calories&range=week", token));
+        assertEquals(2100, history.getJSONArray("records").getJSONObject(0).getInt("value"));
+
+        HttpResponse<String> goals = post("/goals", token, new JSONObject()
+                .put("goalType", "Weight Loss").put("target", "60").put("timeframe", "10"));
+        assertEquals(200, goals.statusCode(), goals.body());
+        assertEquals(65, new JSONObject(goals.body()).getInt("currentWeightKg"));
+
+        assertTrue(json(get("/insights", token)).getString("insights").startsWith("Insights: "));
+
+        assertEquals(200, post("/logout", token, new JSONObject()).statusCode());
+        assertEquals(401, get("/score", token).statusCode(), "The token should not work after logout");
+        assertEquals(0, server.getSessionCount());
+    }
+
+    @Test
+    void testConcurrentSessionsKeepTheirOwnUsers() throws Exception {
+        String alice = login("alice", "secret");
+        String bob = login("bob", "hunter2");
+
+        HttpResponse<String> bobGoals = post("/goals", bob, new JSONObject()
+                .put("goalType", "Maintain").put("target", "").put("timeframe", "4"));
+        HttpResponse<String> aliceGoals = post("/goals", alice, new JSONObject()
+                .put("goalType", "Maintain").put("target", "").put("timeframe", "4"));
+
+        assertEquals(90, new JSONObject(bobGoals.body()).getInt("currentWeightKg"));
+        assertEquals(65, new JSONObject(aliceGoals.body()).getInt("currentWeightKg"));
+        assertEquals(2, server.getSessionCount());
+    }
+
+    @Test
+    void testErrorsAreReportedAsJson() throws Exception {
+        HttpResponse<String> wrongPassword = post("/login", null,
+                new JSONObject().put("username", "alice").put("password", "wrong"));
+        assertEquals(401, wrongPassword.statusCode());
+        assertEquals("Incorrect password for \"alice\".", new JSONObject(wrongPassword.body()).getString("error"));
+
+        assertEquals(401, get("/score", null).statusCode());
+        assertEquals(401, get("/score", "not-a-token").statusCode());
+        assertEquals(405, get("/login", null).statusCode());
+        assertEquals(404, get("/login/extra", null).statusCode());
+
+        String token = login("alice", "secret");
+        HttpResponse<String> invalid = post("/metrics", token, new JSONObject()
+                .put("sleepHours", -1).put("steps", 9000).put("waterIntake", 2.0)
+                .put("calories", 2100).put("exerciseMinutes", 30));
+        assertEquals(400, invalid.statusCode());
+        assertEquals(400, post("/metrics", token, new JSONObject().put("steps", 1)).statusCode(),
+                "Missing fields should be a bad request");
+        assertEquals(400, get("/score?date=yesterday", token).statusCode());
+    }
+
+    @Test
+    void testIdleSessionsExpireAndTheOldestIsEndedAtTheCap() throws Exception {
+        AtomicLong now = new AtomicLong();
+        server.close();
+        server = new HttpApiServer(new InetSocketAddress("127.0.0.1", 0), executor,
+                userDataAccess, healthDataAccess, calculator, gemini, 1_000, 2, now::get);
+        server.start();
+
+        String first = login("alice", "secret");
+        now.addAndGet(500);
+        assertEquals(200, get("/history", first).statusCode());
+        now.addAndGet(900);
+        assertEquals(200, get("/history", first).statusCode(), "Requests should keep a session alive");
+        now.addAndGet(1_000);
+        assertEquals(401, get("/history", first).statusCode(), "An idle session should expire");
+        assertEquals(0, server.getSessionCount());
+
+        String alice = login("alice", "secret");
+        now.addAndGet(10);
+        String bob = login("bob", "hunter2");
+        now.addAndGet(10);
+        String third = login("alice", "secret");
+        assertEquals(2, server.getSessionCount());
+        assertEquals(401, get("/history", alice).statusCode(), "The least recently used session should end");
+        assertEquals(200, get("/history", bob).statusCode());
+        assertEquals(200, get("/history", third).statusCode());
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> response = post("/login", null,
+                new JSONObject().put("username", username).put("password", password));
+        assertEquals(200, response.statusCode(), response.body());
+        JSONObject body = new JSONObject(response.body());
+        assertEquals(username, body.getString("username"));
+        return body.getString("token");
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return client.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String token, JSONObject body) throws Exception {
+        return client.send(request(path, token).POST(HttpRequest.BodyPublishers.ofString(body.toString())).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static JSONObject json(HttpResponse<String> response) {
+        assertEquals(200, response.statusCode(), response.body());
+        return new JSONObject(response.body());
+    }
+}
@@ -0,0 +1,135 @@
+package data_access;
+
+import Entities.UserFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import use_case.login.LoginInputData;
+import use_case.login.LoginInteractor;
+import use_case.login.LoginOutputBoundary;
+import use_case.login.LoginOutputData;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the read-through user cache against the local stand-in user service, counting the
+ * calls that reach the service through DBUserDataAccessObject's endpoint metrics.
+ */
+class CachingUserDataAccessObjectTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private LocalUserService service;
+    private DBUserDataAccessObject remote;
+    private CachingUserDataAccessObject<DBUserDataAccessObject> cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new LocalUserService();
+        service.addUser("alice", "secret");
+        remote = new DBUserDataAccessObject(new UserFactory(), service.getBaseUrl());
+        cache = new CachingUserDataAccessObject<>(remote, 2, 1000, 100, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void testLoginMakesOneNetworkCall() {
+        final String[] loggedIn = new String[1];
+        LoginInteractor interactor = new LoginInteractor(cache, new LoginOutputBoundary() {
+            @Override
+            public void prepareSuccessView(LoginOutputData outputData) {
+                loggedIn[0] = outputData.getUsername();
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                fail(errorMessage);
+            }
+
+            @Override
+            public void switchToLoginView() {
+            }
+        });
+
+        interactor.execute(new LoginInputData("alice", "secret"));
+
+        assertEquals("alice", loggedIn[0]);
+        assertEquals(1, networkCalls());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testMissingUserIsCachedNegativelyUntilItsTtl() {
+        assertFalse(cache.existsByName("bob"));
+        long calls = networkCalls();
+
+        assertFalse(cache.existsByName("bob"));
+        assertEquals(calls, networkCalls());
+
+        service.addUser("bob", "pw");
+        advanceMillis(101);
+        assertTrue(cache.existsByName("bob"));
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        cache.get("alice");
+        advanceMillis(999);
+        cache.get("alice");
+        assertEquals(1, networkCalls());
+
+        advanceMillis(2);
+        cache.get("alice");
+        assertEquals(2, networkCalls());
+    }
+
+    @Test
+    void testSaveAndChangePasswordInvalidate() {
+        assertFalse(cache.existsByName("carol"));
+        cache.save(new UserFactory().create("carol", "first"));
+        assertTrue(cache.existsByName("carol"));
+
+        cache.changePassword(new UserFactory().create("carol", "second"));
+        assertEquals("second", cache.get("carol").getPassword());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        service.addUser("dave", "pw");
+        service.addUser("erin", "pw");
+
+        cache.get("alice");
+        cache.get("dave");
+        cache.get("alice");
+        cache.get("erin");
+
+        assertEquals(2, cache.size());
+        long calls = networkCalls();
+        cache.get("alice");
+        assertEquals(calls, networkCalls());
+        cache.get("dave");
+        assertEquals(calls + 1, networkCalls());
+    }
+
+    @Test
+    void testGetOfMissingUserThrowsLikeTheDelegate() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cache.get("nobody"));
+        assertEquals("User not found", e.getMessage());
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private long networkCalls() {
+        HttpEndpointMetrics metrics = remote.getEndpointMetrics();
+        return metrics.getCallCount("GET /user") + metrics.getCallCount("GET /checkIfUserExists");
+    }
+}
@@ -0,0 +1,101 @@
+package data_access;
+
+import Entities.User;
+import Entities.UserFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests DBUserDataAccessObject against the local stand-in user service.
+ */
+class DBUserDataAccessObjectTest {
+
+    private LocalUserService service;
+    private DBUserDataAccessObject dataAccess;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new LocalUserService();
+        dataAccess = new DBUserDataAccessObject(new UserFactory(), service.getBaseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void testSaveGetAndChangePassword() {
+        assertFalse(dataAccess.existsByName("alice"));
+
+        dataAccess.save(new UserFactory().create("alice", "secret"));
+        assertTrue(dataAccess.existsByName("alice"));
+        assertEquals("secret", dataAccess.get("alice").getPassword());
+
+        dataAccess.changePassword(new UserFactory().create("alice", "changed"));
+        assertEquals("changed", service.getPassword("alice"));
+    }
+
+    @Test
+    void testServiceErrorsBecomeRuntimeExceptions() {
+        service.addUser("bob", "pw");
+
+        RuntimeException duplicate = assertThrows(RuntimeException.class,
+                () -> dataAccess.save(new UserFactory().create("bob", "other")));
+        assertEquals("User already exists", duplicate.getMessage());
+
+        RuntimeException missing = assertThrows(RuntimeException.class, () -> dataAccess.get("nobody"));
+        assertEquals("User not found", missing.getMessage());
+    }
+
+    @Test
+    void testUsernamesAreEncodedInQuery() {
+        service.addUser("a&b c", "pw");
+
+        assertTrue(dataAccess.existsByName("a&b c"));
+        User user = dataAccess.get("a&b c");
+        assertEquals("a&b c", user.getName());
+    }
+
+    @Test
+    void testConnectionsAreReusedAcrossCalls() {
+        service.addUser("carol", "pw");
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(dataAccess.existsByName("carol"));
+            dataAccess.get("carol");
+        }
+
+        // Every response is closed, so sequential calls keep using one pooled connection
+        assertEquals(1, service.getConnectionCount());
+    }
+
+    @Test
+    void testEndpointMetricsCountCalls() {
+        service.addUser("dave", "pw");
+
+        dataAccess.existsByName("dave");
+        dataAccess.existsByName("erin");
+        dataAccess.get("dave");
+
+        HttpEndpointMetrics metrics = dataAccess.getEndpointMetrics();
+        assertEquals(2, metrics.getCallCount("GET /checkIfUserExists"));
+        assertEquals(1, metrics.getCallCount("GET /user"));
+        assertEquals(0, metrics.getErrorCount("GET /user"));
+        assertEquals(0, metrics.getCallCount("POST /user"));
+        assertTrue(metrics.getMaxMillis("GET /user") >= metrics.getAverageMillis("GET /user"));
+    }
+
+    @Test
+    void testUnreachableServiceIsRecordedAsError() {
+        String baseUrl = service.getBaseUrl();
+        service.close();
+        DBUserDataAccessObject offline = new DBUserDataAccessObject(new UserFactory(), baseUrl);
+
+        assertThrows(RuntimeException.class, () -> offline.existsByName("alice"));
+        assertEquals(1, offline.getEndpointMetrics().getErrorCount("GET /checkIfUserExists"));
+    }
+}
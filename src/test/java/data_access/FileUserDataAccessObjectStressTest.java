@@ -0,0 +1,129 @@
+package data_access;
+
+import Entities.User;
+import Entities.UserFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multithreaded tests showing that FileUserDataAccessObject loses no updates when it is
+ * shared between threads, including while compactions rotate the change log.
+ */
+class FileUserDataAccessObjectStressTest {
+
+    private static final int THREADS = 8;
+
+    private final UserFactory userFactory = new UserFactory();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testConcurrentUpdatesOfOneUserAreNotLost() throws Exception {
+        String csv = tempDir.resolve("users.csv").toString();
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv, userFactory, 100);
+        dataAccess.save(userFactory.create("alice", "pw", 30, 170, 0));
+        int updatesPerThread = 250;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < updatesPerThread; i++) {
+                dataAccess.update("alice", user -> user.updateWeight(user.getWeight() + 1));
+            }
+        });
+
+        assertEquals(THREADS * updatesPerThread, dataAccess.get("alice").getWeight());
+        dataAccess.close();
+
+        FileUserDataAccessObject reopened = new FileUserDataAccessObject(csv, userFactory);
+        assertEquals(THREADS * updatesPerThread, reopened.get("alice").getWeight());
+        reopened.close();
+    }
+
+    @Test
+    void testConcurrentSavesSurviveCompaction() throws Exception {
+        assertSavesSurviveCompaction(0);
+    }
+
+    @Test
+    void testConcurrentSavesSurviveCompactionWhenLoadingLazily() throws Exception {
+        assertSavesSurviveCompaction(16);
+    }
+
+    private void assertSavesSurviveCompaction(int lazyCacheSize) throws Exception {
+        String csv = tempDir.resolve("users.csv").toString();
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv, userFactory, 50, lazyCacheSize);
+        int usersPerThread = 200;
+        AtomicBoolean saving = new AtomicBoolean(true);
+
+        ExecutorService compactor = Executors.newSingleThreadExecutor();
+        Future<?> compactions = compactor.submit(() -> {
+            while (saving.get()) {
+                dataAccess.compact();
+            }
+        });
+        runConcurrently(thread -> {
+            for (int i = 0; i < usersPerThread; i++) {
+                String username = "user" + thread + "-" + i;
+                dataAccess.save(userFactory.create(username, "pw", 20, 170, 60));
+                // a second write to the same user, so the later row has to win
+                dataAccess.update(username, user -> user.updateAge(21));
+                assertTrue(dataAccess.existsByName(username));
+            }
+        });
+        saving.set(false);
+        compactions.get(30, TimeUnit.SECONDS);
+        compactor.shutdown();
+        dataAccess.close();
+
+        FileUserDataAccessObject reopened = new FileUserDataAccessObject(csv, userFactory, 50, lazyCacheSize);
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 0; i < usersPerThread; i++) {
+                User user = reopened.get("user" + thread + "-" + i);
+                assertNotNull(user, "user" + thread + "-" + i);
+                assertEquals(21, user.getAge());
+            }
+        }
+        reopened.close();
+    }
+
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Starts every thread at once and rethrows the first failure.
+     */
+    private static void runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int id = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run(id);
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package data_access;
+
+import Entities.User;
+import Entities.UserFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the change log and compaction of FileUserDataAccessObject.
+ */
+class FileUserDataAccessObjectTest {
+
+    private final UserFactory userFactory = new UserFactory();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testUpdatesAppendToLogWithoutRewritingCsv() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory);
+        String before = Files.readString(csv);
+
+        dataAccess.save(userFactory.create("alice", "pw", 30, 170, 60));
+        dataAccess.changePassword(userFactory.create("alice", "new", 30, 170, 60));
+        dataAccess.close();
+
+        assertEquals(before, Files.readString(csv));
+        assertEquals(List.of("alice,pw,30,170,60", "alice,new,30,170,60"),
+                Files.readAllLines(tempDir.resolve("users.csv.log")));
+        assertEquals(2, dataAccess.getLogEntryCount());
+    }
+
+    @Test
+    void testLogIsReplayedOnConstruction() {
+        Path csv = tempDir.resolve("users.csv");
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory);
+        dataAccess.save(userFactory.create("alice", "pw", 30, 170, 60));
+        dataAccess.save(userFactory.create("bob", "pw", 40, 180, 80));
+        dataAccess.changePassword(userFactory.create("alice", "new", 31, 170, 60));
+        dataAccess.close();
+
+        FileUserDataAccessObject reopened = new FileUserDataAccessObject(csv.toString(), userFactory);
+        assertEquals("new", reopened.get("alice").getPassword());
+        assertEquals(31, reopened.get("alice").getAge());
+        assertTrue(reopened.existsByName("bob"));
+        reopened.close();
+    }
+
+    @Test
+    void testCompactionFoldsLogIntoCsv() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory, 1000);
+        for (int i = 0; i < 10; i++) {
+            dataAccess.save(userFactory.create("user" + i, "pw", 20 + i, 170, 60));
+        }
+
+        dataAccess.compact();
+        dataAccess.save(userFactory.create("user0", "changed", 20, 170, 60));
+        dataAccess.close();
+
+        List<String> rows = Files.readAllLines(csv);
+        assertEquals("username,password,age,height,weight", rows.get(0));
+        assertEquals(11, rows.size());
+        assertEquals(List.of("user0,changed,20,170,60"), Files.readAllLines(tempDir.resolve("users.csv.log")));
+        assertFalse(Files.exists(tempDir.resolve("users.csv.log.compacting")));
+
+        FileUserDataAccessObject reopened = new FileUserDataAccessObject(csv.toString(), userFactory);
+        assertEquals("changed", reopened.get("user0").getPassword());
+        assertEquals(29, reopened.get("user9").getAge());
+        reopened.close();
+    }
+
+    @Test
+    void testCompactionRunsInBackgroundOnceThresholdIsReached() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory, 5);
+        for (int i = 0; i < 5; i++) {
+            dataAccess.save(userFactory.create("user" + i, "pw", 20, 170, 60));
+        }
+        // close waits for the scheduled compaction
+        dataAccess.close();
+
+        assertEquals(0, dataAccess.getLogEntryCount());
+        assertEquals(6, Files.readAllLines(csv).size());
+    }
+
+    @Test
+    void testInterruptedCompactionAndTornRowAreRecovered() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.writeString(csv, "username,password,age,height,weight\nalice,pw,30,170,60\n");
+        Files.writeString(tempDir.resolve("users.csv.log.compacting"), "bob,pw,40,180,80\n");
+        Files.writeString(tempDir.resolve("users.csv.log"), "alice,new,30,170,60\ncarol,pw,2");
+
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory);
+
+        assertEquals("new", dataAccess.get("alice").getPassword());
+        assertTrue(dataAccess.existsByName("bob"));
+        assertFalse(dataAccess.existsByName("carol"));
+        assertFalse(Files.exists(tempDir.resolve("users.csv.log.compacting")));
+        assertEquals(0, dataAccess.getLogEntryCount());
+        dataAccess.close();
+    }
+
+    @Test
+    void testTornTailIsCutBeforeTheNextAppend() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Path log = tempDir.resolve("users.csv.log");
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory);
+        dataAccess.save(userFactory.create("alice", "pw", 30, 170, 60));
+        dataAccess.close();
+        // A crash mid-append; the torn weight would still parse as 7
+        Files.writeString(log, "alice,pw,30,170,7", StandardOpenOption.APPEND);
+
+        FileUserDataAccessObject restarted = new FileUserDataAccessObject(csv.toString(), userFactory);
+        assertEquals(60, restarted.get("alice").getWeight());
+        restarted.save(userFactory.create("bob", "pw2", 30, 170, 60));
+        restarted.close();
+
+        assertEquals(List.of("alice,pw,30,170,60", "bob,pw2,30,170,60"), Files.readAllLines(log));
+        FileUserDataAccessObject reopened = new FileUserDataAccessObject(csv.toString(), userFactory);
+        assertEquals("pw2", reopened.get("bob").getPassword());
+        assertEquals(60, reopened.get("alice").getWeight());
+        reopened.close();
+    }
+
+    @Test
+    void testMalformedRowBeforeTheEndOfTheLogFails() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.writeString(csv, "username,password,age,height,weight\n");
+        Files.writeString(tempDir.resolve("users.csv.log"), "alice,pw,3bob,pw2,30,170,60\nbob,pw,40,180,80\n");
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> new FileUserDataAccessObject(csv.toString(), userFactory));
+        assertTrue(error.getMessage().contains("Malformed row 1"), error.getMessage());
+    }
+
+    @Test
+    void testLegacyCsvWithoutLogIsReadable() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.write(csv, List.of("username,password,age,height,weight", "alice,pw,30,170,60"),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE);
+
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory);
+        User alice = dataAccess.get("alice");
+
+        assertEquals("pw", alice.getPassword());
+        assertEquals(170, alice.getHeight());
+        dataAccess.close();
+    }
+
+    @Test
+    void testLazyModeReadsRowsOnDemand() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.writeString(csv, "username,password,age,height,weight\n"
+                + "alice,pw,30,170,60\nbob,pw,40,180,80\nalice,new,31,170,60\n");
+
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory, 1000, 2);
+
+        assertEquals("new", dataAccess.get("alice").getPassword());
+        assertEquals(31, dataAccess.get("alice").getAge());
+        assertTrue(dataAccess.existsByName("bob"));
+        assertFalse(dataAccess.existsByName("carol"));
+        assertNull(dataAccess.get("carol"));
+        assertEquals("alice", dataAccess.getCurrentUsername());
+        assertTrue(Files.exists(tempDir.resolve("users.csv.idx")));
+        dataAccess.close();
+    }
+
+    @Test
+    void testLazyModeCompactionKeepsEveryAccount() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory, 1000);
+        for (int i = 0; i < 10; i++) {
+            dataAccess.save(userFactory.create("user" + i, "pw", 20 + i, 170, 60));
+        }
+        dataAccess.close();
+
+        FileUserDataAccessObject lazy = new FileUserDataAccessObject(csv.toString(), userFactory, 1000, 4);
+        assertEquals("pw", lazy.get("user3").getPassword());
+        lazy.changePassword(userFactory.create("user3", "changed", 23, 170, 60));
+        lazy.save(userFactory.create("user10", "pw", 30, 170, 60));
+        lazy.compact();
+
+        assertEquals(0, lazy.getLogEntryCount());
+        assertEquals("changed", lazy.get("user3").getPassword());
+        assertEquals(29, lazy.get("user9").getAge());
+        assertTrue(lazy.existsByName("user10"));
+        lazy.close();
+
+        List<String> rows = Files.readAllLines(csv);
+        assertEquals(12, rows.size());
+        assertTrue(rows.contains("user3,changed,23,170,60"));
+        assertFalse(rows.contains("user3,pw,23,170,60"));
+
+        FileUserDataAccessObject reopened = new FileUserDataAccessObject(csv.toString(), userFactory, 1000, 4);
+        assertEquals("changed", reopened.get("user3").getPassword());
+        assertEquals(30, reopened.get("user10").getAge());
+        reopened.close();
+    }
+
+    @Test
+    void testLazyModeRecoversInterruptedCompaction() throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.writeString(csv, "username,password,age,height,weight\nalice,pw,30,170,60\n");
+        Files.writeString(tempDir.resolve("users.csv.log.compacting"), "bob,pw,40,180,80\n");
+        Files.writeString(tempDir.resolve("users.csv.log"), "alice,new,30,170,60\n");
+
+        FileUserDataAccessObject dataAccess = new FileUserDataAccessObject(csv.toString(), userFactory, 1000, 4);
+
+        assertEquals("new", dataAccess.get("alice").getPassword());
+        assertTrue(dataAccess.existsByName("bob"));
+        assertEquals(3, Files.readAllLines(csv).size());
+        dataAccess.close();
+    }
+}
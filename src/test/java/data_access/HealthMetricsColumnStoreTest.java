@@ -0,0 +1,120 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary columnar HealthMetricsColumnStore and its JSON converter.
+ */
+class HealthMetricsColumnStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTripKeepsDateOrderScoresAndFeedback() {
+        HealthMetricsColumnStore store = new HealthMetricsColumnStore(tempDir.resolve("columns"));
+        LocalDate date = LocalDate.of(2025, 6, 10);
+
+        JSONObject scored = HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date, 7.5, 8000, 2.0, 30.0, 2100));
+        scored.put("score", 82);
+        scored.put("feedback", "Great sleep — keep it up");
+        store.writeAll(List.of(
+                HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date.plusDays(1), 6.0, 5000, 1.5, 10.0, 1900)),
+                scored,
+                HealthMetricsJsonCodec.toJson(new HealthMetrics("bob", date, 8.0, 12000, 3.0, 60.0, 2500))));
+
+        // A later write for an existing day replaces it without touching the others
+        store.writeAll(List.of(
+                HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date.plusDays(1), 6.5, 6000, 1.5, 10.0, 1900))));
+
+        HealthMetricsColumns alice = new HealthMetricsColumnStore(tempDir.resolve("columns")).readColumns("alice");
+        assertEquals(2, alice.size());
+        assertEquals(date, alice.getDate(0));
+        assertEquals(82, alice.getScore(0));
+        assertEquals("Great sleep — keep it up", alice.getFeedback(0));
+        assertEquals(6000, alice.getSteps(1));
+        assertEquals(HealthMetricsColumns.NO_SCORE, alice.getScore(1));
+        assertNull(alice.getFeedback(1));
+        assertEquals(1, alice.indexOf(date.plusDays(1)));
+        assertEquals(-1, alice.indexOf(date.minusDays(1)));
+
+        List<HealthMetrics> bob = store.readMetrics("bob");
+        assertEquals(1, bob.size());
+        assertEquals(12000, bob.get(0).getSteps());
+        assertTrue(store.readUser("carol").isEmpty());
+    }
+
+    @Test
+    void testRangeReadsOnlyTheRequestedDays() {
+        HealthMetricsColumnStore store = new HealthMetricsColumnStore(tempDir.resolve("columns"));
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<JSONObject> records = new ArrayList<>();
+        for (int day = 0; day < 60; day += 2) {
+            JSONObject record = HealthMetricsJsonCodec.toJson(
+                    new HealthMetrics("alice", start.plusDays(day), 7.0, day, 2.0, 30.0, 2000));
+            record.put("feedback", "day " + day);
+            records.add(record);
+        }
+        store.writeAll(records);
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store);
+
+        // Bounds falling between stored days snap inward
+        HealthMetricsColumns range = store.readRange("alice", start.plusDays(9), start.plusDays(20));
+        assertEquals(6, range.size());
+        assertEquals(start.plusDays(10), range.getDate(0));
+        assertEquals(20, range.getSteps(5));
+        assertEquals("day 10", range.getFeedback(0));
+
+        assertEquals(30, dao.getHealthMetricsByUser("alice", start.minusYears(1), LocalDate.MAX).size());
+        assertTrue(dao.getHealthMetricsByUser("alice", start.plusDays(100), LocalDate.MAX).isEmpty());
+        assertTrue(dao.getHealthMetricsByUser("alice", start.plusDays(20), start.plusDays(10)).isEmpty());
+        assertEquals(0, dao.getCachedUserCount(), "Range reads should not load the whole history");
+        assertEquals(58, dao.getLatestMetrics("alice").getSteps());
+        assertNull(dao.getMetricsForDate("alice", start.plusDays(1)));
+        assertEquals(4, dao.getMetricsForDate("alice", start.plusDays(4)).getSteps());
+        dao.close();
+    }
+
+    @Test
+    void testFileIsReplacedAfterARead() {
+        HealthMetricsColumnStore store = new HealthMetricsColumnStore(tempDir.resolve("columns"));
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        store.writeAll(List.of(HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", day, 7.0, 1, 2.0, 30.0, 2000))));
+        assertEquals(1, store.readRange("alice", day, day).size());
+
+        // Windows refuses to replace a file that is still mapped
+        store.writeAll(List.of(HealthMetricsJsonCodec.toJson(
+                new HealthMetrics("alice", day.plusDays(1), 7.0, 2, 2.0, 30.0, 2000))));
+        assertEquals(2, store.readUser("alice").size());
+    }
+
+    @Test
+    void testConverterResolvesLegacyFieldsOnce() throws Exception {
+        Path json = tempDir.resolve("health_metrics.json");
+        Files.writeString(json, "[{\"userId\":\"alice\",\"date\":\"2025-03-01\",\"sleepHour\":7.5,"
+                + "\"waterLitres\":2.2,\"steps\":9000,\"score\":88,\"feedback\":\"ok\"},"
+                + "{\"userId\":\"bob\",\"date\":\"2025-03-01\",\"sleepHours\":6.0,\"steps\":4000}]");
+
+        HealthMetricsColumnStore store = new HealthMetricsColumnStore(tempDir.resolve("columns"));
+        assertEquals(2, HealthMetricsColumnarConverter.convert(json, store));
+        assertEquals(0, HealthMetricsColumnarConverter.convert(json, store));
+
+        HealthMetricsColumns alice = store.readColumns("alice");
+        assertEquals(7.5, alice.getSleepHours(0), 0.001);
+        assertEquals(2.2, alice.getWaterIntake(0), 0.001);
+        assertEquals(88, alice.getScore(0));
+        assertEquals("ok", alice.getFeedback(0));
+        assertEquals(4000, store.readColumns("bob").getSteps(0));
+    }
+}
@@ -0,0 +1,62 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the journaled, atomically replaced health_metrics.json file.
+ */
+class HealthMetricsJsonFileTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 11, 24);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteReplacesFileAndClearsJournal() throws Exception {
+        Path json = tempDir.resolve("health_metrics.json");
+        HealthMetricsJsonFile file = new HealthMetricsJsonFile(json.toString());
+
+        file.writeAll(Collections.singletonList(record("alice", DAY, 8000)));
+        file.writeAll(Collections.singletonList(record("alice", DAY, 9000)));
+
+        JSONArray stored = new JSONArray(Files.readString(json));
+        assertEquals(1, stored.length());
+        assertEquals(9000, stored.getJSONObject(0).getInt("steps"));
+        assertEquals(0, Files.size(tempDir.resolve("health_metrics.json.wal")));
+        assertFalse(Files.exists(tempDir.resolve("health_metrics.json.tmp")));
+    }
+
+    @Test
+    void testRecoveryReplaysJournalAndDiscardsPartialSnapshot() throws Exception {
+        Path json = tempDir.resolve("health_metrics.json");
+        new HealthMetricsJsonFile(json.toString()).writeAll(Collections.singletonList(record("alice", DAY, 8000)));
+
+        // Crash after the journal was synced but before the snapshot was renamed into place
+        JSONArray batch = new JSONArray().put(record("alice", DAY.plusDays(1), 9000));
+        Files.writeString(tempDir.resolve("health_metrics.json.wal"), batch + "\n" + "[{\"userId\":\"al");
+        Files.writeString(tempDir.resolve("health_metrics.json.tmp"), "[{\"half\":");
+
+        HealthMetricsJsonFile recovered = new HealthMetricsJsonFile(json.toString());
+
+        assertEquals(2, recovered.readUser("alice").size());
+        assertEquals(9000, recovered.read("alice", DAY.plusDays(1)).getInt("steps"));
+        assertFalse(Files.exists(tempDir.resolve("health_metrics.json.tmp")));
+        assertEquals(0, Files.size(tempDir.resolve("health_metrics.json.wal")));
+    }
+
+    private static JSONObject record(String userId, LocalDate date, int steps) {
+        return HealthMetricsJsonCodec.toJson(new HealthMetrics(userId, date, 7.0, steps, 2.0, 30.0, 2000));
+    }
+}
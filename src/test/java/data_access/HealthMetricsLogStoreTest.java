@@ -0,0 +1,168 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import use_case.daily_health_score.DailyHealthScoreOutputData;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the append-only HealthMetricsLogStore, its index and its one-shot JSON migrator.
+ */
+class HealthMetricsLogStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLastWriteWins() {
+        LocalDate date = LocalDate.of(2025, 11, 24);
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(tempDir.resolve("log"))) {
+            store.upsert(HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date, 6.0, 4000, 1.0, 10.0, 1800)));
+            store.upsert(HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date, 8.0, 9000, 2.5, 40.0, 2100)));
+            store.upsert(HealthMetricsJsonCodec.toJson(new HealthMetrics("bob", date, 7.0, 7000, 2.0, 20.0, 2000)));
+
+            List<JSONObject> alice = store.readUser("alice");
+            assertEquals(1, alice.size());
+            assertEquals(9000, alice.get(0).getInt("steps"));
+            assertEquals(7000, store.read("bob", date).getInt("steps"));
+            assertNull(store.read("bob", date.minusDays(1)));
+        }
+    }
+
+    @Test
+    void testRecordsSurviveReopenAndCompaction() {
+        Path dir = tempDir.resolve("log");
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(dir, 512, 2)) {
+            for (int round = 0; round < 3; round++) {
+                for (int day = 0; day < 20; day++) {
+                    store.upsert(HealthMetricsJsonCodec.toJson(
+                            new HealthMetrics("alice", start.plusDays(day), 7.0, 1000 * round + day, 2.0, 30.0, 2000)));
+                }
+            }
+            store.compact();
+        }
+
+        try (HealthMetricsLogStore reopened = new HealthMetricsLogStore(dir, 512, 2)) {
+            List<JSONObject> records = reopened.readUser("alice");
+            assertEquals(20, records.size());
+            assertEquals(start.toString(), records.get(0).getString("date"));
+            assertEquals(2000 + 19, records.get(19).getInt("steps"));
+        }
+    }
+
+    @Test
+    void testCrashDuringCompactionDoesNotReuseTheOldIndex() {
+        Path dir = tempDir.resolve("log");
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        HealthMetricsLogStore crashed = new HealthMetricsLogStore(dir, 512, 100);
+        for (int round = 0; round < 3; round++) {
+            for (int day = 0; day < 20; day++) {
+                crashed.upsert(HealthMetricsJsonCodec.toJson(
+                        new HealthMetrics("alice", start.plusDays(day), 7.0, 1000 * round + day, 2.0, 30.0, 2000)));
+            }
+        }
+        // Die after the compacted segment is moved into place, before the index is saved
+        crashed.afterCompactionMove = () -> {
+            throw new IllegalStateException("crash");
+        };
+        assertThrows(IllegalStateException.class, crashed::compact);
+
+        try (HealthMetricsLogStore reopened = new HealthMetricsLogStore(dir, 512, 100)) {
+            List<JSONObject> records = reopened.readUser("alice");
+            assertEquals(20, records.size());
+            for (int day = 0; day < 20; day++) {
+                assertEquals(2000 + day, records.get(day).getInt("steps"));
+                assertEquals(2000 + day, reopened.read("alice", start.plusDays(day)).getInt("steps"));
+            }
+        }
+        crashed.close();
+    }
+
+    @Test
+    void testTornTailIsDiscardedOnReopen() throws Exception {
+        Path dir = tempDir.resolve("log");
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(dir)) {
+            store.upsert(HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date, 7.0, 8000, 2.0, 30.0, 2000)));
+        }
+        Files.writeString(dir.resolve("segment-000001.log"), "{\"userId\":\"alice\",\"da",
+                StandardOpenOption.APPEND);
+
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(dir)) {
+            store.upsert(HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date.plusDays(1), 7.0, 9000, 2.0, 30.0, 2000)));
+            assertEquals(2, store.readUser("alice").size());
+        }
+    }
+
+    @Test
+    void testMigratorCopiesLegacyRecordsOnce() throws Exception {
+        Path json = tempDir.resolve("health_metrics.json");
+        Files.writeString(json, "[{\"userId\":\"alice\",\"date\":\"2025-03-01\",\"sleepHour\":7.5,"
+                + "\"waterLitres\":2.2,\"steps\":8000,\"calories\":2000,\"exerciseMinutes\":30,\"score\":88}]");
+
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(tempDir.resolve("log"))) {
+            assertEquals(1, HealthMetricsLogMigrator.migrate(json, store));
+            assertEquals(0, HealthMetricsLogMigrator.migrate(json, store));
+
+            JSONObject record = store.read("alice", LocalDate.of(2025, 3, 1));
+            assertEquals(7.5, record.getDouble("sleepHours"), 0.001);
+            assertEquals(2.2, record.getDouble("waterIntake"), 0.001);
+            assertEquals(88, record.getInt("score"));
+        }
+    }
+
+    @Test
+    void testIndexIsRebuiltWhenMissingAndCaughtUpWhenStale() throws Exception {
+        Path dir = tempDir.resolve("log");
+        LocalDate date = LocalDate.of(2025, 6, 1);
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(dir)) {
+            store.upsert(HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date, 7.0, 8000, 2.0, 30.0, 2000)));
+        }
+        Files.delete(dir.resolve("index.dat"));
+
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(dir)) {
+            assertEquals(8000, store.read("alice", date).getInt("steps"));
+            store.upsert(HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date.plusDays(1), 7.0, 9000, 2.0, 30.0, 2000)));
+        }
+
+        // Simulate a crash after the index was saved: append directly to the segment
+        Files.writeString(dir.resolve("segment-000001.log"),
+                HealthMetricsJsonCodec.toJson(new HealthMetrics("alice", date.plusDays(2), 7.0, 10000, 2.0, 30.0, 2000)) + "\n",
+                StandardOpenOption.APPEND);
+
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(dir)) {
+            assertEquals(3, store.size());
+            assertEquals(10000, store.read("alice", date.plusDays(2)).getInt("steps"));
+        }
+    }
+
+    @Test
+    void testDailyScoreIsAttachedToStoredMetrics() {
+        LocalDate date = LocalDate.of(2025, 11, 24);
+        try (HealthMetricsLogStore store = new HealthMetricsLogStore(tempDir.resolve("log"))) {
+            HealthMetrics metrics = new HealthMetrics("alice", date, 7.0, 8000, 2.5, 30.0, 2000);
+            store.upsert(HealthMetricsJsonCodec.toJson(metrics));
+
+            WriteBehindHealthDataAccessObject scoreDao = new WriteBehindHealthDataAccessObject(null, store);
+            assertEquals(8000, scoreDao.getMetricsForDate("alice", date).getSteps());
+            assertNull(scoreDao.getMetricsForDate("alice", date.plusDays(1)));
+
+            scoreDao.saveDailyHealthScore(new DailyHealthScoreOutputData(
+                    date, "alice", 85, "Great job!", metrics));
+            scoreDao.close();
+            JSONObject record = store.read("alice", date);
+            assertEquals(85, record.getInt("score"));
+            assertEquals("Great job!", record.getString("feedback"));
+        }
+    }
+}
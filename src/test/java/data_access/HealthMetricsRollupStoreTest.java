@@ -0,0 +1,88 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.junit.jupiter.api.Test;
+import use_case.healthHistory.healthHistoryAggregation;
+import use_case.healthHistory.healthHistoryMetric;
+import use_case.healthHistory.healthMetricRollup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the incrementally maintained HealthMetricsRollupStore.
+ */
+class HealthMetricsRollupStoreTest {
+
+    // Monday
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private static HealthMetrics day(int offset, int calories) {
+        return new HealthMetrics("alice", START.plusDays(offset), 7.0, 5000, 2.0, 30.0, calories);
+    }
+
+    @Test
+    void testIncrementalRollupsMatchFullAggregation() {
+        HealthMetricsRollupStore store = new HealthMetricsRollupStore();
+        List<HealthMetrics> history = new ArrayList<>();
+        for (int offset = 0; offset < 10; offset++) {
+            history.add(day(offset, 1000 + 100 * offset));
+        }
+        store.load("alice", history.subList(0, 5));
+        for (HealthMetrics metrics : history.subList(5, 10)) {
+            store.record(metrics);
+        }
+
+        List<healthMetricRollup> weeks = store.query("alice", healthHistoryMetric.CALORIES,
+                healthHistoryAggregation.WEEK, START, LocalDate.MAX);
+        List<healthMetricRollup> expected = healthMetricRollup.aggregate(history, healthHistoryMetric.CALORIES,
+                healthHistoryAggregation.WEEK);
+        assertEquals(2, weeks.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getBucketStart(), weeks.get(i).getBucketStart());
+            assertEquals(expected.get(i).getCount(), weeks.get(i).getCount());
+            assertEquals(expected.get(i).getSum(), weeks.get(i).getSum(), 0.001);
+            assertEquals(expected.get(i).getMin(), weeks.get(i).getMin(), 0.001);
+            assertEquals(expected.get(i).getMax(), weeks.get(i).getMax(), 0.001);
+        }
+        assertEquals(1300.0, weeks.get(0).getAverage(), 0.001);
+
+        List<healthMetricRollup> days = store.query("alice", healthHistoryMetric.CALORIES,
+                healthHistoryAggregation.DAY, START.plusDays(8), LocalDate.MAX);
+        assertEquals(2, days.size());
+        assertEquals(1900.0, days.get(1).getSum(), 0.001);
+    }
+
+    @Test
+    void testResavedDayRebuildsItsBuckets() {
+        HealthMetricsRollupStore store = new HealthMetricsRollupStore();
+        store.load("alice", List.of(day(0, 3000), day(1, 1000), day(40, 2000)));
+
+        // Lower the old maximum; it cannot simply be subtracted out
+        store.record(day(0, 500));
+
+        healthMetricRollup month = store.query("alice", healthHistoryMetric.CALORIES,
+                healthHistoryAggregation.MONTH, START, START).get(0);
+        assertEquals(2, month.getCount());
+        assertEquals(1000.0, month.getMax(), 0.001);
+        assertEquals(500.0, month.getMin(), 0.001);
+
+        healthMetricRollup year = store.query("alice", healthHistoryMetric.CALORIES,
+                healthHistoryAggregation.YEAR, START.plusDays(100), LocalDate.MAX).get(0);
+        assertEquals(3, year.getCount());
+        assertEquals(3500.0, year.getSum(), 0.001);
+    }
+
+    @Test
+    void testUnloadedUserIsSkippedUntilLoaded() {
+        HealthMetricsRollupStore store = new HealthMetricsRollupStore();
+        store.record(day(0, 1000));
+
+        assertFalse(store.isLoaded("alice"));
+        assertTrue(store.query("alice", healthHistoryMetric.CALORIES,
+                healthHistoryAggregation.YEAR, START, LocalDate.MAX).isEmpty());
+    }
+}
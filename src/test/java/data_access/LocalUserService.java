@@ -0,0 +1,164 @@
+package data_access;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory stand-in for the user service DBUserDataAccessObject talks to, served by the
+ * JDK's embedded HTTP server on a free local port. It speaks the same JSON protocol
+ * (a "status_code" field in every body) and counts the distinct client connections it has
+ * seen, so tests and benchmarks can check that connections are reused.
+ */
+public class LocalUserService implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    public LocalUserService() throws IOException {
+        this(0);
+    }
+
+    /**
+     * @param latencyMillis delay added to every response, to simulate a remote service
+     */
+    public LocalUserService(long latencyMillis) throws IOException {
+        // The JDK server writes headers and body separately; without TCP_NODELAY, Nagle's
+        // algorithm and delayed ACKs add ~40 ms to every response on a kept-alive connection
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(16);
+        server.setExecutor(executor);
+        server.createContext("/user", this::handleUser);
+        server.createContext("/checkIfUserExists", this::handleExists);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of distinct client connections that have sent requests
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public void addUser(String username, String password) {
+        passwords.put(username, password);
+    }
+
+    public String getPassword(String username) {
+        return passwords.get(username);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleUser(HttpExchange exchange) throws IOException {
+        connections.add(exchange.getRemoteAddress());
+        JSONObject response = new JSONObject();
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                String username = queryParameter(exchange, "username");
+                String password = username == null ? null : passwords.get(username);
+                if (password == null) {
+                    response.put("status_code", 404).put("message", "User not found");
+                } else {
+                    response.put("status_code", 200)
+                            .put("user", new JSONObject().put("username", username).put("password", password));
+                }
+            }
+            case "POST" -> {
+                JSONObject body = readBody(exchange);
+                if (passwords.putIfAbsent(body.getString("username"), body.getString("password")) == null) {
+                    response.put("status_code", 200).put("message", "User created");
+                } else {
+                    response.put("status_code", 400).put("message", "User already exists");
+                }
+            }
+            case "PUT" -> {
+                JSONObject body = readBody(exchange);
+                if (passwords.replace(body.getString("username"), body.getString("password")) != null) {
+                    response.put("status_code", 200).put("message", "Password updated");
+                } else {
+                    response.put("status_code", 404).put("message", "User not found");
+                }
+            }
+            default -> response.put("status_code", 405).put("message", "Method not allowed");
+        }
+        send(exchange, response);
+    }
+
+    private void handleExists(HttpExchange exchange) throws IOException {
+        connections.add(exchange.getRemoteAddress());
+        String username = queryParameter(exchange, "username");
+        JSONObject response = username != null && passwords.containsKey(username)
+                ? new JSONObject().put("status_code", 200).put("message", "User exists")
+                : new JSONObject().put("status_code", 404).put("message", "User does not exist");
+        send(exchange, response);
+    }
+
+    private void send(HttpExchange exchange, JSONObject response) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        // The service always answers 200 and reports errors in the body's status_code
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JSONObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package data_access;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the users.csv row index used by the lazy FileUserDataAccessObject.
+ */
+class UsersCsvIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFindsLastRowForEachUsername() throws Exception {
+        StringBuilder content = new StringBuilder("username,password,age,height,weight\r\n");
+        for (int i = 0; i < 5000; i++) {
+            content.append("user").append(i).append(",pw,20,170,60\r\n");
+        }
+        content.append("user42,new,21,170,60");
+        Path csv = write(content.toString());
+
+        try (UsersCsvIndex index = UsersCsvIndex.open(csv)) {
+            assertEquals(5000, index.size());
+            assertEquals("user42,new,21,170,60", index.find("user42"));
+            assertEquals("user4999,pw,20,170,60", index.find("user4999"));
+            assertNull(index.find("user5000"));
+            assertNull(index.find("user"));
+            assertEquals("user0", index.firstUsername());
+        }
+    }
+
+    @Test
+    void testSavedIndexIsReusedUntilTheCsvChanges() throws Exception {
+        Path csv = write("username,password,age,height,weight\nalice,pw,30,170,60\n");
+        try (UsersCsvIndex index = UsersCsvIndex.open(csv)) {
+            assertFalse(index.isLoadedFromFile());
+        }
+        try (UsersCsvIndex index = UsersCsvIndex.open(csv)) {
+            assertTrue(index.isLoadedFromFile());
+            assertEquals("alice,pw,30,170,60", index.find("alice"));
+        }
+
+        Files.writeString(csv, "username,password,age,height,weight\nalice,pw,30,170,60\nbob,pw,40,180,80\n");
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 1000));
+        try (UsersCsvIndex index = UsersCsvIndex.open(csv)) {
+            assertFalse(index.isLoadedFromFile());
+            assertEquals("bob,pw,40,180,80", index.find("bob"));
+        }
+    }
+
+    @Test
+    void testLiveRowsSkipSupersededRows() throws Exception {
+        Path csv = write("username,password,age,height,weight\n"
+                + "alice,pw,30,170,60\nbob,pw,40,180,80\nalice,new,31,170,60\n\n");
+
+        List<String> rows = new ArrayList<>();
+        try (UsersCsvIndex index = UsersCsvIndex.open(csv)) {
+            index.forEachLiveRow((username, row) -> rows.add(username + ":" + row));
+        }
+
+        assertEquals(List.of("bob:bob,pw,40,180,80", "alice:alice,new,31,170,60"), rows);
+    }
+
+    @Test
+    void testWrongHeaderIsRejected() throws Exception {
+        Path csv = write("name,password\nalice,pw\n");
+
+        assertThrows(RuntimeException.class, () -> UsersCsvIndex.open(csv));
+    }
+
+    private Path write(String content) throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.writeString(csv, content);
+        return csv;
+    }
+}
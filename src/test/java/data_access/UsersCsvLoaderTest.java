@@ -0,0 +1,119 @@
+package data_access;
+
+import Entities.User;
+import Entities.UserFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the memory-mapped users.csv loader.
+ */
+class UsersCsvLoaderTest {
+
+    private final UserFactory userFactory = new UserFactory();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testParsesRowsAndLaterRowsWin() throws Exception {
+        Path csv = write("username,password,age,height,weight\n"
+                + "alice,pw,30,170,60\n"
+                + "bob,secret,0,0,0\r\n"
+                + "\n"
+                + "alice,new,31,171,61");
+
+        UsersCsvLoader.Result result = UsersCsvLoader.load(csv, userFactory, false);
+
+        Map<String, User> users = result.getUsers();
+        assertEquals(2, users.size());
+        assertEquals(3, result.getRowCount());
+        assertEquals("new", users.get("alice").getPassword());
+        assertEquals(31, users.get("alice").getAge());
+        assertEquals(171, users.get("alice").getHeight());
+        assertEquals(61, users.get("alice").getWeight());
+        assertEquals("secret", users.get("bob").getPassword());
+        assertTrue(result.getLoadMillis() >= 0);
+    }
+
+    @Test
+    void testReadingIntoTheHeapMatchesTheMapping() throws Exception {
+        Path csv = write("username,password,age,height,weight\nalice,pw,30,170,60\n");
+
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            ByteBuffer mapped = UsersCsvLoader.contents(channel, true);
+            ByteBuffer heap = UsersCsvLoader.contents(channel, false);
+            assertFalse(heap.isDirect());
+            assertEquals(mapped, heap);
+        }
+    }
+
+    @Test
+    void testParallelLoadMatchesSequential() throws Exception {
+        StringBuilder csv = new StringBuilder("username,password,age,height,weight\n");
+        // Enough rows to pass the parallel threshold, with every user appearing twice
+        int users = 40_000;
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < users; i++) {
+                csv.append("user").append(i).append(",pw").append(round).append(',')
+                        .append(i % 100).append(',').append(150 + i % 50).append(',').append(round).append('\n');
+            }
+        }
+        Path file = write(csv.toString());
+        assertTrue(Files.size(file) >= UsersCsvLoader.PARALLEL_THRESHOLD_BYTES);
+
+        Map<String, User> sequential = UsersCsvLoader.load(file, userFactory, false).getUsers();
+        UsersCsvLoader.Result parallel = UsersCsvLoader.load(file, userFactory, true);
+
+        assertEquals(2 * users, parallel.getRowCount());
+        assertEquals(users, parallel.getUsers().size());
+        for (User expected : sequential.values()) {
+            User actual = parallel.getUsers().get(expected.getName());
+            assertEquals("pw1", actual.getPassword());
+            assertEquals(expected.getAge(), actual.getAge());
+            assertEquals(expected.getHeight(), actual.getHeight());
+            assertEquals(1, actual.getWeight());
+        }
+    }
+
+    @Test
+    void testNonAsciiNamesAreDecoded() throws Exception {
+        Path csv = write("username,password,age,height,weight\nzoë,pässwörd,20,160,50\n");
+
+        User user = UsersCsvLoader.load(csv, userFactory).getUsers().get("zoë");
+
+        assertEquals("pässwörd", user.getPassword());
+    }
+
+    @Test
+    void testWrongHeaderIsRejected() throws Exception {
+        Path csv = write("name,password\nalice,pw\n");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> UsersCsvLoader.load(csv, userFactory));
+        assertTrue(e.getMessage().contains("name,password"));
+    }
+
+    @Test
+    void testMalformedRowIsRejected() throws Exception {
+        Path csv = write("username,password,age,height,weight\nalice,pw,thirty,170,60\n");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> UsersCsvLoader.load(csv, userFactory));
+        assertTrue(e.getMessage().contains("alice,pw,thirty,170,60"));
+    }
+
+    private Path write(String content) throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.write(csv, content.getBytes(StandardCharsets.UTF_8));
+        return csv;
+    }
+}
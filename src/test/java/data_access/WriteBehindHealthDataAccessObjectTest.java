@@ -0,0 +1,230 @@
+package data_access;
+
+import Entities.HealthMetrics;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import use_case.daily_health_score.DailyHealthScoreOutputData;
+import use_case.healthHistory.healthHistoryInteractor;
+import use_case.healthHistory.healthHistoryOutputBoundary;
+import use_case.healthHistory.healthHistoryOutputData;
+import use_case.healthHistory.healthMetricRecord;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the write-behind health metrics cache.
+ */
+class WriteBehindHealthDataAccessObjectTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 11, 24);
+
+    @Test
+    void testReadsAreServedFromCacheBeforeFlush() {
+        MockRecordStore store = new MockRecordStore();
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 100, 60_000);
+
+        dao.saveHealthMetrics(new HealthMetrics("alice", DAY, 7.0, 8000, 2.0, 30.0, 2000));
+
+        assertEquals(0, store.batches.size(), "Nothing should be written yet");
+        assertEquals(8000, dao.getMetricsForDate("alice", DAY).getSteps());
+        assertEquals(1, dao.getHealthMetricsByUser("alice").size());
+        assertEquals(DAY, dao.getLatestMetrics("alice").getDate());
+        dao.close();
+    }
+
+    @Test
+    void testRepeatedSavesAreCoalescedIntoOneBatch() {
+        MockRecordStore store = new MockRecordStore();
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 100, 60_000);
+
+        dao.saveHealthMetrics(new HealthMetrics("alice", DAY, 7.0, 1000, 2.0, 30.0, 2000));
+        dao.saveHealthMetrics(new HealthMetrics("alice", DAY, 7.0, 2000, 2.0, 30.0, 2000));
+        dao.saveDailyHealthScore(new DailyHealthScoreOutputData(DAY, "alice", 80, "Nice",
+                new HealthMetrics("alice", DAY, 7.0, 2000, 2.0, 30.0, 2000)));
+        dao.close();
+
+        assertEquals(1, store.batches.size(), "Close should flush a single batch");
+        assertEquals(1, store.batches.get(0).size(), "Saves of the same day should be coalesced");
+        JSONObject stored = store.records.get("alice" + '\u0000' + DAY);
+        assertEquals(2000, stored.getInt("steps"));
+        assertEquals(80, stored.getInt("score"));
+    }
+
+    @Test
+    void testBatchSizeTriggersBackgroundFlush() throws Exception {
+        MockRecordStore store = new MockRecordStore();
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 3, 60_000);
+
+        for (int i = 0; i < 3; i++) {
+            dao.saveHealthMetrics(new HealthMetrics("alice", DAY.plusDays(i), 7.0, 8000, 2.0, 30.0, 2000));
+        }
+
+        waitFor(() -> store.records.size() == 3);
+        assertEquals(0, dao.getPendingCount());
+        dao.close();
+    }
+
+    @Test
+    void testMaxDelayTriggersBackgroundFlush() throws Exception {
+        MockRecordStore store = new MockRecordStore();
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 100, 50);
+
+        dao.saveHealthMetrics(new HealthMetrics("alice", DAY, 7.0, 8000, 2.0, 30.0, 2000));
+
+        waitFor(() -> store.records.size() == 1);
+        dao.close();
+    }
+
+    @Test
+    void testFailedBackgroundFlushIsRetriedWithoutFurtherSaves() throws Exception {
+        MockRecordStore store = new MockRecordStore();
+        store.failuresLeft = 2;
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 1, 10);
+
+        dao.saveHealthMetrics(new HealthMetrics("alice", DAY, 7.0, 8000, 2.0, 30.0, 2000));
+
+        waitFor(() -> store.records.size() == 1);
+        assertEquals(0, store.failuresLeft);
+        assertEquals(0, dao.getPendingCount());
+        dao.close();
+    }
+
+    @Test
+    void testLeastRecentlyUsedUserIsDroppedWithoutLosingUnwrittenSaves() {
+        MockRecordStore store = new MockRecordStore();
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 100, 60_000, 2);
+
+        dao.saveHealthMetrics(new HealthMetrics("alice", DAY, 7.0, 8000, 2.0, 30.0, 2000));
+        dao.getHealthMetricsByUser("bob");
+        dao.getHealthMetricsByUser("carol");
+        assertEquals(2, dao.getCachedUserCount());
+
+        // alice was dropped before her save reached the store
+        assertTrue(store.records.isEmpty());
+        assertEquals(8000, dao.getMetricsForDate("alice", DAY).getSteps());
+        assertEquals(2, dao.getCachedUserCount());
+        dao.close();
+        assertEquals(1, store.records.size());
+    }
+
+    @Test
+    void testRangeReadOfUncachedUserReadsOnlyTheRangeFromTheStore() {
+        MockRecordStore store = new MockRecordStore();
+        for (int i = 0; i < 10; i++) {
+            store.records.put("alice" + '\u0000' + DAY.plusDays(i), HealthMetricsJsonCodec.toJson(
+                    new HealthMetrics("alice", DAY.plusDays(i), 7.0, i, 2.0, 30.0, 2000)));
+        }
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 100, 60_000, 1);
+
+        // Drop alice from the cache while her save is still pending
+        dao.saveHealthMetrics(new HealthMetrics("alice", DAY.plusDays(3), 7.0, 300, 2.0, 30.0, 2000));
+        dao.getHealthMetricsByUser("bob");
+
+        List<HealthMetrics> range = dao.getHealthMetricsByUser("alice", DAY.plusDays(2), DAY.plusDays(4));
+        assertEquals(1, store.rangeReads);
+        assertEquals(3, range.size());
+        assertEquals(300, range.get(1).getSteps(), "Pending saves should be merged into store reads");
+        assertEquals(1, dao.getCachedUserCount());
+        dao.close();
+    }
+
+    @Test
+    void testYearChartIsServedFromRollups() {
+        MockRecordStore store = new MockRecordStore();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i <= 400; i++) {
+            LocalDate date = today.minusDays(i);
+            store.records.put("alice" + '\u0000' + date, HealthMetricsJsonCodec.toJson(
+                    new HealthMetrics("alice", date, 7.0, 8000, 2.0, 30.0, 2000)));
+        }
+        AtomicInteger dailyRecordsRead = new AtomicInteger();
+        WriteBehindHealthDataAccessObject dao = new WriteBehindHealthDataAccessObject(null, store, 100, 60_000) {
+            @Override
+            public synchronized List<HealthMetrics> getHealthMetricsByUser(String userId, LocalDate from, LocalDate to) {
+                List<HealthMetrics> range = super.getHealthMetricsByUser(userId, from, to);
+                dailyRecordsRead.addAndGet(range.size());
+                return range;
+            }
+        };
+        List<healthHistoryOutputData> charts = new ArrayList<>();
+        healthHistoryInteractor interactor = new healthHistoryInteractor(dao, new healthHistoryOutputBoundary() {
+            @Override
+            public void prepareSuccessView(healthHistoryOutputData outputData) {
+                charts.add(outputData);
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                fail(errorMessage);
+            }
+        });
+
+        // The desktop history view charts a year as weekly averages
+        interactor.fetchHistory("calories", "year", "alice", "week");
+
+        List<healthMetricRecord> points = charts.get(0).getRecords();
+        assertTrue(points.size() >= 52 && points.size() <= 54, "One point per week, got " + points.size());
+        for (healthMetricRecord point : points) {
+            assertEquals(2000, point.getValue(), 1e-9);
+        }
+        assertTrue(dailyRecordsRead.get() <= 7,
+                "Only the clipped first week should be read as daily records, got " + dailyRecordsRead.get());
+        dao.close();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for flush");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * In-memory HealthRecordStore recording every batch it receives.
+     */
+    private static class MockRecordStore implements HealthRecordStore {
+        final Map<String, JSONObject> records = new LinkedHashMap<>();
+        final List<List<JSONObject>> batches = new ArrayList<>();
+        volatile int failuresLeft;
+        int rangeReads;
+
+        @Override
+        public synchronized List<JSONObject> readUser(String userId) {
+            List<JSONObject> result = new ArrayList<>();
+            for (JSONObject record : records.values()) {
+                if (record.getString("userId").equals(userId)) {
+                    result.add(record);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized List<JSONObject> readUser(String userId, LocalDate from, LocalDate to) {
+            rangeReads++;
+            return HealthRecordStore.super.readUser(userId, from, to);
+        }
+
+        @Override
+        public synchronized void writeAll(Collection<JSONObject> batch) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new RuntimeException("disk full");
+            }
+            batches.add(new ArrayList<>(batch));
+            for (JSONObject record : batch) {
+                records.put(record.getString("userId") + '\u0000' + record.getString("date"), record);
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package services;
+
+import Entities.HealthMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import interface_adapter.daily_health_score.GeminiHealthScoreCalculator;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import use_case.daily_health_score.HealthScoreResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the real GeminiAPIService against a local stand-in for the generateContent and
+ * streamGenerateContent endpoints that holds every request until the test releases it.
+ */
+class GeminiAPIServiceClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile String answer = "80";
+    private volatile List<String> streamedChunks;
+    private volatile CountDownLatch restOfStream = new CountDownLatch(0);
+    private volatile JSONObject lastRequest;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/model", this::handleModel);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleModel(HttpExchange exchange) throws IOException {
+        lastRequest = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        requests.incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (exchange.getRequestURI().getPath().endsWith(":streamGenerateContent")) {
+            handleStream(exchange);
+            return;
+        }
+        byte[] bytes = candidate(answer).toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Sends the answer as server-sent events, one per chunk, holding everything after the
+     * first chunk until {@link #restOfStream} is released.
+     */
+    private void handleStream(HttpExchange exchange) throws IOException {
+        List<String> chunks = streamedChunks != null ? streamedChunks : List.of(answer);
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < chunks.size(); i++) {
+                if (i == 1) {
+                    try {
+                        restOfStream.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                out.write(("data: " + candidate(chunks.get(i)) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    private static JSONObject candidate(String text) {
+        JSONObject part = new JSONObject().put("text", text);
+        JSONObject content = new JSONObject().put("parts", new JSONArray().put(part));
+        return new JSONObject().put("candidates", new JSONArray().put(new JSONObject().put("content", content)));
+    }
+
+    private GeminiAPIService service(GeminiClientSettings settings) {
+        return service(settings, null);
+    }
+
+    private GeminiAPIService service(GeminiClientSettings settings, GeminiResponseCache cache) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/model";
+        return new GeminiAPIService(settings, cache, "test-key", url);
+    }
+
+    @Test
+    void testCallsBeyondThePerHostLimitAreQueued() throws Exception {
+        GeminiAPIService service = service(new GeminiClientSettings(5_000, 5_000, 5_000, 0, 64, 2));
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Integer>> scores = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                scores.add(callers.submit(() -> service.calculateHealthScore(8, 30, 2200, 2.5, 9000)));
+            }
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while ((service.getInFlightRequestCount() < 2 || service.getQueuedRequestCount() < 3)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, service.getInFlightRequestCount());
+            assertEquals(3, service.getQueuedRequestCount());
+
+            release.countDown();
+            for (Future<Integer> score : scores) {
+                assertEquals(80, score.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(0, service.getQueuedRequestCount());
+            assertEquals(5, service.getEndpointMetrics().getCallCount("POST generateContent"));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReadTimeoutFailsTheCall() {
+        GeminiAPIService service = service(new GeminiClientSettings(5_000, 200, 5_000, 0, 64, 16));
+
+        Exception e = assertThrows(Exception.class,
+                () -> service.generateHealthFeedback(8, 30, 2200, 2.5, 9000, 80));
+        assertTrue(e instanceof IOException, e.toString());
+        assertEquals(1, service.getEndpointMetrics().getErrorCount("POST generateContent"));
+    }
+
+    @Test
+    void testIdenticalInsightsRequestsShareOneCall() throws Exception {
+        GeminiAPIService service = service(GeminiClientSettings.defaults());
+        BlockingQueue<String> delivered = new LinkedBlockingQueue<>();
+        GeminiAPIService.InsightsCallback callback = new GeminiAPIService.InsightsCallback() {
+            @Override
+            public void onSuccess(String insights) {
+                delivered.add(insights);
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                delivered.add("error: " + errorMessage);
+            }
+        };
+
+        service.getHealthInsightsAsync("same data", callback, Runnable::run);
+        service.getHealthInsightsAsync("same data", callback, Runnable::run);
+        release.countDown();
+
+        assertEquals("80", delivered.poll(5, TimeUnit.SECONDS));
+        assertEquals("80", delivered.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, service.getCoalescedInsightsCount());
+        assertEquals(1, service.getEndpointMetrics().getCallCount("POST streamGenerateContent"));
+    }
+
+    @Test
+    void testInsightsAreDeliveredChunkByChunkAsTheyStream() throws Exception {
+        GeminiAPIService service = service(GeminiClientSettings.defaults());
+        streamedChunks = List.of("Sleep ", "more.");
+        restOfStream = new CountDownLatch(1);
+        BlockingQueue<String> delivered = new LinkedBlockingQueue<>();
+        service.getHealthInsightsAsync("week of data", new GeminiAPIService.InsightsCallback() {
+            @Override
+            public void onChunk(String chunk) {
+                delivered.add("chunk: " + chunk);
+            }
+
+            @Override
+            public void onSuccess(String insights) {
+                delivered.add(insights);
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                delivered.add("error: " + errorMessage);
+            }
+        }, Runnable::run);
+        release.countDown();
+
+        // The first chunk arrives while the server is still holding the rest of the answer
+        assertEquals("chunk: Sleep ", delivered.poll(5, TimeUnit.SECONDS));
+        assertNull(delivered.poll(100, TimeUnit.MILLISECONDS));
+        restOfStream.countDown();
+
+        assertEquals("chunk: more.", delivered.poll(5, TimeUnit.SECONDS));
+        assertEquals("Sleep more.", delivered.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, service.getEndpointMetrics().getCallCount("POST streamGenerateContent"));
+        assertEquals(0, service.getEndpointMetrics().getCallCount("POST generateContent"));
+    }
+
+    @Test
+    void testRepeatedScoreIsAnsweredFromTheCache() throws Exception {
+        release.countDown();
+        GeminiResponseCache cache = new GeminiResponseCache();
+        GeminiAPIService service = service(GeminiClientSettings.defaults(), cache);
+
+        assertEquals(80, service.calculateHealthScore(8, 30, 2200, 2.5, 9000));
+        assertEquals(80, service.calculateHealthScore(8, 30, 2200, 2.5, 9000));
+        assertEquals(80, service.calculateHealthScore(7, 30, 2200, 2.5, 9000));
+
+        assertEquals(2, service.getEndpointMetrics().getCallCount("POST generateContent"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testScoreAndFeedbackComeFromOneSchemaCall() throws Exception {
+        release.countDown();
+        answer = "```json\n{\"score\": 82, \"feedback\": \"Great sleep; add a walk.\"}\n```";
+        GeminiAPIService service = service(GeminiClientSettings.defaults());
+
+        GeminiAPIService.ScoreAndFeedback result = service.calculateHealthScoreWithFeedback(8, 30, 2200, 2.5, 9000);
+
+        assertEquals(82, result.getScore());
+        assertEquals("Great sleep; add a walk.", result.getFeedback());
+        assertEquals(1, service.getEndpointMetrics().getCallCount("POST generateContent"));
+        JSONObject config = lastRequest.getJSONObject("generationConfig");
+        assertEquals("application/json", config.getString("responseMimeType"));
+        assertEquals("INTEGER", config.getJSONObject("responseSchema")
+                .getJSONObject("properties").getJSONObject("score").getString("type"));
+    }
+
+    @Test
+    void testCombinedAnswersAreParsedStrictly() {
+        assertEquals(85, GeminiAPIService.parseScoreAndFeedback("{\"score\": \"85.0\", \"feedback\": \"Ok\"}").getScore());
+        assertThrows(IllegalArgumentException.class,
+                () -> GeminiAPIService.parseScoreAndFeedback("{\"score\": 101, \"feedback\": \"Ok\"}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> GeminiAPIService.parseScoreAndFeedback("{\"score\": 80, \"feedback\": \" \"}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> GeminiAPIService.parseScoreAndFeedback("Your score is 80."));
+    }
+
+    @Test
+    void testCalculatorFallsBackToSeparateCallsWhenTheCombinedAnswerIsUnusable() throws Exception {
+        release.countDown();
+        GeminiAPIService service = service(GeminiClientSettings.defaults());
+        GeminiHealthScoreCalculator calculator = new GeminiHealthScoreCalculator(service, true);
+        HealthMetrics metrics = new HealthMetrics("user", LocalDate.of(2025, 11, 24), 8, 9000, 2.5, 30, 2200);
+
+        // The stub answers "80", which is a valid score but not a combined JSON answer
+        HealthScoreResult result = calculator.calculateScoreWithFeedback(metrics);
+
+        assertTrue(calculator.scoresWithFeedback());
+        assertEquals(80, result.getScore());
+        assertEquals("80", result.getFeedback());
+        assertEquals(3, service.getEndpointMetrics().getCallCount("POST generateContent"));
+    }
+
+    @Test
+    void testInterruptedCalculatorMakesNoFallbackCalls() throws Exception {
+        GeminiAPIService service = service(GeminiClientSettings.defaults());
+        GeminiHealthScoreCalculator calculator = new GeminiHealthScoreCalculator(service, true);
+        HealthMetrics metrics = new HealthMetrics("user", LocalDate.of(2025, 11, 24), 8, 9000, 2.5, 30, 2200);
+        CompletableFuture<Throwable> thrown = new CompletableFuture<>();
+        Thread caller = new Thread(() -> {
+            try {
+                calculator.calculateScoreWithFeedback(metrics);
+                thrown.complete(null);
+            } catch (Throwable t) {
+                thrown.complete(t);
+            }
+        });
+        caller.start();
+        while (requests.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        caller.interrupt();
+
+        assertTrue(thrown.get(5, TimeUnit.SECONDS) instanceof InterruptedException);
+        release.countDown();
+        Thread.sleep(100);
+        assertEquals(1, requests.get(), "No separate score or feedback call should follow an interrupt");
+    }
+}
@@ -3,6 +3,7 @@ package services;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.Executor;
 
 class GeminiAPIServiceTest {
 
@@ -36,7 +37,7 @@ class GeminiAPIServiceTest {
         MockGeminiAPIService mockService = new MockGeminiAPIService();
 
         TestInsightsCallback callback = new TestInsightsCallback();
-        mockService.getHealthInsightsAsync("test data", callback);
+        mockService.getHealthInsightsAsync("test data", callback, Runnable::run);
 
         try {
             Thread.sleep(100);
@@ -55,7 +56,7 @@ class GeminiAPIServiceTest {
         mockService.setShouldThrowException(true);
 
         TestInsightsCallback callback = new TestInsightsCallback();
-        mockService.getHealthInsightsAsync("test data", callback);
+        mockService.getHealthInsightsAsync("test data", callback, Runnable::run);
 
         try {
             Thread.sleep(100);
@@ -122,7 +123,7 @@ class MockGeminiAPIService extends GeminiAPIService {
     }
 
     @Override
-    public void getHealthInsightsAsync(String healthData, InsightsCallback callback) {
+    public void getHealthInsightsAsync(String healthData, InsightsCallback callback, Executor callbackExecutor) {
         if (shouldThrowException) {
             callback.onError("Test exception");
         } else {
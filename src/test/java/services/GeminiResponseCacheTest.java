@@ -0,0 +1,84 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiResponseCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void testKeyDependsOnEveryInput() {
+        String key = GeminiResponseCache.key(1, "score", 8.0, 30.0, 2200, 2.5, 9000);
+        assertEquals(key, GeminiResponseCache.key(1, "score", 8.0, 30.0, 2200, 2.5, 9000));
+        assertEquals(64, key.length());
+        assertNotEquals(key, GeminiResponseCache.key(2, "score", 8.0, 30.0, 2200, 2.5, 9000));
+        assertNotEquals(key, GeminiResponseCache.key(1, "feedback", 8.0, 30.0, 2200, 2.5, 9000));
+        assertNotEquals(key, GeminiResponseCache.key(1, "score", 8.0, 30.0, 2200, 2.5, 9001));
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        GeminiResponseCache cache = new GeminiResponseCache(10, 1_000, null, clock::get);
+        cache.put("a", "80");
+
+        clock.addAndGet(999);
+        assertEquals("80", cache.get("a"));
+        clock.addAndGet(1);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        GeminiResponseCache cache = new GeminiResponseCache(2, 1_000, null, clock::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    void testUnexpiredEntriesSurviveARestart() {
+        Path file = tempDir.resolve("gemini-cache.jsonl");
+        GeminiResponseCache cache = new GeminiResponseCache(10, 1_000, file, clock::get);
+        cache.put("old", "70");
+        clock.addAndGet(500);
+        cache.put("new", "Keep walking.");
+
+        clock.addAndGet(600);
+        GeminiResponseCache reopened = new GeminiResponseCache(10, 1_000, file, clock::get);
+        assertNull(reopened.get("old"));
+        assertEquals("Keep walking.", reopened.get("new"));
+    }
+
+    @Test
+    void testFileIsRewrittenOnceItOutgrowsTheCache() throws IOException {
+        Path file = tempDir.resolve("gemini-cache.jsonl");
+        GeminiResponseCache cache = new GeminiResponseCache(2, 1_000, file, clock::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put("k" + i, Integer.toString(i));
+        }
+
+        assertEquals(2, Files.readAllLines(file).size());
+        GeminiResponseCache reopened = new GeminiResponseCache(2, 1_000, file, clock::get);
+        assertEquals("4", reopened.get("k4"));
+        assertEquals("3", reopened.get("k3"));
+    }
+}
@@ -0,0 +1,95 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallsForTheSameKeyShareOneExecution() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(callers.submit(() -> flight.call("day", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                release.await();
+                return 80;
+            })));
+            started.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> flight.call("day", () -> {
+                    executions.incrementAndGet();
+                    return -1;
+                })));
+            }
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (flight.getCoalescedCount() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(80, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(1, flight.getCallCount());
+            assertEquals(3, flight.getCoalescedCount());
+            assertEquals(0, flight.getInFlightCount());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testKeyIsFreedOnceTheCallCompletes() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        assertEquals(1, flight.call("day", () -> 1));
+        assertEquals(2, flight.call("day", () -> 2));
+        assertEquals(2, flight.getCallCount());
+        assertEquals(0, flight.getCoalescedCount());
+    }
+
+    @Test
+    void testFailureIsThrownAndKeyIsFreed() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        Exception e = assertThrows(IllegalStateException.class,
+                () -> flight.call("day", () -> { throw new IllegalStateException("quota"); }));
+        assertEquals("quota", e.getMessage());
+        assertEquals(7, flight.call("day", () -> 7));
+    }
+
+    @Test
+    void testAsyncCallsShareTheInFlightFuture() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> response = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        CompletableFuture<String> first = flight.execute("data", () -> {
+            executions.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> second = flight.execute("data", () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        // A waiter giving up does not cancel the shared call
+        second.cancel(true);
+        response.complete("insights");
+
+        assertEquals("insights", first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(1, flight.getCoalescedCount());
+        assertEquals(0, flight.getInFlightCount());
+    }
+}
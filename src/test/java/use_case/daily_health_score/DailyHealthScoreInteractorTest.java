@@ -3,6 +3,12 @@ package use_case.daily_health_score;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import Entities.HealthMetrics;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -163,12 +169,97 @@ class DailyHealthScoreInteractorTest {
 
     // ==================== Mock Classes ====================
 
+    @Test
+    void testFeedbackIsGeneratedInParallelWithTheScore() throws Exception {
+        LocalDate testDate = LocalDate.of(2025, 11, 24);
+        HealthMetrics metrics = new HealthMetrics("testUser", testDate, 7.0, 8000, 2.5, 30.0, 2000);
+        mockDataAccess.setMetricsToReturn(metrics);
+        mockCalculator.setEstimateToReturn(70);
+        mockCalculator.setScoreToReturn(85);
+        mockCalculator.setFeedbackToReturn("Great job! Keep it up.");
+        // The score only completes once feedback generation has started
+        CountDownLatch feedbackStarted = new CountDownLatch(1);
+        mockCalculator.setScoreGate(feedbackStarted);
+        mockCalculator.setFeedbackStarted(feedbackStarted);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new DailyHealthScoreInteractor(mockDataAccess, mockPresenter, mockCalculator, executor, Runnable::run)
+                    .execute(new DailyHealthScoreInputData(testDate, "testUser"));
+            assertTrue(mockPresenter.awaitFinalView(5, TimeUnit.SECONDS), "A final view should be presented");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(mockPresenter.isSuccessViewCalled(), "Success view should be called");
+        assertEquals(85, mockPresenter.getOutputData().getScore(), "The remote score should be final");
+        assertFalse(mockPresenter.getOutputData().isScoreEstimated());
+        assertEquals("Great job! Keep it up.", mockPresenter.getOutputData().getFeedback());
+        assertEquals(List.of(70, 85), mockCalculator.getFeedbackScores(),
+                "Feedback should be written for the estimate, then again for the remote score");
+
+        DailyHealthScoreOutputData first = mockPresenter.getPartials().get(0);
+        assertEquals(70, first.getScore(), "The estimate should be presented first");
+        assertTrue(first.isScoreEstimated());
+        assertNull(first.getFeedback());
+        assertEquals(1, mockDataAccess.getSaveCount(), "The score should be saved once");
+    }
+
+    @Test
+    void testCombinedCalculatorIsAskedForScoreAndFeedbackTogether() {
+        LocalDate testDate = LocalDate.of(2025, 11, 24);
+        HealthMetrics metrics = new HealthMetrics("testUser", testDate, 7.0, 8000, 2.5, 30.0, 2000);
+        mockDataAccess.setMetricsToReturn(metrics);
+        mockCalculator.setCombined(true);
+        mockCalculator.setScoreToReturn(85);
+        mockCalculator.setFeedbackToReturn("Great job! Keep it up.");
+
+        interactor.execute(new DailyHealthScoreInputData(testDate, "testUser"));
+
+        assertTrue(mockPresenter.isSuccessViewCalled(), "Success view should be called");
+        assertEquals(85, mockPresenter.getOutputData().getScore());
+        assertEquals("Great job! Keep it up.", mockPresenter.getOutputData().getFeedback());
+        assertEquals(1, mockCalculator.getCombinedCallCount(), "One combined call should be made");
+        assertNull(mockCalculator.getLastMetrics(), "The separate score call should not be made");
+    }
+
+    @Test
+    void testFeedbackMatchesTheRemoteScoreWhenItDiffersFromTheEstimate() {
+        LocalDate testDate = LocalDate.of(2025, 11, 24);
+        mockDataAccess.setMetricsToReturn(new HealthMetrics("testUser", testDate, 7.0, 8000, 2.5, 30.0, 2000));
+        mockCalculator.setEstimateToReturn(70);
+        mockCalculator.setScoreToReturn(85);
+        mockCalculator.setFeedbackToReturn("Why you scored %d.");
+
+        interactor.execute(new DailyHealthScoreInputData(testDate, "testUser"));
+
+        DailyHealthScoreOutputData saved = mockDataAccess.getSavedData();
+        assertEquals(85, saved.getScore(), "The remote score should win");
+        assertEquals("Why you scored 85.", saved.getFeedback(), "The saved feedback should explain the saved score");
+        assertEquals("Why you scored 85.", mockPresenter.getOutputData().getFeedback());
+    }
+
+    @Test
+    void testFeedbackIsNotRewrittenWhenTheEstimateWasRight() {
+        LocalDate testDate = LocalDate.of(2025, 11, 24);
+        mockDataAccess.setMetricsToReturn(new HealthMetrics("testUser", testDate, 7.0, 8000, 2.5, 30.0, 2000));
+        mockCalculator.setEstimateToReturn(85);
+        mockCalculator.setScoreToReturn(85);
+        mockCalculator.setFeedbackToReturn("Why you scored %d.");
+
+        interactor.execute(new DailyHealthScoreInputData(testDate, "testUser"));
+
+        assertEquals(List.of(85), mockCalculator.getFeedbackScores());
+        assertEquals("Why you scored 85.", mockPresenter.getOutputData().getFeedback());
+    }
+
     /**
      * Mock implementation of DailyHealthScoreUserDataAccessInterface for testing.
      */
     private static class MockUserDataAccess implements DailyHealthScoreUserDataAccessInterface {
         private HealthMetrics metricsToReturn;
         private boolean saveCalled = false;
+        private int saveCount = 0;
         private boolean shouldThrowOnSave = false;
         private DailyHealthScoreOutputData savedData;
 
@@ -184,6 +275,14 @@ class DailyHealthScoreInteractorTest {
             return saveCalled;
         }
 
+        public int getSaveCount() {
+            return saveCount;
+        }
+
+        public DailyHealthScoreOutputData getSavedData() {
+            return savedData;
+        }
+
         @Override
         public HealthMetrics getMetricsForDate(String userId, LocalDate date) {
             return metricsToReturn;
@@ -192,6 +291,7 @@ class DailyHealthScoreInteractorTest {
         @Override
         public void saveDailyHealthScore(DailyHealthScoreOutputData scoreData) {
             saveCalled = true;
+            saveCount++;
             savedData = scoreData;
             if (shouldThrowOnSave) {
                 throw new RuntimeException("Save failed");
@@ -208,10 +308,20 @@ class DailyHealthScoreInteractorTest {
      * Mock implementation of DailyHealthScoreOutputBoundary for testing.
      */
     private static class MockPresenter implements DailyHealthScoreOutputBoundary {
-        private boolean successViewCalled = false;
-        private boolean failViewCalled = false;
-        private DailyHealthScoreOutputData outputData;
-        private String errorMessage;
+        private volatile boolean successViewCalled = false;
+        private volatile boolean failViewCalled = false;
+        private volatile DailyHealthScoreOutputData outputData;
+        private volatile String errorMessage;
+        private final List<DailyHealthScoreOutputData> partials = new CopyOnWriteArrayList<>();
+        private final CountDownLatch finalView = new CountDownLatch(1);
+
+        public boolean awaitFinalView(long timeout, TimeUnit unit) throws InterruptedException {
+            return finalView.await(timeout, unit);
+        }
+
+        public List<DailyHealthScoreOutputData> getPartials() {
+            return partials;
+        }
 
         public boolean isSuccessViewCalled() {
             return successViewCalled;
@@ -233,12 +343,19 @@ class DailyHealthScoreInteractorTest {
         public void prepareSuccessView(DailyHealthScoreOutputData data) {
             successViewCalled = true;
             outputData = data;
+            finalView.countDown();
         }
 
         @Override
         public void prepareFailView(String error) {
             failViewCalled = true;
             errorMessage = error;
+            finalView.countDown();
+        }
+
+        @Override
+        public void preparePartialView(DailyHealthScoreOutputData partialData) {
+            partials.add(partialData);
         }
     }
 
@@ -250,6 +367,52 @@ class DailyHealthScoreInteractorTest {
         private String feedbackToReturn;
         private boolean shouldThrowException = false;
         private HealthMetrics lastMetrics;
+        private Integer estimateToReturn;
+        private CountDownLatch scoreGate;
+        private CountDownLatch feedbackStarted;
+        private final List<Integer> feedbackScores = new CopyOnWriteArrayList<>();
+        private boolean combined;
+        private int combinedCallCount;
+
+        public void setCombined(boolean combined) {
+            this.combined = combined;
+        }
+
+        public int getCombinedCallCount() {
+            return combinedCallCount;
+        }
+
+        @Override
+        public boolean scoresWithFeedback() {
+            return combined;
+        }
+
+        @Override
+        public HealthScoreResult calculateScoreWithFeedback(HealthMetrics metrics) {
+            combinedCallCount++;
+            return new HealthScoreResult(scoreToReturn, feedbackToReturn);
+        }
+
+        public void setEstimateToReturn(Integer estimate) {
+            this.estimateToReturn = estimate;
+        }
+
+        public void setScoreGate(CountDownLatch scoreGate) {
+            this.scoreGate = scoreGate;
+        }
+
+        public void setFeedbackStarted(CountDownLatch feedbackStarted) {
+            this.feedbackStarted = feedbackStarted;
+        }
+
+        public List<Integer> getFeedbackScores() {
+            return feedbackScores;
+        }
+
+        @Override
+        public Integer estimateScore(HealthMetrics metrics) {
+            return estimateToReturn;
+        }
 
         public void setScoreToReturn(int score) {
             this.scoreToReturn = score;
@@ -274,15 +437,22 @@ class DailyHealthScoreInteractorTest {
             if (shouldThrowException) {
                 throw new Exception("Calculator failed");
             }
+            if (scoreGate != null && !scoreGate.await(5, TimeUnit.SECONDS)) {
+                throw new Exception("Feedback was not requested while the score was pending");
+            }
             return scoreToReturn;
         }
 
         @Override
         public String generateFeedback(HealthMetrics metrics, int score) throws Exception {
+            feedbackScores.add(score);
+            if (feedbackStarted != null) {
+                feedbackStarted.countDown();
+            }
             if (shouldThrowException) {
                 throw new Exception("Feedback generation failed");
             }
-            return feedbackToReturn;
+            return String.format(feedbackToReturn, score);
         }
     }
 }
@@ -26,4 +26,10 @@ public class HealthHistoryInputDataTest {
         assertEquals("month", input.getTimeRange());
         assertEquals("user2", input.getUser());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAggregationDefaultsToNone() {
+        assertEquals("none", new healthHistoryInputData("calories", "year", "user1").getAggregation());
+        assertEquals("week", new healthHistoryInputData("calories", "year", "user1", "week").getAggregation());
+    }
+}
@@ -1,5 +1,6 @@
 package use_case.healthHistory;
 
+import Entities.HealthMetrics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,9 +12,11 @@ import use_case.healthHistory.healthMetricRecord;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Unit tests for healthHistoryInteractor using the file-based JSON fallback.
@@ -99,6 +102,117 @@ public class HealthHistoryInteractorTest {
         assertTrue(out.getRecords().isEmpty());
     }
 
+    @Test
+    void testDataAccessIsAskedOnlyForTheRange() {
+        MockPresenter presenter = new MockPresenter();
+        MockRangeDataAccess dataAccess = new MockRangeDataAccess();
+        healthHistoryInteractor interactor = new healthHistoryInteractor(dataAccess, presenter);
+
+        interactor.fetchHistory("calories", "month", "user1");
+
+        assertEquals(LocalDate.now().minusMonths(1), dataAccess.requestedFrom);
+        assertEquals(0, dataAccess.fullHistoryReads);
+        List<healthMetricRecord> records = presenter.outputData.getRecords();
+        assertEquals(2, records.size());
+        assertEquals(150.0, records.get(0).getValue(), 0.001);
+    }
+
+    @Test
+    void testWeeklyAggregationAveragesEachWeek() {
+        MockPresenter presenter = new MockPresenter();
+        MockRangeDataAccess dataAccess = new MockRangeDataAccess();
+        healthHistoryInteractor interactor = new healthHistoryInteractor(dataAccess, presenter);
+
+        interactor.execute(new healthHistoryInputData("calories", "year", "user1", "week"));
+
+        List<healthMetricRecord> records = presenter.outputData.getRecords();
+        LocalDate tenDaysAgo = LocalDate.now().minusDays(10);
+        LocalDate threeDaysAgo = LocalDate.now().minusDays(3);
+        healthHistoryAggregation week = healthHistoryAggregation.WEEK;
+        if (week.bucketStart(tenDaysAgo).equals(week.bucketStart(threeDaysAgo))) {
+            assertEquals(1, records.size());
+            assertEquals(175.0, records.get(0).getValue(), 0.001);
+        } else {
+            assertEquals(2, records.size());
+            assertEquals(week.bucketStart(tenDaysAgo), records.get(0).getDate());
+            assertEquals(200.0, records.get(1).getValue(), 0.001);
+        }
+    }
+
+    @Test
+    void testFirstBucketOnlyAveragesDaysInsideTheRange() {
+        LocalDate boundary = LocalDate.now().minusMonths(1);
+        healthHistoryAggregation aggregation = null;
+        for (healthHistoryAggregation candidate : new healthHistoryAggregation[] {
+                healthHistoryAggregation.WEEK, healthHistoryAggregation.MONTH, healthHistoryAggregation.YEAR}) {
+            if (aggregation == null && candidate.bucketStart(boundary.minusDays(1)).equals(candidate.bucketStart(boundary))) {
+                aggregation = candidate;
+            }
+        }
+        assumeTrue(aggregation != null, "The range starts on the first day of a week, month and year");
+
+        MockPresenter presenter = new MockPresenter();
+        MockRangeDataAccess dataAccess = new MockRangeDataAccess(List.of(
+                new HealthMetrics("user1", boundary.minusDays(1), 6.0, 2000, 1.0, 15, 1000),
+                new HealthMetrics("user1", boundary, 7.0, 3000, 1.5, 30, 100)));
+        healthHistoryInteractor interactor = new healthHistoryInteractor(dataAccess, presenter);
+
+        interactor.fetchHistory("calories", "month", "user1", aggregation.name());
+
+        List<healthMetricRecord> records = presenter.outputData.getRecords();
+        assertEquals(1, records.size());
+        assertEquals(aggregation.bucketStart(boundary), records.get(0).getDate());
+        assertEquals(100.0, records.get(0).getValue(), 0.001);
+    }
+
+    @Test
+    void testYearlyAggregationFromJsonFallback() {
+        MockPresenter presenter = new MockPresenter();
+        healthHistoryInteractor interactor = new healthHistoryInteractor(null, presenter);
+
+        interactor.fetchHistory("calories", "year", "user1", "year");
+
+        List<healthMetricRecord> records = presenter.outputData.getRecords();
+        int expectedBuckets = LocalDate.now().minusDays(10).getYear() == LocalDate.now().minusDays(3).getYear() ? 1 : 2;
+        assertEquals(expectedBuckets, records.size());
+        assertEquals(LocalDate.now().minusDays(10).withDayOfYear(1), records.get(0).getDate());
+    }
+
+    private static class MockRangeDataAccess implements healthHistoryUserDataAccessInterface {
+        private final List<HealthMetrics> metrics;
+        int fullHistoryReads = 0;
+        LocalDate requestedFrom;
+
+        MockRangeDataAccess() {
+            this(List.of(
+                    new HealthMetrics("user1", LocalDate.now().minusDays(400), 6.0, 2000, 1.0, 15, 100),
+                    new HealthMetrics("user1", LocalDate.now().minusDays(10), 6.5, 2500, 1.2, 20, 150),
+                    new HealthMetrics("user1", LocalDate.now().minusDays(3), 7.0, 3000, 1.5, 30, 200)));
+        }
+
+        MockRangeDataAccess(List<HealthMetrics> metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public List<HealthMetrics> getHealthMetricsByUser(String userId) {
+            fullHistoryReads++;
+            return metrics;
+        }
+
+        @Override
+        public List<HealthMetrics> getHealthMetricsByUser(String userId, LocalDate from, LocalDate to) {
+            requestedFrom = from;
+            List<HealthMetrics> inRange = new ArrayList<>();
+            for (HealthMetrics m : metrics) {
+                if (!m.getDate().isBefore(from) && !m.getDate().isAfter(to)) {
+                    inRange.add(m);
+                }
+            }
+            return inRange;
+        }
+    }
+
     private static class MockPresenter implements healthHistoryOutputBoundary {
         boolean successCalled = false;
         healthHistoryOutputData outputData;
@@ -0,0 +1,64 @@
+package use_case.healthHistory;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming healthHistoryJsonScanner.
+ */
+public class HealthHistoryJsonScannerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFiltersByUserDateAndMetric() throws Exception {
+        String json = "[{\"user\":\"user1\",\"date\":\"2025-02-01\",\"calories\":200,\"steps\":3000},"
+                + "{\"user\":\"user2\",\"date\":\"2025-02-01\",\"calories\":999},"
+                + "{\"user\":\"user1\",\"date\":\"2024-12-31\",\"calories\":150},"
+                + "{\"date\":\"2025-03-01\", \"calories\" : 1.5e2},"
+                + "{\"user\":\"user1\",\"date\":\"2025-04-01\",\"steps\":10}]";
+
+        List<healthMetricRecord> records = healthHistoryJsonScanner.scan(stream(json), "user1", "calories", FROM);
+
+        assertEquals(2, records.size());
+        assertEquals(LocalDate.of(2025, 2, 1), records.get(0).getDate());
+        assertEquals(200.0, records.get(0).getValue(), 0.001);
+        assertEquals(150.0, records.get(1).getValue(), 0.001);
+    }
+
+    @Test
+    void testSkipsNestedValuesEscapesAndBadDates() throws Exception {
+        String json = "[{\"user\":\"user1\",\"feedback\":\"say \\\"hi\\\" {not an object}\","
+                + "\"extra\":{\"calories\":5,\"list\":[1,{\"a\":2}]},\"date\":\"2025-05-06\",\"calories\":42},"
+                + "{\"user\":\"user1\",\"date\":\"2025-13-40\",\"calories\":7},"
+                + "{\"user\":\"us\\u0065r1\",\"date\":\"2025-05-07\",\"calories\":8,\"calories\":9}]";
+
+        List<healthMetricRecord> records = healthHistoryJsonScanner.scan(stream(json), "user1", "calories", FROM);
+
+        assertEquals(2, records.size());
+        assertEquals(42.0, records.get(0).getValue(), 0.001);
+        // first occurrence of a field wins
+        assertEquals(8.0, records.get(1).getValue(), 0.001);
+    }
+
+    @Test
+    void testEmptyAndTruncatedInput() throws Exception {
+        assertTrue(healthHistoryJsonScanner.scan(stream(""), "user1", "calories", FROM).isEmpty());
+        List<healthMetricRecord> unicode = healthHistoryJsonScanner.scan(
+                stream("[{\"user\":\"zoë\",\"date\":\"2025-05-06\",\"calories\":-0.25}]"), "zoë", "calories", FROM);
+        assertEquals(-0.25, unicode.get(0).getValue(), 0.0);
+        assertTrue(healthHistoryJsonScanner.scan(stream("[{\"date\":\"2025-05-06\",\"calo"),
+                "user1", "calories", FROM).isEmpty());
+    }
+}
@@ -9,9 +9,11 @@ import org.junit.jupiter.api.Test;
 import services.GeminiAPIService;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -91,6 +93,48 @@ class HealthInsightsInteractorTest {
                 mockOutputBoundary.getOutputData().getInsights());
     }
 
+    @Test
+    void testExecute_StreamedChunksArePresentedBeforeTheWholeInsights() {
+        String userId = "valid_user";
+        User user = new User(userId, "password123", 25, 170, 70);
+
+        mockUserDataAccess.setUserToReturn(user);
+        mockHealthDataAccess.setHealthMetricsToReturn(Collections.singletonList(
+                new HealthMetrics(userId, LocalDate.now(), 8.0, 10000, 2.5, 60, 2200)));
+        mockGeminiAPIService.setChunksToStream(Arrays.asList("Great job! ", "Keep it up."));
+        mockGeminiAPIService.setInsightsToReturn("Great job! Keep it up.");
+
+        interactor.execute(new HealthInsightsInputData(userId));
+
+        assertEquals(Arrays.asList("Great job! ", "Keep it up."), mockOutputBoundary.getChunks());
+        assertTrue(mockOutputBoundary.isSuccessViewCalled());
+        assertEquals("Great job! Keep it up.", mockOutputBoundary.getOutputData().getInsights());
+    }
+
+    @Test
+    void testExecute_SupersededRequestIsDropped() {
+        String userId = "valid_user";
+        mockUserDataAccess.setUserToReturn(new User(userId, "password123", 25, 170, 70));
+        mockHealthDataAccess.setHealthMetricsToReturn(Collections.singletonList(
+                new HealthMetrics(userId, LocalDate.now(), 8.0, 10000, 2.5, 60, 2200)));
+        mockGeminiAPIService.setHoldCallbacks(true);
+
+        interactor.execute(new HealthInsightsInputData(userId));
+        interactor.execute(new HealthInsightsInputData(userId));
+        GeminiAPIService.InsightsCallback first = mockGeminiAPIService.getHeldCallbacks().get(0);
+        GeminiAPIService.InsightsCallback second = mockGeminiAPIService.getHeldCallbacks().get(1);
+        first.onChunk("Old ");
+        second.onChunk("New ");
+        first.onChunk("stream.");
+        first.onSuccess("Old stream.");
+        second.onChunk("stream.");
+
+        assertEquals(Arrays.asList("New ", "stream."), mockOutputBoundary.getChunks());
+        assertFalse(mockOutputBoundary.isSuccessViewCalled(), "The superseded result should be dropped");
+        second.onSuccess("New stream.");
+        assertEquals("New stream.", mockOutputBoundary.getOutputData().getInsights());
+    }
+
     @Test
     void testExecute_APIError() {
         String userId = "valid_user";
@@ -158,11 +202,19 @@ class HealthInsightsInteractorTest {
         private boolean failViewCalled = false;
         private HealthInsightsOutputData outputData;
         private String errorMessage;
+        private final List<String> chunks = new ArrayList<>();
 
         public boolean isSuccessViewCalled() { return successViewCalled; }
         public boolean isFailViewCalled() { return failViewCalled; }
         public HealthInsightsOutputData getOutputData() { return outputData; }
         public String getErrorMessage() { return errorMessage; }
+        public List<String> getChunks() { return chunks; }
+
+        @Override
+        public void prepareChunkView(String chunk) {
+            assertFalse(successViewCalled, "chunk presented after the success view");
+            chunks.add(chunk);
+        }
 
         @Override
         public void prepareSuccessView(HealthInsightsOutputData outputData) {
@@ -245,21 +297,30 @@ class HealthInsightsInteractorTest {
         private String insightsToReturn = "";
         private String errorMessage = "";
         private String lastHealthData = "";
+        private List<String> chunksToStream = Collections.emptyList();
+        private boolean holdCallbacks = false;
+        private final List<InsightsCallback> heldCallbacks = new ArrayList<>();
 
         public void setInsightsToReturn(String insights) { this.insightsToReturn = insights; }
+        public void setChunksToStream(List<String> chunks) { this.chunksToStream = chunks; }
         public void setShouldThrowError(boolean shouldThrow) { this.shouldThrowError = shouldThrow; }
         public void setErrorMessage(String message) { this.errorMessage = message; }
+        public void setHoldCallbacks(boolean hold) { this.holdCallbacks = hold; }
+        public List<InsightsCallback> getHeldCallbacks() { return heldCallbacks; }
         public boolean wasCalled() { return wasCalled; }
         public String getLastHealthData() { return lastHealthData; }
 
         @Override
-        public void getHealthInsightsAsync(String healthData, InsightsCallback callback) {
+        public void getHealthInsightsAsync(String healthData, InsightsCallback callback, Executor callbackExecutor) {
             this.wasCalled = true;
             this.lastHealthData = healthData;
 
-            if (shouldThrowError) {
+            if (holdCallbacks) {
+                heldCallbacks.add(callback);
+            } else if (shouldThrowError) {
                 callback.onError(errorMessage);
             } else {
+                chunksToStream.forEach(callback::onChunk);
                 callback.onSuccess(insightsToReturn);
             }
         }
@@ -3,6 +3,7 @@ package use_case.input_metrics;
 import Entities.HealthMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import use_case.session.SessionContext;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -237,6 +238,19 @@ class InputMetricsInteractorTest {
         assertFalse(failOutputData.isSuccess());
     }
 
+    @Test
+    void testMetricsAreSavedForTheSessionUser() {
+        SessionContext session = SessionContext.create();
+        session.setUsername("alice");
+        InputMetricsInteractor sessionInteractor =
+                new InputMetricsInteractor(mockDataAccess, mockPresenter, session);
+
+        sessionInteractor.execute(new InputMetricsInputData("alice", 7.5f, 8000, 2.0f, 2000, 30.0f));
+
+        assertTrue(mockPresenter.isSuccessCalled);
+        assertEquals("alice", mockDataAccess.savedMetrics.getUserId());
+    }
+
     // Mock classes for testing
 
     private static class MockMetricsDataAccess implements InputMetricsDataAccessInterface {
@@ -0,0 +1,182 @@
+package use_case.login;
+
+import Entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import use_case.session.SessionContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LoginInteractor, over both a blocking and an async DAO.
+ */
+class LoginInteractorTest {
+
+    private MockLoginDataAccess mockDataAccess;
+    private MockLoginPresenter mockPresenter;
+
+    @BeforeEach
+    void setUp() {
+        mockDataAccess = new MockLoginDataAccess();
+        mockDataAccess.users.put("alice", new User("alice", "secret"));
+        mockPresenter = new MockLoginPresenter();
+    }
+
+    @Test
+    void testSuccessfulLoginSetsCurrentUser() {
+        new LoginInteractor(mockDataAccess, mockPresenter).execute(new LoginInputData("alice", "secret"));
+
+        assertEquals("alice", mockPresenter.loggedInUser);
+        assertEquals("alice", mockDataAccess.currentUsername);
+        assertEquals(1, mockDataAccess.getCalls, "The user should be fetched once");
+    }
+
+    @Test
+    void testLoginSignsInToItsOwnSession() {
+        mockDataAccess.users.put("bob", new User("bob", "hunter2"));
+        SessionContext aliceSession = SessionContext.create();
+        SessionContext bobSession = SessionContext.create();
+
+        new LoginInteractor(AsyncLoginUserDataAccessInterface.blocking(mockDataAccess), mockPresenter,
+                Runnable::run, aliceSession).execute(new LoginInputData("alice", "secret"));
+        new LoginInteractor(AsyncLoginUserDataAccessInterface.blocking(mockDataAccess), new MockLoginPresenter(),
+                Runnable::run, bobSession).execute(new LoginInputData("bob", "hunter2"));
+
+        assertEquals("alice", aliceSession.getUsername());
+        assertEquals("bob", bobSession.getUsername());
+        assertNull(mockDataAccess.currentUsername, "The shared DAO should hold no current user");
+    }
+
+    @Test
+    void testUnknownUser() {
+        new LoginInteractor(mockDataAccess, mockPresenter).execute(new LoginInputData("bob", "secret"));
+
+        assertEquals("bob: Account does not exist.", mockPresenter.errorMessage);
+        assertEquals(0, mockDataAccess.getCalls);
+    }
+
+    @Test
+    void testWrongPassword() {
+        new LoginInteractor(mockDataAccess, mockPresenter).execute(new LoginInputData("alice", "wrong"));
+
+        assertEquals("Incorrect password for \"alice\".", mockPresenter.errorMessage);
+        assertNull(mockDataAccess.currentUsername);
+    }
+
+    @Test
+    void testDataAccessFailureShowsError() {
+        mockDataAccess.failure = new RuntimeException("Service unavailable");
+
+        new LoginInteractor(mockDataAccess, mockPresenter).execute(new LoginInputData("alice", "secret"));
+
+        assertEquals("Service unavailable", mockPresenter.errorMessage);
+    }
+
+    @Test
+    void testAsyncLoginRunsOffTheCallingThread() throws Exception {
+        ExecutorService dataAccessThread = Executors.newSingleThreadExecutor();
+        ExecutorService presenterThread = Executors.newSingleThreadExecutor();
+        try {
+            AsyncLoginUserDataAccessInterface asyncDataAccess = new AsyncLoginUserDataAccessInterface() {
+                @Override
+                public CompletableFuture<Boolean> existsByNameAsync(String username) {
+                    return CompletableFuture.supplyAsync(() -> mockDataAccess.existsByName(username), dataAccessThread);
+                }
+
+                @Override
+                public CompletableFuture<User> getAsync(String username) {
+                    return CompletableFuture.supplyAsync(() -> mockDataAccess.get(username), dataAccessThread);
+                }
+
+                @Override
+                public void setCurrentUsername(String name) {
+                    mockDataAccess.setCurrentUsername(name);
+                }
+
+                @Override
+                public String getCurrentUsername() {
+                    return mockDataAccess.getCurrentUsername();
+                }
+            };
+
+            new LoginInteractor(asyncDataAccess, mockPresenter, presenterThread)
+                    .execute(new LoginInputData("alice", "secret"));
+
+            assertTrue(mockPresenter.presented.await(5, TimeUnit.SECONDS), "Presenter should be called");
+            assertEquals("alice", mockPresenter.loggedInUser);
+            assertNotEquals(Thread.currentThread(), mockPresenter.presenterThread);
+        } finally {
+            dataAccessThread.shutdownNow();
+            presenterThread.shutdownNow();
+        }
+    }
+
+    private static class MockLoginDataAccess implements LoginUserDataAccessInterface {
+        final Map<String, User> users = new HashMap<>();
+        String currentUsername;
+        RuntimeException failure;
+        int getCalls;
+
+        @Override
+        public boolean existsByName(String username) {
+            if (failure != null) {
+                throw failure;
+            }
+            return users.containsKey(username);
+        }
+
+        @Override
+        public void save(User user) {
+            users.put(user.getName(), user);
+        }
+
+        @Override
+        public User get(String username) {
+            getCalls++;
+            return users.get(username);
+        }
+
+        @Override
+        public void setCurrentUsername(String name) {
+            currentUsername = name;
+        }
+
+        @Override
+        public String getCurrentUsername() {
+            return currentUsername;
+        }
+    }
+
+    private static class MockLoginPresenter implements LoginOutputBoundary {
+        volatile String loggedInUser;
+        volatile String errorMessage;
+        volatile Thread presenterThread;
+        final CountDownLatch presented = new CountDownLatch(1);
+
+        @Override
+        public void prepareSuccessView(LoginOutputData outputData) {
+            loggedInUser = outputData.getUsername();
+            presenterThread = Thread.currentThread();
+            presented.countDown();
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            this.errorMessage = errorMessage;
+            presenterThread = Thread.currentThread();
+            presented.countDown();
+        }
+
+        @Override
+        public void switchToLoginView() {
+        }
+    }
+}
@@ -4,6 +4,10 @@ import Entities.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -774,6 +778,80 @@ class SettingsInteractorTest {
                    "Error message should mention Weight cannot be negative");
     }
 
+    /**
+     * Tests that with an async DAO, execute returns before the user is loaded and the
+     * presenter runs on the presenter executor only once the lookup completes.
+     * Expected: No view before completion; success view afterwards, via the executor.
+     */
+    @Test
+    void testAsyncDataAccessDoesNotBlockExecute() {
+        // Arrange
+        CompletableFuture<User> pendingUser = new CompletableFuture<>();
+        List<Runnable> presenterTasks = new ArrayList<>();
+        SettingsInteractor asyncInteractor = new SettingsInteractor(new AsyncSettingsUserDataAccessInterface() {
+            @Override
+            public CompletableFuture<User> getAsync(String username) {
+                return pendingUser;
+            }
+
+            @Override
+            public CompletableFuture<Void> saveAsync(User user) {
+                mockDataAccess.save(user);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public String getCurrentUsername() {
+                return "testuser";
+            }
+        }, mockPresenter, presenterTasks::add);
+
+        // Act
+        asyncInteractor.execute(new SettingsInputData("30", "", ""));
+
+        // Assert
+        assertFalse(mockPresenter.isSuccessCalled, "Presenter should wait for the lookup");
+        assertTrue(presenterTasks.isEmpty());
+
+        pendingUser.complete(new User("testuser", "password123"));
+        assertEquals(1, presenterTasks.size(), "Presenter call should go through the executor");
+        presenterTasks.get(0).run();
+        assertTrue(mockPresenter.isSuccessCalled, "Success view should be prepared");
+        assertEquals(30, mockDataAccess.savedUser.getAge());
+    }
+
+    /**
+     * Tests that a failing save is reported through the fail view instead of being thrown.
+     * Expected: Fail view is prepared with the DAO's error message.
+     */
+    @Test
+    void testAsyncSaveFailureShowsError() {
+        // Arrange
+        SettingsInteractor asyncInteractor = new SettingsInteractor(new AsyncSettingsUserDataAccessInterface() {
+            @Override
+            public CompletableFuture<User> getAsync(String username) {
+                return CompletableFuture.completedFuture(new User("testuser", "password123"));
+            }
+
+            @Override
+            public CompletableFuture<Void> saveAsync(User user) {
+                return CompletableFuture.failedFuture(new RuntimeException("Disk full"));
+            }
+
+            @Override
+            public String getCurrentUsername() {
+                return "testuser";
+            }
+        }, mockPresenter, Runnable::run);
+
+        // Act
+        asyncInteractor.execute(new SettingsInputData("30", "", ""));
+
+        // Assert
+        assertTrue(mockPresenter.isFailCalled, "Fail view should be prepared");
+        assertEquals("Disk full", mockPresenter.errorMessage);
+    }
+
     // Mock classes for testing
 
     /**